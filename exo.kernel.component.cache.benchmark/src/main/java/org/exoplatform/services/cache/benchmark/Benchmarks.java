@@ -0,0 +1,49 @@
+/*
+ * Copyright (C) 2026 eXo Platform SAS.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.exoplatform.services.cache.benchmark;
+
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Helper to run a benchmark class with an increasing amount of threads.
+ *
+ * @version $Revision$
+ */
+final class Benchmarks
+{
+
+   private Benchmarks()
+   {
+   }
+
+   /**
+    * Runs all the benchmarks of the given class with 1, 2, 4... threads up to the given maximum.
+    */
+   static void run(Class<?> benchmark, int maxThreads) throws RunnerException
+   {
+      for (int threads = 1; threads <= maxThreads; threads *= 2)
+      {
+         Options options = new OptionsBuilder().include(benchmark.getName()).threads(threads).build();
+         new Runner(options).run();
+      }
+   }
+}
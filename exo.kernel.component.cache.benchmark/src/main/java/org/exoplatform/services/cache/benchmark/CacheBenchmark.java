@@ -0,0 +1,160 @@
+/*
+ * Copyright (C) 2026 eXo Platform SAS.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.exoplatform.services.cache.benchmark;
+
+import org.exoplatform.services.cache.EvictionPolicy;
+import org.exoplatform.services.cache.ExoCache;
+import org.exoplatform.services.cache.concurrent.ConcurrentFIFOExoCache;
+import org.exoplatform.services.cache.invalidation.AsyncInvalidationExoCache;
+import org.exoplatform.services.cache.invalidation.InvalidationExoCache;
+import org.exoplatform.services.cache.invalidation.VersionStamp;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.RunnerException;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput of the local cache implementations for several mixes of get, put, remove and putMap,
+ * the keys follow a uniform or a Zipfian distribution. The cache wrapped by the invalidation caches is a
+ * {@link ConcurrentFIFOExoCache} so that only their own overhead is measured. Run it with the main method
+ * to measure it from 1 to 64 threads or with <code>java -jar benchmarks.jar CacheBenchmark -t &lt;threads&gt;</code>.
+ *
+ * @version $Revision$
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CacheBenchmark
+{
+
+   private static final String VALUE = "value";
+
+   private static final int PUT_MAP_SIZE = 16;
+
+   @Param({"fifo", "lru", "tinylfu", "invalidation", "async-invalidation"})
+   public String implementation;
+
+   @Param({"1000"})
+   public int maxSize;
+
+   private ExoCache<String, String> cache;
+
+   @Setup
+   public void setUp(KeySpace keySpace)
+   {
+      cache = createCache();
+      for (int i = 0; i < maxSize && i < keySpace.keySpace; i++)
+      {
+         cache.put(keySpace.keys[i], VALUE);
+      }
+   }
+
+   private ExoCache<String, String> createCache()
+   {
+      if ("invalidation".equals(implementation))
+      {
+         return new InvalidationExoCache<String, String>(new ConcurrentFIFOExoCache<String, String>("benchmark", maxSize));
+      }
+      else if ("async-invalidation".equals(implementation))
+      {
+         return new AsyncInvalidationExoCache<String, String>(new ConcurrentFIFOExoCache<String, VersionStamp<String>>(
+            "benchmark", maxSize));
+      }
+      ConcurrentFIFOExoCache<String, String> cache = new ConcurrentFIFOExoCache<String, String>("benchmark", maxSize);
+      cache.setEvictionPolicy(EvictionPolicy.valueOf(implementation.toUpperCase()));
+      return cache;
+   }
+
+   @Benchmark
+   public String get(KeySpace keySpace, KeyState state)
+   {
+      return cache.get(keySpace.next(state));
+   }
+
+   @Benchmark
+   public void put(KeySpace keySpace, KeyState state)
+   {
+      cache.put(keySpace.next(state), VALUE);
+   }
+
+   @Benchmark
+   public void putMap(KeySpace keySpace, KeyState state)
+   {
+      Map<String, String> map = new LinkedHashMap<String, String>();
+      for (int i = 0; i < PUT_MAP_SIZE; i++)
+      {
+         map.put(keySpace.next(state), VALUE);
+      }
+      cache.putMap(map);
+   }
+
+   /**
+    * 90% of gets, 8% of puts and 2% of removes.
+    */
+   @Benchmark
+   public Object readMostly(KeySpace keySpace, KeyState state)
+   {
+      return mix(keySpace, state, 90, 98);
+   }
+
+   /**
+    * 50% of gets, 40% of puts and 10% of removes.
+    */
+   @Benchmark
+   public Object writeHeavy(KeySpace keySpace, KeyState state)
+   {
+      return mix(keySpace, state, 50, 90);
+   }
+
+   private Object mix(KeySpace keySpace, KeyState state, int getThreshold, int putThreshold)
+   {
+      String key = keySpace.next(state);
+      int percent = state.nextPercent();
+      if (percent < getThreshold)
+      {
+         return cache.get(key);
+      }
+      else if (percent < putThreshold)
+      {
+         cache.put(key, VALUE);
+         return null;
+      }
+      return cache.remove(key);
+   }
+
+   public static void main(String[] args) throws RunnerException
+   {
+      Benchmarks.run(CacheBenchmark.class, 64);
+   }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (C) 2026 eXo Platform SAS.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.exoplatform.services.cache.benchmark;
+
+import org.exoplatform.services.cache.concurrent.ConcurrentFIFOExoCache;
+import org.exoplatform.services.cache.future.AsyncFutureExoCache;
+import org.exoplatform.services.cache.future.FutureExoCache;
+import org.exoplatform.services.cache.future.Loader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.RunnerException;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput of the future caches on top of a {@link ConcurrentFIFOExoCache} smaller than the key
+ * space, so that the misses and thus the concurrent loads of the same keys are part of the measure. The cost of
+ * a load is simulated with {@link Blackhole#consumeCPU(long)}.
+ *
+ * @version $Revision$
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FutureCacheBenchmark
+{
+
+   @Param({"1000"})
+   public int maxSize;
+
+   /** The amount of time units consumed by a load. */
+   @Param({"1000", "100000"})
+   public long loadCost;
+
+   private FutureExoCache<String, String, Object> futureCache;
+
+   private AsyncFutureExoCache<String, String, Object> asyncFutureCache;
+
+   @Setup
+   public void setUp()
+   {
+      Loader<String, String, Object> loader = new Loader<String, String, Object>()
+      {
+         public String retrieve(Object context, String key) throws Exception
+         {
+            Blackhole.consumeCPU(loadCost);
+            return key;
+         }
+      };
+      futureCache = new FutureExoCache<String, String, Object>(loader,
+         new ConcurrentFIFOExoCache<String, String>("future", maxSize));
+      asyncFutureCache = new AsyncFutureExoCache<String, String, Object>(loader,
+         new ConcurrentFIFOExoCache<String, String>("async-future", maxSize));
+   }
+
+   @Benchmark
+   public String get(KeySpace keySpace, KeyState state)
+   {
+      return futureCache.get(null, keySpace.next(state));
+   }
+
+   @Benchmark
+   public String getAsync(KeySpace keySpace, KeyState state)
+   {
+      return asyncFutureCache.getAsync(null, keySpace.next(state)).join();
+   }
+
+   public static void main(String[] args) throws RunnerException
+   {
+      Benchmarks.run(FutureCacheBenchmark.class, 64);
+   }
+}
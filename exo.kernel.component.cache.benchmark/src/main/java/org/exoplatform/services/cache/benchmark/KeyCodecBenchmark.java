@@ -0,0 +1,100 @@
+/*
+ * Copyright (C) 2026 eXo Platform SAS.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.exoplatform.services.cache.benchmark;
+
+import org.exoplatform.services.cache.impl.memcached.CompactKeyCodec;
+import org.exoplatform.services.cache.impl.memcached.KeyCodec;
+import org.exoplatform.services.cache.impl.memcached.SerializationKeyCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.RunnerException;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the encoding of the keys of the memcached cache by the {@link CompactKeyCodec} with the
+ * encoding by serialization used by the {@link SerializationKeyCodec}.
+ *
+ * @version $Revision$
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KeyCodecBenchmark
+{
+
+   @Param({"serialization", "compact"})
+   public String codec;
+
+   @Param({"long", "integer", "uuid", "composite"})
+   public String keyType;
+
+   private KeyCodec keyCodec;
+
+   private Serializable key;
+
+   @Setup
+   public void setUp()
+   {
+      keyCodec = "compact".equals(codec) ? new CompactKeyCodec() : new SerializationKeyCodec();
+      if ("long".equals(keyType))
+      {
+         key = 123456789L;
+      }
+      else if ("integer".equals(keyType))
+      {
+         key = 123456;
+      }
+      else if ("uuid".equals(keyType))
+      {
+         key = UUID.randomUUID();
+      }
+      else
+      {
+         key = new ArrayList<Serializable>(Arrays.<Serializable> asList("space", 123456789L, UUID.randomUUID()));
+      }
+   }
+
+   @Benchmark
+   public String encode()
+   {
+      return keyCodec.encode(key);
+   }
+
+   public static void main(String[] args) throws RunnerException
+   {
+      Benchmarks.run(KeyCodecBenchmark.class, 1);
+   }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (C) 2026 eXo Platform SAS.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.exoplatform.services.cache.benchmark;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * The distributions of the keys accessed by the benchmarks. The keys are sampled once before the measurement
+ * so that the benchmarks only pay an array lookup to pick a key.
+ *
+ * @version $Revision$
+ */
+public enum KeyDistribution
+{
+   /**
+    * All the keys have the same probability to be accessed.
+    */
+   UNIFORM {
+      @Override
+      int[] sample(int keySpace, int samples, Random random)
+      {
+         int[] keys = new int[samples];
+         for (int i = 0; i < samples; i++)
+         {
+            keys[i] = random.nextInt(keySpace);
+         }
+         return keys;
+      }
+   },
+
+   /**
+    * The probability of the key of rank i is proportional to 1/i^0.99 like in YCSB, a few keys are very hot
+    * and most of them are rarely accessed. The hot keys are spread over the key space.
+    */
+   ZIPFIAN {
+      @Override
+      int[] sample(int keySpace, int samples, Random random)
+      {
+         double[] cumulative = new double[keySpace];
+         double total = 0;
+         for (int i = 0; i < keySpace; i++)
+         {
+            total += 1 / Math.pow(i + 1, ZIPFIAN_EXPONENT);
+            cumulative[i] = total;
+         }
+         int[] permutation = permutation(keySpace, random);
+         int[] keys = new int[samples];
+         for (int i = 0; i < samples; i++)
+         {
+            int rank = Arrays.binarySearch(cumulative, random.nextDouble() * total);
+            if (rank < 0)
+            {
+               rank = -rank - 1;
+            }
+            keys[i] = permutation[Math.min(rank, keySpace - 1)];
+         }
+         return keys;
+      }
+   };
+
+   private static final double ZIPFIAN_EXPONENT = 0.99;
+
+   /**
+    * Gives the indexes of the keys to access.
+    *
+    * @param keySpace the amount of distinct keys
+    * @param samples the amount of indexes to give
+    * @param random the source of randomness
+    * @return the indexes between 0 included and keySpace excluded
+    */
+   abstract int[] sample(int keySpace, int samples, Random random);
+
+   private static int[] permutation(int size, Random random)
+   {
+      int[] permutation = new int[size];
+      for (int i = 0; i < size; i++)
+      {
+         permutation[i] = i;
+      }
+      for (int i = size - 1; i > 0; i--)
+      {
+         int j = random.nextInt(i + 1);
+         int tmp = permutation[i];
+         permutation[i] = permutation[j];
+         permutation[j] = tmp;
+      }
+      return permutation;
+   }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright (C) 2026 eXo Platform SAS.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.exoplatform.services.cache.benchmark;
+
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * The keys shared by all the threads of a benchmark and the way they are accessed.
+ *
+ * @version $Revision$
+ */
+@State(Scope.Benchmark)
+public class KeySpace
+{
+
+   /** The amount of distinct keys, ten times the default max size of the caches. */
+   @Param({"10000"})
+   public int keySpace;
+
+   @Param({"UNIFORM", "ZIPFIAN"})
+   public KeyDistribution distribution;
+
+   String[] keys;
+
+   @Setup
+   public void setUp()
+   {
+      keys = new String[keySpace];
+      for (int i = 0; i < keySpace; i++)
+      {
+         keys[i] = "key" + i;
+      }
+   }
+
+   /**
+    * @return the next key to access by the thread owning the given state
+    */
+   String next(KeyState state)
+   {
+      return keys[state.next()];
+   }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (C) 2026 eXo Platform SAS.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.exoplatform.services.cache.benchmark;
+
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The keys accessed by a benchmark thread, each thread follows its own sequence of keys drawn
+ * from the distribution of the benchmark.
+ *
+ * @version $Revision$
+ */
+@State(Scope.Thread)
+public class KeyState
+{
+
+   /** The amount of keys sampled per thread, a power of two. */
+   private static final int SAMPLES = 1 << 16;
+
+   private static final AtomicInteger SEED = new AtomicInteger();
+
+   private final Random random = new Random(SEED.incrementAndGet());
+
+   private int[] keys;
+
+   private int index;
+
+   @Setup
+   public void setUp(KeySpace keySpace)
+   {
+      keys = keySpace.distribution.sample(keySpace.keySpace, SAMPLES, random);
+   }
+
+   /**
+    * @return the index of the next key to access
+    */
+   public int next()
+   {
+      return keys[index++ & (SAMPLES - 1)];
+   }
+
+   /**
+    * @return a number between 0 included and 100 excluded used to choose the operation of a mix
+    */
+   public int nextPercent()
+   {
+      return random.nextInt(100);
+   }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright (C) 2026 eXo Platform SAS.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.exoplatform.services.cache.concurrent;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the throughput of the {@link Queue} implementations when they are used like {@link CacheState}
+ * does on a put, from 1 to 64 threads. Run it with the main method.
+ *
+ * @version $Revision$
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QueueBenchmark
+{
+
+   private static final int MAX_SIZE = 1000;
+
+   private static final int ITEMS_PER_THREAD = 16;
+
+   @Param({"synchronized", "buffered"})
+   public String implementation;
+
+   private Queue<Item> queue;
+
+   @Setup
+   public void setUp()
+   {
+      queue = "buffered".equals(implementation) ? new BufferedQueue<Item>(null) : new SynchronizedQueue<Item>(null);
+   }
+
+   @State(Scope.Thread)
+   public static class ThreadState
+   {
+      final Item[] items = new Item[ITEMS_PER_THREAD];
+
+      int index;
+   }
+
+   /**
+    * Replaces an item previously added by the same thread then trims the queue.
+    */
+   @Benchmark
+   public void put(ThreadState state)
+   {
+      int index = state.index++ & (ITEMS_PER_THREAD - 1);
+      Item previous = state.items[index];
+      if (previous != null)
+      {
+         queue.remove(previous);
+      }
+      Item item = new Item();
+      state.items[index] = item;
+      queue.add(item);
+      queue.trim(MAX_SIZE);
+   }
+
+   /**
+    * Adds a new item then trims the queue, which evicts an item once the queue is full.
+    */
+   @Benchmark
+   public void addAndEvict()
+   {
+      queue.add(new Item());
+      queue.trim(MAX_SIZE);
+   }
+
+   public static void main(String[] args) throws RunnerException
+   {
+      for (int threads = 1; threads <= 64; threads *= 2)
+      {
+         Options options =
+            new OptionsBuilder().include(QueueBenchmark.class.getName()).threads(threads).build();
+         new Runner(options).run();
+      }
+   }
+}
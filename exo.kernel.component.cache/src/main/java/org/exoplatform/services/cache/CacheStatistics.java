@@ -0,0 +1,202 @@
+/*
+ * Copyright (C) 2026 eXo Platform SAS.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.exoplatform.services.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The statistics of a cache: the counters of the main events and the histograms of the get latency
+ * and of the load time. The counters are longs based on {@link LongAdder} so they can be updated concurrently
+ * at a low cost and never overflow. The load time is recorded by the future caches when they call their
+ * loader.
+ *
+ * @version $Revision$
+ */
+public class CacheStatistics
+{
+
+   private final LongAdder hits = new LongAdder();
+
+   private final LongAdder misses = new LongAdder();
+
+   private final LongAdder puts = new LongAdder();
+
+   private final LongAdder evictions = new LongAdder();
+
+   private final LongAdder expirations = new LongAdder();
+
+   private final LatencyHistogram getLatency = new LatencyHistogram();
+
+   private final LatencyHistogram loadTime = new LatencyHistogram();
+
+   public void onHit()
+   {
+      hits.increment();
+   }
+
+   public void onHits(long count)
+   {
+      hits.add(count);
+   }
+
+   public void onMiss()
+   {
+      misses.increment();
+   }
+
+   public void onMisses(long count)
+   {
+      misses.add(count);
+   }
+
+   public void onPut()
+   {
+      puts.increment();
+   }
+
+   public void onPuts(long count)
+   {
+      puts.add(count);
+   }
+
+   public void onEviction()
+   {
+      evictions.increment();
+   }
+
+   public void onExpiration()
+   {
+      expirations.increment();
+   }
+
+   /**
+    * Records the duration of a lookup.
+    *
+    * @param nanos the duration in nanoseconds
+    */
+   public void recordGet(long nanos)
+   {
+      getLatency.record(nanos);
+   }
+
+   /**
+    * Records the duration of the loading of one or several values.
+    *
+    * @param nanos the duration in nanoseconds
+    */
+   public void recordLoad(long nanos)
+   {
+      loadTime.record(nanos);
+   }
+
+   public long getHits()
+   {
+      return hits.sum();
+   }
+
+   public long getMisses()
+   {
+      return misses.sum();
+   }
+
+   /**
+    * @return the ratio of the lookups that found a value, 0 if there was no lookup
+    */
+   public double getHitRatio()
+   {
+      long hits = getHits();
+      long total = hits + getMisses();
+      return total == 0 ? 0 : (double)hits / total;
+   }
+
+   public long getPuts()
+   {
+      return puts.sum();
+   }
+
+   public long getEvictions()
+   {
+      return evictions.sum();
+   }
+
+   public long getExpirations()
+   {
+      return expirations.sum();
+   }
+
+   public LatencyHistogram getGetLatency()
+   {
+      return getLatency;
+   }
+
+   public LatencyHistogram getLoadTime()
+   {
+      return loadTime;
+   }
+
+   /**
+    * Resets all the counters and the histograms.
+    */
+   public void reset()
+   {
+      hits.reset();
+      misses.reset();
+      puts.reset();
+      evictions.reset();
+      expirations.reset();
+      getLatency.reset();
+      loadTime.reset();
+   }
+
+   /**
+    * Gives a snapshot of the statistics in a form that can be exposed through the management layer,
+    * the durations are in microseconds.
+    *
+    * @return the statistics indexed by name
+    */
+   public Map<String, Long> toMap()
+   {
+      Map<String, Long> map = new LinkedHashMap<String, Long>();
+      map.put("hits", getHits());
+      map.put("misses", getMisses());
+      map.put("puts", getPuts());
+      map.put("evictions", getEvictions());
+      map.put("expirations", getExpirations());
+      addHistogram(map, "get", getLatency);
+      addHistogram(map, "load", loadTime);
+      return map;
+   }
+
+   private static void addHistogram(Map<String, Long> map, String prefix, LatencyHistogram histogram)
+   {
+      map.put(prefix + "Count", histogram.getCount());
+      map.put(prefix + "Mean", LatencyHistogram.toMicros(histogram.getMean()));
+      map.put(prefix + "P50", LatencyHistogram.toMicros(histogram.getPercentile(50)));
+      map.put(prefix + "P99", LatencyHistogram.toMicros(histogram.getPercentile(99)));
+      map.put(prefix + "Max", LatencyHistogram.toMicros(histogram.getMax()));
+   }
+
+   @Override
+   public String toString()
+   {
+      return "CacheStatistics" + toMap();
+   }
+}
@@ -0,0 +1,716 @@
+/*
+ * Copyright (C) 2026 eXo Platform SAS.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.exoplatform.services.cache;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.io.OutputStream;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A compact binary {@link ValueSerializer}. The strings, the boxed primitives, the byte arrays, the dates and
+ * the most common collections and maps are written with a one byte tag and without any class descriptor, the
+ * integers are written as variable length integers. The classes registered thanks to {@link #register(Class)}
+ * are written as an identifier followed by their fields, or by their own content if they are
+ * {@link Externalizable} or their ordinal if they are enums. The other values are written with the Java
+ * serialization.
+ * <p>
+ * The identifiers are assigned in registration order, so all the nodes sharing a cache must register the same
+ * classes in the same order, typically in the constructor of a sub class which is then configured as value
+ * serializer of the cache region. The registered classes that are not {@link Externalizable} nor enums must have
+ * a constructor without argument, their fields must not reference the same object twice and the object graph
+ * must not contain cycles since the references are not tracked.
+ *
+ * @version $Revision$
+ */
+public class CompactValueSerializer implements ValueSerializer
+{
+
+   private static final byte NULL = 0;
+
+   private static final byte STRING = 1;
+
+   private static final byte INTEGER = 2;
+
+   private static final byte LONG = 3;
+
+   private static final byte BOOLEAN = 4;
+
+   private static final byte DOUBLE = 5;
+
+   private static final byte FLOAT = 6;
+
+   private static final byte SHORT = 7;
+
+   private static final byte BYTE = 8;
+
+   private static final byte CHARACTER = 9;
+
+   private static final byte BYTES = 10;
+
+   private static final byte DATE = 11;
+
+   private static final byte ARRAY_LIST = 12;
+
+   private static final byte HASH_SET = 13;
+
+   private static final byte LINKED_HASH_SET = 14;
+
+   private static final byte HASH_MAP = 15;
+
+   private static final byte LINKED_HASH_MAP = 16;
+
+   private static final byte REGISTERED = 17;
+
+   private static final byte JAVA = 18;
+
+   /**
+    * The registered classes indexed by class
+    */
+   private final ConcurrentMap<Class<?>, Registration> registrationsByClass =
+      new ConcurrentHashMap<Class<?>, Registration>();
+
+   /**
+    * The registered classes indexed by identifier
+    */
+   private final List<Registration> registrations = new ArrayList<Registration>();
+
+   /**
+    * Registers the given class, a class must be registered before being serialized or deserialized.
+    *
+    * @param type the class to register
+    * @return the identifier of the class
+    * @throws IllegalArgumentException if the class cannot be registered
+    */
+   public synchronized int register(Class<?> type) throws IllegalArgumentException
+   {
+      if (type == null)
+      {
+         throw new IllegalArgumentException("No null class accepted");
+      }
+      Registration registration = registrationsByClass.get(type);
+      if (registration != null)
+      {
+         return registration.id;
+      }
+      registration = new Registration(registrations.size(), type);
+      registrations.add(registration);
+      registrationsByClass.put(type, registration);
+      return registration.id;
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public byte[] serialize(Object value) throws IOException
+   {
+      ByteArrayOutputStream baos = new ByteArrayOutputStream();
+      try (CompactOutput out = new CompactOutput(baos))
+      {
+         out.writeObject(value);
+      }
+      return baos.toByteArray();
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public Object deserialize(byte[] data) throws IOException, ClassNotFoundException
+   {
+      try (CompactInput in = new CompactInput(new ByteArrayInputStream(data)))
+      {
+         return in.readObject();
+      }
+   }
+
+   private void writeValue(CompactOutput out, Object value) throws IOException
+   {
+      if (value == null)
+      {
+         out.writeByte(NULL);
+         return;
+      }
+      Class<?> type = value.getClass();
+      if (type == String.class)
+      {
+         out.writeByte(STRING);
+         writeString(out, (String)value);
+      }
+      else if (type == Integer.class)
+      {
+         out.writeByte(INTEGER);
+         writeVarLong(out, zigZag((Integer)value));
+      }
+      else if (type == Long.class)
+      {
+         out.writeByte(LONG);
+         writeVarLong(out, zigZag((Long)value));
+      }
+      else if (type == Boolean.class)
+      {
+         out.writeByte(BOOLEAN);
+         out.writeBoolean((Boolean)value);
+      }
+      else if (type == Double.class)
+      {
+         out.writeByte(DOUBLE);
+         out.writeDouble((Double)value);
+      }
+      else if (type == Float.class)
+      {
+         out.writeByte(FLOAT);
+         out.writeFloat((Float)value);
+      }
+      else if (type == Short.class)
+      {
+         out.writeByte(SHORT);
+         out.writeShort((Short)value);
+      }
+      else if (type == Byte.class)
+      {
+         out.writeByte(BYTE);
+         out.writeByte((Byte)value);
+      }
+      else if (type == Character.class)
+      {
+         out.writeByte(CHARACTER);
+         out.writeChar((Character)value);
+      }
+      else if (type == byte[].class)
+      {
+         out.writeByte(BYTES);
+         byte[] bytes = (byte[])value;
+         writeVarLong(out, bytes.length);
+         out.write(bytes);
+      }
+      else if (type == Date.class)
+      {
+         out.writeByte(DATE);
+         writeVarLong(out, zigZag(((Date)value).getTime()));
+      }
+      else if (type == ArrayList.class)
+      {
+         writeCollection(out, ARRAY_LIST, (Collection<?>)value);
+      }
+      else if (type == HashSet.class)
+      {
+         writeCollection(out, HASH_SET, (Collection<?>)value);
+      }
+      else if (type == LinkedHashSet.class)
+      {
+         writeCollection(out, LINKED_HASH_SET, (Collection<?>)value);
+      }
+      else if (type == HashMap.class)
+      {
+         writeMap(out, HASH_MAP, (Map<?, ?>)value);
+      }
+      else if (type == LinkedHashMap.class)
+      {
+         writeMap(out, LINKED_HASH_MAP, (Map<?, ?>)value);
+      }
+      else
+      {
+         Registration registration = registrationsByClass.get(type);
+         if (registration == null && !type.isEnum() && type.getSuperclass() != null
+            && type.getSuperclass().isEnum())
+         {
+            // An enum constant with a body
+            registration = registrationsByClass.get(type.getSuperclass());
+         }
+         if (registration == null)
+         {
+            out.writeByte(JAVA);
+            byte[] bytes = JavaValueSerializer.INSTANCE.serialize(value);
+            writeVarLong(out, bytes.length);
+            out.write(bytes);
+         }
+         else
+         {
+            out.writeByte(REGISTERED);
+            writeVarLong(out, registration.id);
+            registration.write(out, value);
+         }
+      }
+   }
+
+   private Object readValue(CompactInput in) throws IOException, ClassNotFoundException
+   {
+      byte tag = in.readByte();
+      switch (tag)
+      {
+         case NULL :
+            return null;
+         case STRING :
+            return readString(in);
+         case INTEGER :
+            return (int)unZigZag(readVarLong(in));
+         case LONG :
+            return unZigZag(readVarLong(in));
+         case BOOLEAN :
+            return in.readBoolean();
+         case DOUBLE :
+            return in.readDouble();
+         case FLOAT :
+            return in.readFloat();
+         case SHORT :
+            return in.readShort();
+         case BYTE :
+            return in.readByte();
+         case CHARACTER :
+            return in.readChar();
+         case BYTES :
+            return readBytes(in);
+         case DATE :
+            return new Date(unZigZag(readVarLong(in)));
+         case ARRAY_LIST :
+            int size = in.readLength();
+            return readCollection(in, new ArrayList<Object>(size), size);
+         case HASH_SET :
+            size = in.readLength();
+            return readCollection(in, new HashSet<Object>(capacity(size)), size);
+         case LINKED_HASH_SET :
+            size = in.readLength();
+            return readCollection(in, new LinkedHashSet<Object>(capacity(size)), size);
+         case HASH_MAP :
+            size = in.readLength();
+            return readMap(in, new HashMap<Object, Object>(capacity(size)), size);
+         case LINKED_HASH_MAP :
+            size = in.readLength();
+            return readMap(in, new LinkedHashMap<Object, Object>(capacity(size)), size);
+         case REGISTERED :
+            int id = readSize(in);
+            Registration registration;
+            synchronized (this)
+            {
+               registration = id < registrations.size() ? registrations.get(id) : null;
+            }
+            if (registration == null)
+            {
+               throw new ClassNotFoundException("No class has been registered with the identifier " + id);
+            }
+            return registration.read(in);
+         case JAVA :
+            return JavaValueSerializer.INSTANCE.deserialize(readBytes(in));
+         default :
+            throw new IOException("Unknown tag " + tag);
+      }
+   }
+
+   private void writeCollection(CompactOutput out, byte tag, Collection<?> collection) throws IOException
+   {
+      out.writeByte(tag);
+      writeVarLong(out, collection.size());
+      for (Object element : collection)
+      {
+         writeValue(out, element);
+      }
+   }
+
+   private Object readCollection(CompactInput in, Collection<Object> collection, int size) throws IOException,
+      ClassNotFoundException
+   {
+      for (int i = 0; i < size; i++)
+      {
+         collection.add(readValue(in));
+      }
+      return collection;
+   }
+
+   private void writeMap(CompactOutput out, byte tag, Map<?, ?> map) throws IOException
+   {
+      out.writeByte(tag);
+      writeVarLong(out, map.size());
+      for (Map.Entry<?, ?> entry : map.entrySet())
+      {
+         writeValue(out, entry.getKey());
+         writeValue(out, entry.getValue());
+      }
+   }
+
+   private Object readMap(CompactInput in, Map<Object, Object> map, int size) throws IOException,
+      ClassNotFoundException
+   {
+      for (int i = 0; i < size; i++)
+      {
+         map.put(readValue(in), readValue(in));
+      }
+      return map;
+   }
+
+   private static int capacity(int size)
+   {
+      return Math.max(16, (int)(size / .75f) + 1);
+   }
+
+   private static void writeString(DataOutput out, String value) throws IOException
+   {
+      byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+      writeVarLong(out, bytes.length);
+      out.write(bytes);
+   }
+
+   private static String readString(CompactInput in) throws IOException
+   {
+      return new String(readBytes(in), StandardCharsets.UTF_8);
+   }
+
+   private static byte[] readBytes(CompactInput in) throws IOException
+   {
+      byte[] bytes = new byte[in.readLength()];
+      in.readFully(bytes);
+      return bytes;
+   }
+
+   private static int readSize(DataInput in) throws IOException
+   {
+      long size = readVarLong(in);
+      if (size < 0 || size > Integer.MAX_VALUE)
+      {
+         throw new IOException("Invalid size " + size);
+      }
+      return (int)size;
+   }
+
+   private static long zigZag(long value)
+   {
+      return (value << 1) ^ (value >> 63);
+   }
+
+   private static long unZigZag(long value)
+   {
+      return (value >>> 1) ^ -(value & 1);
+   }
+
+   /**
+    * Writes the given value 7 bits at a time, the highest bit of each byte indicates whether another byte follows
+    */
+   private static void writeVarLong(DataOutput out, long value) throws IOException
+   {
+      while ((value & ~0x7FL) != 0)
+      {
+         out.writeByte((int)((value & 0x7F) | 0x80));
+         value >>>= 7;
+      }
+      out.writeByte((int)value);
+   }
+
+   private static long readVarLong(DataInput in) throws IOException
+   {
+      long value = 0;
+      for (int shift = 0; shift < 64; shift += 7)
+      {
+         byte b = in.readByte();
+         value |= (long)(b & 0x7F) << shift;
+         if ((b & 0x80) == 0)
+         {
+            return value;
+         }
+      }
+      throw new IOException("Malformed variable length integer");
+   }
+
+   /**
+    * A registered class and the way its instances are written
+    */
+   private static class Registration
+   {
+
+      /** . */
+      final int id;
+
+      /** . */
+      final Class<?> type;
+
+      /**
+       * The constructor used to create the instances, <code>null</code> for enums
+       */
+      private final Constructor<?> constructor;
+
+      /**
+       * The fields to write, <code>null</code> for the enums and the {@link Externalizable} classes
+       */
+      private final Field[] fields;
+
+      Registration(int id, Class<?> type)
+      {
+         this.id = id;
+         this.type = type;
+         if (type.isEnum())
+         {
+            this.constructor = null;
+            this.fields = null;
+            return;
+         }
+         else if (type.isInterface() || Modifier.isAbstract(type.getModifiers()) || type.isArray())
+         {
+            throw new IllegalArgumentException("The class " + type.getName() + " cannot be instantiated");
+         }
+         try
+         {
+            this.constructor = type.getDeclaredConstructor();
+            constructor.setAccessible(true);
+         }
+         catch (NoSuchMethodException e)
+         {
+            throw new IllegalArgumentException("The class " + type.getName()
+               + " must have a constructor without argument", e);
+         }
+         if (Externalizable.class.isAssignableFrom(type))
+         {
+            this.fields = null;
+            return;
+         }
+         List<Field> fields = new ArrayList<Field>();
+         for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass())
+         {
+            for (Field field : c.getDeclaredFields())
+            {
+               int modifiers = field.getModifiers();
+               if (!Modifier.isStatic(modifiers) && !Modifier.isTransient(modifiers))
+               {
+                  field.setAccessible(true);
+                  fields.add(field);
+               }
+            }
+         }
+         this.fields = fields.toArray(new Field[fields.size()]);
+      }
+
+      void write(CompactOutput out, Object value) throws IOException
+      {
+         if (constructor == null)
+         {
+            writeVarLong(out, ((Enum<?>)value).ordinal());
+         }
+         else if (fields == null)
+         {
+            ((Externalizable)value).writeExternal(out);
+         }
+         else
+         {
+            try
+            {
+               for (Field field : fields)
+               {
+                  writeField(out, field, value);
+               }
+            }
+            catch (IllegalAccessException e)
+            {
+               throw new IOException("Cannot write an instance of " + type.getName(), e);
+            }
+         }
+      }
+
+      Object read(CompactInput in) throws IOException, ClassNotFoundException
+      {
+         if (constructor == null)
+         {
+            Object[] constants = type.getEnumConstants();
+            int ordinal = readSize(in);
+            if (ordinal >= constants.length)
+            {
+               throw new IOException("Unknown constant " + ordinal + " of " + type.getName());
+            }
+            return constants[ordinal];
+         }
+         Object value;
+         try
+         {
+            value = constructor.newInstance();
+         }
+         catch (Exception e)
+         {
+            throw new IOException("Cannot create an instance of " + type.getName(), e);
+         }
+         if (fields == null)
+         {
+            ((Externalizable)value).readExternal(in);
+         }
+         else
+         {
+            try
+            {
+               for (Field field : fields)
+               {
+                  readField(in, field, value);
+               }
+            }
+            catch (IllegalAccessException e)
+            {
+               throw new IOException("Cannot read an instance of " + type.getName(), e);
+            }
+         }
+         return value;
+      }
+
+      private static void writeField(CompactOutput out, Field field, Object value) throws IOException,
+         IllegalAccessException
+      {
+         Class<?> type = field.getType();
+         if (!type.isPrimitive())
+         {
+            out.writeObject(field.get(value));
+         }
+         else if (type == int.class)
+         {
+            writeVarLong(out, zigZag(field.getInt(value)));
+         }
+         else if (type == long.class)
+         {
+            writeVarLong(out, zigZag(field.getLong(value)));
+         }
+         else if (type == boolean.class)
+         {
+            out.writeBoolean(field.getBoolean(value));
+         }
+         else if (type == double.class)
+         {
+            out.writeDouble(field.getDouble(value));
+         }
+         else if (type == float.class)
+         {
+            out.writeFloat(field.getFloat(value));
+         }
+         else if (type == short.class)
+         {
+            out.writeShort(field.getShort(value));
+         }
+         else if (type == byte.class)
+         {
+            out.writeByte(field.getByte(value));
+         }
+         else
+         {
+            out.writeChar(field.getChar(value));
+         }
+      }
+
+      private static void readField(CompactInput in, Field field, Object value) throws IOException,
+         ClassNotFoundException, IllegalAccessException
+      {
+         Class<?> type = field.getType();
+         if (!type.isPrimitive())
+         {
+            field.set(value, in.readObject());
+         }
+         else if (type == int.class)
+         {
+            field.setInt(value, (int)unZigZag(readVarLong(in)));
+         }
+         else if (type == long.class)
+         {
+            field.setLong(value, unZigZag(readVarLong(in)));
+         }
+         else if (type == boolean.class)
+         {
+            field.setBoolean(value, in.readBoolean());
+         }
+         else if (type == double.class)
+         {
+            field.setDouble(value, in.readDouble());
+         }
+         else if (type == float.class)
+         {
+            field.setFloat(value, in.readFloat());
+         }
+         else if (type == short.class)
+         {
+            field.setShort(value, in.readShort());
+         }
+         else if (type == byte.class)
+         {
+            field.setByte(value, in.readByte());
+         }
+         else
+         {
+            field.setChar(value, in.readChar());
+         }
+      }
+   }
+
+   /**
+    * The output given to the {@link Externalizable} classes, the objects are written in the compact format
+    */
+   private class CompactOutput extends DataOutputStream implements ObjectOutput
+   {
+      CompactOutput(OutputStream out)
+      {
+         super(out);
+      }
+
+      public void writeObject(Object obj) throws IOException
+      {
+         writeValue(this, obj);
+      }
+   }
+
+   /**
+    * The input given to the {@link Externalizable} classes, the objects are read in the compact format
+    */
+   private class CompactInput extends DataInputStream implements ObjectInput
+   {
+      CompactInput(ByteArrayInputStream in)
+      {
+         super(in);
+      }
+
+      /**
+       * Reads the length of an array or of a collection. Each element takes at least one byte, so a length
+       * greater than the amount of remaining bytes means that the data are corrupted, it is rejected before
+       * allocating anything for it.
+       */
+      int readLength() throws IOException
+      {
+         int length = readSize(this);
+         if (length > available())
+         {
+            throw new IOException("Invalid length " + length + " with only " + available() + " remaining bytes");
+         }
+         return length;
+      }
+
+      public Object readObject() throws ClassNotFoundException, IOException
+      {
+         return readValue(this);
+      }
+   }
+}
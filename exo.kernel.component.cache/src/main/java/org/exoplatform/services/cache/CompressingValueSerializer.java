@@ -0,0 +1,176 @@
+/*
+ * Copyright (C) 2026 eXo Platform SAS.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.exoplatform.services.cache;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * A {@link ValueSerializer} that compresses the values serialized by another serializer when they are larger
+ * than a threshold. The compression favors the speed over the ratio. The serialized values are prefixed with
+ * a byte that indicates whether they are compressed.
+ *
+ * @version $Revision$
+ */
+public class CompressingValueSerializer implements ValueSerializer
+{
+
+   /**
+    * The prefix of the values that are not compressed
+    */
+   private static final byte RAW = 0;
+
+   /**
+    * The prefix of the compressed values, followed by the length of the uncompressed value
+    */
+   private static final byte COMPRESSED = 1;
+
+   /**
+    * The maximum compression ratio of the deflate format, used to reject the corrupted lengths
+    */
+   private static final int MAX_RATIO = 1032;
+
+   /**
+    * The serializer of the values
+    */
+   private final ValueSerializer serializer;
+
+   /**
+    * The size in bytes above which the values are compressed
+    */
+   private final int threshold;
+
+   public CompressingValueSerializer(ValueSerializer serializer, int threshold)
+   {
+      if (serializer == null)
+      {
+         throw new IllegalArgumentException("No null serializer accepted");
+      }
+      this.serializer = serializer;
+      this.threshold = threshold;
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public byte[] serialize(Object value) throws IOException
+   {
+      byte[] data = serializer.serialize(value);
+      if (data.length > threshold)
+      {
+         Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+         try
+         {
+            deflater.setInput(data);
+            deflater.finish();
+            byte[] result = new byte[data.length + 5];
+            result[0] = COMPRESSED;
+            writeInt(result, 1, data.length);
+            int length = 5;
+            while (!deflater.finished() && length < result.length)
+            {
+               length += deflater.deflate(result, length, result.length - length);
+            }
+            if (deflater.finished())
+            {
+               return Arrays.copyOf(result, length);
+            }
+            // The value cannot be compressed
+         }
+         finally
+         {
+            deflater.end();
+         }
+      }
+      byte[] result = new byte[data.length + 1];
+      result[0] = RAW;
+      System.arraycopy(data, 0, result, 1, data.length);
+      return result;
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public Object deserialize(byte[] data) throws IOException, ClassNotFoundException
+   {
+      if (data.length == 0)
+      {
+         throw new IOException("Empty value");
+      }
+      else if (data[0] == RAW)
+      {
+         return serializer.deserialize(Arrays.copyOfRange(data, 1, data.length));
+      }
+      else if (data[0] != COMPRESSED || data.length < 5)
+      {
+         throw new IOException("Unknown format of value");
+      }
+      int size = readInt(data, 1);
+      if (size < 0 || size > (long)(data.length - 5) * MAX_RATIO)
+      {
+         throw new IOException("Invalid length of compressed value: " + size);
+      }
+      byte[] result = new byte[size];
+      Inflater inflater = new Inflater();
+      try
+      {
+         inflater.setInput(data, 5, data.length - 5);
+         int length = 0;
+         while (length < result.length && !inflater.finished())
+         {
+            int read = inflater.inflate(result, length, result.length - length);
+            if (read == 0 && (inflater.needsInput() || inflater.needsDictionary()))
+            {
+               throw new IOException("Truncated compressed value");
+            }
+            length += read;
+         }
+         if (length < result.length)
+         {
+            throw new IOException("Truncated compressed value");
+         }
+      }
+      catch (DataFormatException e)
+      {
+         throw new IOException("Corrupted compressed value", e);
+      }
+      finally
+      {
+         inflater.end();
+      }
+      return serializer.deserialize(result);
+   }
+
+   private static void writeInt(byte[] buffer, int offset, int value)
+   {
+      buffer[offset] = (byte)(value >>> 24);
+      buffer[offset + 1] = (byte)(value >>> 16);
+      buffer[offset + 2] = (byte)(value >>> 8);
+      buffer[offset + 3] = (byte)value;
+   }
+
+   private static int readInt(byte[] buffer, int offset)
+   {
+      return ((buffer[offset] & 0xFF) << 24) | ((buffer[offset + 1] & 0xFF) << 16)
+         | ((buffer[offset + 2] & 0xFF) << 8) | (buffer[offset + 3] & 0xFF);
+   }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2026 eXo Platform SAS.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.exoplatform.services.cache;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * The default {@link Weigher} which estimates the amount of bytes used by an entry without walking the
+ * object graph. Strings, arrays, boxed primitives and the size of collections and maps are taken into
+ * account, any other object is given a fixed weight.
+ *
+ * @version $Revision$
+ */
+public class DefaultWeigher implements Weigher<Object, Object>
+{
+
+   /**
+    * The shared instance
+    */
+   public static final DefaultWeigher INSTANCE = new DefaultWeigher();
+
+   /**
+    * The estimated overhead of an entry (map node, entry reference and its queue links)
+    */
+   static final long ENTRY_OVERHEAD = 64;
+
+   /**
+    * The estimated size of an object header
+    */
+   static final long OBJECT_HEADER = 16;
+
+   /**
+    * The weight given to the objects whose size cannot be estimated cheaply
+    */
+   static final long DEFAULT_OBJECT_WEIGHT = 128;
+
+   /**
+    * The estimated size of a reference held by an array or a collection
+    */
+   static final long REFERENCE = 8;
+
+   /**
+    * {@inheritDoc}
+    */
+   public long weigh(Object key, Object value)
+   {
+      return ENTRY_OVERHEAD + estimate(key) + estimate(value);
+   }
+
+   /**
+    * Estimates the size in bytes of the given object.
+    *
+    * @param o the object to estimate
+    * @return the estimated size
+    */
+   protected long estimate(Object o)
+   {
+      if (o == null)
+      {
+         return 0;
+      }
+      else if (o instanceof String)
+      {
+         // The String instance plus its backing array
+         return 2 * OBJECT_HEADER + 8 + 2L * ((String)o).length();
+      }
+      else if (o instanceof byte[])
+      {
+         return OBJECT_HEADER + ((byte[])o).length;
+      }
+      else if (o instanceof char[])
+      {
+         return OBJECT_HEADER + 2L * ((char[])o).length;
+      }
+      else if (o instanceof Object[])
+      {
+         return OBJECT_HEADER + REFERENCE * ((Object[])o).length;
+      }
+      else if (o instanceof Number || o instanceof Boolean || o instanceof Character)
+      {
+         return OBJECT_HEADER + 8;
+      }
+      else if (o instanceof Collection)
+      {
+         return DEFAULT_OBJECT_WEIGHT + (OBJECT_HEADER + REFERENCE) * ((Collection<?>)o).size();
+      }
+      else if (o instanceof Map)
+      {
+         return DEFAULT_OBJECT_WEIGHT + (2 * OBJECT_HEADER + 2 * REFERENCE) * ((Map<?, ?>)o).size();
+      }
+      return DEFAULT_OBJECT_WEIGHT;
+   }
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright (C) 2026 eXo Platform SAS.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.exoplatform.services.cache;
+
+/**
+ * The eviction policies supported by the local cache implementation
+ * {@link org.exoplatform.services.cache.concurrent.ConcurrentFIFOExoCache}.
+ */
+public enum EvictionPolicy
+{
+   /**
+    * The entries are evicted in insertion order.
+    */
+   FIFO,
+
+   /**
+    * The least recently accessed entries are evicted first.
+    */
+   LRU,
+
+   /**
+    * The new entries are admitted according to their estimated access frequency (Window TinyLFU),
+    * which prevents the scans of cold keys from evicting the hot entries.
+    */
+   TINYLFU
+}
@@ -25,6 +25,8 @@ import org.exoplatform.management.jmx.annotations.NameTemplate;
 import org.exoplatform.management.jmx.annotations.Property;
 
 import java.io.Serializable;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -83,6 +85,32 @@ public interface ExoCache<K extends Serializable, V>
     */
    public V get(Serializable key);
 
+   /**
+    * Performs a lookup operation for several keys at once. The default implementation performs a lookup
+    * per key, the implementations able to look up several keys in one operation should override it.
+    *
+    * @param keys the cache keys
+    * @return the cached values indexed by key, the keys without value are not part of the result
+    * @throws IllegalArgumentException if the provided collection is null
+    */
+   public default Map<K, V> getAll(Collection<? extends K> keys) throws IllegalArgumentException
+   {
+      if (keys == null)
+      {
+         throw new IllegalArgumentException("No null collection accepted");
+      }
+      Map<K, V> values = new HashMap<K, V>();
+      for (K key : keys)
+      {
+         V value = get(key);
+         if (value != null)
+         {
+            values.put(key, value);
+         }
+      }
+      return values;
+   }
+
    /**
     * Removes an entry from the cache.
     *
@@ -225,6 +253,45 @@ public interface ExoCache<K extends Serializable, V>
    @ManagedDescription("The count of cache misses")
    public int getCacheMiss();
 
+   /**
+    * Returns the statistics of the cache.
+    *
+    * @return the statistics or <code>null</code> if the cache does not collect statistics
+    */
+   public default CacheStatistics getStatistics()
+   {
+      return null;
+   }
+
+   /**
+    * Returns a snapshot of the statistics of the cache.
+    *
+    * @return the statistics indexed by name, empty if the cache does not collect statistics
+    * @see CacheStatistics#toMap()
+    */
+   @Managed
+   @ManagedName("Statistics")
+   @ManagedDescription("The counters of the cache and its get latency and load time in microseconds")
+   public default Map<String, Long> getStatisticsSnapshot()
+   {
+      CacheStatistics statistics = getStatistics();
+      return statistics == null ? new HashMap<String, Long>() : statistics.toMap();
+   }
+
+   /**
+    * Resets the statistics of the cache, including the hit and miss counts.
+    */
+   @Managed
+   @ManagedDescription("Reset the statistics of the cache")
+   public default void resetStatistics()
+   {
+      CacheStatistics statistics = getStatistics();
+      if (statistics != null)
+      {
+         statistics.reset();
+      }
+   }
+
    /**
     * Returns a list of cached object that are considered as valid when the method is called. Any non valid
     * object will not be returned.
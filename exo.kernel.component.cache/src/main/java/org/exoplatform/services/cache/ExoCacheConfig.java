@@ -18,6 +18,9 @@
  */
 package org.exoplatform.services.cache;
 
+import org.exoplatform.services.log.ExoLogger;
+import org.exoplatform.services.log.Log;
+
 /**
  * This class defines the main configuration properties of an {@link org.exoplatform.services.cache.ExoCache}
  * 
@@ -28,6 +31,8 @@ package org.exoplatform.services.cache;
  */
 public class ExoCacheConfig implements Cloneable
 {
+   private static final Log LOG = ExoLogger.getLogger("exo.kernel.component.cache.ExoCacheConfig");
+
    /**
     * The name of the cache.
     */
@@ -87,6 +92,82 @@ public class ExoCacheConfig implements Cloneable
     */
    private CacheMode topology;
 
+   /**
+    * The eviction policy of the local cache implementation
+    */
+   private String evictionPolicy;
+
+   /**
+    * The maximum total weight of the entries in cache, the weight bounding is disabled if it is
+    * lower or equal to 0
+    */
+   private long maxWeight;
+
+   /**
+    * The full qualified name of the {@link Weigher} to use to compute the weight of the entries
+    */
+   private String weigher;
+
+   /**
+    * The full qualified name of the {@link ExoCacheFactory} to use to create the cache, the
+    * factory of the cache service is used if it is not set
+    */
+   private String factory;
+
+   /**
+    * The full qualified name of the {@link ValueSerializer} to use by the remote caches to serialize
+    * the values, the default serialization of the remote cache is used if it is not set
+    */
+   private String valueSerializer;
+
+   /**
+    * The size in bytes above which the serialized values are compressed, the values are not compressed
+    * if it is lower or equal to 0
+    */
+   private int compressionThreshold;
+
+   /**
+    * The maximum amount of milliseconds during which the invalidations of an invalidation cache are
+    * coalesced before being sent, the invalidations are sent one by one if it is lower or equal to 0
+    */
+   private long invalidationBatchWindow;
+
+   /**
+    * The maximum amount of keys in a batch of invalidations, a default value is used if it is lower
+    * or equal to 0
+    */
+   private int invalidationBatchMaxKeys;
+
+   /**
+    * The maximum amount of milliseconds during which the changes of a replicated cache based on the
+    * RPCService are coalesced before being sent, the changes are sent one by one if it is lower or equal to 0
+    */
+   private long replicationBatchWindow;
+
+   /**
+    * The maximum amount of changes in a batch of replication, a default value is used if it is lower or
+    * equal to 0
+    */
+   private int replicationBatchMaxSize;
+
+   /**
+    * The maximum amount of milliseconds during which a write into a distributed cache can be delayed, the
+    * writes are applied synchronously if it is lower or equal to 0
+    */
+   private long writeBehindInterval;
+
+   /**
+    * The maximum amount of pending writes of the write-behind queue, a default value is used if it is lower
+    * or equal to 0
+    */
+   private int writeBehindCapacity;
+
+   /**
+    * The maximum amount of writes applied at once by the write-behind queue, a default value is used if it is
+    * lower or equal to 0
+    */
+   private int writeBehindBatchSize;
+
    /**
     * Returns the cache name
     *
@@ -275,6 +356,294 @@ public class ExoCacheConfig implements Cloneable
       return initCacheMode();
    }
 
+   /**
+    * Returns the eviction policy to use when the cache is local, {@link EvictionPolicy#FIFO} is returned
+    * if no policy or an unknown policy has been configured.
+    *
+    * @return the eviction policy
+    */
+   public EvictionPolicy getEvictionPolicy()
+   {
+      if (evictionPolicy == null)
+      {
+         return EvictionPolicy.FIFO;
+      }
+      try
+      {
+         return EvictionPolicy.valueOf(evictionPolicy.trim().toUpperCase());
+      }
+      catch (IllegalArgumentException e)
+      {
+         LOG.warn("Unknown eviction policy '" + evictionPolicy + "' for the cache " + name
+            + ", the policy FIFO will be used instead");
+         return EvictionPolicy.FIFO;
+      }
+   }
+
+   /**
+    * Sets the eviction policy to use when the cache is local
+    *
+    * @param policy the eviction policy
+    */
+   public void setEvictionPolicy(EvictionPolicy policy)
+   {
+      this.evictionPolicy = policy == null ? null : policy.name();
+   }
+
+   /**
+    * Returns the maximum total weight of the entries allowed in the cache, the weight bounding is
+    * disabled if the value is lower or equal to 0
+    *
+    * @return the max weight of the cache
+    */
+   public long getMaxWeight()
+   {
+      return maxWeight;
+   }
+
+   /**
+    * Sets the maximum total weight of the entries allowed in the cache
+    *
+    * @param maxWeight the max weight of the cache, 0 to disable the weight bounding
+    */
+   public void setMaxWeight(long maxWeight)
+   {
+      this.maxWeight = maxWeight;
+   }
+
+   /**
+    * Returns the full qualified name of the {@link Weigher} to use, <code>null</code> if the
+    * {@link DefaultWeigher} should be used
+    *
+    * @return the full qualified name of the weigher
+    */
+   public String getWeigher()
+   {
+      return weigher;
+   }
+
+   /**
+    * Sets the full qualified name of the {@link Weigher} to use
+    *
+    * @param weigher the full qualified name of the weigher
+    */
+   public void setWeigher(String weigher)
+   {
+      this.weigher = weigher;
+   }
+
+   /**
+    * Returns the full qualified name of the {@link ExoCacheFactory} to use to create the cache,
+    * <code>null</code> if the factory of the cache service should be used
+    *
+    * @return the full qualified name of the factory
+    */
+   public String getFactory()
+   {
+      return factory;
+   }
+
+   /**
+    * Sets the full qualified name of the {@link ExoCacheFactory} to use to create the cache
+    *
+    * @param factory the full qualified name of the factory
+    */
+   public void setFactory(String factory)
+   {
+      this.factory = factory;
+   }
+
+   /**
+    * Returns the full qualified name of the {@link ValueSerializer} to use by the remote caches,
+    * <code>null</code> if the default serialization of the remote cache should be used
+    *
+    * @return the full qualified name of the value serializer
+    */
+   public String getValueSerializer()
+   {
+      return valueSerializer;
+   }
+
+   /**
+    * Sets the full qualified name of the {@link ValueSerializer} to use by the remote caches
+    *
+    * @param valueSerializer the full qualified name of the value serializer
+    */
+   public void setValueSerializer(String valueSerializer)
+   {
+      this.valueSerializer = valueSerializer;
+   }
+
+   /**
+    * Returns the size in bytes above which the values serialized by the remote caches are compressed,
+    * the values are not compressed if it is lower or equal to 0
+    *
+    * @return the compression threshold
+    */
+   public int getCompressionThreshold()
+   {
+      return compressionThreshold;
+   }
+
+   /**
+    * Sets the size in bytes above which the values serialized by the remote caches are compressed
+    *
+    * @param compressionThreshold the compression threshold, 0 to disable the compression
+    */
+   public void setCompressionThreshold(int compressionThreshold)
+   {
+      this.compressionThreshold = compressionThreshold;
+   }
+
+   /**
+    * Returns the maximum amount of milliseconds during which the invalidations of an invalidation cache
+    * are coalesced before being sent, the invalidations are sent one by one if it is lower or equal to 0
+    *
+    * @return the invalidation batch window
+    */
+   public long getInvalidationBatchWindow()
+   {
+      return invalidationBatchWindow;
+   }
+
+   /**
+    * Sets the maximum amount of milliseconds during which the invalidations of an invalidation cache
+    * are coalesced before being sent
+    *
+    * @param invalidationBatchWindow the invalidation batch window, 0 to disable the batching
+    */
+   public void setInvalidationBatchWindow(long invalidationBatchWindow)
+   {
+      this.invalidationBatchWindow = invalidationBatchWindow;
+   }
+
+   /**
+    * Returns the maximum amount of keys in a batch of invalidations, a default value is used if it is
+    * lower or equal to 0
+    *
+    * @return the maximum amount of keys in a batch
+    */
+   public int getInvalidationBatchMaxKeys()
+   {
+      return invalidationBatchMaxKeys;
+   }
+
+   /**
+    * Sets the maximum amount of keys in a batch of invalidations
+    *
+    * @param invalidationBatchMaxKeys the maximum amount of keys in a batch, 0 to use the default value
+    */
+   public void setInvalidationBatchMaxKeys(int invalidationBatchMaxKeys)
+   {
+      this.invalidationBatchMaxKeys = invalidationBatchMaxKeys;
+   }
+
+   /**
+    * Returns the maximum amount of milliseconds during which the changes of a replicated cache based on the
+    * RPCService are coalesced before being sent, the changes are sent one by one if it is lower or equal to 0
+    *
+    * @return the replication batch window
+    */
+   public long getReplicationBatchWindow()
+   {
+      return replicationBatchWindow;
+   }
+
+   /**
+    * Sets the maximum amount of milliseconds during which the changes of a replicated cache based on the
+    * RPCService are coalesced before being sent
+    *
+    * @param replicationBatchWindow the replication batch window, 0 to disable the batching
+    */
+   public void setReplicationBatchWindow(long replicationBatchWindow)
+   {
+      this.replicationBatchWindow = replicationBatchWindow;
+   }
+
+   /**
+    * Returns the maximum amount of changes in a batch of replication, a default value is used if it is
+    * lower or equal to 0
+    *
+    * @return the maximum amount of changes in a batch
+    */
+   public int getReplicationBatchMaxSize()
+   {
+      return replicationBatchMaxSize;
+   }
+
+   /**
+    * Sets the maximum amount of changes in a batch of replication
+    *
+    * @param replicationBatchMaxSize the maximum amount of changes in a batch, 0 to use the default value
+    */
+   public void setReplicationBatchMaxSize(int replicationBatchMaxSize)
+   {
+      this.replicationBatchMaxSize = replicationBatchMaxSize;
+   }
+
+   /**
+    * Returns the maximum amount of milliseconds during which a write into a distributed cache can be delayed,
+    * the writes are applied synchronously if it is lower or equal to 0
+    *
+    * @return the write-behind interval
+    */
+   public long getWriteBehindInterval()
+   {
+      return writeBehindInterval;
+   }
+
+   /**
+    * Sets the maximum amount of milliseconds during which a write into a distributed cache can be delayed
+    *
+    * @param writeBehindInterval the write-behind interval, 0 to disable the write-behind mode
+    */
+   public void setWriteBehindInterval(long writeBehindInterval)
+   {
+      this.writeBehindInterval = writeBehindInterval;
+   }
+
+   /**
+    * Returns the maximum amount of pending writes of the write-behind queue, a default value is used if it is
+    * lower or equal to 0
+    *
+    * @return the capacity of the write-behind queue
+    */
+   public int getWriteBehindCapacity()
+   {
+      return writeBehindCapacity;
+   }
+
+   /**
+    * Sets the maximum amount of pending writes of the write-behind queue
+    *
+    * @param writeBehindCapacity the capacity of the write-behind queue, 0 to use the default value
+    */
+   public void setWriteBehindCapacity(int writeBehindCapacity)
+   {
+      this.writeBehindCapacity = writeBehindCapacity;
+   }
+
+   /**
+    * Returns the maximum amount of writes applied at once by the write-behind queue, a default value is used
+    * if it is lower or equal to 0
+    *
+    * @return the batch size of the write-behind queue
+    */
+   public int getWriteBehindBatchSize()
+   {
+      return writeBehindBatchSize;
+   }
+
+   /**
+    * Sets the maximum amount of writes applied at once by the write-behind queue
+    *
+    * @param writeBehindBatchSize the batch size of the write-behind queue, 0 to use the default value
+    */
+   public void setWriteBehindBatchSize(int writeBehindBatchSize)
+   {
+      this.writeBehindBatchSize = writeBehindBatchSize;
+   }
+
    /**
     * @see java.lang.Object#clone()
     */
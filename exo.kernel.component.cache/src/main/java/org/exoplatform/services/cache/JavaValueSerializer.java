@@ -0,0 +1,63 @@
+/*
+ * Copyright (C) 2026 eXo Platform SAS.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.exoplatform.services.cache;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+/**
+ * The {@link ValueSerializer} based on the Java serialization.
+ *
+ * @version $Revision$
+ */
+public class JavaValueSerializer implements ValueSerializer
+{
+
+   /**
+    * The shared instance
+    */
+   public static final JavaValueSerializer INSTANCE = new JavaValueSerializer();
+
+   /**
+    * {@inheritDoc}
+    */
+   public byte[] serialize(Object value) throws IOException
+   {
+      ByteArrayOutputStream baos = new ByteArrayOutputStream();
+      try (ObjectOutputStream oos = new ObjectOutputStream(baos))
+      {
+         oos.writeObject(value);
+      }
+      return baos.toByteArray();
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public Object deserialize(byte[] data) throws IOException, ClassNotFoundException
+   {
+      try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(data)))
+      {
+         return ois.readObject();
+      }
+   }
+}
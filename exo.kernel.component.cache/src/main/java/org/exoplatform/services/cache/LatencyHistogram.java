@@ -0,0 +1,172 @@
+/*
+ * Copyright (C) 2026 eXo Platform SAS.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.exoplatform.services.cache;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongBinaryOperator;
+
+/**
+ * A histogram of durations whose buckets are powers of two nanoseconds, it can be updated concurrently
+ * at a low cost. The percentiles are approximated by the upper bound of the bucket in which they fall,
+ * so they are at most twice the exact value.
+ *
+ * @version $Revision$
+ */
+public class LatencyHistogram
+{
+
+   /** The amount of buckets, the last bucket contains all the durations longer than about 9 minutes. */
+   static final int BUCKETS = 40;
+
+   private static final LongBinaryOperator MAX = new LongBinaryOperator()
+   {
+      public long applyAsLong(long left, long right)
+      {
+         return Math.max(left, right);
+      }
+   };
+
+   /** The bucket i counts the durations between 2^(i-1) included and 2^i excluded nanoseconds. */
+   private final LongAdder[] buckets = new LongAdder[BUCKETS];
+
+   private final LongAdder total = new LongAdder();
+
+   private final LongAccumulator max = new LongAccumulator(MAX, 0);
+
+   public LatencyHistogram()
+   {
+      for (int i = 0; i < BUCKETS; i++)
+      {
+         buckets[i] = new LongAdder();
+      }
+   }
+
+   /**
+    * Records a duration.
+    *
+    * @param nanos the duration in nanoseconds
+    */
+   public void record(long nanos)
+   {
+      if (nanos < 0)
+      {
+         nanos = 0;
+      }
+      buckets[Math.min(64 - Long.numberOfLeadingZeros(nanos), BUCKETS - 1)].increment();
+      total.add(nanos);
+      max.accumulate(nanos);
+   }
+
+   /**
+    * @return the amount of recorded durations
+    */
+   public long getCount()
+   {
+      long count = 0;
+      for (LongAdder bucket : buckets)
+      {
+         count += bucket.sum();
+      }
+      return count;
+   }
+
+   /**
+    * @return the sum of the recorded durations in nanoseconds
+    */
+   public long getTotal()
+   {
+      return total.sum();
+   }
+
+   /**
+    * @return the longest recorded duration in nanoseconds
+    */
+   public long getMax()
+   {
+      return max.get();
+   }
+
+   /**
+    * @return the mean of the recorded durations in nanoseconds, 0 if there is none
+    */
+   public long getMean()
+   {
+      long count = getCount();
+      return count == 0 ? 0 : getTotal() / count;
+   }
+
+   /**
+    * Gives an approximation by excess of a percentile of the recorded durations.
+    *
+    * @param percentile the percentile between 0 and 100
+    * @return the percentile in nanoseconds, 0 if there is no recorded duration
+    */
+   public long getPercentile(double percentile)
+   {
+      if (percentile < 0 || percentile > 100)
+      {
+         throw new IllegalArgumentException("The percentile must be between 0 and 100");
+      }
+      long[] counts = new long[BUCKETS];
+      long count = 0;
+      for (int i = 0; i < BUCKETS; i++)
+      {
+         counts[i] = buckets[i].sum();
+         count += counts[i];
+      }
+      if (count == 0)
+      {
+         return 0;
+      }
+      long rank = Math.max(1, (long)Math.ceil(count * percentile / 100));
+      long max = getMax();
+      for (int i = 0; i < BUCKETS - 1; i++)
+      {
+         rank -= counts[i];
+         if (rank <= 0)
+         {
+            return Math.min((1L << i) - 1, max);
+         }
+      }
+      return max;
+   }
+
+   /**
+    * Forgets all the recorded durations.
+    */
+   public void reset()
+   {
+      for (LongAdder bucket : buckets)
+      {
+         bucket.reset();
+      }
+      total.reset();
+      max.reset();
+   }
+
+   /**
+    * Converts a duration in nanoseconds to microseconds.
+    */
+   static long toMicros(long nanos)
+   {
+      return TimeUnit.NANOSECONDS.toMicros(nanos);
+   }
+}
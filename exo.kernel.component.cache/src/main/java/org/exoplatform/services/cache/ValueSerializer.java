@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2026 eXo Platform SAS.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.exoplatform.services.cache;
+
+import org.exoplatform.commons.utils.ClassLoading;
+
+import java.io.IOException;
+
+/**
+ * Converts the values of a cache region into bytes and back, it is used by the remote cache
+ * implementations to store the values. The implementations must be thread safe.
+ *
+ * @version $Revision$
+ */
+public interface ValueSerializer
+{
+
+   /**
+    * Serializes the given value
+    *
+    * @param value the value to serialize, never <code>null</code>
+    * @return the serialized value
+    * @throws IOException if the value cannot be serialized
+    */
+   byte[] serialize(Object value) throws IOException;
+
+   /**
+    * Deserializes a value serialized by {@link #serialize(Object)}
+    *
+    * @param data the serialized value
+    * @return the value
+    * @throws IOException if the value cannot be deserialized
+    * @throws ClassNotFoundException if the class of the value or of one of its fields cannot be found
+    */
+   Object deserialize(byte[] data) throws IOException, ClassNotFoundException;
+
+   /**
+    * Creates the serializer defined in the given configuration, wrapped into a {@link CompressingValueSerializer}
+    * if a compression threshold is defined.
+    *
+    * @param config the configuration of the cache region
+    * @return the serializer or <code>null</code> if neither a serializer nor a compression threshold is defined,
+    * in which case the default serialization of the remote cache should be used
+    * @throws ExoCacheInitException if the serializer cannot be created
+    */
+   static ValueSerializer create(ExoCacheConfig config) throws ExoCacheInitException
+   {
+      ValueSerializer serializer;
+      if (config.getValueSerializer() == null)
+      {
+         if (config.getCompressionThreshold() <= 0)
+         {
+            return null;
+         }
+         serializer = JavaValueSerializer.INSTANCE;
+      }
+      else
+      {
+         try
+         {
+            final Class<?> clazz = ClassLoading.loadClass(config.getValueSerializer(), config);
+            serializer = (ValueSerializer)clazz.getDeclaredConstructor().newInstance();
+         }
+         catch (ReflectiveOperationException | ClassCastException e)
+         {
+            throw new ExoCacheInitException("Cannot create instance of ValueSerializer of type "
+               + config.getValueSerializer(), e);
+         }
+      }
+      return config.getCompressionThreshold() > 0 ? new CompressingValueSerializer(serializer,
+         config.getCompressionThreshold()) : serializer;
+   }
+}
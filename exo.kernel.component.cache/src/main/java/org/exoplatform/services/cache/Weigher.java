@@ -0,0 +1,39 @@
+/*
+ * Copyright (C) 2026 eXo Platform SAS.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.exoplatform.services.cache;
+
+/**
+ * Computes the weight of a cache entry, it is used by the caches bounded by a maximum weight instead of
+ * a maximum amount of entries. The weight is computed once when the entry is put into the cache so it
+ * must not change over time, it is typically an estimation of the size in bytes of the entry.
+ *
+ * @version $Revision$
+ */
+public interface Weigher<K, V>
+{
+
+   /**
+    * Returns the weight of the given entry.
+    *
+    * @param key the cache key
+    * @param value the cached value
+    * @return the weight of the entry, a negative weight is considered as 0
+    */
+   long weigh(K key, V value);
+}
@@ -0,0 +1,377 @@
+/*
+ * Copyright (C) 2026 eXo Platform SAS.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.exoplatform.services.cache.concurrent;
+
+import org.exoplatform.services.log.Log;
+
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A FIFO queue that does not lock on {@link #add(Item)} and {@link #remove(Item)}. The state of an item is changed
+ * atomically and the change is recorded into a buffer chosen according to the current thread, the buffers are
+ * then drained in batches by one thread at a time which is the only one that modifies the linked list. As the
+ * buffers are drained one after the other, the insertion order is only approximately respected.
+ *
+ * @version $Revision$
+ */
+public class BufferedQueue<I extends Item> implements Queue<I>
+{
+
+   private static final int NEW = 0;
+
+   private static final int ALIVE = 1;
+
+   private static final int REMOVED = 2;
+
+   private static final AtomicIntegerFieldUpdater<Item> STATE_UPDATER =
+      AtomicIntegerFieldUpdater.newUpdater(Item.class, "state");
+
+   /**
+    * The amount of pending changes of a buffer from which the writer attempts to drain the buffers
+    */
+   private static final int DRAIN_THRESHOLD = Buffer.SIZE / 2;
+
+   private final Log log;
+
+   private final Item head;
+
+   private final Item tail;
+
+   private final Buffer[] buffers;
+
+   private final int mask;
+
+   private final LongAdder queueSize = new LongAdder();
+
+   private final Lock queueLock = new ReentrantLock();
+
+   private final AtomicBoolean trimming = new AtomicBoolean();
+
+   public BufferedQueue(Log log)
+   {
+      this.log = log;
+      this.head = new Item();
+      this.tail = new Item();
+      head.next = tail;
+      tail.previous = head;
+
+      //
+      int stripes = Integer.highestOneBit(Math.min(64, Runtime.getRuntime().availableProcessors()) * 2 - 1);
+      this.buffers = new Buffer[stripes];
+      for (int i = 0; i < stripes; i++)
+      {
+         buffers[i] = new Buffer();
+      }
+      this.mask = stripes - 1;
+   }
+
+   private boolean isTraceEnabled()
+   {
+      return log != null && log.isTraceEnabled();
+   }
+
+   private void trace(String message)
+   {
+      log.trace(message + " [" + Thread.currentThread().getName() + "]");
+   }
+
+   public int size()
+   {
+      return (int)queueSize.sum();
+   }
+
+   public void assertConsistency()
+   {
+      queueLock.lock();
+      try
+      {
+         drainBuffers();
+         int cachedQueueSize = size();
+         int effectiveQueueSize = 0;
+         for (Item item = head.next; item != tail; item = item.next) //NOSONAR
+         {
+            if (item.state == ALIVE)
+            {
+               effectiveQueueSize++;
+            }
+         }
+         if (effectiveQueueSize != cachedQueueSize)
+         {
+            throw new AssertionError("The cached queue size " + cachedQueueSize
+               + "  is different from the effective queue size" + effectiveQueueSize);
+         }
+      }
+      finally
+      {
+         queueLock.unlock();
+      }
+   }
+
+   /**
+    * Attempt to remove an item from the queue. An item removed before being added will never be added.
+    *
+    * @param item the item to remove
+    * @return true if the item was removed by this thread
+    */
+   public boolean remove(I item)
+   {
+      if (STATE_UPDATER.compareAndSet(item, ALIVE, REMOVED))
+      {
+         queueSize.decrement();
+         record(item);
+         if (isTraceEnabled())
+         {
+            trace("Removed item=" + item.serial);
+         }
+         return true;
+      }
+      else if (STATE_UPDATER.compareAndSet(item, NEW, REMOVED))
+      {
+         if (isTraceEnabled())
+         {
+            trace("Removed item=" + item.serial + " before being added");
+         }
+         return true;
+      }
+      if (isTraceEnabled())
+      {
+         trace("Attempt to remove item=" + item.serial + " concurrently removed");
+      }
+      return false;
+   }
+
+   /**
+    * Add the item to the head of the list.
+    *
+    * @param item the item to add
+    */
+   public void add(I item)
+   {
+      if (STATE_UPDATER.compareAndSet(item, NEW, ALIVE))
+      {
+         queueSize.increment();
+         record(item);
+         if (isTraceEnabled())
+         {
+            trace("Added item=" + item.serial);
+         }
+      }
+      else if (isTraceEnabled())
+      {
+         trace("Attempt to add item=" + item.serial + " concurrently removed");
+      }
+   }
+
+   /**
+    * Attempt to trim the queue. Trim will occur if the queue size is greater than the provided size, if
+    * another thread is already performing a trim, it is left to that thread which checks the size again
+    * once done so that the queue is bounded as soon as the writes stop.
+    *
+    * @param size the wanted size
+    * @return the list of evicted items
+    */
+   @SuppressWarnings("unchecked")
+   public ArrayList<I> trim(int size)
+   {
+      ArrayList<I> evictedItems = null;
+      // The size is checked again after releasing the flag since a writer may have given up trimming
+      // while this thread was trimming
+      while (size() > size && trimming.compareAndSet(false, true))
+      {
+         queueLock.lock();
+         try
+         {
+            drainBuffers();
+            int excess = size() - size;
+            if (excess > 0)
+            {
+               if (evictedItems == null)
+               {
+                  evictedItems = new ArrayList<I>(excess);
+               }
+               int evicted = 0;
+               while (evicted < excess && tail.previous != head)
+               {
+                  Item last = tail.previous;
+                  unlink(last);
+                  // The item may have been removed concurrently
+                  if (STATE_UPDATER.compareAndSet(last, ALIVE, REMOVED))
+                  {
+                     queueSize.decrement();
+                     evictedItems.add((I)last);
+                     evicted++;
+                  }
+               }
+               if (isTraceEnabled())
+               {
+                  trace("Evicted " + evicted + " items with queue=" + size());
+               }
+               if (evicted == 0)
+               {
+                  // The remaining items are still in the buffers of the writers
+                  break;
+               }
+            }
+         }
+         finally
+         {
+            queueLock.unlock();
+            trimming.set(false);
+         }
+      }
+
+      //
+      return evictedItems;
+   }
+
+   /**
+    * Records the change of state of the item, the buffers are drained if the buffer of the current thread
+    * is getting full, the writer waits for the lock only if the buffer is full.
+    */
+   private void record(Item item)
+   {
+      Buffer buffer = buffers[(int)Thread.currentThread().getId() & mask];
+      int pending;
+      while ((pending = buffer.offer(item)) < 0)
+      {
+         queueLock.lock();
+         try
+         {
+            drainBuffers();
+         }
+         finally
+         {
+            queueLock.unlock();
+         }
+      }
+      if (pending >= DRAIN_THRESHOLD && queueLock.tryLock())
+      {
+         try
+         {
+            drainBuffers();
+         }
+         finally
+         {
+            queueLock.unlock();
+         }
+      }
+   }
+
+   /**
+    * Applies the recorded changes to the linked list, the caller must hold the lock.
+    */
+   private void drainBuffers()
+   {
+      for (int i = 0; i < buffers.length; i++)
+      {
+         Buffer buffer = buffers[i];
+         Item item;
+         while ((item = buffer.poll()) != null)
+         {
+            int state = item.state;
+            if (state == ALIVE && item.previous == null)
+            {
+               Item next = head.next;
+               item.next = next;
+               next.previous = item;
+               head.next = item;
+               item.previous = head;
+            }
+            else if (state == REMOVED && item.previous != null)
+            {
+               unlink(item);
+            }
+         }
+      }
+   }
+
+   private void unlink(Item item)
+   {
+      Item previous = item.previous;
+      Item next = item.next;
+      previous.next = next;
+      next.previous = previous;
+      item.previous = null;
+      item.next = null;
+   }
+
+   /**
+    * A bounded ring buffer with many producers and a single consumer which is the thread holding the lock.
+    */
+   private static class Buffer
+   {
+
+      static final int SIZE = 64;
+
+      private static final int BUFFER_MASK = SIZE - 1;
+
+      private final AtomicReferenceArray<Item> slots = new AtomicReferenceArray<Item>(SIZE);
+
+      private final AtomicLong writeCounter = new AtomicLong();
+
+      private volatile long readCounter;
+
+      /**
+       * @return the amount of pending items including the new one or -1 if the buffer is full
+       */
+      int offer(Item item)
+      {
+         while (true)
+         {
+            long write = writeCounter.get();
+            long pending = write - readCounter;
+            if (pending >= SIZE)
+            {
+               return -1;
+            }
+            if (writeCounter.compareAndSet(write, write + 1))
+            {
+               slots.lazySet((int)write & BUFFER_MASK, item);
+               return (int)pending + 1;
+            }
+         }
+      }
+
+      Item poll()
+      {
+         long read = readCounter;
+         if (read == writeCounter.get())
+         {
+            return null;
+         }
+         int index = (int)read & BUFFER_MASK;
+         Item item = slots.get(index);
+         if (item == null)
+         {
+            // The writer has not published its item yet
+            return null;
+         }
+         slots.lazySet(index, null);
+         readCounter = read + 1;
+         return item;
+      }
+   }
+}
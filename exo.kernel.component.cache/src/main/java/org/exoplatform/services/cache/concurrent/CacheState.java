@@ -18,11 +18,13 @@
  */
 package org.exoplatform.services.cache.concurrent;
 
+import org.exoplatform.services.cache.EvictionPolicy;
 import org.exoplatform.services.log.Log;
 
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Really the cache state (we need it because of the clear cache consistency).
@@ -40,12 +42,30 @@ class CacheState<K extends Serializable, V>
 
    final Queue<ObjectRef<K, V>> queue;
 
+   /**
+    * The total weight of the entries of the map
+    */
+   final AtomicLong weight = new AtomicLong();
+
    CacheState(ConcurrentFIFOExoCache<K, V> config, Log log)
    {
       this.log = log;
       this.config = config;
       this.map = new ConcurrentHashMap<K, ObjectRef<K, V>>();
-      this.queue = new SynchronizedQueue<ObjectRef<K, V>>(log);
+      this.queue = createQueue(config.getEvictionPolicy(), log);
+   }
+
+   private static <K extends Serializable, V> Queue<ObjectRef<K, V>> createQueue(EvictionPolicy policy, Log log)
+   {
+      switch (policy)
+      {
+         case LRU :
+            return new SynchronizedLRUQueue<ObjectRef<K, V>>(log);
+         case TINYLFU :
+            return new TinyLFUQueue<ObjectRef<K, V>>(log);
+         default :
+            return new BufferedQueue<ObjectRef<K, V>>(log);
+      }
    }
 
    public void assertConsistency()
@@ -54,6 +74,14 @@ class CacheState<K extends Serializable, V>
       {
          ((SynchronizedQueue)queue).assertConsistency();
       }
+      else if (queue instanceof TinyLFUQueue)
+      {
+         ((TinyLFUQueue)queue).assertConsistency();
+      }
+      else if (queue instanceof BufferedQueue)
+      {
+         ((BufferedQueue)queue).assertConsistency();
+      }
       int mapSize = map.size();
       int effectiveQueueSize = queue.size();
       if (effectiveQueueSize != mapSize)
@@ -71,27 +99,52 @@ class CacheState<K extends Serializable, V>
          V o = entry.getObject();
          if (entry.isValid())
          {
-            config.hits.incrementAndGet();
+            queue.touch(entry);
+            config.statistics.onHit();
             config.onGet(entry.name, o);
             return o;
          }
          else
          {
-            config.misses.incrementAndGet();
+            config.statistics.onMiss();
             if (map.remove(name, entry))
             {
+               weight.addAndGet(-entry.weight);
                queue.remove(entry);
+               config.statistics.onExpiration();
             }
             config.onExpire(entry.name, o);
          }
       }
       else
       {
-         config.misses.incrementAndGet();
+         config.statistics.onMiss();
       }
       return null;
    }
 
+   /**
+    * Removes all the expired entries.
+    *
+    * @return the amount of removed entries
+    */
+   int removeExpiredEntries()
+   {
+      int expired = 0;
+      for (ObjectRef<K, V> entry : map.values())
+      {
+         if (!entry.isValid() && map.remove(entry.name, entry))
+         {
+            weight.addAndGet(-entry.weight);
+            queue.remove(entry);
+            config.statistics.onExpiration();
+            config.onExpire(entry.name, entry.getObject());
+            expired++;
+         }
+      }
+      return expired;
+   }
+
    private boolean isTraceEnabled()
    {
       return log != null && log.isTraceEnabled();
@@ -111,13 +164,16 @@ class CacheState<K extends Serializable, V>
     */
    void put(long expirationTime, K name, V obj, boolean local)
    {
+      config.statistics.onPut();
       boolean trace = isTraceEnabled();
-      ObjectRef<K, V> nextRef = new SimpleObjectRef<K, V>(expirationTime, name, obj);
+      ObjectRef<K, V> nextRef = new SimpleObjectRef<K, V>(expirationTime, name, obj, config.weigh(name, obj));
       ObjectRef<K, V> previousRef = map.put(name, nextRef);
+      weight.addAndGet(nextRef.weight);
 
       // Remove previous (promoted as first element)
       if (previousRef != null)
       {
+         weight.addAndGet(-previousRef.weight);
          queue.remove(previousRef);
          if (trace)
          {
@@ -133,18 +189,21 @@ class CacheState<K extends Serializable, V>
       queue.add(nextRef);
 
       // Perform eviction from queue
-      ArrayList<ObjectRef<K, V>> evictedRefs = queue.trim(config.maxSize);
-      if (evictedRefs != null)
+      evict(queue.trim(config.maxSize));
+
+      // Perform eviction according to the weight
+      long maxWeight = config.maxWeight;
+      if (maxWeight > 0)
       {
-         for (ObjectRef<K, V> evictedRef : evictedRefs)
+         while (weight.get() > maxWeight)
          {
-            // We remove it from the map only if it was the same entry
-            // it could have been removed concurrently by an explicit remove
-            // or by a promotion
-            map.remove(evictedRef.name, evictedRef);
-
-            // Expiration callback
-            config.onExpire(evictedRef.name, evictedRef.getObject());
+            ArrayList<ObjectRef<K, V>> evictedRefs = queue.size() > 0 ? queue.evict(1) : null;
+            if (evictedRefs == null || evictedRefs.isEmpty())
+            {
+               // Nothing left to evict or another thread is trimming the queue
+               break;
+            }
+            evict(evictedRefs);
          }
       }
 
@@ -159,12 +218,34 @@ class CacheState<K extends Serializable, V>
       }
    }
 
+   private void evict(ArrayList<ObjectRef<K, V>> evictedRefs)
+   {
+      if (evictedRefs != null)
+      {
+         for (ObjectRef<K, V> evictedRef : evictedRefs)
+         {
+            // We remove it from the map only if it was the same entry
+            // it could have been removed concurrently by an explicit remove
+            // or by a promotion
+            if (map.remove(evictedRef.name, evictedRef))
+            {
+               weight.addAndGet(-evictedRef.weight);
+               config.statistics.onEviction();
+            }
+
+            // Expiration callback
+            config.onExpire(evictedRef.name, evictedRef.getObject());
+         }
+      }
+   }
+
    public V remove(Serializable name)
    {
       boolean trace = isTraceEnabled();
       ObjectRef<K, V> item = map.remove(name);
       if (item != null)
       {
+         weight.addAndGet(-item.weight);
          if (trace)
          {
             trace("Removed item=" + item.serial + " from the map going to remove it");
@@ -19,21 +19,29 @@
 package org.exoplatform.services.cache.concurrent;
 
 import org.exoplatform.services.cache.CacheListener;
+import org.exoplatform.services.cache.CacheStatistics;
 import org.exoplatform.services.cache.CachedObjectSelector;
+import org.exoplatform.services.cache.DefaultWeigher;
+import org.exoplatform.services.cache.EvictionPolicy;
 import org.exoplatform.services.cache.ExoCache;
+import org.exoplatform.services.cache.Weigher;
 import org.exoplatform.services.log.Log;
 
 import java.io.Serializable;
 import java.io.UnsupportedEncodingException;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CopyOnWriteArrayList;
-import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * An {@link org.exoplatform.services.cache.ExoCache} implementation based on {@link java.util.concurrent.ConcurrentHashMap}
- * that minimize locking. Cache entries are maintained in a fifo list that is used for the fifo eviction policy.
+ * that minimize locking. Cache entries are maintained in a list that is used for the eviction policy, which
+ * is {@link EvictionPolicy#FIFO} by default. The cache can also be bounded by the total weight of its entries
+ * computed by a {@link Weigher}, in which case entries are evicted until the total weight is under the
+ * maximum weight.
  *
  * @author <a href="mailto:julien.viet@exoplatform.com">Julien Viet</a>
  * @version $Revision$
@@ -47,15 +55,19 @@ public class ConcurrentFIFOExoCache<K extends Serializable, V> implements ExoCac
 
    private volatile long liveTimeMillis;
 
+   private volatile EvictionPolicy evictionPolicy = EvictionPolicy.FIFO;
+
    volatile int maxSize;
 
+   volatile long maxWeight = -1;
+
+   private volatile Weigher<? super K, ? super V> weigher = DefaultWeigher.INSTANCE;
+
    private CopyOnWriteArrayList<ListenerContext<K, V>> listeners;
 
    private CacheState<K, V> state;
 
-   AtomicInteger hits = new AtomicInteger();
-
-   AtomicInteger misses = new AtomicInteger();
+   final CacheStatistics statistics = new CacheStatistics();
 
    private String label;
 
@@ -168,13 +180,140 @@ public class ConcurrentFIFOExoCache<K extends Serializable, V> implements ExoCac
       this.maxSize = max;
    }
 
+   /**
+    * Returns the maximum total weight of the entries, a value lower or equal to 0 means that the
+    * cache is only bounded by its max size.
+    *
+    * @return the max weight
+    */
+   public long getMaxWeight()
+   {
+      return maxWeight;
+   }
+
+   /**
+    * Sets the maximum total weight of the entries, the limit is enforced at the next put.
+    *
+    * @param maxWeight the max weight, a value lower or equal to 0 disables the weight bounding
+    */
+   public void setMaxWeight(long maxWeight)
+   {
+      this.maxWeight = maxWeight <= 0 ? -1 : maxWeight;
+   }
+
+   public Weigher<? super K, ? super V> getWeigher()
+   {
+      return weigher;
+   }
+
+   /**
+    * Sets the weigher used to compute the weight of the entries, it only applies to the entries put
+    * afterwards.
+    *
+    * @param weigher the weigher
+    */
+   public void setWeigher(Weigher<? super K, ? super V> weigher)
+   {
+      if (weigher == null)
+      {
+         throw new IllegalArgumentException("No null weigher accepted");
+      }
+      this.weigher = weigher;
+   }
+
+   /**
+    * Returns the current total weight of the entries of the cache.
+    *
+    * @return the cache weight
+    */
+   public long getCacheWeight()
+   {
+      return state.weight.get();
+   }
+
+   long weigh(K name, V obj)
+   {
+      return Math.max(0, weigher.weigh(name, obj));
+   }
+
+   public EvictionPolicy getEvictionPolicy()
+   {
+      return evictionPolicy;
+   }
+
+   /**
+    * Sets the eviction policy of the cache, the content of the cache is cleared if the policy changes.
+    *
+    * @param evictionPolicy the eviction policy
+    */
+   public void setEvictionPolicy(EvictionPolicy evictionPolicy)
+   {
+      if (evictionPolicy == null)
+      {
+         throw new IllegalArgumentException("No null eviction policy accepted");
+      }
+      if (this.evictionPolicy != evictionPolicy)
+      {
+         this.evictionPolicy = evictionPolicy;
+         state = new CacheState<K, V>(this, log);
+      }
+   }
+
    public V get(Serializable name)
    {
       if (name == null)
       {
          return null;
       }
-      return state.get(name);
+      long start = System.nanoTime();
+      V value = state.get(name);
+      statistics.recordGet(System.nanoTime() - start);
+      return value;
+   }
+
+   /**
+    * Gives the expiration time of the entry of the given key, the statistics and the eviction order of
+    * the cache are not affected by this call.
+    *
+    * @param name the key of the entry
+    * @return the expiration time in milliseconds or -1 if there is no valid entry for this key
+    */
+   public long getExpirationTime(Serializable name)
+   {
+      if (name == null)
+      {
+         return -1;
+      }
+      ObjectRef<K, V> entry = state.map.get(name);
+      return entry != null && entry.isValid() ? entry.expirationTime : -1;
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public Map<K, V> getAll(Collection<? extends K> names)
+   {
+      if (names == null)
+      {
+         throw new IllegalArgumentException("No null collection accepted");
+      }
+      // All the lookups are done against the same state
+      CacheState<K, V> state = this.state;
+      long start = System.nanoTime();
+      Map<K, V> values = new HashMap<K, V>();
+      for (K name : names)
+      {
+         if (name != null)
+         {
+            V value = state.get(name);
+            if (value != null)
+            {
+               values.put(name, value);
+            }
+         }
+      }
+      statistics.recordGet(System.nanoTime() - start);
+      return values;
    }
 
    public void put(K name, V obj)
@@ -232,6 +371,22 @@ public class ConcurrentFIFOExoCache<K extends Serializable, V> implements ExoCac
       return state.remove(name);
    }
 
+   /**
+    * Removes the expired entries without waiting for their key to be accessed, the listeners are notified
+    * of each expired entry.
+    *
+    * @return the amount of removed entries
+    */
+   public int removeExpiredEntries()
+   {
+      if (liveTimeMillis <= 0)
+      {
+         // No entry can expire
+         return 0;
+      }
+      return state.removeExpiredEntries();
+   }
+
    public List<? extends V> getCachedObjects()
    {
       LinkedList<V> list = new LinkedList<V>();
@@ -282,12 +437,20 @@ public class ConcurrentFIFOExoCache<K extends Serializable, V> implements ExoCac
 
    public int getCacheHit()
    {
-      return hits.get();
+      return (int)Math.min(statistics.getHits(), Integer.MAX_VALUE);
    }
 
    public int getCacheMiss()
    {
-      return misses.get();
+      return (int)Math.min(statistics.getMisses(), Integer.MAX_VALUE);
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public CacheStatistics getStatistics()
+   {
+      return statistics;
    }
 
    public synchronized void addCacheListener(CacheListener<? super K, ? super V> listener)
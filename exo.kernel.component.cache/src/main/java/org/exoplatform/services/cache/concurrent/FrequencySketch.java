@@ -0,0 +1,153 @@
+/*
+ * Copyright (C) 2026 eXo Platform SAS.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.exoplatform.services.cache.concurrent;
+
+/**
+ * A count-min sketch with 4-bit counters used to estimate the access frequency of the items
+ * of a {@link TinyLFUQueue}. The counters are periodically halved so that the old accesses
+ * are progressively forgotten. This class is not thread safe, the callers are expected to
+ * hold the lock of the queue.
+ *
+ * @version $Revision$
+ */
+class FrequencySketch
+{
+
+   private static final long[] SEED =
+      {0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+
+   private static final long RESET_MASK = 0x7777777777777777L;
+
+   private static final long ONE_MASK = 0x1111111111111111L;
+
+   private long[] table;
+
+   private int tableMask;
+
+   private int sampleSize;
+
+   private int size;
+
+   FrequencySketch(int maximumSize)
+   {
+      ensureCapacity(maximumSize);
+   }
+
+   /**
+    * Grows the sketch so that it can track the given amount of items accurately.
+    *
+    * @param maximumSize the maximum amount of items of the queue
+    */
+   void ensureCapacity(int maximumSize)
+   {
+      int maximum = Math.max(1, Math.min(maximumSize, Integer.MAX_VALUE >>> 1));
+      if (table != null && table.length >= maximum)
+      {
+         return;
+      }
+      table = new long[ceilingPowerOfTwo(maximum)];
+      tableMask = table.length - 1;
+      sampleSize = maximum <= Integer.MAX_VALUE / 10 ? 10 * maximum : Integer.MAX_VALUE;
+      size = 0;
+   }
+
+   /**
+    * Returns the estimated amount of accesses, capped to 15.
+    *
+    * @param hash the hash of the item
+    * @return the estimated frequency
+    */
+   int frequency(int hash)
+   {
+      int h = spread(hash);
+      int start = (h & 3) << 2;
+      int frequency = Integer.MAX_VALUE;
+      for (int i = 0; i < 4; i++)
+      {
+         int count = (int)((table[indexOf(h, i)] >>> ((start + i) << 2)) & 0xfL);
+         frequency = Math.min(frequency, count);
+      }
+      return frequency;
+   }
+
+   /**
+    * Records an access to the item.
+    *
+    * @param hash the hash of the item
+    */
+   void increment(int hash)
+   {
+      int h = spread(hash);
+      int start = (h & 3) << 2;
+      boolean added = false;
+      for (int i = 0; i < 4; i++)
+      {
+         added |= incrementAt(indexOf(h, i), start + i);
+      }
+      if (added && ++size >= sampleSize)
+      {
+         reset();
+      }
+   }
+
+   private boolean incrementAt(int i, int j)
+   {
+      int offset = j << 2;
+      long mask = 0xfL << offset;
+      if ((table[i] & mask) != mask)
+      {
+         table[i] += 1L << offset;
+         return true;
+      }
+      return false;
+   }
+
+   /**
+    * Halves all the counters.
+    */
+   private void reset()
+   {
+      int count = 0;
+      for (int i = 0; i < table.length; i++)
+      {
+         count += Long.bitCount(table[i] & ONE_MASK);
+         table[i] = (table[i] >>> 1) & RESET_MASK;
+      }
+      size = (size >>> 1) - (count >>> 2);
+   }
+
+   private int indexOf(int item, int i)
+   {
+      long hash = (item + SEED[i]) * SEED[i];
+      hash += hash >>> 32;
+      return ((int)hash) & tableMask;
+   }
+
+   private static int spread(int x)
+   {
+      x = ((x >>> 16) ^ x) * 0x45d9f3b;
+      x = ((x >>> 16) ^ x) * 0x45d9f3b;
+      return (x >>> 16) ^ x;
+   }
+
+   private static int ceilingPowerOfTwo(int x)
+   {
+      return 1 << -Integer.numberOfLeadingZeros(x - 1);
+   }
+}
@@ -37,6 +37,26 @@ public class Item
 
    Item next;
 
+   /**
+    * The segment of the queue the item belongs to, only used by the queues made of several segments
+    */
+   int segment;
+
+   /**
+    * The state of the item, only used by the queues that record the changes asynchronously
+    */
+   volatile int state;
+
+   /**
+    * Returns the hash used to estimate the access frequency of the item.
+    *
+    * @return the frequency hash
+    */
+   int frequencyHash()
+   {
+      return hashCode;
+   }
+
    /**
     * This is final on purpose, we rely on object equality in the concurrent has
     */
@@ -21,25 +21,28 @@ package org.exoplatform.services.cache.concurrent;
 import org.exoplatform.services.cache.CacheInfo;
 import org.exoplatform.services.cache.CacheListener;
 import org.exoplatform.services.cache.CacheListenerContext;
+import org.exoplatform.services.cache.ExoCache;
 import org.exoplatform.services.log.ExoLogger;
 import org.exoplatform.services.log.Log;
 
+import java.io.Serializable;
+
 /**
  * @author <a href="mailto:julien.viet@exoplatform.com">Julien Viet</a>
  * @version $Revision$
  */
-public class ListenerContext<K, V> implements CacheListenerContext, CacheInfo
+public class ListenerContext<K extends Serializable, V> implements CacheListenerContext, CacheInfo
 {
 
    private static final Log LOG = ExoLogger.getLogger("exo.kernel.component.cache.ListenerContext");
 
    /** . */
-   private final ConcurrentFIFOExoCache cache;
+   private final ExoCache<K, V> cache;
 
    /** . */
    final CacheListener<? super K, ? super V> listener;
 
-   public ListenerContext(CacheListener<? super K, ? super V> listener, ConcurrentFIFOExoCache cache)
+   public ListenerContext(CacheListener<? super K, ? super V> listener, ExoCache<K, V> cache)
    {
       this.listener = listener;
       this.cache = cache;
@@ -35,10 +35,24 @@ abstract class ObjectRef<K extends Serializable, V> extends Item implements Obje
 
    protected final K name;
 
+   protected final long weight;
+
    protected ObjectRef(long expirationTime, K name)
+   {
+      this(expirationTime, name, 0);
+   }
+
+   protected ObjectRef(long expirationTime, K name, long weight)
    {
       this.name = name;
       this.expirationTime = expirationTime;
+      this.weight = weight;
+   }
+
+   @Override
+   int frequencyHash()
+   {
+      return name.hashCode();
    }
 
    public abstract boolean isValid();
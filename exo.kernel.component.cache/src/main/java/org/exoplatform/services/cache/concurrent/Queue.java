@@ -50,6 +50,16 @@ public interface Queue<I extends Item>
     */
    public void add(I item);
 
+   /**
+    * Notifies the queue that the item has been accessed. The default implementation does nothing
+    * which corresponds to a pure insertion order.
+    *
+    * @param item the accessed item
+    */
+   public default void touch(I item)
+   {
+   }
+
    /**
     * Attempt to trim the queue. Trim will occur if no other thread is already performing a trim
     * and the queue size is greater than the provided size.
@@ -58,4 +68,17 @@ public interface Queue<I extends Item>
     * @return the list of evicted items
     */
    public ArrayList<I> trim(int size);
+
+   /**
+    * Attempt to evict the given amount of items without changing the size provided to the previous
+    * trims. The default implementation trims the queue to its current size minus the given amount.
+    *
+    * @param count the amount of items to evict
+    * @return the list of evicted items or <code>null</code> if another thread is already performing
+    * a trim
+    */
+   public default ArrayList<I> evict(int count)
+   {
+      return trim(size() - count);
+   }
 }
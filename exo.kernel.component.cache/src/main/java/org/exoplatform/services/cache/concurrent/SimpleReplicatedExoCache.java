@@ -20,17 +20,29 @@ package org.exoplatform.services.cache.concurrent;
 
 import org.exoplatform.container.ExoContainer;
 import org.exoplatform.container.ExoContainerContext;
+import org.exoplatform.management.annotations.Managed;
+import org.exoplatform.management.annotations.ManagedDescription;
+import org.exoplatform.management.annotations.ManagedName;
 import org.exoplatform.services.cache.ExoCache;
+import org.exoplatform.services.cache.impl.SharedScheduler;
 import org.exoplatform.services.log.ExoLogger;
 import org.exoplatform.services.log.Log;
 import org.exoplatform.services.rpc.RPCService;
 import org.exoplatform.services.rpc.RemoteCommand;
 
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
 import java.io.Serializable;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.UUID;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * <p>This implementation of {@link ExoCache} will behave exactly the same way as {@link ConcurrentFIFOExoCache}
@@ -43,6 +55,9 @@ import java.util.UUID;
  * 
  * <b>This limitation is due to the fact that the mechanism used for the replication
  * has not been designed to support heavy load so it must be used with a lot of caution.</b>
+ * <p>To support more frequent changes, the replication can be batched thanks to
+ * {@link #setReplicationBatching(long, int)}, in which case the changes are coalesced during a short window
+ * and sent by a background thread in one single message that the other cluster nodes apply in order.</p>
  * 
  * @author <a href="mailto:nfilotto@exoplatform.com">Nicolas Filotto</a>
  * @version $Id$
@@ -75,6 +90,66 @@ public class SimpleReplicatedExoCache<K extends Serializable, V extends Serializ
     */
    private final String ctxName;
 
+   /**
+    * The default maximum amount of changes in a batch
+    */
+   public static final int DEFAULT_REPLICATION_BATCH_MAX_SIZE = 1000;
+
+   /**
+    * The thread used by all the caches to send the batches whose window is over
+    */
+   private static final SharedScheduler SENDER = new SharedScheduler("exo-cache-replication-sender");
+
+   /**
+    * The executor of the shared thread, <code>null</code> if the changes are sent one by one, guarded by the
+    * batch lock
+    */
+   private ScheduledExecutorService sender;
+
+   /**
+    * The maximum amount of milliseconds during which a change can be delayed, the changes are sent one by one
+    * if it is not positive
+    */
+   private volatile long replicationWindow;
+
+   /**
+    * The maximum amount of changes in a batch
+    */
+   private volatile int replicationBatchMaxSize = DEFAULT_REPLICATION_BATCH_MAX_SIZE;
+
+   /**
+    * The changes to send, guarded by the batch lock
+    */
+   private ReplicationBatch pending;
+
+   /**
+    * Incremented each time the pending batch is taken to be sent, guarded by the batch lock
+    */
+   private long generation;
+
+   private final Object batchLock = new Object();
+
+   /**
+    * Ensures that the batches are sent in order
+    */
+   private final Object sendLock = new Object();
+
+   /**
+    * The sequence number of the last batch sent
+    */
+   private final AtomicLong sequence = new AtomicLong();
+
+   /**
+    * The sequence number of the last batch applied indexed by sender, guarded by itself
+    */
+   private final Map<String, Long> lastSequences = new HashMap<String, Long>();
+
+   private final AtomicLong batches = new AtomicLong();
+
+   private final AtomicLong changes = new AtomicLong();
+
+   private final AtomicLong coalesced = new AtomicLong();
+
    public SimpleReplicatedExoCache()
    {
       ExoContainer container = ExoContainerContext.getCurrentContainer();
@@ -148,6 +223,17 @@ public class SimpleReplicatedExoCache<K extends Serializable, V extends Serializ
                         LOG.warn("Could not put the entry " + args[2] + " on other cluster nodes", e);
                      }
                   }
+                  else if ("b".equals(args[1]))
+                  {
+                     try
+                     {
+                        applyBatch((String)args[0], (Long)args[2], (ReplicationBatch)args[3]);
+                     }
+                     catch (Exception e)
+                     {
+                        LOG.warn("Could not apply the changes of other cluster nodes", e);
+                     }
+                  }
                   else if ("m".equals(args[1]))
                   {
                      try
@@ -170,6 +256,221 @@ public class SimpleReplicatedExoCache<K extends Serializable, V extends Serializ
       }
    }
 
+   /**
+    * Enables or disables the batching of the replication. When enabled, the changes are coalesced during the
+    * given window, or until the given amount of changes is reached, and then sent in one single message by
+    * a background thread. The pending changes are sent when the batching is disabled, so it must be disabled
+    * once the cache is not used anymore in order to release the background thread.
+    *
+    * @param window the maximum amount of milliseconds during which a change can be delayed, the batching is
+    * disabled if not positive
+    * @param maxSize the maximum amount of changes in a batch, {@link #DEFAULT_REPLICATION_BATCH_MAX_SIZE} is
+    * used if not positive
+    */
+   public void setReplicationBatching(long window, int maxSize)
+   {
+      this.replicationBatchMaxSize = maxSize > 0 ? maxSize : DEFAULT_REPLICATION_BATCH_MAX_SIZE;
+      boolean release;
+      synchronized (batchLock)
+      {
+         if (window > 0 && sender == null)
+         {
+            sender = SENDER.acquire();
+         }
+         release = window <= 0 && sender != null;
+         if (release)
+         {
+            sender = null;
+         }
+         this.replicationWindow = window > 0 ? window : 0;
+      }
+      if (window <= 0)
+      {
+         flushReplication();
+         if (release)
+         {
+            SENDER.release();
+         }
+      }
+   }
+
+   /**
+    * @return the maximum amount of milliseconds during which a change can be delayed, 0 if the changes are
+    * sent one by one
+    */
+   @Managed
+   @ManagedName("ReplicationWindow")
+   @ManagedDescription("The maximum amount of milliseconds during which a change can be delayed")
+   public long getReplicationWindow()
+   {
+      return replicationWindow;
+   }
+
+   /**
+    * @return the maximum amount of changes in a batch
+    */
+   @Managed
+   @ManagedName("ReplicationBatchMaxSize")
+   @ManagedDescription("The maximum amount of changes in a batch")
+   public int getReplicationBatchMaxSize()
+   {
+      return replicationBatchMaxSize;
+   }
+
+   /**
+    * @return the counters of the batches of changes
+    */
+   @Managed
+   @ManagedName("ReplicationStatistics")
+   @ManagedDescription("The counters of the batches of changes sent to the other cluster nodes")
+   public Map<String, Long> getReplicationStatistics()
+   {
+      Map<String, Long> map = new LinkedHashMap<String, Long>();
+      long count = batches.get();
+      map.put("batches", count);
+      map.put("changes", changes.get());
+      map.put("coalesced", coalesced.get());
+      synchronized (batchLock)
+      {
+         map.put("pending", pending == null ? 0L : pending.size());
+      }
+      map.put("batchSizeMean", count == 0 ? 0 : changes.get() / count);
+      return map;
+   }
+
+   /**
+    * Sends the pending changes without waiting for the end of the window
+    */
+   @Managed
+   @ManagedDescription("Send the pending changes to the other cluster nodes")
+   public void flushReplication()
+   {
+      flush(-1);
+   }
+
+   /**
+    * Adds a change to the pending batch, the batch is sent by the calling thread if it is full
+    * @param name the key of the entry
+    * @param obj the new value or <code>null</code> if the entry has been removed
+    * @param clear indicates whether the cache has been cleared
+    */
+   private void enqueue(Serializable name, V obj, boolean clear)
+   {
+      boolean full;
+      synchronized (batchLock)
+      {
+         if (pending == null)
+         {
+            pending = new ReplicationBatch();
+            schedule(generation);
+         }
+         if (clear)
+         {
+            coalesced.addAndGet(pending.size());
+            pending.clear();
+            full = sender == null;
+         }
+         else
+         {
+            if (pending.add(name, obj))
+            {
+               coalesced.incrementAndGet();
+            }
+            // Once the batching is disabled, the changes are sent without delay
+            full = sender == null || pending.size() >= replicationBatchMaxSize;
+         }
+      }
+      if (full)
+      {
+         flush(-1);
+      }
+   }
+
+   /**
+    * Sends the pending batch if it belongs to the given generation, or whatever the generation if it is
+    * negative
+    */
+   private void flush(long expectedGeneration)
+   {
+      synchronized (sendLock)
+      {
+         ReplicationBatch batch;
+         synchronized (batchLock)
+         {
+            if (pending == null || (expectedGeneration >= 0 && expectedGeneration != generation))
+            {
+               return;
+            }
+            batch = pending;
+            pending = null;
+            generation++;
+         }
+         try
+         {
+            rpcService.executeCommandOnAllNodes(command, false, id, "b", sequence.incrementAndGet(), batch);
+         }
+         catch (Exception e)
+         {
+            LOG.warn("Could not send " + batch.size() + " changes to other cluster nodes", e);
+         }
+         batches.incrementAndGet();
+         changes.addAndGet(batch.size());
+      }
+   }
+
+   private void schedule(final long generation)
+   {
+      if (sender == null)
+      {
+         return;
+      }
+      sender.schedule(new Runnable()
+      {
+         public void run()
+         {
+            flush(generation);
+         }
+      }, replicationWindow, TimeUnit.MILLISECONDS);
+   }
+
+   /**
+    * Applies the changes sent by another cluster node, a batch older than the last one applied from the
+    * same node is ignored since it would restore outdated values
+    * @param sender the id of the cache that sent the batch
+    * @param seq the sequence number of the batch
+    * @param batch the changes to apply
+    */
+   @SuppressWarnings("unchecked")
+   void applyBatch(String sender, long seq, ReplicationBatch batch)
+   {
+      synchronized (lastSequences)
+      {
+         Long last = lastSequences.get(sender);
+         if (last != null && seq <= last)
+         {
+            LOG.warn("The batch " + seq + " of the cache " + getName() + " has been received after the batch "
+               + last + ", it will be ignored");
+            return;
+         }
+         lastSequences.put(sender, seq);
+         if (batch.isClear())
+         {
+            clearCacheOnly();
+         }
+         for (Entry<Serializable, Serializable> entry : batch.getChanges().entrySet())
+         {
+            if (entry.getValue() == null)
+            {
+               removeOnly(entry.getKey());
+            }
+            else
+            {
+               putIfNeeded((K)entry.getKey(), (V)entry.getValue());
+            }
+         }
+      }
+   }
+
    /**
     * Removes the entry without replication
     * @param name the key of the entry to remove
@@ -204,7 +505,11 @@ public class SimpleReplicatedExoCache<K extends Serializable, V extends Serializ
    public V remove(Serializable name)
    {
       V v = super.remove(name);
-      if (v != null)
+      if (v != null && replicationWindow > 0)
+      {
+         enqueue(name, null, false);
+      }
+      else if (v != null)
       {
          try
          {
@@ -222,6 +527,11 @@ public class SimpleReplicatedExoCache<K extends Serializable, V extends Serializ
    public void clearCache()
    {
       super.clearCache();
+      if (replicationWindow > 0)
+      {
+         enqueue(null, null, true);
+         return;
+      }
       try
       {
          rpcService.executeCommandOnAllNodes(command, false, id, "c");
@@ -236,6 +546,11 @@ public class SimpleReplicatedExoCache<K extends Serializable, V extends Serializ
    public void put(K name, V obj)
    {
       super.put(name, obj);
+      if (replicationWindow > 0)
+      {
+         enqueue(name, obj, false);
+         return;
+      }
       try
       {
          rpcService.executeCommandOnAllNodes(command, false, id, "p", name, obj);
@@ -251,6 +566,14 @@ public class SimpleReplicatedExoCache<K extends Serializable, V extends Serializ
    public void putMap(Map<? extends K, ? extends V> objs)
    {
       super.putMap(objs);
+      if (replicationWindow > 0)
+      {
+         for (Entry<? extends K, ? extends V> entry : objs.entrySet())
+         {
+            enqueue(entry.getKey(), entry.getValue(), false);
+         }
+         return;
+      }
       try
       {
          rpcService.executeCommandOnAllNodes(command, false, id, "m", new HashMap<K, V>(objs));
@@ -276,4 +599,79 @@ public class SimpleReplicatedExoCache<K extends Serializable, V extends Serializ
          super.finalize();
       }
    }
+
+   /**
+    * The changes sent in one single message, the value of a removed entry is <code>null</code>. Only the last
+    * change of a given key is kept and a clear discards the changes made before it.
+    */
+   public static class ReplicationBatch implements Externalizable
+   {
+      private static final long serialVersionUID = 5046277398516312694L;
+
+      private boolean clear;
+
+      private final Map<Serializable, Serializable> changes = new LinkedHashMap<Serializable, Serializable>();
+
+      public ReplicationBatch()
+      {
+      }
+
+      /**
+       * @return <code>true</code> if the change replaces a previous change of the same key
+       */
+      boolean add(Serializable name, Serializable obj)
+      {
+         boolean replaced = changes.containsKey(name);
+         changes.put(name, obj);
+         return replaced;
+      }
+
+      void clear()
+      {
+         changes.clear();
+         clear = true;
+      }
+
+      int size()
+      {
+         return clear ? changes.size() + 1 : changes.size();
+      }
+
+      boolean isClear()
+      {
+         return clear;
+      }
+
+      Map<Serializable, Serializable> getChanges()
+      {
+         return changes;
+      }
+
+      /**
+       * {@inheritDoc}
+       */
+      public void writeExternal(ObjectOutput out) throws IOException
+      {
+         out.writeBoolean(clear);
+         out.writeInt(changes.size());
+         for (Entry<Serializable, Serializable> entry : changes.entrySet())
+         {
+            out.writeObject(entry.getKey());
+            out.writeObject(entry.getValue());
+         }
+      }
+
+      /**
+       * {@inheritDoc}
+       */
+      public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException
+      {
+         clear = in.readBoolean();
+         int size = in.readInt();
+         for (int i = 0; i < size; i++)
+         {
+            changes.put((Serializable)in.readObject(), (Serializable)in.readObject());
+         }
+      }
+   }
 }
@@ -0,0 +1,69 @@
+/*
+ * Copyright (C) 2026 eXo Platform SAS.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.exoplatform.services.cache.concurrent;
+
+import org.exoplatform.services.log.Log;
+
+/**
+ * A {@link SynchronizedQueue} that moves the accessed items to the head of the list, which
+ * results in a least recently used eviction order.
+ *
+ * @version $Revision$
+ */
+public class SynchronizedLRUQueue<I extends Item> extends SynchronizedQueue<I>
+{
+
+   public SynchronizedLRUQueue(Log log)
+   {
+      super(log);
+   }
+
+   /**
+    * Moves the item to the head of the list. The promotion is skipped when another thread holds
+    * the lock, a read should never wait for the writers.
+    *
+    * @param item the accessed item
+    */
+   @Override
+   public void touch(I item)
+   {
+      if (queueLock.tryLock())
+      {
+         try
+         {
+            Item previous = item.previous;
+            Item next = item.next;
+            if (previous != null && next != null && previous != head)
+            {
+               previous.next = next;
+               next.previous = previous;
+               Item first = head.next;
+               item.next = first;
+               first.previous = item;
+               head.next = item;
+               item.previous = head;
+            }
+         }
+         finally
+         {
+            queueLock.unlock();
+         }
+      }
+   }
+}
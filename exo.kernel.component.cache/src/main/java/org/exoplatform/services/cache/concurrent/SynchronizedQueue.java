@@ -34,13 +34,13 @@ public class SynchronizedQueue<I extends Item> implements Queue<I>
 
    private final Log log;
 
-   private final Item head;
+   final Item head;
 
-   private final Item tail;
+   final Item tail;
 
    volatile int queueSize; // The queue size cached (which can be an estimate)
 
-   private final Lock queueLock = new ReentrantLock();
+   final Lock queueLock = new ReentrantLock();
 
    private volatile AtomicBoolean trimming = new AtomicBoolean();
 
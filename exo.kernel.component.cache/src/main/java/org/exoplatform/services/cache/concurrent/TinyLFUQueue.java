@@ -0,0 +1,433 @@
+/*
+ * Copyright (C) 2026 eXo Platform SAS.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.exoplatform.services.cache.concurrent;
+
+import org.exoplatform.services.log.Log;
+
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A queue implementing the Window TinyLFU policy. New items enter a small LRU window, the items leaving
+ * the window are admitted in the main segmented LRU space only if their estimated access frequency
+ * is greater than the one of the item that would be evicted instead. The main space is split into
+ * a probation segment and a protected segment, an item of the probation segment that is accessed
+ * again is promoted to the protected segment. This makes the queue resistant to the scans of cold keys.
+ *
+ * @version $Revision$
+ */
+public class TinyLFUQueue<I extends Item> implements Queue<I>
+{
+
+   private static final int WINDOW = 1;
+
+   private static final int PROBATION = 2;
+
+   private static final int PROTECTED = 3;
+
+   private final Log log;
+
+   private final Segment window = new Segment();
+
+   private final Segment probation = new Segment();
+
+   private final Segment protectedSegment = new Segment();
+
+   private final FrequencySketch sketch;
+
+   volatile int queueSize; // The queue size cached (which can be an estimate)
+
+   volatile int maximum; // The last size provided to trim
+
+   private final Lock queueLock = new ReentrantLock();
+
+   private final AtomicBoolean trimming = new AtomicBoolean();
+
+   public TinyLFUQueue(Log log)
+   {
+      this.log = log;
+      this.sketch = new FrequencySketch(16);
+   }
+
+   private boolean isTraceEnabled()
+   {
+      return log != null && log.isTraceEnabled();
+   }
+
+   private void trace(String message)
+   {
+      log.trace(message + " [" + Thread.currentThread().getName() + "]");
+   }
+
+   public int size()
+   {
+      return queueSize;
+   }
+
+   public void assertConsistency()
+   {
+      int cachedQueueSize = queueSize;
+      int effectiveQueueSize = window.count() + probation.count() + protectedSegment.count();
+      if (effectiveQueueSize != cachedQueueSize)
+      {
+         throw new AssertionError("The cached queue size " + cachedQueueSize
+            + "  is different from the effective queue size" + effectiveQueueSize);
+      }
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public boolean remove(I item)
+   {
+      queueLock.lock();
+      try
+      {
+         if (item.previous != null && item.next != null)
+         {
+            segmentOf(item).unlink(item);
+            int newSize = --queueSize;
+            if (isTraceEnabled())
+            {
+               trace("Removed item=" + item.serial + " with queue=" + newSize);
+            }
+            return true;
+         }
+         else
+         {
+            if (isTraceEnabled())
+            {
+               trace("Attempt to remove item=" + item.serial + " concurrently removed");
+            }
+            return false;
+         }
+      }
+      finally
+      {
+         queueLock.unlock();
+      }
+   }
+
+   /**
+    * Adds the item to the head of the window.
+    *
+    * @param item the item to add
+    */
+   public void add(I item)
+   {
+      queueLock.lock();
+      try
+      {
+         sketch.increment(item.frequencyHash());
+         window.linkFirst(item, WINDOW);
+         int newSize = ++queueSize;
+
+         // As long as the main space is not full, the window overflow can be moved without any eviction
+         int max = maximum;
+         if (max > 0)
+         {
+            int windowMax = windowMax(max);
+            if (window.size > windowMax && probation.size + protectedSegment.size < max - windowMax)
+            {
+               Item candidate = window.last();
+               window.unlink(candidate);
+               probation.linkFirst(candidate, PROBATION);
+            }
+         }
+         if (isTraceEnabled())
+         {
+            trace("Added item=" + item.serial + " and queue=" + newSize);
+         }
+      }
+      finally
+      {
+         queueLock.unlock();
+      }
+   }
+
+   /**
+    * Records the access and promotes the item. The promotion is skipped when another thread holds
+    * the lock, a read should never wait for the writers.
+    *
+    * @param item the accessed item
+    */
+   public void touch(I item)
+   {
+      if (queueLock.tryLock())
+      {
+         try
+         {
+            if (item.previous == null || item.next == null)
+            {
+               // Concurrently removed
+               return;
+            }
+            sketch.increment(item.frequencyHash());
+            switch (item.segment)
+            {
+               case WINDOW :
+                  window.unlink(item);
+                  window.linkFirst(item, WINDOW);
+                  break;
+               case PROBATION :
+                  probation.unlink(item);
+                  protectedSegment.linkFirst(item, PROTECTED);
+                  int max = maximum;
+                  if (max > 0)
+                  {
+                     int protectedMax = protectedMax(max);
+                     while (protectedSegment.size > protectedMax)
+                     {
+                        Item demoted = protectedSegment.last();
+                        protectedSegment.unlink(demoted);
+                        probation.linkFirst(demoted, PROBATION);
+                     }
+                  }
+                  break;
+               case PROTECTED :
+                  protectedSegment.unlink(item);
+                  protectedSegment.linkFirst(item, PROTECTED);
+                  break;
+               default :
+            }
+         }
+         finally
+         {
+            queueLock.unlock();
+         }
+      }
+   }
+
+   /**
+    * Attempt to trim the queue. Trim will occur if no other thread is already performing a trim
+    * and the queue size is greater than the provided size. The items leaving the window compete with
+    * the eviction candidates of the main space and the least frequently used one is evicted.
+    *
+    * @param size the wanted size
+    * @return the list of evicted items
+    */
+   public ArrayList<I> trim(int size)
+   {
+      if (trimming.compareAndSet(false, true))
+      {
+         queueLock.lock();
+         try
+         {
+            if (size != maximum)
+            {
+               maximum = size;
+               sketch.ensureCapacity(size);
+            }
+            return trim(size, size);
+         }
+         finally
+         {
+            queueLock.unlock();
+            trimming.set(false);
+         }
+      }
+
+      //
+      return null;
+   }
+
+   /**
+    * Attempt to evict the given amount of items, the window and the main space keep the sizes computed
+    * from the size provided to the last trim.
+    *
+    * @param count the amount of items to evict
+    * @return the list of evicted items
+    */
+   public ArrayList<I> evict(int count)
+   {
+      if (trimming.compareAndSet(false, true))
+      {
+         queueLock.lock();
+         try
+         {
+            int max = maximum;
+            return trim(queueSize - count, max > 0 ? max : queueSize);
+         }
+         finally
+         {
+            queueLock.unlock();
+            trimming.set(false);
+         }
+      }
+
+      //
+      return null;
+   }
+
+   /**
+    * Evicts items until the queue size is lower or equal to the given size, the caller must hold the lock
+    *
+    * @param size the wanted size
+    * @param max the maximum size of the queue from which the sizes of the window and the main space are computed
+    * @return the list of evicted items
+    */
+   @SuppressWarnings("unchecked")
+   private ArrayList<I> trim(int size, int max)
+   {
+      if (queueSize > size)
+      {
+         ArrayList<I> evictedItems = new ArrayList<I>(queueSize - size);
+         int windowMax = windowMax(max);
+         while (queueSize > size)
+         {
+            Item evicted;
+            if (window.size > windowMax)
+            {
+               Item candidate = window.last();
+               window.unlink(candidate);
+               Item victim = mainVictim();
+               if (victim == null || probation.size + protectedSegment.size < max - windowMax)
+               {
+                  // There is still room in the main space
+                  probation.linkFirst(candidate, PROBATION);
+                  continue;
+               }
+               else if (sketch.frequency(candidate.frequencyHash()) > sketch.frequency(victim.frequencyHash()))
+               {
+                  segmentOf(victim).unlink(victim);
+                  probation.linkFirst(candidate, PROBATION);
+                  evicted = victim;
+               }
+               else
+               {
+                  evicted = candidate;
+               }
+            }
+            else
+            {
+               evicted = mainVictim();
+               if (evicted == null)
+               {
+                  evicted = window.last();
+                  if (evicted == null)
+                  {
+                     break;
+                  }
+               }
+               segmentOf(evicted).unlink(evicted);
+            }
+            queueSize--;
+            evictedItems.add((I)evicted);
+         }
+         if (isTraceEnabled())
+         {
+            trace("Evicted " + evictedItems.size() + " items with queue=" + queueSize);
+         }
+         return evictedItems;
+      }
+      return null;
+   }
+
+   private Item mainVictim()
+   {
+      Item victim = probation.last();
+      return victim != null ? victim : protectedSegment.last();
+   }
+
+   private Segment segmentOf(Item item)
+   {
+      switch (item.segment)
+      {
+         case WINDOW :
+            return window;
+         case PROBATION :
+            return probation;
+         default :
+            return protectedSegment;
+      }
+   }
+
+   private static int windowMax(int size)
+   {
+      return Math.max(1, size / 100);
+   }
+
+   private static int protectedMax(int size)
+   {
+      return (size - windowMax(size)) * 4 / 5;
+   }
+
+   /**
+    * A doubly linked list of items delimited by two sentinels.
+    */
+   private static class Segment
+   {
+
+      private final Item head = new Item();
+
+      private final Item tail = new Item();
+
+      private int size;
+
+      Segment()
+      {
+         head.next = tail;
+         tail.previous = head;
+      }
+
+      void linkFirst(Item item, int segment)
+      {
+         Item next = head.next;
+         item.next = next;
+         next.previous = item;
+         head.next = item;
+         item.previous = head;
+         item.segment = segment;
+         size++;
+      }
+
+      void unlink(Item item)
+      {
+         Item previous = item.previous;
+         Item next = item.next;
+         previous.next = next;
+         next.previous = previous;
+         item.previous = null;
+         item.next = null;
+         size--;
+      }
+
+      Item last()
+      {
+         Item last = tail.previous;
+         return last == head ? null : last;
+      }
+
+      int count()
+      {
+         int count = 0;
+         for (Item item = head.next; item != tail; item = item.next) //NOSONAR
+         {
+            count++;
+         }
+         if (count != size)
+         {
+            throw new AssertionError("The segment size " + size + " is different from its effective size " + count);
+         }
+         return count;
+      }
+   }
+}
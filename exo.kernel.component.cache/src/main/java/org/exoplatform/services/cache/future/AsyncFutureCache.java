@@ -0,0 +1,449 @@
+/*
+ * Copyright (C) 2026 eXo Platform SAS.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.exoplatform.services.cache.future;
+
+import org.exoplatform.services.cache.CacheStatistics;
+import org.exoplatform.services.cache.impl.DaemonThreadFactory;
+import org.exoplatform.services.log.ExoLogger;
+import org.exoplatform.services.log.Log;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BiConsumer;
+
+/**
+ * An asynchronous version of the {@link FutureCache}: the resources are loaded by an {@link Executor} instead of
+ * the calling thread and the callers get a {@link CompletableFuture} so that a slow loader never pins them.
+ * Like with the {@link FutureCache}, the same resource is never loaded twice concurrently.
+ * <p>
+ * A load timeout can be set, in which case the future given to a caller is completed with a
+ * {@link TimeoutException} once it expires, the load itself goes on and its value is cached anyway.
+ * The entries can also be refreshed in the background when they are about to expire, to do so a refresh-ahead
+ * delay has to be set and {@link #getExpirationTime(Object)} has to be implemented, the value still cached is
+ * returned while the new one is being loaded.
+ * <p>
+ * Negative caching and a backoff after the failures of the loader can be enabled the same way as for
+ * the {@link FutureCache}.
+ *
+ * @version $Revision$
+ * @param <K> the key type parameter
+ * @param <V> the value type parameter
+ * @param <C> the context type parameter
+ */
+public abstract class AsyncFutureCache<K, V, C>
+{
+
+   /** . */
+   private static final Log LOG = ExoLogger.getLogger("exo.kernel.component.cache.AsyncFutureCache");
+
+   /** . */
+   private final Loader<K, V, C> loader;
+
+   /** . */
+   private final Executor executor;
+
+   /** . */
+   private final ConcurrentMap<K, CompletableFuture<V>> futureEntries;
+
+   /** . */
+   private final MissCache<K> misses;
+
+   /** The maximum amount of milliseconds a caller waits for a value, no limit if not positive. */
+   private volatile long loadTimeout;
+
+   /** The amount of milliseconds before the expiration of an entry from which it is refreshed, disabled if not positive. */
+   private volatile long refreshAhead;
+
+   /**
+    * Creates an asynchronous future cache whose resources are loaded by a thread pool shared by all
+    * the asynchronous future caches using the default executor.
+    *
+    * @param loader the loader of the resources
+    */
+   public AsyncFutureCache(Loader<K, V, C> loader)
+   {
+      this(loader, DefaultExecutor.INSTANCE);
+   }
+
+   /**
+    * @param loader the loader of the resources
+    * @param executor the executor in which the resources are loaded
+    */
+   public AsyncFutureCache(Loader<K, V, C> loader, Executor executor)
+   {
+      if (loader == null)
+      {
+         throw new IllegalArgumentException("No null loader accepted");
+      }
+      if (executor == null)
+      {
+         throw new IllegalArgumentException("No null executor accepted");
+      }
+      this.loader = loader;
+      this.executor = executor;
+      this.futureEntries = new ConcurrentHashMap<K, CompletableFuture<V>>();
+      this.misses = new MissCache<K>();
+   }
+
+   protected abstract V get(K key);
+
+   protected abstract void putOnly(K key, V value);
+
+   /**
+    * Gives the statistics in which the load time of the values is recorded, by default there is none.
+    *
+    * @return the statistics or <code>null</code>
+    */
+   protected CacheStatistics getStatistics()
+   {
+      return null;
+   }
+
+   /**
+    * Gives the expiration time of the cached entry of the given key, it is needed to refresh the entries
+    * ahead of their expiration. By default the expiration time is unknown.
+    *
+    * @param key the key of the entry
+    * @return the expiration time in milliseconds or -1 if it is unknown
+    */
+   protected long getExpirationTime(K key)
+   {
+      return -1;
+   }
+
+   public long getLoadTimeout()
+   {
+      return loadTimeout;
+   }
+
+   /**
+    * @param loadTimeout the maximum amount of milliseconds a caller waits for a value, no limit if not positive
+    */
+   public void setLoadTimeout(long loadTimeout)
+   {
+      this.loadTimeout = loadTimeout;
+   }
+
+   public long getRefreshAhead()
+   {
+      return refreshAhead;
+   }
+
+   /**
+    * @param refreshAhead the amount of milliseconds before the expiration of an entry from which a read
+    * triggers its reload in the background, disabled if not positive
+    */
+   public void setRefreshAhead(long refreshAhead)
+   {
+      this.refreshAhead = refreshAhead;
+   }
+
+   public long getNegativeLiveTime()
+   {
+      return misses.getNegativeLiveTime();
+   }
+
+   /**
+    * @see FutureCache#setNegativeLiveTime(long)
+    */
+   public void setNegativeLiveTime(long negativeLiveTime)
+   {
+      misses.setNegativeLiveTime(negativeLiveTime);
+   }
+
+   public long getFailureBackoff()
+   {
+      return misses.getFailureBackoff();
+   }
+
+   /**
+    * @see FutureCache#setFailureBackoff(long)
+    */
+   public void setFailureBackoff(long failureBackoff)
+   {
+      misses.setFailureBackoff(failureBackoff);
+   }
+
+   /**
+    * @see FutureCache#clearMiss(Object)
+    */
+   public void clearMiss(K key)
+   {
+      misses.remove(key);
+   }
+
+   /**
+    * @see FutureCache#clearMisses()
+    */
+   public void clearMisses()
+   {
+      misses.clear();
+   }
+
+   /**
+    * Perform a cache lookup for the specified key within the specified context. If the value is not cached,
+    * it is loaded by the executor unless it is already being loaded. The future is completed with
+    * null if the value does not exist or if it could not be loaded recently, exceptionally if the loader failed
+    * or if the load timeout expired.
+    *
+    * @param context the context in which the resource is accessed
+    * @param key the key identifying the resource
+    * @return the future value
+    */
+   public final CompletableFuture<V> getAsync(final C context, final K key)
+   {
+      // First we try a simple cache get
+      V value = get(key);
+      if (value != null)
+      {
+         if (isRefreshNeeded(key))
+         {
+            load(context, key, true);
+         }
+         return CompletableFuture.completedFuture(value);
+      }
+      if (misses.contains(key))
+      {
+         return CompletableFuture.completedFuture(null);
+      }
+      return newCallerFuture(key, load(context, key, false));
+   }
+
+   /**
+    * Perform a cache lookup for the specified key within the specified context and waits for
+    * its value. When the value cannot be loaded (because it does not exist, it failed or it took too long),
+    * the value null is returned.
+    *
+    * @param context the context in which the resource is accessed
+    * @param key the key identifying the resource
+    * @return the value
+    */
+   public final V get(final C context, final K key)
+   {
+      try
+      {
+         return getAsync(context, key).get();
+      }
+      catch (ExecutionException e)
+      {
+         LOG.error("Computing of resource " + key + " threw an exception", e.getCause());
+      }
+      catch (InterruptedException e)
+      {
+         Thread.currentThread().interrupt();
+         LOG.error("Retrieval of resource " + key + " has been interrupted", e);
+      }
+      return null;
+   }
+
+   /**
+    * Reloads the value of the specified key in the background, the cached value if any remains available
+    * until the new one is loaded. Nothing is done if the value is already being loaded.
+    *
+    * @param context the context in which the resource is accessed
+    * @param key the key identifying the resource
+    * @return the future new value
+    */
+   public final CompletableFuture<V> refresh(final C context, final K key)
+   {
+      return newCallerFuture(key, load(context, key, true));
+   }
+
+   private boolean isRefreshNeeded(K key)
+   {
+      long refreshAhead = this.refreshAhead;
+      if (refreshAhead <= 0 || futureEntries.containsKey(key))
+      {
+         return false;
+      }
+      long expirationTime = getExpirationTime(key);
+      return expirationTime > 0 && expirationTime - System.currentTimeMillis() <= refreshAhead;
+   }
+
+   /**
+    * Gives the future of the current load of the given key, a new load is started if there is none.
+    */
+   private CompletableFuture<V> load(final C context, final K key, final boolean refresh)
+   {
+      CompletableFuture<V> future = futureEntries.get(key);
+      if (future != null)
+      {
+         return future;
+      }
+      final CompletableFuture<V> newFuture = new CompletableFuture<V>();
+      future = futureEntries.putIfAbsent(key, newFuture);
+      if (future != null)
+      {
+         // Use the future that could have been inserted by another thread
+         return future;
+      }
+      if (!refresh)
+      {
+         // The value could have been cached by a load that ended since our cache get
+         V value = get(key);
+         if (value != null)
+         {
+            futureEntries.remove(key, newFuture);
+            newFuture.complete(value);
+            return newFuture;
+         }
+      }
+      try
+      {
+         executor.execute(new Runnable()
+         {
+            public void run()
+            {
+               long start = System.nanoTime();
+               try
+               {
+                  V value;
+                  try
+                  {
+                     value = loader.retrieve(context, key);
+                  }
+                  finally
+                  {
+                     CacheStatistics statistics = getStatistics();
+                     if (statistics != null)
+                     {
+                        statistics.recordLoad(System.nanoTime() - start);
+                     }
+                  }
+                  if (value != null)
+                  {
+                     // Cache it, it is made available to other threads (unless someone removes it)
+                     putOnly(key, value);
+                  }
+                  else
+                  {
+                     misses.onNull(key);
+                  }
+                  futureEntries.remove(key, newFuture);
+                  newFuture.complete(value);
+               }
+               catch (Throwable t)
+               {
+                  misses.onFailure(key);
+                  futureEntries.remove(key, newFuture);
+                  if (refresh)
+                  {
+                     LOG.warn("Refreshing of resource " + key + " threw an exception", t);
+                  }
+                  newFuture.completeExceptionally(t);
+               }
+            }
+         });
+      }
+      catch (RejectedExecutionException e)
+      {
+         futureEntries.remove(key, newFuture);
+         newFuture.completeExceptionally(e);
+      }
+      return newFuture;
+   }
+
+   /**
+    * Creates the future given to a caller, it is distinct from the shared future of the load so that a caller
+    * cannot complete it for the others and it is completed exceptionally if the load timeout expires.
+    */
+   private CompletableFuture<V> newCallerFuture(final K key, CompletableFuture<V> loadFuture)
+   {
+      final CompletableFuture<V> future = new CompletableFuture<V>();
+      long loadTimeout = this.loadTimeout;
+      final ScheduledFuture<?> timeout;
+      if (loadTimeout > 0 && !loadFuture.isDone())
+      {
+         final long delay = loadTimeout;
+         timeout = TimeoutScheduler.INSTANCE.schedule(new Runnable()
+         {
+            public void run()
+            {
+               future.completeExceptionally(new TimeoutException("The resource " + key + " could not be loaded within "
+                  + delay + " ms"));
+            }
+         }, loadTimeout, TimeUnit.MILLISECONDS);
+      }
+      else
+      {
+         timeout = null;
+      }
+      loadFuture.whenComplete(new BiConsumer<V, Throwable>()
+      {
+         public void accept(V value, Throwable t)
+         {
+            if (timeout != null)
+            {
+               timeout.cancel(false);
+            }
+            if (t == null)
+            {
+               future.complete(value);
+            }
+            else
+            {
+               future.completeExceptionally(t);
+            }
+         }
+      });
+      return future;
+   }
+
+   /**
+    * The default executor, it is only created if it is used.
+    */
+   private static class DefaultExecutor
+   {
+      static final ExecutorService INSTANCE;
+      static
+      {
+         int threads = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+         ThreadPoolExecutor executor =
+            new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),
+               new DaemonThreadFactory("exo-cache-loader", true));
+         executor.allowCoreThreadTimeOut(true);
+         INSTANCE = Executors.unconfigurableExecutorService(executor);
+      }
+   }
+
+   /**
+    * The scheduler of the load timeouts, it is only created if it is used.
+    */
+   private static class TimeoutScheduler
+   {
+      static final ScheduledThreadPoolExecutor INSTANCE;
+      static
+      {
+         INSTANCE = new ScheduledThreadPoolExecutor(1, new DaemonThreadFactory("exo-cache-load-timeout"));
+         INSTANCE.setRemoveOnCancelPolicy(true);
+      }
+   }
+}
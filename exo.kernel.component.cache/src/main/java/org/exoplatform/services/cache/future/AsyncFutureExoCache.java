@@ -0,0 +1,84 @@
+/*
+ * Copyright (C) 2026 eXo Platform SAS.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.exoplatform.services.cache.future;
+
+import org.exoplatform.services.cache.CacheStatistics;
+import org.exoplatform.services.cache.ExoCache;
+import org.exoplatform.services.cache.concurrent.ConcurrentFIFOExoCache;
+
+import java.io.Serializable;
+import java.util.concurrent.Executor;
+
+/**
+ * An {@link AsyncFutureCache} backed by an {@link ExoCache}. The entries can only be refreshed ahead of their
+ * expiration when the cache is a {@link ConcurrentFIFOExoCache} since the expiration time of the entries
+ * of the other implementations is not known.
+ *
+ * @version $Revision$
+ */
+public class AsyncFutureExoCache<K extends Serializable, V, C> extends AsyncFutureCache<K, V, C>
+{
+
+   /** . */
+   private final ExoCache<K, V> cache;
+
+   public AsyncFutureExoCache(Loader<K, V, C> loader, ExoCache<K, V> cache)
+   {
+      super(loader);
+
+      //
+      this.cache = cache;
+   }
+
+   public AsyncFutureExoCache(Loader<K, V, C> loader, ExoCache<K, V> cache, Executor executor)
+   {
+      super(loader, executor);
+
+      //
+      this.cache = cache;
+   }
+
+   @Override
+   protected V get(K key)
+   {
+      return cache.get(key);
+   }
+
+   @Override
+   protected void putOnly(K key, V value)
+   {
+      cache.putLocal(key, value);
+   }
+
+   @Override
+   protected long getExpirationTime(K key)
+   {
+      if (cache instanceof ConcurrentFIFOExoCache)
+      {
+         return ((ConcurrentFIFOExoCache<K, V>)cache).getExpirationTime(key);
+      }
+      return -1;
+   }
+
+   @Override
+   protected CacheStatistics getStatistics()
+   {
+      return cache.getStatistics();
+   }
+}
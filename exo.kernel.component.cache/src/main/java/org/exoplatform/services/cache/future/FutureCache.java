@@ -18,9 +18,17 @@
  */
 package org.exoplatform.services.cache.future;
 
+import org.exoplatform.services.cache.CacheStatistics;
 import org.exoplatform.services.log.ExoLogger;
 import org.exoplatform.services.log.Log;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
@@ -30,6 +38,10 @@ import java.util.concurrent.FutureTask;
 /**
  * A future cache that prevents the loading of the same resource twice. This should be used when the resource
  * to load is very expensive or cannot be concurrently retrieved (like a classloading). 
+ * <p>
+ * Optionally, the keys whose value does not exist can be remembered for a short time (negative caching) and
+ * the keys whose loading failed are not loaded again before a backoff delay, so that neither the missing
+ * resources nor a failing backend are requested by every caller.
  *
  * @author <a href="mailto:julien.viet@exoplatform.com">Julien Viet</a>
  * @version $Revision$
@@ -46,6 +58,9 @@ public abstract class FutureCache<K, V, C>
    /** . */
    private final ConcurrentMap<K, FutureTask<V>> futureEntries;
 
+   /** . */
+   private final MissCache<K> misses;
+
    /** . */
    private static final Log LOG = ExoLogger.getLogger("exo.kernel.component.cache.FutureCache");
 
@@ -54,14 +69,91 @@ public abstract class FutureCache<K, V, C>
    {
       this.loader = loader;
       this.futureEntries = new ConcurrentHashMap<K, FutureTask<V>>();
+      this.misses = new MissCache<K>();
+   }
+
+   public long getNegativeLiveTime()
+   {
+      return misses.getNegativeLiveTime();
+   }
+
+   /**
+    * @param negativeLiveTime the amount of milliseconds during which a key whose loader returned null is
+    * not loaded again, negative caching is disabled if not positive which is the default
+    */
+   public void setNegativeLiveTime(long negativeLiveTime)
+   {
+      misses.setNegativeLiveTime(negativeLiveTime);
+   }
+
+   public long getFailureBackoff()
+   {
+      return misses.getFailureBackoff();
+   }
+
+   /**
+    * @param failureBackoff the amount of milliseconds during which a key whose loader threw an exception is
+    * not loaded again, the backoff is disabled if not positive which is the default
+    */
+   public void setFailureBackoff(long failureBackoff)
+   {
+      misses.setFailureBackoff(failureBackoff);
+   }
+
+   /**
+    * Forgets that the value of the given key could not be loaded, the next lookup will call the loader.
+    *
+    * @param key the key
+    */
+   public void clearMiss(K key)
+   {
+      misses.remove(key);
+   }
+
+   /**
+    * Forgets all the keys whose value could not be loaded.
+    */
+   public void clearMisses()
+   {
+      misses.clear();
    }
 
    protected abstract V get(K key);
 
+   /**
+    * Performs a cache lookup for several keys, by default one lookup per key is done.
+    *
+    * @param keys the keys
+    * @return the cached values indexed by key
+    */
+   protected Map<K, V> getAll(Collection<K> keys)
+   {
+      Map<K, V> values = new HashMap<K, V>();
+      for (K key : keys)
+      {
+         V value = get(key);
+         if (value != null)
+         {
+            values.put(key, value);
+         }
+      }
+      return values;
+   }
+
    protected abstract void put(K key, V value);
 
    protected abstract void putOnly(K key, V value);
 
+   /**
+    * Gives the statistics in which the load time of the values is recorded, by default there is none.
+    *
+    * @return the statistics or <code>null</code>
+    */
+   protected CacheStatistics getStatistics()
+   {
+      return null;
+   }
+
    /**
     * Perform a cache lookup for the specified key within the specified context.
     * When the value cannot be loaded (because it does not exist or it failed or anything else that
@@ -77,32 +169,11 @@ public abstract class FutureCache<K, V, C>
       V value = get(key);
 
       // If it does not succeed then we go through a process that will avoid to load
-      // the same resource concurrently
-      if (value == null)
+      // the same resource concurrently unless we know it cannot be loaded for now
+      if (value == null && !misses.contains(key))
       {
          // Create our future
-         FutureTask<V> future = new FutureTask<V>(new Callable<V>()
-         {
-            public V call() throws Exception
-            {
-               // Retrieve the value from the loader
-               V value = loader.retrieve(context, key);
-
-               //
-               if (value != null)
-               {
-                  // Cache it, it is made available to other threads (unless someone removes it)
-                  putOnly(key, value);
-
-                  // Return value
-                  return value;
-               }
-               else
-               {
-                  return null;
-               }
-            }
-         });
+         FutureTask<V> future = newTask(context, key);
 
          // This boolean means we inserted in the local
          boolean inserted = true;
@@ -147,4 +218,224 @@ public abstract class FutureCache<K, V, C>
       //
       return value;
    }
+
+   /**
+    * Perform a cache lookup for the specified keys within the specified context. The missing values are
+    * loaded in one call if the loader is a {@link BatchLoader}, one by one otherwise. A key that is being
+    * loaded by another thread is not loaded again, its value is awaited instead. When a value cannot be loaded
+    * its key is not part of the result.
+    *
+    * @param context the context in which the resources are accessed
+    * @param keys the keys identifying the resources
+    * @return the values indexed by key
+    */
+   public final Map<K, V> getAll(final C context, final Collection<K> keys)
+   {
+      // First we try a simple cache lookup
+      Map<K, V> values = new HashMap<K, V>(getAll(keys));
+      Set<K> missingKeys = new LinkedHashSet<K>();
+      for (K key : keys)
+      {
+         if (key != null && !values.containsKey(key) && !misses.contains(key))
+         {
+            missingKeys.add(key);
+         }
+      }
+      if (missingKeys.isEmpty())
+      {
+         return values;
+      }
+
+      // The futures that we inserted and the ones inserted by other threads
+      Map<K, LoadTask<V>> ownFutures = new LinkedHashMap<K, LoadTask<V>>();
+      Map<K, FutureTask<V>> otherFutures = new HashMap<K, FutureTask<V>>();
+      for (K key : missingKeys)
+      {
+         LoadTask<V> future = newTask(context, key);
+         FutureTask<V> phantom = futureEntries.putIfAbsent(key, future);
+         if (phantom == null)
+         {
+            ownFutures.put(key, future);
+         }
+         else
+         {
+            otherFutures.put(key, phantom);
+         }
+      }
+      try
+      {
+         if (!ownFutures.isEmpty())
+         {
+            load(context, ownFutures);
+         }
+         collect(ownFutures, values);
+         collect(otherFutures, values);
+      }
+      finally
+      {
+         // Clean up the per key map but only with our futures
+         for (Map.Entry<K, LoadTask<V>> entry : ownFutures.entrySet())
+         {
+            futureEntries.remove(entry.getKey(), entry.getValue());
+         }
+      }
+      return values;
+   }
+
+   /**
+    * Loads the values of the given futures, in one call if the loader is a {@link BatchLoader}.
+    */
+   @SuppressWarnings("unchecked")
+   private void load(C context, Map<K, LoadTask<V>> futures)
+   {
+      if (loader instanceof BatchLoader && futures.size() > 1)
+      {
+         try
+         {
+            Map<K, V> loaded;
+            long start = System.nanoTime();
+            try
+            {
+               loaded = ((BatchLoader<K, V, C>)loader).retrieveAll(context, new ArrayList<K>(futures.keySet()));
+            }
+            finally
+            {
+               recordLoad(start);
+            }
+            for (Map.Entry<K, LoadTask<V>> entry : futures.entrySet())
+            {
+               V value = loaded == null ? null : loaded.get(entry.getKey());
+               if (value != null)
+               {
+                  // Cache it, it is made available to other threads (unless someone removes it)
+                  putOnly(entry.getKey(), value);
+               }
+               else
+               {
+                  misses.onNull(entry.getKey());
+               }
+               entry.getValue().complete(value);
+            }
+         }
+         catch (Exception e)
+         {
+            LOG.error("Computing of resources " + futures.keySet() + " threw an exception", e);
+            for (K key : futures.keySet())
+            {
+               misses.onFailure(key);
+            }
+         }
+         finally
+         {
+            // Release the threads waiting for the values that could not be loaded
+            for (LoadTask<V> future : futures.values())
+            {
+               future.complete(null);
+            }
+         }
+      }
+      else
+      {
+         for (LoadTask<V> future : futures.values())
+         {
+            future.run();
+         }
+      }
+   }
+
+   private void collect(Map<K, ? extends FutureTask<V>> futures, Map<K, V> values)
+   {
+      for (Map.Entry<K, ? extends FutureTask<V>> entry : futures.entrySet())
+      {
+         K key = entry.getKey();
+         try
+         {
+            V value = entry.getValue().get();
+            if (value != null)
+            {
+               values.put(key, value);
+            }
+         }
+         catch (ExecutionException e)
+         {
+            LOG.error("Computing of resource " + key + " threw an exception", e.getCause());
+         }
+         catch (Exception e)
+         {
+            LOG.error("Retrieval of resource " + key + " threw an exception", e);
+         }
+      }
+   }
+
+   /**
+    * Creates the future that loads the value of the given key thanks to the loader and caches it.
+    */
+   private LoadTask<V> newTask(final C context, final K key)
+   {
+      return new LoadTask<V>(new Callable<V>()
+      {
+         public V call() throws Exception
+         {
+            // Retrieve the value from the loader
+            V value;
+            long start = System.nanoTime();
+            try
+            {
+               value = loader.retrieve(context, key);
+            }
+            catch (Exception e)
+            {
+               misses.onFailure(key);
+               throw e;
+            }
+            finally
+            {
+               recordLoad(start);
+            }
+
+            //
+            if (value != null)
+            {
+               // Cache it, it is made available to other threads (unless someone removes it)
+               putOnly(key, value);
+
+               // Return value
+               return value;
+            }
+            else
+            {
+               misses.onNull(key);
+               return null;
+            }
+         }
+      });
+   }
+
+   private void recordLoad(long start)
+   {
+      CacheStatistics statistics = getStatistics();
+      if (statistics != null)
+      {
+         statistics.recordLoad(System.nanoTime() - start);
+      }
+   }
+
+   /**
+    * A future whose value can also be provided by a batch load.
+    */
+   private static class LoadTask<V> extends FutureTask<V>
+   {
+      LoadTask(Callable<V> callable)
+      {
+         super(callable);
+      }
+
+      /**
+       * Sets the value of the future if it is not done yet.
+       */
+      void complete(V value)
+      {
+         set(value);
+      }
+   }
 }
@@ -18,9 +18,12 @@
  */
 package org.exoplatform.services.cache.future;
 
+import org.exoplatform.services.cache.CacheStatistics;
 import org.exoplatform.services.cache.ExoCache;
 
 import java.io.Serializable;
+import java.util.Collection;
+import java.util.Map;
 
 /**
  * @author <a href="mailto:julien.viet@exoplatform.com">Julien Viet</a>
@@ -46,6 +49,12 @@ public class FutureExoCache<K extends Serializable, V, C> extends FutureCache<K,
       return cache.get(key);
    }
 
+   @Override
+   protected Map<K, V> getAll(Collection<K> keys)
+   {
+      return cache.getAll(keys);
+   }
+
    @Override
    protected void put(K key, V entry)
    {
@@ -57,5 +66,10 @@ public class FutureExoCache<K extends Serializable, V, C> extends FutureCache<K,
    {
       cache.putLocal(key, value);
    }
-}
 
+   @Override
+   protected CacheStatistics getStatistics()
+   {
+      return cache.getStatistics();
+   }
+}
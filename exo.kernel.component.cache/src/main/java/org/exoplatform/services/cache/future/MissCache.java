@@ -0,0 +1,147 @@
+/*
+ * Copyright (C) 2026 eXo Platform SAS.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.exoplatform.services.cache.future;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Keeps track of the keys whose value could not be loaded: the keys whose loader returned null (negative caching)
+ * and the keys whose loader failed (backoff). The loader is not called again for such a key until the
+ * corresponding delay is over. Both features are disabled by default.
+ * <p>
+ * The amount of tracked keys is bounded, when the limit is reached the expired keys are removed and if it
+ * is not enough all the keys are forgotten.
+ *
+ * @version $Revision$
+ */
+class MissCache<K>
+{
+
+   /** The maximum amount of tracked keys. */
+   static final int MAX_SIZE = 10000;
+
+   /** The time until which the loader must not be called indexed by key. */
+   private final ConcurrentMap<K, Long> entries = new ConcurrentHashMap<K, Long>();
+
+   /** The amount of milliseconds during which a null value is remembered, disabled if not positive. */
+   private volatile long negativeLiveTime;
+
+   /** The amount of milliseconds during which a failed load is not retried, disabled if not positive. */
+   private volatile long failureBackoff;
+
+   long getNegativeLiveTime()
+   {
+      return negativeLiveTime;
+   }
+
+   void setNegativeLiveTime(long negativeLiveTime)
+   {
+      this.negativeLiveTime = negativeLiveTime;
+   }
+
+   long getFailureBackoff()
+   {
+      return failureBackoff;
+   }
+
+   void setFailureBackoff(long failureBackoff)
+   {
+      this.failureBackoff = failureBackoff;
+   }
+
+   /**
+    * @return <code>true</code> if the loader must not be called for the given key, <code>false</code> otherwise
+    */
+   boolean contains(K key)
+   {
+      if (entries.isEmpty())
+      {
+         return false;
+      }
+      Long until = entries.get(key);
+      if (until == null)
+      {
+         return false;
+      }
+      if (until > System.currentTimeMillis())
+      {
+         return true;
+      }
+      entries.remove(key, until);
+      return false;
+   }
+
+   /**
+    * Remembers that the loader returned null for the given key.
+    */
+   void onNull(K key)
+   {
+      put(key, negativeLiveTime);
+   }
+
+   /**
+    * Remembers that the loader failed for the given key.
+    */
+   void onFailure(K key)
+   {
+      put(key, failureBackoff);
+   }
+
+   void remove(K key)
+   {
+      entries.remove(key);
+   }
+
+   void clear()
+   {
+      entries.clear();
+   }
+
+   int size()
+   {
+      return entries.size();
+   }
+
+   private void put(K key, long duration)
+   {
+      if (duration <= 0)
+      {
+         return;
+      }
+      long now = System.currentTimeMillis();
+      if (entries.size() >= MAX_SIZE)
+      {
+         for (Iterator<Map.Entry<K, Long>> it = entries.entrySet().iterator(); it.hasNext();)
+         {
+            if (it.next().getValue() <= now)
+            {
+               it.remove();
+            }
+         }
+         if (entries.size() >= MAX_SIZE)
+         {
+            entries.clear();
+         }
+      }
+      entries.put(key, now + duration);
+   }
+}
@@ -22,12 +22,16 @@ import org.apache.commons.lang.StringUtils;
 import org.exoplatform.commons.utils.ClassLoading;
 import org.exoplatform.container.component.ComponentPlugin;
 import org.exoplatform.container.xml.InitParams;
+import org.exoplatform.container.xml.ValueParam;
 import org.exoplatform.management.annotations.ManagedBy;
 import org.exoplatform.services.cache.*;
+import org.exoplatform.services.cache.concurrent.ConcurrentFIFOExoCache;
+import org.exoplatform.services.cache.concurrent.SimpleReplicatedExoCache;
 import org.exoplatform.services.cache.invalidation.AsyncInvalidationExoCache;
 import org.exoplatform.services.cache.invalidation.InvalidationExoCache;
 import org.exoplatform.services.log.ExoLogger;
 import org.exoplatform.services.log.Log;
+import org.picocontainer.Startable;
 
 import java.io.Serializable;
 import java.util.ArrayList;
@@ -42,13 +46,19 @@ import java.util.concurrent.*;
  */
 @SuppressWarnings("deprecation")
 @ManagedBy(CacheServiceManaged.class)
-public class CacheServiceImpl implements CacheService
+public class CacheServiceImpl implements CacheService, Startable
 {
    /**
     * Logger.
     */
    private static final Log LOG = ExoLogger.getLogger("exo.kernel.component.cache.CacheServiceImpl");
 
+   /**
+    * The name of the value parameter defining the amount of seconds between two sweeps of the expired
+    * entries of the local caches, the sweeper is disabled if it is not set or if it is not positive.
+    */
+   public static final String EXPIRATION_SWEEP_INTERVAL = "expiration-sweep-interval";
+
    private final ExoCacheFactory DEFAULT_FACTORY = new SimpleExoCacheFactory();
 
    private final HashMap<String, ExoCacheConfig> configs_ = new HashMap<String, ExoCacheConfig>();
@@ -62,6 +72,17 @@ public class CacheServiceImpl implements CacheService
 
    private final ExoCacheFactory factory_;
 
+   /**
+    * The factories defined in the configuration of the regions
+    */
+   private final ConcurrentHashMap<String, ExoCacheFactory> regionFactories_ =
+      new ConcurrentHashMap<String, ExoCacheFactory>();
+
+   /**
+    * The sweeper of the expired entries, null if it has not been enabled
+    */
+   final ExpirationSweeper sweeper;
+
    CacheServiceManaged managed;
    
    public CacheServiceImpl(InitParams params) throws Exception
@@ -79,6 +100,47 @@ public class CacheServiceImpl implements CacheService
       defaultConfig_ = configs_.get("default");
       loggingListener_ = new LoggingCacheListener();
       factory_ = factory == null ? DEFAULT_FACTORY : factory;
+      ValueParam sweepInterval = params.getValueParam(EXPIRATION_SWEEP_INTERVAL);
+      long interval = sweepInterval == null ? 0 : Long.parseLong(sweepInterval.getValue().trim());
+      sweeper = interval > 0 ? new ExpirationSweeper(this, interval * 1000) : null;
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public void start()
+   {
+      if (sweeper != null)
+      {
+         sweeper.start();
+      }
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public void stop()
+   {
+      if (sweeper != null)
+      {
+         sweeper.stop();
+      }
+      for (ExoCache<? extends Serializable, ?> cache : getAllCacheInstances())
+      {
+         // The pending invalidations are sent and the background threads are released
+         if (cache instanceof InvalidationExoCache)
+         {
+            ((InvalidationExoCache<?, ?>)cache).setInvalidationBatching(0, 0);
+         }
+         else if (cache instanceof AsyncInvalidationExoCache)
+         {
+            ((AsyncInvalidationExoCache<?, ?>)cache).setInvalidationBatching(0, 0);
+         }
+         else if (cache instanceof SimpleReplicatedExoCache)
+         {
+            ((SimpleReplicatedExoCache<?, ?>)cache).setReplicationBatching(0, 0);
+         }
+      }
    }
 
    public void addExoCacheConfig(ComponentPlugin plugin)
@@ -159,7 +221,12 @@ public class CacheServiceImpl implements CacheService
       safeConfig.setName(region);
       
       ExoCache simple = null;
-      if (factory_ != DEFAULT_FACTORY && !safeConfig.isInvalidated())
+      if (safeConfig.getFactory() != null)
+      {
+         // A specific factory has been defined for this region
+         simple = getRegionFactory(safeConfig.getFactory()).createCache(safeConfig);
+      }
+      else if (factory_ != DEFAULT_FACTORY && !safeConfig.isInvalidated())
       {
          // The implementation exists and the config is not a sub class of ExoCacheConfig
          // we assume that we expect to use the default cache factory
@@ -214,13 +281,35 @@ public class CacheServiceImpl implements CacheService
 
       if(safeConfig.isInvalidated() && safeConfig.getCacheMode().isSync())
       {
-         return safeConfig.getImplementation() != null ?
-                 getCustomInstance(safeConfig.getImplementation(), safeConfig) : new InvalidationExoCache(simple);
+         if (safeConfig.getImplementation() != null)
+         {
+            return getCustomInstance(safeConfig.getImplementation(), safeConfig);
+         }
+         InvalidationExoCache invalidationCache = new InvalidationExoCache(simple);
+         if (safeConfig.getInvalidationBatchWindow() > 0)
+         {
+            invalidationCache.setInvalidationBatching(safeConfig.getInvalidationBatchWindow(),
+               safeConfig.getInvalidationBatchMaxKeys());
+         }
+         return invalidationCache;
       }
       else if (safeConfig.isInvalidated() && !safeConfig.getCacheMode().isSync())
       {
-         ExoCache exoCache = safeConfig.getImplementation() != null ?
-                 getCustomInstance(safeConfig.getImplementation(), safeConfig) :new AsyncInvalidationExoCache(simple);
+         ExoCache exoCache;
+         if (safeConfig.getImplementation() != null)
+         {
+            exoCache = getCustomInstance(safeConfig.getImplementation(), safeConfig);
+         }
+         else
+         {
+            AsyncInvalidationExoCache asyncCache = new AsyncInvalidationExoCache(simple);
+            if (safeConfig.getInvalidationBatchWindow() > 0)
+            {
+               asyncCache.setInvalidationBatching(safeConfig.getInvalidationBatchWindow(),
+                  safeConfig.getInvalidationBatchMaxKeys());
+            }
+            exoCache = asyncCache;
+         }
          if (managed != null)
          {
             managed.registerCache(exoCache);
@@ -230,6 +319,35 @@ public class CacheServiceImpl implements CacheService
       return simple;
    }
 
+   /**
+    * Gives the factory corresponding to the given class name, the factories are instantiated once
+    * and then shared by all the regions that use them.
+    * @param type the full qualified name of the factory
+    * @return the factory
+    * @throws ExoCacheInitException if the factory cannot be created
+    */
+   private ExoCacheFactory getRegionFactory(String type) throws ExoCacheInitException
+   {
+      ExoCacheFactory factory = regionFactories_.get(type);
+      if (factory == null)
+      {
+         try
+         {
+            factory = (ExoCacheFactory)ClassLoading.loadClass(type, this).newInstance();
+         }
+         catch (ClassNotFoundException | InstantiationException | IllegalAccessException | ClassCastException e)
+         {
+            throw new ExoCacheInitException("Cannot create instance of ExoCacheFactory of type " + type, e);
+         }
+         ExoCacheFactory existingFactory = regionFactories_.putIfAbsent(type, factory);
+         if (existingFactory != null)
+         {
+            factory = existingFactory;
+         }
+      }
+      return factory;
+   }
+
    public Collection<ExoCache<? extends Serializable, ?>> getAllCacheInstances()
    {
       Collection<ExoCache<? extends Serializable, ?>> caches = 
@@ -288,6 +406,21 @@ public class CacheServiceImpl implements CacheService
          simple.setMaxSize(config.getMaxSize());
          simple.setLiveTime(config.getLiveTime());
          simple.setLogEnabled(config.isLogEnabled());
+         if (simple instanceof ConcurrentFIFOExoCache)
+         {
+            ConcurrentFIFOExoCache concurrent = (ConcurrentFIFOExoCache)simple;
+            concurrent.setEvictionPolicy(config.getEvictionPolicy());
+            concurrent.setMaxWeight(config.getMaxWeight());
+            if (config.getWeigher() != null)
+            {
+               concurrent.setWeigher(createWeigher(config));
+            }
+         }
+         if (simple instanceof SimpleReplicatedExoCache && config.getReplicationBatchWindow() > 0)
+         {
+            ((SimpleReplicatedExoCache)simple).setReplicationBatching(config.getReplicationBatchWindow(),
+               config.getReplicationBatchMaxSize());
+         }
          if (simple.isLogEnabled())
          {
             simple.addCacheListener(loggingListener_);
@@ -344,6 +477,26 @@ public class CacheServiceImpl implements CacheService
             }
          }
       }
+
+      /**
+       * Create a new instance of the {@link Weigher} defined in the given configuration
+       * @param config the ExoCache configuration
+       * @return a new instance of Weigher
+       * @throws ExoCacheInitException if the weigher cannot be created
+       */
+      @SuppressWarnings("rawtypes")
+      private Weigher createWeigher(ExoCacheConfig config) throws ExoCacheInitException
+      {
+         try
+         {
+            final Class<?> clazz = ClassLoading.loadClass(config.getWeigher(), this);
+            return (Weigher)clazz.newInstance();
+         }
+         catch (ClassNotFoundException | InstantiationException | IllegalAccessException | ClassCastException e)
+         {
+            throw new ExoCacheInitException("Cannot create instance of Weigher of type " + config.getWeigher(), e);
+         }
+      }
    }
    
    /**
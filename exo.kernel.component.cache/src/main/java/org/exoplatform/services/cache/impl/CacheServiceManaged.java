@@ -22,12 +22,22 @@ import org.exoplatform.management.ManagementAware;
 import org.exoplatform.management.ManagementContext;
 import org.exoplatform.management.annotations.Managed;
 import org.exoplatform.management.annotations.ManagedDescription;
+import org.exoplatform.management.annotations.ManagedName;
 import org.exoplatform.management.jmx.annotations.NameTemplate;
 import org.exoplatform.management.jmx.annotations.Property;
+import org.exoplatform.management.rest.annotations.RESTEndpoint;
+import org.exoplatform.services.cache.CacheStatistics;
 import org.exoplatform.services.cache.ExoCache;
+import org.exoplatform.services.cache.concurrent.ConcurrentFIFOExoCache;
 import org.exoplatform.services.log.ExoLogger;
 import org.exoplatform.services.log.Log;
 
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+
 /**
  * @author <a href="mailto:julien.viet@exoplatform.com">Julien Viet</a>
  * @version $Revision$
@@ -35,6 +45,7 @@ import org.exoplatform.services.log.Log;
 @Managed
 @NameTemplate(@Property(key = "service", value = "cachemanager"))
 @ManagedDescription("Cache manager")
+@RESTEndpoint(path = "cachemanager")
 public class CacheServiceManaged implements ManagementAware
 {
 
@@ -74,6 +85,200 @@ public class CacheServiceManaged implements ManagementAware
       }
    }
 
+   @Managed
+   @ManagedName("ExpirationSweepInterval")
+   @ManagedDescription("The amount of seconds between two sweeps of the expired entries, 0 if the sweeper is disabled")
+   public long getExpirationSweepInterval()
+   {
+      ExpirationSweeper sweeper = cacheService.sweeper;
+      return sweeper == null ? 0 : sweeper.getInterval() / 1000;
+   }
+
+   @Managed
+   @ManagedName("SweptEntries")
+   @ManagedDescription("The total amount of expired entries removed by the sweeper")
+   public long getSweptEntries()
+   {
+      ExpirationSweeper sweeper = cacheService.sweeper;
+      return sweeper == null ? 0 : sweeper.getSweptEntries();
+   }
+
+   @Managed
+   @ManagedName("SweepCount")
+   @ManagedDescription("The amount of sweeps of the expired entries")
+   public long getSweepCount()
+   {
+      ExpirationSweeper sweeper = cacheService.sweeper;
+      return sweeper == null ? 0 : sweeper.getSweepCount();
+   }
+
+   @Managed
+   @ManagedName("LastSweepDuration")
+   @ManagedDescription("The duration in milliseconds of the last sweep of the expired entries")
+   public long getLastSweepDuration()
+   {
+      ExpirationSweeper sweeper = cacheService.sweeper;
+      return sweeper == null ? 0 : sweeper.getLastSweepDuration();
+   }
+
+   @Managed
+   @ManagedName("TotalSweepDuration")
+   @ManagedDescription("The total duration in milliseconds of the sweeps of the expired entries")
+   public long getTotalSweepDuration()
+   {
+      ExpirationSweeper sweeper = cacheService.sweeper;
+      return sweeper == null ? 0 : sweeper.getTotalSweepDuration();
+   }
+
+   @Managed
+   @ManagedName("TotalWeight")
+   @ManagedDescription("The total weight of the entries of the local cache instances")
+   public long getTotalWeight()
+   {
+      long weight = 0;
+      for (ExoCache<?, ?> cache : cacheService.getAllCacheInstances())
+      {
+         if (cache instanceof ConcurrentFIFOExoCache)
+         {
+            weight += ((ConcurrentFIFOExoCache<?, ?>)cache).getCacheWeight();
+         }
+      }
+      return weight;
+   }
+
+   @Managed
+   @ManagedDescription("Returns the total weight of the entries of a local cache instance, -1 if the cache is unknown"
+      + " or is not a local cache")
+   public long getCacheWeight(@ManagedDescription("The cache name") String cacheName)
+   {
+      for (ExoCache<?, ?> cache : cacheService.getAllCacheInstances())
+      {
+         if (cache instanceof ConcurrentFIFOExoCache && cache.getName().equals(cacheName))
+         {
+            return ((ConcurrentFIFOExoCache<?, ?>)cache).getCacheWeight();
+         }
+      }
+      return -1;
+   }
+
+   @Managed
+   @ManagedName("TotalHits")
+   @ManagedDescription("The total amount of hits of the cache instances")
+   public long getTotalHits()
+   {
+      long total = 0;
+      for (CacheStatistics statistics : getAllStatistics())
+      {
+         total += statistics.getHits();
+      }
+      return total;
+   }
+
+   @Managed
+   @ManagedName("TotalMisses")
+   @ManagedDescription("The total amount of misses of the cache instances")
+   public long getTotalMisses()
+   {
+      long total = 0;
+      for (CacheStatistics statistics : getAllStatistics())
+      {
+         total += statistics.getMisses();
+      }
+      return total;
+   }
+
+   @Managed
+   @ManagedName("TotalPuts")
+   @ManagedDescription("The total amount of puts into the cache instances")
+   public long getTotalPuts()
+   {
+      long total = 0;
+      for (CacheStatistics statistics : getAllStatistics())
+      {
+         total += statistics.getPuts();
+      }
+      return total;
+   }
+
+   @Managed
+   @ManagedName("TotalEvictions")
+   @ManagedDescription("The total amount of entries evicted from the cache instances")
+   public long getTotalEvictions()
+   {
+      long total = 0;
+      for (CacheStatistics statistics : getAllStatistics())
+      {
+         total += statistics.getEvictions();
+      }
+      return total;
+   }
+
+   @Managed
+   @ManagedName("TotalExpirations")
+   @ManagedDescription("The total amount of entries of the cache instances that expired")
+   public long getTotalExpirations()
+   {
+      long total = 0;
+      for (CacheStatistics statistics : getAllStatistics())
+      {
+         total += statistics.getExpirations();
+      }
+      return total;
+   }
+
+   @Managed
+   @ManagedDescription("Returns the counters of a cache instance and its get latency and load time in microseconds,"
+      + " empty if the cache is unknown or does not collect statistics")
+   public Map<String, Long> getCacheStatistics(@ManagedDescription("The cache name") String cacheName)
+   {
+      for (ExoCache<?, ?> cache : cacheService.getAllCacheInstances())
+      {
+         if (cache.getName().equals(cacheName))
+         {
+            return cache.getStatisticsSnapshot();
+         }
+      }
+      return new HashMap<String, Long>();
+   }
+
+   @Managed
+   @ManagedDescription("Reset the statistics of all the cache instances")
+   public void resetStatistics()
+   {
+      for (CacheStatistics statistics : getAllStatistics())
+      {
+         statistics.reset();
+      }
+   }
+
+   @Managed
+   @ManagedDescription("Reset the statistics of a cache instance")
+   public void resetCacheStatistics(@ManagedDescription("The cache name") String cacheName)
+   {
+      for (ExoCache<?, ?> cache : cacheService.getAllCacheInstances())
+      {
+         if (cache.getName().equals(cacheName))
+         {
+            cache.resetStatistics();
+         }
+      }
+   }
+
+   private Set<CacheStatistics> getAllStatistics()
+   {
+      // A set since several cache instances can share the same statistics through delegation
+      Set<CacheStatistics> all = Collections.newSetFromMap(new IdentityHashMap<CacheStatistics, Boolean>());
+      for (ExoCache<?, ?> cache : cacheService.getAllCacheInstances())
+      {
+         CacheStatistics statistics = cache.getStatistics();
+         if (statistics != null)
+         {
+            all.add(statistics);
+         }
+      }
+      return all;
+   }
+
    public void setContext(ManagementContext context)
    {
       this.context = context;
@@ -0,0 +1,70 @@
+/*
+ * Copyright (C) 2026 eXo Platform SAS.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.exoplatform.services.cache.impl;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates the daemon threads used in the background by the cache regions, the threads are given the
+ * same name, optionally followed by a sequence number, so that they can be easily identified.
+ *
+ * @version $Revision$
+ */
+public class DaemonThreadFactory implements ThreadFactory
+{
+   final ThreadGroup group;
+
+   final String name;
+
+   final AtomicInteger threadNumber;
+
+   /**
+    * @param name the name of the threads to create
+    */
+   public DaemonThreadFactory(String name)
+   {
+      this(name, false);
+   }
+
+   /**
+    * @param name the name of the threads to create
+    * @param numbered indicates whether a sequence number must be appended to the name of each thread
+    */
+   public DaemonThreadFactory(String name, boolean numbered)
+   {
+      SecurityManager s = System.getSecurityManager();
+      group = (s != null) ? s.getThreadGroup() : Thread.currentThread().getThreadGroup();
+      this.name = name;
+      this.threadNumber = numbered ? new AtomicInteger(1) : null;
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public Thread newThread(Runnable r)
+   {
+      Thread t = new Thread(group, r, threadNumber == null ? name : name + "-" + threadNumber.getAndIncrement(), 0);
+      if (!t.isDaemon())
+         t.setDaemon(true);
+      if (t.getPriority() != Thread.NORM_PRIORITY)
+         t.setPriority(Thread.NORM_PRIORITY);
+      return t;
+   }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright (C) 2026 eXo Platform SAS.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.exoplatform.services.cache.impl;
+
+import org.exoplatform.services.cache.ExoCache;
+import org.exoplatform.services.cache.concurrent.ConcurrentFIFOExoCache;
+import org.exoplatform.services.cache.offheap.OffHeapExoCache;
+import org.exoplatform.services.log.ExoLogger;
+import org.exoplatform.services.log.Log;
+
+import java.io.Serializable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Periodically removes the expired entries of all the local cache regions of a {@link CacheServiceImpl}
+ * thanks to a single thread shared by all the regions. Without it, an expired entry is only removed when
+ * its key is accessed or when it is evicted.
+ *
+ * @version $Revision$
+ */
+class ExpirationSweeper implements Runnable
+{
+
+   private static final Log LOG = ExoLogger.getLogger("exo.kernel.component.cache.ExpirationSweeper");
+
+   private final CacheServiceImpl cacheService;
+
+   private final long interval;
+
+   private final AtomicLong sweptEntries = new AtomicLong();
+
+   private final AtomicLong sweepCount = new AtomicLong();
+
+   private final AtomicLong totalSweepDuration = new AtomicLong();
+
+   private volatile long lastSweepDuration;
+
+   private ScheduledExecutorService executor;
+
+   /**
+    * @param cacheService the cache service whose regions must be swept
+    * @param interval the amount of milliseconds between two sweeps
+    */
+   ExpirationSweeper(CacheServiceImpl cacheService, long interval)
+   {
+      this.cacheService = cacheService;
+      this.interval = interval;
+   }
+
+   synchronized void start()
+   {
+      if (executor == null)
+      {
+         executor = Executors.newSingleThreadScheduledExecutor(new DaemonThreadFactory("exo-cache-expiration-sweeper"));
+         executor.scheduleWithFixedDelay(this, interval, interval, TimeUnit.MILLISECONDS);
+      }
+   }
+
+   synchronized void stop()
+   {
+      if (executor != null)
+      {
+         executor.shutdownNow();
+         executor = null;
+      }
+   }
+
+   /**
+    * Sweeps all the local cache regions once.
+    */
+   public void run()
+   {
+      long start = System.currentTimeMillis();
+      long swept = 0;
+      for (ExoCache<? extends Serializable, ?> cache : cacheService.getAllCacheInstances())
+      {
+         try
+         {
+            if (cache instanceof ConcurrentFIFOExoCache)
+            {
+               swept += ((ConcurrentFIFOExoCache<?, ?>)cache).removeExpiredEntries();
+            }
+            else if (cache instanceof OffHeapExoCache)
+            {
+               swept += ((OffHeapExoCache<?, ?>)cache).removeExpiredEntries();
+            }
+         }
+         catch (Exception e)
+         {
+            LOG.warn("Could not remove the expired entries of the cache '" + cache.getName() + "'", e);
+         }
+      }
+      long duration = System.currentTimeMillis() - start;
+      lastSweepDuration = duration;
+      totalSweepDuration.addAndGet(duration);
+      sweepCount.incrementAndGet();
+      sweptEntries.addAndGet(swept);
+      if (LOG.isDebugEnabled())
+      {
+         LOG.debug(swept + " expired entries have been removed in " + duration + " ms");
+      }
+   }
+
+   long getInterval()
+   {
+      return interval;
+   }
+
+   long getSweptEntries()
+   {
+      return sweptEntries.get();
+   }
+
+   long getSweepCount()
+   {
+      return sweepCount.get();
+   }
+
+   long getLastSweepDuration()
+   {
+      return lastSweepDuration;
+   }
+
+   long getTotalSweepDuration()
+   {
+      return totalSweepDuration.get();
+   }
+}
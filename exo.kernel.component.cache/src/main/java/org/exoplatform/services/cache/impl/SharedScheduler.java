@@ -0,0 +1,88 @@
+/*
+ * Copyright (C) 2026 eXo Platform SAS.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.exoplatform.services.cache.impl;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * A single thread shared by all the cache regions that need to run delayed tasks of the same kind. The
+ * thread is started when the first region acquires the scheduler and it is stopped once all the regions
+ * have released it, so each region must release the scheduler when it does not need it anymore.
+ *
+ * @version $Revision$
+ */
+public class SharedScheduler
+{
+   private final String threadName;
+
+   /**
+    * The amount of regions using the scheduler, guarded by this
+    */
+   private int users;
+
+   /**
+    * The executor, <code>null</code> if no region uses the scheduler, guarded by this
+    */
+   private ScheduledExecutorService executor;
+
+   /**
+    * @param threadName the name of the thread of the scheduler
+    */
+   public SharedScheduler(String threadName)
+   {
+      this.threadName = threadName;
+   }
+
+   /**
+    * Registers a new user of the scheduler, the thread is started if needed.
+    *
+    * @return the executor to use until {@link #release()} is called
+    */
+   public synchronized ScheduledExecutorService acquire()
+   {
+      if (executor == null)
+      {
+         executor = Executors.newSingleThreadScheduledExecutor(new DaemonThreadFactory(threadName));
+      }
+      users++;
+      return executor;
+   }
+
+   /**
+    * Unregisters a user of the scheduler, the thread is stopped once the tasks already scheduled have been
+    * executed if it was the last user.
+    */
+   public synchronized void release()
+   {
+      if (users > 0 && --users == 0)
+      {
+         executor.shutdown();
+         executor = null;
+      }
+   }
+
+   /**
+    * @return <code>true</code> if at least one region uses the scheduler, <code>false</code> otherwise
+    */
+   public synchronized boolean isRunning()
+   {
+      return executor != null;
+   }
+}
@@ -1,5 +1,8 @@
 package org.exoplatform.services.cache.invalidation;
 
+import org.exoplatform.management.annotations.Managed;
+import org.exoplatform.management.annotations.ManagedDescription;
+import org.exoplatform.management.annotations.ManagedName;
 import org.exoplatform.services.cache.CacheListener;
 import org.exoplatform.services.cache.CacheListenerContext;
 import org.exoplatform.services.cache.ExoCache;
@@ -9,9 +12,12 @@ import org.exoplatform.services.log.ExoLogger;
 import org.exoplatform.services.log.Log;
 
 import java.io.Serializable;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * This implementation of {@link ExoCache} will behave exactly the same way as {@link ConcurrentFIFOExoCache}
@@ -19,6 +25,9 @@ import java.util.Map;
  * then it will be invalidated over the cluster asynchronously to limit the performance impact
  * on the local cluster node.
  * This class can be used as a drop-in replacement for {@link ConcurrentFIFOExoCache} in a cluster environment.
+ * <p>
+ * Each value put is given a {@link VersionStamp} which is what is replicated, a node keeps its local copy
+ * only when it receives its own version of the value or an older one so the values never need to be compared.
  *
  */
 
@@ -29,19 +38,40 @@ public class AsyncInvalidationExoCache<K extends Serializable, V> extends Concur
     /**
      * Replicated cache used to synchronise local cache
      */
-    private final ExoCache<K, HashCode<V>> replicatedCache;
+    private final ExoCache<K, VersionStamp<V>> replicatedCache;
 
     /**
-     * Hash Code object used to remove remote entry if not exist on replicated cache
+     * The versions of the values of the local cache
      */
-    private final HashCode<V> invalidationHashCodeObject = new HashCode<V>((V) new String("NULL_OBJECT_INVALIDATION"));
+    private final ConcurrentMap<K, VersionStamp<V>> versions = new ConcurrentHashMap<K, VersionStamp<V>>();
 
-    private final int invalidationHashCode = invalidationHashCodeObject.hashCode();
+    private final VersionClock clock = VersionClock.INSTANCE;
 
-    public AsyncInvalidationExoCache(ExoCache<K, HashCode<V>> replicatedCache)
+    /**
+     * The amount of locks used to update a local value and its version atomically
+     */
+    private static final int LOCK_STRIPES = 64;
+
+    /**
+     * The locks used to update a local value and its version atomically, a lock is shared by all the keys
+     * of the same stripe
+     */
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    /**
+     * The batcher of the invalidations, <code>null</code> if the invalidations are sent one by one
+     */
+    private volatile InvalidationBatcher<K, VersionStamp<V>> batcher;
+
+    public AsyncInvalidationExoCache(ExoCache<K, VersionStamp<V>> replicatedCache)
     {
         this.replicatedCache = replicatedCache;
 
+        for (int i = 0; i < locks.length; i++)
+        {
+            locks[i] = new Object();
+        }
+
         //configure local cache
         setMaxSize(replicatedCache.getMaxSize());
         setName(replicatedCache.getName());
@@ -53,15 +83,87 @@ public class AsyncInvalidationExoCache<K extends Serializable, V> extends Concur
         this.replicatedCache.addCacheListener(new InvalidationListener());
     }
 
+    /**
+     * Enables or disables the batching of the invalidations. When enabled, the invalidations are coalesced
+     * during the given window and sent in one single {@link ExoCache#putMap(Map)} of the replicated cache
+     * by a background thread. The pending invalidations are sent when the batching is disabled, so it must
+     * be disabled once the cache is not used anymore.
+     *
+     * @param window the maximum amount of milliseconds during which an invalidation can be delayed, the
+     * batching is disabled if not positive
+     * @param maxKeys the maximum amount of keys in a batch, a default value is used if not positive
+     */
+    public void setInvalidationBatching(long window, int maxKeys)
+    {
+        InvalidationBatcher<K, VersionStamp<V>> previous = batcher;
+        this.batcher = window > 0 ? new InvalidationBatcher<K, VersionStamp<V>>(getName(), window, maxKeys)
+        {
+            protected void send(Map<K, VersionStamp<V>> batch)
+            {
+                replicatedCache.putMap(batch);
+            }
+        } : null;
+        if (previous != null)
+        {
+            previous.close();
+        }
+    }
+
+    /**
+     * @return the maximum amount of milliseconds during which an invalidation can be delayed, 0 if the
+     * invalidations are not batched
+     */
+    @Managed
+    @ManagedName("InvalidationBatchWindow")
+    @ManagedDescription("The maximum amount of milliseconds during which an invalidation can be delayed")
+    public long getInvalidationBatchWindow()
+    {
+        InvalidationBatcher<K, VersionStamp<V>> batcher = this.batcher;
+        return batcher == null ? 0 : batcher.getWindow();
+    }
+
+    /**
+     * @return the statistics of the batches of invalidations, empty if the invalidations are not batched
+     */
+    @Managed
+    @ManagedName("InvalidationBatchStatistics")
+    @ManagedDescription("The counters of the batches of invalidations and their delay in microseconds")
+    public Map<String, Long> getInvalidationBatchStatistics()
+    {
+        InvalidationBatcher<K, VersionStamp<V>> batcher = this.batcher;
+        return batcher == null ? new HashMap<String, Long>() : batcher.toMap();
+    }
+
+    /**
+     * Sends the pending invalidations without waiting for the end of the window.
+     */
+    @Managed
+    @ManagedDescription("Send the pending invalidations")
+    public void flushInvalidations()
+    {
+        InvalidationBatcher<K, VersionStamp<V>> batcher = this.batcher;
+        if (batcher != null)
+        {
+            batcher.flush();
+        }
+    }
+
     @Override
     public void put(K key, V value) throws NullPointerException
     {
-        HashCode<V> hashCode= new HashCode<V>(value);
-        LOG.debug(getName() + "  PUT KEY " + key+ " hash "+ hashCode);
-        super.put(key, value);
+        VersionStamp<V> stamp = putVersioned(key, value);
+        LOG.debug(getName() + "  PUT KEY " + key+ " version "+ stamp.getVersion());
 
         //Invalidate remote key async way
-        replicatedCache.put(key, hashCode);
+        InvalidationBatcher<K, VersionStamp<V>> batcher = this.batcher;
+        if (batcher == null)
+        {
+            replicatedCache.put(key, stamp);
+        }
+        else
+        {
+            batcher.add(key, stamp);
+        }
 
     }
 
@@ -69,20 +171,50 @@ public class AsyncInvalidationExoCache<K extends Serializable, V> extends Concur
     public void putLocal(K key, V value) throws NullPointerException
     {
         LOG.debug(getName() + " PUT Local  KEY " + key);
-        super.put(key, value);
+        putVersioned(key, value);
+    }
+
+    /**
+     * Puts the value into the local cache with a new version, the version and the value are updated at
+     * once so that the version of a key is always the version of its local value. The removals are not
+     * locked since they cannot associate a version with another value, and since the evictions that occur
+     * while a lock is held remove other keys.
+     *
+     * @return the version of the value
+     */
+    private VersionStamp<V> putVersioned(K key, V value)
+    {
+        synchronized (getLock(key))
+        {
+            VersionStamp<V> stamp = clock.stamp(value);
+            versions.put(key, stamp);
+            super.put(key, value);
+            return stamp;
+        }
+    }
+
+    private Object getLock(Serializable key)
+    {
+        return locks[(key.hashCode() & 0x7FFFFFFF) % LOCK_STRIPES];
     }
 
     @Override
     public V remove(Serializable key) throws NullPointerException
     {
         LOG.debug(getName() + "  Remove KEY " + key);
+        InvalidationBatcher<K, VersionStamp<V>> batcher = this.batcher;
+        if (batcher != null)
+        {
+            batcher.discard(key);
+        }
+        versions.remove(key);
         V value =  super.remove(key);
-        HashCode<V> hashCode = replicatedCache.get(key);
+        VersionStamp<V> stamp = replicatedCache.get(key);
 
-        if(value != null && hashCode == null)
+        if(value != null && stamp == null)
         {
-            //entry exist only on local cache , use invalidationHashCodeObject to update remote cache
-            replicatedCache.put((K) key, invalidationHashCodeObject);  ;
+            //entry exist only on local cache , use an invalidation version to update remote cache
+            replicatedCache.put((K) key, clock.<V> invalidation());
         }
         else
         {
@@ -96,6 +228,12 @@ public class AsyncInvalidationExoCache<K extends Serializable, V> extends Concur
     public void removeLocal(Serializable key) throws NullPointerException
     {
         LOG.debug(getName() + "  Remove Local KEY " + key);
+        InvalidationBatcher<K, VersionStamp<V>> batcher = this.batcher;
+        if (batcher != null)
+        {
+            batcher.discard(key);
+        }
+        versions.remove(key);
         super.remove(key);
     }
 
@@ -107,9 +245,6 @@ public class AsyncInvalidationExoCache<K extends Serializable, V> extends Concur
             throw new IllegalArgumentException("No null map accepted");
         }
 
-        super.putMap(objs);
-
-        Map<K, HashCode<V>> map = new LinkedHashMap<K, HashCode<V>>();
         for (Map.Entry<? extends K, ? extends V> entry : objs.entrySet())
         {
             if (entry.getKey() == null)
@@ -120,54 +255,92 @@ public class AsyncInvalidationExoCache<K extends Serializable, V> extends Concur
             {
                 throw new IllegalArgumentException("No null cache value accepted");
             }
-            map.put(entry.getKey(), new HashCode<V>(entry.getValue()));
         }
-        replicatedCache.putAsyncMap(map);
+        Map<K, VersionStamp<V>> map = new LinkedHashMap<K, VersionStamp<V>>();
+        for (Map.Entry<? extends K, ? extends V> entry : objs.entrySet())
+        {
+            map.put(entry.getKey(), putVersioned(entry.getKey(), entry.getValue()));
+        }
+        InvalidationBatcher<K, VersionStamp<V>> batcher = this.batcher;
+        if (batcher == null)
+        {
+            replicatedCache.putAsyncMap(map);
+        }
+        else
+        {
+            batcher.addAll(map);
+        }
+    }
+
+    /**
+     * Indicates whether the local value of the given key has been replaced or invalidated by the given
+     * version received from another node
+     */
+    private boolean isStale(K key, VersionStamp<V> remote)
+    {
+        VersionStamp<V> local = versions.get(key);
+        // Only the versions created by this node can be ordered against the local one, a version created by
+        // another node may come from a concurrent write so it always invalidates the local value
+        return local == null || local.getOrigin() != remote.getOrigin() || remote.getVersion() > local.getVersion();
     }
 
-    private class InvalidationListener implements CacheListener<K, HashCode<V>>
+    private class InvalidationListener implements CacheListener<K, VersionStamp<V>>
     {
         @Override
-        public void onExpire(CacheListenerContext context, K key, HashCode<V> obj) throws Exception
+        public void onExpire(CacheListenerContext context, K key, VersionStamp<V> obj) throws Exception
         {
         }
 
         @Override
-        public void onRemove(CacheListenerContext context, K key, HashCode<V> obj) throws Exception
+        public void onRemove(CacheListenerContext context, K key, VersionStamp<V> obj) throws Exception
         {
             LOG.debug(getName() + " ON onRemove KEY " + key);
             removeLocal(key);
         }
 
         @Override
-        public void onPut(CacheListenerContext context, K key, HashCode<V> obj) throws Exception
+        public void onPut(CacheListenerContext context, K key, VersionStamp<V> obj) throws Exception
         {
             V value = obj == null ? null : obj.getValue();
             if (value == null)
             {
-                if(obj.hashCode() == invalidationHashCode)
+                if (obj == null)
                 {
-                    LOG.debug(getName() + " ON PUT invalidationHashCode KEY " + key+ " hashCode "+ obj.hashCode());
                     removeLocal(key);
                     return;
                 }
-
-                // we assume that it is a remote put since the value is not inside the HashCode object
-                V currentValue = get(key);
-                if (currentValue != null && obj != null && currentValue.hashCode() == obj.hashCode())
+                // we assume that it is a remote put since the value is not inside the VersionStamp object
+                clock.observe(obj.getVersion());
+                if(obj.isInvalidation())
                 {
-                    LOG.debug(getName() + " ON PUT equal hash KEY " + key+ " hashCode "+ obj.hashCode());
-
-                    // We assume that it is the same value so we don't change the local cache
-                    value = currentValue;
+                    LOG.debug(getName() + " ON PUT invalidation KEY " + key+ " version "+ obj.getVersion());
+                    synchronized (getLock(key))
+                    {
+                        if (isStale(key, obj))
+                        {
+                            removeLocal(key);
+                        }
+                    }
+                    return;
                 }
-                else
-                {
-                    LOG.debug(getName() + " ON PUT not equal hash KEY " + key+ " hashCode "+ obj.hashCode());
 
-                    value =  null;
-                    // A new value has been added to the cache so we invalidate the local one
-                    removeLocal(key);
+                synchronized (getLock(key))
+                {
+                    if (!isStale(key, obj))
+                    {
+                        LOG.debug(getName() + " ON PUT older version KEY " + key+ " version "+ obj.getVersion());
+
+                        // The local value is the same or a more recent one so we don't change the local cache
+                        value = get(key);
+                    }
+                    else
+                    {
+                        LOG.debug(getName() + " ON PUT newer version KEY " + key+ " version "+ obj.getVersion());
+
+                        value =  null;
+                        // A new value has been added to the cache so we invalidate the local one
+                        removeLocal(key);
+                    }
                 }
             }
 
@@ -184,7 +357,7 @@ public class AsyncInvalidationExoCache<K extends Serializable, V> extends Concur
         }
 
         @Override
-        public void onGet(CacheListenerContext context, K key, HashCode<V> obj) throws Exception
+        public void onGet(CacheListenerContext context, K key, VersionStamp<V> obj) throws Exception
         {
 
         }
@@ -198,11 +371,22 @@ public class AsyncInvalidationExoCache<K extends Serializable, V> extends Concur
 
     public void onExpire(K key, V obj)
     {
+        VersionStamp<V> stamp = versions.get(key);
+        if (stamp != null && stamp.getValue() == obj)
+        {
+            versions.remove(key, stamp);
+        }
         replicatedCache.removeLocal(key);
         super.onExpire(key, obj);
     }
 
     public void onClearCache(){
+        InvalidationBatcher<K, VersionStamp<V>> batcher = this.batcher;
+        if (batcher != null)
+        {
+            batcher.clear();
+        }
+        versions.clear();
         replicatedCache.clearCache();
         super.onClearCache();
     }
@@ -0,0 +1,334 @@
+/*
+ * Copyright (C) 2026 eXo Platform SAS.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.exoplatform.services.cache.invalidation;
+
+import org.exoplatform.services.cache.LatencyHistogram;
+import org.exoplatform.services.cache.impl.SharedScheduler;
+import org.exoplatform.services.log.ExoLogger;
+import org.exoplatform.services.log.Log;
+
+import java.io.Serializable;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Coalesces the invalidations of a cache region during a short window, or until a maximum amount of keys
+ * is reached, in order to send them over the cluster in one single message. When a key is invalidated
+ * several times within the same window, only its last value is sent. The batches are sent one after the
+ * other in the order in which they have been filled. A batcher must be closed once it is not used anymore
+ * in order to send its pending invalidations and to release the thread shared by all the batchers.
+ *
+ * @version $Revision$
+ * @param <K> the type of keys
+ * @param <E> the type of the invalidation entries sent over the cluster
+ */
+abstract class InvalidationBatcher<K extends Serializable, E>
+{
+   private static final Log LOG = ExoLogger.getLogger("exo.kernel.component.cache.InvalidationBatcher");
+
+   /**
+    * The default maximum amount of keys in a batch
+    */
+   static final int DEFAULT_MAX_KEYS = 1000;
+
+   /**
+    * The thread used by all the regions to send the batches whose window is over
+    */
+   static final SharedScheduler SCHEDULER = new SharedScheduler("exo-cache-invalidation-batcher");
+
+   private final ScheduledExecutorService executor;
+
+   private final String name;
+
+   private final long window;
+
+   private final int maxKeys;
+
+   /**
+    * The invalidations to send, guarded by this
+    */
+   private Map<K, E> pending = new LinkedHashMap<K, E>();
+
+   /**
+    * The time in nanoseconds at which the first invalidation of the pending batch has been added
+    */
+   private long pendingSince;
+
+   /**
+    * Incremented each time the pending batch is taken to be sent
+    */
+   private long generation;
+
+   /**
+    * Ensures that the batches are sent in order
+    */
+   private final Object sendLock = new Object();
+
+   private final AtomicLong batches = new AtomicLong();
+
+   private final AtomicLong invalidations = new AtomicLong();
+
+   private final AtomicLong coalesced = new AtomicLong();
+
+   /**
+    * The size of the biggest batch sent, only updated while holding the send lock
+    */
+   private volatile long maxBatchSize;
+
+   private final LatencyHistogram delay = new LatencyHistogram();
+
+   /**
+    * Indicates whether the batcher has been closed, guarded by this
+    */
+   private boolean closed;
+
+   /**
+    * @param name the name of the cache region
+    * @param window the maximum amount of milliseconds during which an invalidation can be delayed
+    * @param maxKeys the maximum amount of keys in a batch, {@link #DEFAULT_MAX_KEYS} is used if not positive
+    */
+   InvalidationBatcher(String name, long window, int maxKeys)
+   {
+      if (window <= 0)
+      {
+         throw new IllegalArgumentException("The invalidation window must be positive");
+      }
+      this.name = name;
+      this.window = window;
+      this.maxKeys = maxKeys > 0 ? maxKeys : DEFAULT_MAX_KEYS;
+      this.executor = SCHEDULER.acquire();
+   }
+
+   /**
+    * Sends the given invalidations over the cluster in one single message
+    *
+    * @param batch the invalidations to send
+    */
+   protected abstract void send(Map<K, E> batch);
+
+   long getWindow()
+   {
+      return window;
+   }
+
+   int getMaxKeys()
+   {
+      return maxKeys;
+   }
+
+   /**
+    * Adds an invalidation to the pending batch, the batch is sent by the calling thread if the maximum
+    * amount of keys is reached.
+    */
+   void add(K key, E entry)
+   {
+      boolean full;
+      synchronized (this)
+      {
+         if (pending.isEmpty())
+         {
+            pendingSince = System.nanoTime();
+            schedule(generation);
+         }
+         if (pending.put(key, entry) != null)
+         {
+            coalesced.incrementAndGet();
+         }
+         // Once closed, the invalidations are sent without delay
+         full = closed || pending.size() >= maxKeys;
+      }
+      if (full)
+      {
+         flush();
+      }
+   }
+
+   /**
+    * Adds all the given invalidations to the pending batch
+    */
+   void addAll(Map<K, E> entries)
+   {
+      boolean full;
+      synchronized (this)
+      {
+         if (pending.isEmpty() && !entries.isEmpty())
+         {
+            pendingSince = System.nanoTime();
+            schedule(generation);
+         }
+         for (Map.Entry<K, E> entry : entries.entrySet())
+         {
+            if (pending.put(entry.getKey(), entry.getValue()) != null)
+            {
+               coalesced.incrementAndGet();
+            }
+         }
+         full = closed || pending.size() >= maxKeys;
+      }
+      if (full)
+      {
+         flush();
+      }
+   }
+
+   /**
+    * Replaces the pending invalidation of the given key if any, this is needed when the value is modified
+    * locally to prevent the pending invalidation from restoring the previous value.
+    */
+   synchronized void replace(K key, E entry)
+   {
+      if (pending.containsKey(key))
+      {
+         pending.put(key, entry);
+      }
+   }
+
+   /**
+    * Removes the pending invalidation of the given key if any, this is needed when an invalidation of the
+    * same key is sent without delay.
+    *
+    * @return <code>true</code> if an invalidation of the key was pending, <code>false</code> otherwise
+    */
+   synchronized boolean discard(Serializable key)
+   {
+      return pending.remove(key) != null;
+   }
+
+   /**
+    * @return <code>true</code> if an invalidation of the given key is pending, <code>false</code> otherwise
+    */
+   synchronized boolean isPending(Serializable key)
+   {
+      return pending.containsKey(key);
+   }
+
+   /**
+    * Removes all the pending invalidations
+    */
+   synchronized void clear()
+   {
+      pending.clear();
+   }
+
+   synchronized int getPendingSize()
+   {
+      return pending.size();
+   }
+
+   /**
+    * Sends the pending invalidations without waiting for the end of the window
+    */
+   void flush()
+   {
+      flush(-1);
+   }
+
+   /**
+    * Sends the pending invalidations and releases the shared thread, the invalidations added afterwards
+    * are sent without delay.
+    */
+   void close()
+   {
+      synchronized (this)
+      {
+         if (closed)
+         {
+            return;
+         }
+         closed = true;
+      }
+      flush();
+      SCHEDULER.release();
+   }
+
+   /**
+    * Sends the pending invalidations if they belong to the given generation, or whatever the
+    * generation if it is negative
+    */
+   private void flush(long expectedGeneration)
+   {
+      synchronized (sendLock)
+      {
+         Map<K, E> batch;
+         long since;
+         synchronized (this)
+         {
+            if (pending.isEmpty() || (expectedGeneration >= 0 && expectedGeneration != generation))
+            {
+               return;
+            }
+            batch = pending;
+            since = pendingSince;
+            pending = new LinkedHashMap<K, E>();
+            generation++;
+         }
+         try
+         {
+            send(batch);
+         }
+         catch (Exception e)//NOSONAR
+         {
+            LOG.warn("Could not send the " + batch.size() + " invalidations of the cache " + name, e);
+         }
+         batches.incrementAndGet();
+         invalidations.addAndGet(batch.size());
+         maxBatchSize = Math.max(maxBatchSize, batch.size());
+         delay.record(System.nanoTime() - since);
+      }
+   }
+
+   private void schedule(final long generation)
+   {
+      if (closed)
+      {
+         return;
+      }
+      executor.schedule(new Runnable()
+      {
+         public void run()
+         {
+            flush(generation);
+         }
+      }, window, TimeUnit.MILLISECONDS);
+   }
+
+   /**
+    * Gives the statistics of the batches
+    *
+    * @return the statistics indexed by name, the delays are in microseconds
+    */
+   Map<String, Long> toMap()
+   {
+      Map<String, Long> map = new LinkedHashMap<String, Long>();
+      long count = batches.get();
+      map.put("batches", count);
+      map.put("invalidations", invalidations.get());
+      map.put("coalesced", coalesced.get());
+      map.put("pending", (long)getPendingSize());
+      map.put("batchSizeMean", count == 0 ? 0 : invalidations.get() / count);
+      map.put("batchSizeMax", maxBatchSize);
+      map.put("delayMean", TimeUnit.NANOSECONDS.toMicros(delay.getMean()));
+      map.put("delayP99", TimeUnit.NANOSECONDS.toMicros(delay.getPercentile(99)));
+      map.put("delayMax", TimeUnit.NANOSECONDS.toMicros(delay.getMax()));
+      return map;
+   }
+}
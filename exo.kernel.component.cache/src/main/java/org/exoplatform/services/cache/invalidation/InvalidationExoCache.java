@@ -18,8 +18,12 @@
  */
 package org.exoplatform.services.cache.invalidation;
 
+import org.exoplatform.management.annotations.Managed;
+import org.exoplatform.management.annotations.ManagedDescription;
+import org.exoplatform.management.annotations.ManagedName;
 import org.exoplatform.services.cache.CacheListener;
 import org.exoplatform.services.cache.CacheListenerContext;
+import org.exoplatform.services.cache.CacheStatistics;
 import org.exoplatform.services.cache.CachedObjectSelector;
 import org.exoplatform.services.cache.ExoCache;
 import org.exoplatform.services.cache.ObjectCacheInfo;
@@ -28,6 +32,8 @@ import org.exoplatform.services.log.Log;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -75,6 +81,11 @@ public class InvalidationExoCache<K extends Serializable, V> implements ExoCache
     * The local cache that contains the real values
     */
    private final ConcurrentMap<K, V> localCache;
+
+   /**
+    * The batcher of the invalidations, <code>null</code> if the invalidations are sent one by one
+    */
+   private volatile InvalidationBatcher<K, HashCode<V>> batcher;
    
    /**
     * @param delegate the underneath eXo cache instance, we assume that the eXo cache
@@ -102,6 +113,72 @@ public class InvalidationExoCache<K extends Serializable, V> implements ExoCache
       this.localCache = new ConcurrentHashMap<K, V>(concurrencyLevel, 0.75f, concurrencyLevel);      
    }
    
+   /**
+    * Enables or disables the batching of the invalidations. When enabled, the values put are available
+    * locally at once while the invalidations sent to the other cluster nodes are coalesced during the
+    * given window into one single {@link ExoCache#putMap(Map)} of the underlying cache. The pending
+    * invalidations are sent when the batching is disabled, so it must be disabled once the cache is not
+    * used anymore.
+    *
+    * @param window the maximum amount of milliseconds during which an invalidation can be delayed, the
+    * batching is disabled if not positive
+    * @param maxKeys the maximum amount of keys in a batch, a default value is used if not positive
+    */
+   public void setInvalidationBatching(long window, int maxKeys)
+   {
+      InvalidationBatcher<K, HashCode<V>> previous = batcher;
+      this.batcher = window > 0 ? new InvalidationBatcher<K, HashCode<V>>(getName(), window, maxKeys)
+      {
+         protected void send(Map<K, HashCode<V>> batch)
+         {
+            delegate.putMap(batch);
+         }
+      } : null;
+      if (previous != null)
+      {
+         previous.close();
+      }
+   }
+
+   /**
+    * @return the maximum amount of milliseconds during which an invalidation can be delayed, 0 if the
+    * invalidations are not batched
+    */
+   @Managed
+   @ManagedName("InvalidationBatchWindow")
+   @ManagedDescription("The maximum amount of milliseconds during which an invalidation can be delayed")
+   public long getInvalidationBatchWindow()
+   {
+      InvalidationBatcher<K, HashCode<V>> batcher = this.batcher;
+      return batcher == null ? 0 : batcher.getWindow();
+   }
+
+   /**
+    * @return the statistics of the batches of invalidations, empty if the invalidations are not batched
+    */
+   @Managed
+   @ManagedName("InvalidationBatchStatistics")
+   @ManagedDescription("The counters of the batches of invalidations and their delay in microseconds")
+   public Map<String, Long> getInvalidationBatchStatistics()
+   {
+      InvalidationBatcher<K, HashCode<V>> batcher = this.batcher;
+      return batcher == null ? new HashMap<String, Long>() : batcher.toMap();
+   }
+
+   /**
+    * Sends the pending invalidations without waiting for the end of the window.
+    */
+   @Managed
+   @ManagedDescription("Send the pending invalidations")
+   public void flushInvalidations()
+   {
+      InvalidationBatcher<K, HashCode<V>> batcher = this.batcher;
+      if (batcher != null)
+      {
+         batcher.flush();
+      }
+   }
+
    /**
     * @see org.exoplatform.services.cache.ExoCache#getName()
     */
@@ -140,7 +217,29 @@ public class InvalidationExoCache<K extends Serializable, V> implements ExoCache
    public V get(Serializable name)
    {
       HashCode<V> result = delegate.get(name);
-      return result == null ? null : localCache.get(name);
+      return result == null && !isPending(name) ? null : localCache.get(name);
+   }
+
+   /**
+    * @see org.exoplatform.services.cache.ExoCache#getAll(java.util.Collection)
+    */
+   public Map<K, V> getAll(Collection<? extends K> keys)
+   {
+      // The hash codes are all retrieved at once from the underlying cache
+      Map<K, HashCode<V>> results = delegate.getAll(keys);
+      Map<K, V> values = new HashMap<K, V>();
+      for (K key : keys)
+      {
+         if (results.containsKey(key) || isPending(key))
+         {
+            V value = localCache.get(key);
+            if (value != null)
+            {
+               values.put(key, value);
+            }
+         }
+      }
+      return values;
    }
 
    /**
@@ -149,6 +248,12 @@ public class InvalidationExoCache<K extends Serializable, V> implements ExoCache
    public V remove(Serializable key) throws NullPointerException
    {
       V value = localCache.get(key);
+      InvalidationBatcher<K, HashCode<V>> batcher = this.batcher;
+      if (batcher != null && batcher.discard(key))
+      {
+         // The value put is not in the underlying cache yet
+         localCache.remove(key);
+      }
       delegate.remove(key);
       return value;
    }
@@ -159,6 +264,12 @@ public class InvalidationExoCache<K extends Serializable, V> implements ExoCache
    public void removeLocal(Serializable key) throws NullPointerException
    {
       localCache.get(key);
+      InvalidationBatcher<K, HashCode<V>> batcher = this.batcher;
+      if (batcher != null && batcher.discard(key))
+      {
+         // The value put is not in the underlying cache yet
+         localCache.remove(key);
+      }
       delegate.removeLocal(key);
    }
 
@@ -167,17 +278,49 @@ public class InvalidationExoCache<K extends Serializable, V> implements ExoCache
     */
    public void put(K key, V value) throws NullPointerException
    {
-      HashCode hashCode = new HashCode<V>(value);
+      HashCode<V> hashCode = new HashCode<V>(value);
       LOG.debug("Cache: {} PUT KEY: {}, hash: {} ", getName(), key, hashCode.hashCode());
-      delegate.put(key, hashCode);
+      InvalidationBatcher<K, HashCode<V>> batcher = this.batcher;
+      if (batcher == null)
+      {
+         delegate.put(key, hashCode);
+      }
+      else
+      {
+         putLocalOnly(key, value);
+         batcher.add(key, hashCode);
+      }
    }
 
    @Override
    public void putLocal(K key, V value) throws NullPointerException
    {
-      HashCode hashCode = new HashCode<V>(value);
+      HashCode<V> hashCode = new HashCode<V>(value);
       LOG.debug("Cache: {} PUT LOCAL KEY: {}, hash: {} ", getName(), key, hashCode.hashCode());
       delegate.putLocal(key, hashCode);
+      InvalidationBatcher<K, HashCode<V>> batcher = this.batcher;
+      if (batcher != null)
+      {
+         batcher.replace(key, hashCode);
+      }
+   }
+
+   /**
+    * Makes the value available locally while its invalidation is pending, the value is only put into the
+    * underlying cache when the batch is sent so that the listeners and the statistics see one single put
+    */
+   private void putLocalOnly(K key, V value)
+   {
+      localCache.put(key, value);
+   }
+
+   /**
+    * Indicates whether the value of the given key has been put locally and its invalidation is pending
+    */
+   private boolean isPending(Serializable key)
+   {
+      InvalidationBatcher<K, HashCode<V>> batcher = this.batcher;
+      return batcher != null && batcher.isPending(key);
    }
 
    /**
@@ -202,7 +345,19 @@ public class InvalidationExoCache<K extends Serializable, V> implements ExoCache
          }
          map.put(entry.getKey(), new HashCode<V>(entry.getValue()));
       }
-      delegate.putMap(map);
+      InvalidationBatcher<K, HashCode<V>> batcher = this.batcher;
+      if (batcher == null)
+      {
+         delegate.putMap(map);
+      }
+      else
+      {
+         for (Entry<? extends K, ? extends V> entry : objs.entrySet())
+         {
+            putLocalOnly(entry.getKey(), entry.getValue());
+         }
+         batcher.addAll(map);
+      }
    }
 
    /**
@@ -210,6 +365,11 @@ public class InvalidationExoCache<K extends Serializable, V> implements ExoCache
     */
    public void clearCache()
    {
+      InvalidationBatcher<K, HashCode<V>> batcher = this.batcher;
+      if (batcher != null)
+      {
+         batcher.clear();
+      }
       delegate.clearCache();
    }
 
@@ -302,6 +462,14 @@ public class InvalidationExoCache<K extends Serializable, V> implements ExoCache
       return delegate.getCacheMiss();
    }
 
+   /**
+    * @see org.exoplatform.services.cache.ExoCache#getStatistics()
+    */
+   public CacheStatistics getStatistics()
+   {
+      return delegate.getStatistics();
+   }
+
    /**
     * @see org.exoplatform.services.cache.ExoCache#getCachedObjects()
     */
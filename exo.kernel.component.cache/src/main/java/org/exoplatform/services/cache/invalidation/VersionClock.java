@@ -0,0 +1,118 @@
+/*
+ * Copyright (C) 2026 eXo Platform SAS.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.exoplatform.services.cache.invalidation;
+
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A hybrid logical clock that gives the versions of the values of the invalidation caches. A version is made
+ * of the current time in milliseconds followed by a logical counter, it is always greater than the previous
+ * versions given by this clock and than the versions received from the other nodes, so that the versions
+ * remain ordered even when the clocks of the nodes drift.
+ *
+ * @version $Revision$
+ */
+final class VersionClock
+{
+   /**
+    * The amount of bits of the logical counter
+    */
+   private static final int LOGICAL_BITS = 20;
+
+   /**
+    * The clock of this node
+    */
+   static final VersionClock INSTANCE = new VersionClock(new SecureRandom().nextInt());
+
+   /**
+    * The identifier of this node
+    */
+   private final int origin;
+
+   /**
+    * The last version given or received
+    */
+   private final AtomicLong last = new AtomicLong();
+
+   VersionClock(int origin)
+   {
+      this.origin = origin;
+   }
+
+   int getOrigin()
+   {
+      return origin;
+   }
+
+   /**
+    * @return a new version, greater than all the versions given or received so far
+    */
+   long next()
+   {
+      long physical = System.currentTimeMillis() << LOGICAL_BITS;
+      while (true)
+      {
+         long previous = last.get();
+         long next = Math.max(physical, previous + 1);
+         if (last.compareAndSet(previous, next))
+         {
+            return next;
+         }
+      }
+   }
+
+   /**
+    * Takes into account a version received from another node
+    *
+    * @param version the received version
+    */
+   void observe(long version)
+   {
+      while (true)
+      {
+         long previous = last.get();
+         if (version <= previous || last.compareAndSet(previous, version))
+         {
+            return;
+         }
+      }
+   }
+
+   /**
+    * Creates the version of a value
+    *
+    * @param value the value
+    * @return the new version
+    */
+   <V> VersionStamp<V> stamp(V value)
+   {
+      return new VersionStamp<V>(next(), origin, value, false);
+   }
+
+   /**
+    * Creates a version that invalidates the value
+    *
+    * @return the new version
+    */
+   <V> VersionStamp<V> invalidation()
+   {
+      return new VersionStamp<V>(next(), origin, null, true);
+   }
+}
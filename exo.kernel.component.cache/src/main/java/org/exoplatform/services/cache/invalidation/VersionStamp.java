@@ -0,0 +1,158 @@
+/*
+ * Copyright (C) 2026 eXo Platform SAS.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.exoplatform.services.cache.invalidation;
+
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+
+/**
+ * We use this class to propagate the version of a value over the network instead of the value itself. The
+ * versions are given by a {@link VersionClock} so that the versions created by a node are ordered and never
+ * reused, which allows to detect a change without comparing the values.
+ *
+ * @version $Revision$
+ * @param <V> the type of the value
+ */
+public final class VersionStamp<V> implements Externalizable
+{
+   private static final long serialVersionUID = -2917356146870398417L;
+
+   /**
+    * The version of the value
+    */
+   private long version;
+
+   /**
+    * The identifier of the node that created the version, used to order the versions created at the same
+    * time by different nodes
+    */
+   private int origin;
+
+   /**
+    * Indicates whether the version invalidates the value instead of replacing it
+    */
+   private boolean invalidation;
+
+   /**
+    * The corresponding value, only available on the node that created the version
+    */
+   private transient V value;
+
+   public VersionStamp()
+   {
+   }
+
+   VersionStamp(long version, int origin, V value, boolean invalidation)
+   {
+      this.version = version;
+      this.origin = origin;
+      this.value = value;
+      this.invalidation = invalidation;
+   }
+
+   /**
+    * @return the value or <code>null</code> if the version has been received from another node
+    */
+   public V getValue()
+   {
+      return value;
+   }
+
+   /**
+    * @return the version
+    */
+   public long getVersion()
+   {
+      return version;
+   }
+
+   /**
+    * @return the identifier of the node that created the version
+    */
+   public int getOrigin()
+   {
+      return origin;
+   }
+
+   /**
+    * @return <code>true</code> if the version invalidates the value instead of replacing it
+    */
+   public boolean isInvalidation()
+   {
+      return invalidation;
+   }
+
+   /**
+    * @see java.io.Externalizable#writeExternal(java.io.ObjectOutput)
+    */
+   public void writeExternal(ObjectOutput out) throws IOException
+   {
+      out.writeLong(version);
+      out.writeInt(origin);
+      out.writeBoolean(invalidation);
+   }
+
+   /**
+    * @see java.io.Externalizable#readExternal(java.io.ObjectInput)
+    */
+   public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException
+   {
+      this.version = in.readLong();
+      this.origin = in.readInt();
+      this.invalidation = in.readBoolean();
+   }
+
+   /**
+    * @see java.lang.Object#hashCode()
+    */
+   @Override
+   public int hashCode()
+   {
+      return 31 * (int)(version ^ (version >>> 32)) + origin;
+   }
+
+   /**
+    * @see java.lang.Object#equals(java.lang.Object)
+    */
+   @Override
+   public boolean equals(Object obj)
+   {
+      if (this == obj)
+         return true;
+      if (obj == null)
+         return false;
+      if (getClass() != obj.getClass())
+         return false;
+      @SuppressWarnings("rawtypes")
+      VersionStamp other = (VersionStamp)obj;
+      return version == other.version && origin == other.origin && invalidation == other.invalidation;
+   }
+
+   /**
+    * @see java.lang.Object#toString()
+    */
+   @Override
+   public String toString()
+   {
+      return "VersionStamp [version=" + version + ", origin=" + origin + ", invalidation=" + invalidation
+         + ", value=" + value + "]";
+   }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright (C) 2026 eXo Platform SAS.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.exoplatform.services.cache.offheap;
+
+import org.exoplatform.services.cache.concurrent.Item;
+
+import java.io.Serializable;
+
+/**
+ * The on-heap part of an entry of an {@link OffHeapExoCache}, it only references the off-heap blocks
+ * containing the serialized value.
+ *
+ * @version $Revision$
+ */
+class OffHeapEntry<K extends Serializable> extends Item
+{
+
+   final K name;
+
+   final long expirationTime;
+
+   /**
+    * The length of the serialized value
+    */
+   final int length;
+
+   /**
+    * The index of the first block of the value, -1 if the value has not been written yet or has been freed.
+    * It is only accessed under the lock of the {@link OffHeapStore}.
+    */
+   int address = -1;
+
+   /**
+    * The generation of the {@link OffHeapStore} in which the value has been written. It is only accessed under
+    * the lock of the {@link OffHeapStore}.
+    */
+   int generation;
+
+   OffHeapEntry(K name, long expirationTime, int length)
+   {
+      this.name = name;
+      this.expirationTime = expirationTime;
+      this.length = length;
+   }
+
+   boolean isValid()
+   {
+      return System.currentTimeMillis() < expirationTime;
+   }
+}
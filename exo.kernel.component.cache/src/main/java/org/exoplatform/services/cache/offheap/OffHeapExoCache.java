@@ -0,0 +1,737 @@
+/*
+ * Copyright (C) 2026 eXo Platform SAS.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.exoplatform.services.cache.offheap;
+
+import org.exoplatform.management.annotations.Managed;
+import org.exoplatform.management.annotations.ManagedDescription;
+import org.exoplatform.management.annotations.ManagedName;
+import org.exoplatform.services.cache.CacheListener;
+import org.exoplatform.services.cache.CacheStatistics;
+import org.exoplatform.services.cache.CachedObjectSelector;
+import org.exoplatform.services.cache.EvictionPolicy;
+import org.exoplatform.services.cache.ExoCache;
+import org.exoplatform.services.cache.ObjectCacheInfo;
+import org.exoplatform.services.cache.concurrent.BufferedQueue;
+import org.exoplatform.services.cache.concurrent.ListenerContext;
+import org.exoplatform.services.cache.concurrent.Queue;
+import org.exoplatform.services.cache.concurrent.SynchronizedLRUQueue;
+import org.exoplatform.services.log.ExoLogger;
+import org.exoplatform.services.log.Log;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * An {@link ExoCache} implementation that keeps its values serialized in off-heap memory in order to
+ * reduce the pressure on the garbage collector for the caches holding a large amount of entries. Only the
+ * keys and small entry descriptors are kept on-heap, the values are deserialized on each access. The
+ * entries are evicted according to their insertion order ({@link EvictionPolicy#FIFO}) or their last
+ * access ({@link EvictionPolicy#LRU}) when the max size is reached or when the off-heap memory is full.
+ * The values must be {@link Serializable}, the other values are not cached.
+ *
+ * @version $Revision$
+ */
+public class OffHeapExoCache<K extends Serializable, V> implements ExoCache<K, V>
+{
+
+   private static final Log LOG = ExoLogger.getLogger("exo.kernel.component.cache.OffHeapExoCache");
+
+   /**
+    * The default amount of bytes of off-heap memory of a cache
+    */
+   public static final long DEFAULT_CAPACITY = 64L * 1024 * 1024;
+
+   private static final int DEFAULT_MAX_SIZE = 50;
+
+   /**
+    * The maximum amount of entries evicted in a row to make room for a new value
+    */
+   private static final int MAX_EVICTION_ATTEMPTS = 1000;
+
+   private volatile long liveTimeMillis = -1;
+
+   private volatile int maxSize;
+
+   private volatile long capacity;
+
+   private volatile EvictionPolicy evictionPolicy = EvictionPolicy.FIFO;
+
+   private volatile State<K> state;
+
+   private final CopyOnWriteArrayList<ListenerContext<K, V>> listeners =
+      new CopyOnWriteArrayList<ListenerContext<K, V>>();
+
+   private final CacheStatistics statistics = new CacheStatistics();
+
+   private String name;
+
+   private String label;
+
+   private boolean logEnabled;
+
+   public OffHeapExoCache()
+   {
+      this(null, DEFAULT_MAX_SIZE, DEFAULT_CAPACITY);
+   }
+
+   public OffHeapExoCache(String name, int maxSize, long capacity)
+   {
+      this.name = name;
+      this.maxSize = maxSize;
+      this.capacity = capacity;
+      this.state = new State<K>(evictionPolicy, new OffHeapStore(capacity));
+   }
+
+   public void assertConsistent()
+   {
+      State<K> state = this.state;
+      if (state.queue instanceof BufferedQueue)
+      {
+         ((BufferedQueue<?>)state.queue).assertConsistency();
+      }
+      int mapSize = state.map.size();
+      int queueSize = state.queue.size();
+      if (mapSize != queueSize)
+      {
+         throw new AssertionError("The map size is " + mapSize + " is different from the queue size " + queueSize);
+      }
+   }
+
+   public String getName()
+   {
+      return name;
+   }
+
+   public void setName(String name)
+   {
+      this.name = name;
+   }
+
+   public String getLabel()
+   {
+      return label == null ? name : label;
+   }
+
+   public void setLabel(String label)
+   {
+      this.label = label;
+   }
+
+   public int getMaxSize()
+   {
+      return maxSize;
+   }
+
+   public void setMaxSize(int max)
+   {
+      this.maxSize = max;
+   }
+
+   public long getLiveTime()
+   {
+      return liveTimeMillis == -1 ? -1 : liveTimeMillis / 1000;
+   }
+
+   public void setLiveTime(long period)
+   {
+      this.liveTimeMillis = period < 0 ? -1 : period * 1000;
+   }
+
+   public EvictionPolicy getEvictionPolicy()
+   {
+      return evictionPolicy;
+   }
+
+   /**
+    * Sets the eviction policy of the cache, the content of the cache is cleared if the policy changes.
+    * {@link EvictionPolicy#TINYLFU} is not supported, {@link EvictionPolicy#LRU} is used instead.
+    *
+    * @param evictionPolicy the eviction policy
+    */
+   public void setEvictionPolicy(EvictionPolicy evictionPolicy)
+   {
+      if (evictionPolicy == null)
+      {
+         throw new IllegalArgumentException("No null eviction policy accepted");
+      }
+      if (evictionPolicy == EvictionPolicy.TINYLFU)
+      {
+         evictionPolicy = EvictionPolicy.LRU;
+      }
+      if (this.evictionPolicy != evictionPolicy)
+      {
+         this.evictionPolicy = evictionPolicy;
+         reset();
+      }
+   }
+
+   @Managed
+   @ManagedName("Capacity")
+   @ManagedDescription("The maximum amount of bytes of off-heap memory used to store the values")
+   public long getCapacity()
+   {
+      return state.store.getCapacity();
+   }
+
+   /**
+    * Sets the maximum amount of bytes of off-heap memory, the content of the cache is cleared if the
+    * capacity changes.
+    *
+    * @param capacity the capacity in bytes
+    */
+   public void setCapacity(long capacity)
+   {
+      if (capacity <= 0)
+      {
+         throw new IllegalArgumentException("The capacity must be positive");
+      }
+      if (this.capacity != capacity)
+      {
+         this.capacity = capacity;
+         reset();
+      }
+   }
+
+   @Managed
+   @ManagedName("UsedMemory")
+   @ManagedDescription("The amount of bytes of off-heap memory currently used to store the values")
+   public long getUsedMemory()
+   {
+      return state.store.getUsedMemory();
+   }
+
+   public V get(Serializable name)
+   {
+      if (name == null)
+      {
+         return null;
+      }
+      long start = System.nanoTime();
+      V value = lookup(name);
+      statistics.recordGet(System.nanoTime() - start);
+      return value;
+   }
+
+   private V lookup(Serializable name)
+   {
+      State<K> state = this.state;
+      OffHeapEntry<K> entry = state.map.get(name);
+      if (entry != null)
+      {
+         if (entry.isValid())
+         {
+            byte[] data = state.store.read(entry);
+            // The entry could have been freed concurrently
+            if (data != null)
+            {
+               V value = deserialize(data);
+               if (value != null)
+               {
+                  state.queue.touch(entry);
+                  statistics.onHit();
+                  onGet(entry.name, value);
+                  return value;
+               }
+            }
+         }
+         else if (state.map.remove(name, entry))
+         {
+            state.queue.remove(entry);
+            V value = listeners.isEmpty() ? null : read(state, entry);
+            state.store.free(entry);
+            statistics.onExpiration();
+            onExpire(entry.name, value);
+         }
+      }
+      statistics.onMiss();
+      return null;
+   }
+
+   public void put(K name, V obj)
+   {
+      put(name, obj, false);
+   }
+
+   public void putLocal(K name, V obj)
+   {
+      put(name, obj, true);
+   }
+
+   private void put(K name, V obj, boolean local)
+   {
+      if (name == null)
+      {
+         throw new IllegalArgumentException("No null cache key accepted");
+      }
+      if (liveTimeMillis != 0)
+      {
+         long expirationTime = liveTimeMillis > 0 ? System.currentTimeMillis() + liveTimeMillis : Long.MAX_VALUE;
+         put(expirationTime, name, obj, local);
+      }
+   }
+
+   public void putMap(Map<? extends K, ? extends V> objs)
+   {
+      if (objs == null)
+      {
+         throw new IllegalArgumentException("No null map accepted");
+      }
+      for (Serializable name : objs.keySet())
+      {
+         if (name == null)
+         {
+            throw new IllegalArgumentException("No null cache key accepted");
+         }
+      }
+      long expirationTime = liveTimeMillis > 0 ? System.currentTimeMillis() + liveTimeMillis : Long.MAX_VALUE;
+      for (Map.Entry<? extends K, ? extends V> entry : objs.entrySet())
+      {
+         put(expirationTime, entry.getKey(), entry.getValue(), false);
+      }
+   }
+
+   private void put(long expirationTime, K name, V obj, boolean local)
+   {
+      statistics.onPut();
+      State<K> state = this.state;
+      byte[] data = serialize(name, obj);
+      OffHeapEntry<K> entry = data == null ? null : new OffHeapEntry<K>(name, expirationTime, data.length);
+      if (entry != null && !write(state, entry, data))
+      {
+         entry = null;
+      }
+      if (entry == null)
+      {
+         // The value cannot be cached, we make sure that the previous value is not returned anymore
+         OffHeapEntry<K> previous = state.map.remove(name);
+         if (previous != null)
+         {
+            state.queue.remove(previous);
+            state.store.free(previous);
+         }
+         return;
+      }
+      OffHeapEntry<K> previous = state.map.put(name, entry);
+      if (previous != null)
+      {
+         state.queue.remove(previous);
+         state.store.free(previous);
+      }
+      if (state != this.state)
+      {
+         // The cache has been cleared concurrently, the blocks are released since the entry is not reachable
+         // anymore
+         state.store.free(entry);
+         return;
+      }
+      state.queue.add(entry);
+      evict(state, state.queue.trim(maxSize));
+      if (local)
+      {
+         onPutLocal(name, obj);
+      }
+      else
+      {
+         onPut(name, obj);
+      }
+   }
+
+   /**
+    * Writes the value into the off-heap memory, entries are evicted until there is enough room for it.
+    *
+    * @return <code>true</code> if the value could be written, <code>false</code> otherwise
+    */
+   private boolean write(State<K> state, OffHeapEntry<K> entry, byte[] data)
+   {
+      if (!state.store.fits(data.length))
+      {
+         if (LOG.isDebugEnabled())
+         {
+            LOG.debug("The value of the key " + entry.name + " is too big to be stored in the cache " + name);
+         }
+         return false;
+      }
+      for (int i = 0; !state.store.write(entry, data); i++)
+      {
+         if (i == MAX_EVICTION_ATTEMPTS)
+         {
+            return false;
+         }
+         ArrayList<OffHeapEntry<K>> evicted = state.queue.size() > 0 ? state.queue.evict(1) : null;
+         if (evicted == null)
+         {
+            // Another thread is evicting entries
+            Thread.yield();
+         }
+         else
+         {
+            evict(state, evicted);
+         }
+      }
+      return true;
+   }
+
+   private void evict(State<K> state, ArrayList<OffHeapEntry<K>> evicted)
+   {
+      if (evicted != null)
+      {
+         for (OffHeapEntry<K> entry : evicted)
+         {
+            // We free it only if it was the same entry, it could have been removed
+            // concurrently by an explicit remove or by a promotion
+            if (state.map.remove(entry.name, entry))
+            {
+               V value = listeners.isEmpty() ? null : read(state, entry);
+               state.store.free(entry);
+               statistics.onEviction();
+               onExpire(entry.name, value);
+            }
+         }
+      }
+   }
+
+   public V remove(Serializable name)
+   {
+      if (name == null)
+      {
+         throw new IllegalArgumentException("No null cache key accepted");
+      }
+      State<K> state = this.state;
+      OffHeapEntry<K> entry = state.map.remove(name);
+      if (entry == null)
+      {
+         return null;
+      }
+      boolean removed = state.queue.remove(entry);
+      V value = read(state, entry);
+      state.store.free(entry);
+      if (removed && entry.isValid())
+      {
+         onRemove(entry.name, value);
+         return value;
+      }
+      onExpire(entry.name, value);
+      return null;
+   }
+
+   /**
+    * Removes the expired entries without waiting for their key to be accessed, the listeners are notified
+    * of each expired entry.
+    *
+    * @return the amount of removed entries
+    */
+   public int removeExpiredEntries()
+   {
+      if (liveTimeMillis <= 0)
+      {
+         // No entry can expire
+         return 0;
+      }
+      State<K> state = this.state;
+      int expired = 0;
+      for (OffHeapEntry<K> entry : state.map.values())
+      {
+         if (!entry.isValid() && state.map.remove(entry.name, entry))
+         {
+            state.queue.remove(entry);
+            V value = listeners.isEmpty() ? null : read(state, entry);
+            state.store.free(entry);
+            statistics.onExpiration();
+            onExpire(entry.name, value);
+            expired++;
+         }
+      }
+      return expired;
+   }
+
+   public List<? extends V> getCachedObjects()
+   {
+      State<K> state = this.state;
+      LinkedList<V> list = new LinkedList<V>();
+      for (OffHeapEntry<K> entry : state.map.values())
+      {
+         if (entry.isValid())
+         {
+            V value = read(state, entry);
+            if (value != null)
+            {
+               list.add(value);
+            }
+         }
+      }
+      return list;
+   }
+
+   public List<? extends V> removeCachedObjects()
+   {
+      List<? extends V> list = getCachedObjects();
+      clearCache();
+      return list;
+   }
+
+   public void clearCache()
+   {
+      reset();
+   }
+
+   /**
+    * Replaces the content of the cache with an empty one, the off-heap memory is reset in place in order to
+    * reuse the pages already allocated.
+    */
+   private synchronized void reset()
+   {
+      OffHeapStore store = state.store;
+      state = new State<K>(evictionPolicy, store);
+      // The store is reset once the new state is visible so that a concurrent put on the previous state
+      // either writes before the reset or notices the new state
+      store.reset(capacity);
+   }
+
+   public void select(CachedObjectSelector<? super K, ? super V> selector) throws Exception
+   {
+      if (selector == null)
+      {
+         throw new IllegalArgumentException("No null selector");
+      }
+      final State<K> state = this.state;
+      for (final OffHeapEntry<K> entry : state.map.values())
+      {
+         ObjectCacheInfo<V> info = new ObjectCacheInfo<V>()
+         {
+            private V value;
+
+            public long getExpireTime()
+            {
+               return entry.expirationTime;
+            }
+
+            public V get()
+            {
+               // The value is only deserialized if needed
+               if (value == null)
+               {
+                  value = read(state, entry);
+               }
+               return value;
+            }
+         };
+         if (selector.select(entry.name, info))
+         {
+            selector.onSelect(this, entry.name, info);
+         }
+      }
+   }
+
+   public int getCacheSize()
+   {
+      return state.queue.size();
+   }
+
+   public int getCacheHit()
+   {
+      return (int)Math.min(statistics.getHits(), Integer.MAX_VALUE);
+   }
+
+   public int getCacheMiss()
+   {
+      return (int)Math.min(statistics.getMisses(), Integer.MAX_VALUE);
+   }
+
+   public CacheStatistics getStatistics()
+   {
+      return statistics;
+   }
+
+   public synchronized void addCacheListener(CacheListener<? super K, ? super V> listener)
+   {
+      if (listener == null)
+      {
+         throw new IllegalArgumentException("The listener cannot be null");
+      }
+      listeners.add(new ListenerContext<K, V>(listener, this));
+   }
+
+   public boolean isLogEnabled()
+   {
+      return logEnabled;
+   }
+
+   public void setLogEnabled(boolean logEnabled)
+   {
+      this.logEnabled = logEnabled;
+   }
+
+   private V read(State<K> state, OffHeapEntry<K> entry)
+   {
+      byte[] data = state.store.read(entry);
+      return data == null ? null : deserialize(data);
+   }
+
+   private byte[] serialize(K name, V obj)
+   {
+      if (!(obj instanceof Serializable))
+      {
+         LOG.warn("The value of the key " + name + " cannot be stored in the off-heap cache " + this.name
+            + " as it is not serializable");
+         return null;
+      }
+      try
+      {
+         ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+         ObjectOutputStream out = new ObjectOutputStream(bytes);
+         out.writeObject(obj);
+         out.close();
+         return bytes.toByteArray();
+      }
+      catch (IOException e)
+      {
+         LOG.warn("The value of the key " + name + " cannot be serialized", e);
+         return null;
+      }
+   }
+
+   @SuppressWarnings("unchecked")
+   private V deserialize(byte[] data)
+   {
+      try
+      {
+         ObjectInputStream in = new ContextObjectInputStream(new ByteArrayInputStream(data));
+         try
+         {
+            return (V)in.readObject();
+         }
+         finally
+         {
+            in.close();
+         }
+      }
+      catch (IOException | ClassNotFoundException e)
+      {
+         LOG.warn("A value of the cache " + name + " cannot be deserialized", e);
+         return null;
+      }
+   }
+
+   //
+
+   public void onExpire(K key, V obj)
+   {
+      if (!listeners.isEmpty())
+         for (ListenerContext<K, V> context : listeners)
+            context.onExpire(key, obj);
+   }
+
+   public void onRemove(K key, V obj)
+   {
+      if (!listeners.isEmpty())
+         for (ListenerContext<K, V> context : listeners)
+            context.onRemove(key, obj);
+   }
+
+   public void onPut(K key, V obj)
+   {
+      if (!listeners.isEmpty())
+         for (ListenerContext<K, V> context : listeners)
+            context.onPut(key, obj);
+   }
+
+   public void onPutLocal(K key, V obj)
+   {
+      if (!listeners.isEmpty())
+         for (ListenerContext<K, V> context : listeners)
+            context.onPutLocal(key, obj);
+   }
+
+   public void onGet(K key, V obj)
+   {
+      if (!listeners.isEmpty())
+         for (ListenerContext<K, V> context : listeners)
+            context.onGet(key, obj);
+   }
+
+   public void onClearCache()
+   {
+      if (!listeners.isEmpty())
+         for (ListenerContext<K, V> context : listeners)
+            context.onClearCache();
+   }
+
+   /**
+    * The content of the cache, it is replaced as a whole when the cache is cleared while the off-heap
+    * memory is kept.
+    */
+   private static class State<K extends Serializable>
+   {
+      final ConcurrentHashMap<K, OffHeapEntry<K>> map = new ConcurrentHashMap<K, OffHeapEntry<K>>();
+
+      final Queue<OffHeapEntry<K>> queue;
+
+      final OffHeapStore store;
+
+      State(EvictionPolicy policy, OffHeapStore store)
+      {
+         this.queue =
+            policy == EvictionPolicy.LRU ? new SynchronizedLRUQueue<OffHeapEntry<K>>(null)
+               : new BufferedQueue<OffHeapEntry<K>>(null);
+         this.store = store;
+      }
+   }
+
+   /**
+    * Resolves the classes with the context class loader first since the cache is shared by the
+    * applications.
+    */
+   private static class ContextObjectInputStream extends ObjectInputStream
+   {
+      ContextObjectInputStream(InputStream in) throws IOException
+      {
+         super(in);
+      }
+
+      @Override
+      protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException
+      {
+         ClassLoader cl = Thread.currentThread().getContextClassLoader();
+         if (cl != null)
+         {
+            try
+            {
+               return Class.forName(desc.getName(), false, cl);
+            }
+            catch (ClassNotFoundException e)
+            {
+               // Try with the default class loader
+            }
+         }
+         return super.resolveClass(desc);
+      }
+   }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright (C) 2026 eXo Platform SAS.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.exoplatform.services.cache.offheap;
+
+import org.exoplatform.services.cache.ExoCache;
+import org.exoplatform.services.cache.ExoCacheConfig;
+import org.exoplatform.services.cache.ExoCacheFactory;
+import org.exoplatform.services.cache.ExoCacheInitException;
+import org.exoplatform.services.cache.impl.LoggingCacheListener;
+
+import java.io.Serializable;
+
+/**
+ * The {@link ExoCacheFactory} creating {@link OffHeapExoCache} instances. It can be selected for a given
+ * region thanks to {@link ExoCacheConfig#setFactory(String)}, the max weight of the configuration is then
+ * used as the amount of bytes of off-heap memory of the cache, {@link OffHeapExoCache#DEFAULT_CAPACITY}
+ * is used if no max weight has been defined. Only the local caches, optionally invalidated, are supported.
+ *
+ * @version $Revision$
+ */
+public class OffHeapExoCacheFactory implements ExoCacheFactory
+{
+
+   /**
+    * {@inheritDoc}
+    */
+   public ExoCache<Serializable, Object> createCache(ExoCacheConfig config) throws ExoCacheInitException
+   {
+      if (config.getCacheMode().isReplicated() || config.getCacheMode().isDistributed())
+      {
+         throw new ExoCacheInitException("The cache '" + config.getName()
+            + "' cannot be stored off-heap as it is a replicated or distributed cache");
+      }
+      long capacity = config.getMaxWeight() > 0 ? config.getMaxWeight() : OffHeapExoCache.DEFAULT_CAPACITY;
+      OffHeapExoCache<Serializable, Object> cache =
+         new OffHeapExoCache<Serializable, Object>(config.getName(), config.getMaxSize(), capacity);
+      cache.setLabel(config.getLabel());
+      cache.setLiveTime(config.getLiveTime());
+      cache.setEvictionPolicy(config.getEvictionPolicy());
+      cache.setLogEnabled(config.isLogEnabled());
+      if (cache.isLogEnabled())
+      {
+         cache.addCacheListener(new LoggingCacheListener());
+      }
+      return cache;
+   }
+}
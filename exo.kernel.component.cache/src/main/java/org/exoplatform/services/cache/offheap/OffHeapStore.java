@@ -0,0 +1,329 @@
+/*
+ * Copyright (C) 2026 eXo Platform SAS.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.exoplatform.services.cache.offheap;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * The off-heap memory of an {@link OffHeapExoCache}. The memory is made of direct {@link ByteBuffer} pages
+ * allocated lazily, which are split into blocks of a fixed size. A value is written into a chain of blocks,
+ * the first 4 bytes of a block being the index of the next block of the chain. The free blocks are linked
+ * the same way which allows to reuse them without any on-heap structure. The store can be reset in place
+ * which keeps the pages already allocated.
+ *
+ * @version $Revision$
+ */
+class OffHeapStore
+{
+
+   /**
+    * The default size of a block
+    */
+   static final int DEFAULT_BLOCK_SIZE = 256;
+
+   /**
+    * The maximum size of a page
+    */
+   static final int PAGE_SIZE = 1024 * 1024;
+
+   /**
+    * The size of the header of a block which contains the index of the next block
+    */
+   private static final int HEADER_SIZE = 4;
+
+   /**
+    * The index used to indicate the end of a chain of blocks
+    */
+   private static final int END = -1;
+
+   private final int blockSize;
+
+   private final int payloadSize;
+
+   private final int blocksPerPage;
+
+   private volatile int maxBlocks;
+
+   private ByteBuffer[] pages;
+
+   private final Lock readLock;
+
+   private final Lock writeLock;
+
+   /**
+    * The index of the first block that has never been used
+    */
+   private int nextUnusedBlock;
+
+   /**
+    * The index of the first block of the free list
+    */
+   private int freeBlock = END;
+
+   private int usedBlocks;
+
+   /**
+    * Incremented each time the store is reset so that the entries written before are considered as freed
+    */
+   private int generation;
+
+   OffHeapStore(long capacity)
+   {
+      this(capacity, DEFAULT_BLOCK_SIZE);
+   }
+
+   OffHeapStore(long capacity, int blockSize)
+   {
+      if (blockSize <= HEADER_SIZE || blockSize > PAGE_SIZE)
+      {
+         throw new IllegalArgumentException("The block size must be between " + (HEADER_SIZE + 1) + " and "
+            + PAGE_SIZE);
+      }
+      this.blockSize = blockSize;
+      this.payloadSize = blockSize - HEADER_SIZE;
+      this.blocksPerPage = PAGE_SIZE / blockSize;
+      this.maxBlocks = maxBlocks(capacity);
+      this.pages = new ByteBuffer[pageCount(maxBlocks)];
+      ReadWriteLock lock = new ReentrantReadWriteLock();
+      this.readLock = lock.readLock();
+      this.writeLock = lock.writeLock();
+   }
+
+   private int maxBlocks(long capacity)
+   {
+      return (int)Math.min(Integer.MAX_VALUE, Math.max(1, capacity / blockSize));
+   }
+
+   private int pageCount(int maxBlocks)
+   {
+      return (maxBlocks + blocksPerPage - 1) / blocksPerPage;
+   }
+
+   /**
+    * Frees all the blocks and changes the capacity of the store. The pages already allocated are kept
+    * as long as they are within the new capacity, the entries written before are considered as freed.
+    *
+    * @param capacity the new capacity in bytes
+    */
+   void reset(long capacity)
+   {
+      writeLock.lock();
+      try
+      {
+         int maxBlocks = maxBlocks(capacity);
+         int pageCount = pageCount(maxBlocks);
+         if (pageCount != pages.length)
+         {
+            pages = Arrays.copyOf(pages, pageCount);
+         }
+         this.maxBlocks = maxBlocks;
+         nextUnusedBlock = 0;
+         freeBlock = END;
+         usedBlocks = 0;
+         generation++;
+      }
+      finally
+      {
+         writeLock.unlock();
+      }
+   }
+
+   /**
+    * @return the maximum amount of bytes that can be used
+    */
+   long getCapacity()
+   {
+      return (long)maxBlocks * blockSize;
+   }
+
+   /**
+    * @return the amount of bytes currently used
+    */
+   long getUsedMemory()
+   {
+      readLock.lock();
+      try
+      {
+         return (long)usedBlocks * blockSize;
+      }
+      finally
+      {
+         readLock.unlock();
+      }
+   }
+
+   /**
+    * Indicates whether a value of the given length could be stored if the store was empty.
+    */
+   boolean fits(int length)
+   {
+      return blocksFor(length) <= maxBlocks;
+   }
+
+   private int blocksFor(int length)
+   {
+      return Math.max(1, (length + payloadSize - 1) / payloadSize);
+   }
+
+   /**
+    * Writes the data into free blocks and assigns the first block to the entry.
+    *
+    * @param entry the entry to which the data belong
+    * @param data the data to write
+    * @return <code>true</code> if the data have been written, <code>false</code> if there are not
+    * enough free blocks
+    */
+   boolean write(OffHeapEntry<?> entry, byte[] data)
+   {
+      int needed = blocksFor(data.length);
+      writeLock.lock();
+      try
+      {
+         if (maxBlocks - usedBlocks < needed)
+         {
+            return false;
+         }
+         int first = END;
+         int previous = END;
+         for (int i = 0, offset = 0; i < needed; i++, offset += payloadSize)
+         {
+            int block = allocateBlock();
+            ByteBuffer page = pageOf(block);
+            int position = positionOf(block);
+            page.putInt(position, END);
+            ByteBuffer buffer = page.duplicate();
+            buffer.position(position + HEADER_SIZE);
+            buffer.put(data, offset, Math.min(payloadSize, data.length - offset));
+            if (previous == END)
+            {
+               first = block;
+            }
+            else
+            {
+               pageOf(previous).putInt(positionOf(previous), block);
+            }
+            previous = block;
+         }
+         usedBlocks += needed;
+         entry.address = first;
+         entry.generation = generation;
+         return true;
+      }
+      finally
+      {
+         writeLock.unlock();
+      }
+   }
+
+   /**
+    * Reads the data of the given entry.
+    *
+    * @param entry the entry to read
+    * @return the data of the entry, <code>null</code> if the entry has been freed
+    */
+   byte[] read(OffHeapEntry<?> entry)
+   {
+      readLock.lock();
+      try
+      {
+         int block = entry.address;
+         if (block == END || entry.generation != generation)
+         {
+            return null;
+         }
+         byte[] data = new byte[entry.length];
+         for (int offset = 0; offset < data.length; offset += payloadSize)
+         {
+            ByteBuffer page = pageOf(block);
+            int position = positionOf(block);
+            ByteBuffer buffer = page.duplicate();
+            buffer.position(position + HEADER_SIZE);
+            buffer.get(data, offset, Math.min(payloadSize, data.length - offset));
+            block = page.getInt(position);
+         }
+         return data;
+      }
+      finally
+      {
+         readLock.unlock();
+      }
+   }
+
+   /**
+    * Releases the blocks of the given entry, it does nothing if the entry has already been freed.
+    *
+    * @param entry the entry to free
+    */
+   void free(OffHeapEntry<?> entry)
+   {
+      writeLock.lock();
+      try
+      {
+         int block = entry.generation == generation ? entry.address : END;
+         entry.address = END;
+         while (block != END)
+         {
+            ByteBuffer page = pageOf(block);
+            int position = positionOf(block);
+            int next = page.getInt(position);
+            page.putInt(position, freeBlock);
+            freeBlock = block;
+            usedBlocks--;
+            block = next;
+         }
+      }
+      finally
+      {
+         writeLock.unlock();
+      }
+   }
+
+   private int allocateBlock()
+   {
+      if (freeBlock != END)
+      {
+         int block = freeBlock;
+         freeBlock = pageOf(block).getInt(positionOf(block));
+         return block;
+      }
+      int block = nextUnusedBlock++;
+      int pageIndex = block / blocksPerPage;
+      int blocks = Math.min(blocksPerPage, maxBlocks - pageIndex * blocksPerPage);
+      // The last page may be too small if the capacity has been increased since its allocation
+      if (pages[pageIndex] == null || pages[pageIndex].capacity() < blocks * blockSize)
+      {
+         pages[pageIndex] = ByteBuffer.allocateDirect(blocks * blockSize);
+      }
+      return block;
+   }
+
+   private ByteBuffer pageOf(int block)
+   {
+      return pages[block / blocksPerPage];
+   }
+
+   private int positionOf(int block)
+   {
+      return (block % blocksPerPage) * blockSize;
+   }
+}
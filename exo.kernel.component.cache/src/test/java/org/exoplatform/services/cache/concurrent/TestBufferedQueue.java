@@ -0,0 +1,89 @@
+package org.exoplatform.services.cache.concurrent;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This is unit test for the class (@link org.exoplatform.services.cache.concurrent.BufferedQueue)
+ */
+public class TestBufferedQueue {
+
+  @Test
+  public void testFIFO() throws Exception {
+    BufferedQueue<Item> queue = new BufferedQueue<>(null);
+    Item first = new Item();
+    Item second = new Item();
+    Item third = new Item();
+    queue.add(first);
+    queue.add(second);
+    queue.add(third);
+    Assert.assertEquals(3, queue.size());
+    ArrayList<Item> evicted = queue.trim(2);
+    Assert.assertEquals(1, evicted.size());
+    Assert.assertSame(first, evicted.get(0));
+    Assert.assertTrue(queue.remove(second));
+    Assert.assertFalse(queue.remove(second));
+    Assert.assertEquals(1, queue.size());
+    queue.assertConsistency();
+  }
+
+  @Test
+  public void testRemoveBeforeAdd() throws Exception {
+    BufferedQueue<Item> queue = new BufferedQueue<>(null);
+    Item item = new Item();
+    Assert.assertTrue(queue.remove(item));
+    queue.add(item);
+    Assert.assertEquals(0, queue.size());
+    queue.assertConsistency();
+  }
+
+  /**
+   * This test if BufferedQueue is thread-safe by using
+   * multiple thread concurrently add, remove and trim items in the queue
+   */
+  @Test
+  public void testConcurrentAccess() throws Exception {
+    BufferedQueue<Item> queue = new BufferedQueue<>(null);
+
+    //
+    CountDownLatch start = new CountDownLatch(1);
+    CountDownLatch finish = new CountDownLatch(100);
+    //
+    for (int i = 0; i < 100; i++) {
+      Thread t = new Thread(new Runnable() {
+        @Override
+        public void run() {
+          try {
+            start.await(10, TimeUnit.SECONDS);
+          } catch (InterruptedException e) {
+            Assert.fail("CountDownLatch fail to wait");
+          }
+
+          Item previous = null;
+          for (int j = 0; j < 10000; j++) {
+            Item item = new Item();
+            queue.add(item);
+            if (previous != null && j % 2 == 0) {
+              queue.remove(previous);
+            }
+            queue.trim(1000);
+            previous = item;
+          }
+          finish.countDown();
+        }
+      });
+      t.start();
+    }
+    //
+    start.countDown();
+    Assert.assertTrue(finish.await(1, TimeUnit.MINUTES));
+
+    queue.trim(1000);
+    Assert.assertEquals(1000, queue.size());
+    queue.assertConsistency();
+  }
+}
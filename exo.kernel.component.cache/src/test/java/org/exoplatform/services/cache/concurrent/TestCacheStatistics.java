@@ -0,0 +1,101 @@
+/*
+ * Copyright (C) 2026 eXo Platform SAS.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.exoplatform.services.cache.concurrent;
+
+import org.exoplatform.services.cache.CacheStatistics;
+import org.exoplatform.services.cache.LatencyHistogram;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This is unit test for the statistics of (@link org.exoplatform.services.cache.concurrent.ConcurrentFIFOExoCache)
+ */
+public class TestCacheStatistics {
+
+  @Test
+  public void testCounters() throws Exception {
+    ConcurrentFIFOExoCache<String, String> cache = new ConcurrentFIFOExoCache<>(2);
+    CacheStatistics statistics = cache.getStatistics();
+    cache.put("a", "a");
+    cache.put("b", "b");
+    cache.put("c", "c");
+    Assert.assertEquals(3, statistics.getPuts());
+    Assert.assertEquals(1, statistics.getEvictions());
+    Assert.assertNull(cache.get("a"));
+    Assert.assertEquals("b", cache.get("b"));
+    cache.getAll(Arrays.asList("b", "c", "d"));
+    Assert.assertEquals(3, statistics.getHits());
+    Assert.assertEquals(2, statistics.getMisses());
+    Assert.assertEquals(3, cache.getCacheHit());
+    Assert.assertEquals(2, cache.getCacheMiss());
+    Assert.assertEquals(0.6, statistics.getHitRatio(), 0.001);
+    Assert.assertEquals(3, statistics.getGetLatency().getCount());
+
+    cache.setLiveTimeMillis(10);
+    cache.put("d", "d");
+    cache.put("e", "e");
+    Thread.sleep(50);
+    Assert.assertNull(cache.get("d"));
+    Assert.assertEquals(1, cache.removeExpiredEntries());
+    Assert.assertEquals(2, statistics.getExpirations());
+
+    Map<String, Long> snapshot = cache.getStatisticsSnapshot();
+    Assert.assertEquals(Long.valueOf(3), snapshot.get("hits"));
+    Assert.assertEquals(Long.valueOf(5), snapshot.get("puts"));
+    Assert.assertEquals(Long.valueOf(4), snapshot.get("getCount"));
+    Assert.assertEquals(Long.valueOf(0), snapshot.get("loadCount"));
+
+    cache.resetStatistics();
+    Assert.assertEquals(0, statistics.getHits());
+    Assert.assertEquals(0, statistics.getMisses());
+    Assert.assertEquals(0, statistics.getPuts());
+    Assert.assertEquals(0, statistics.getEvictions());
+    Assert.assertEquals(0, statistics.getExpirations());
+    Assert.assertEquals(0, statistics.getGetLatency().getCount());
+    Assert.assertEquals(0, cache.getCacheHit());
+  }
+
+  @Test
+  public void testHistogram() throws Exception {
+    LatencyHistogram histogram = new LatencyHistogram();
+    Assert.assertEquals(0, histogram.getPercentile(99));
+    Assert.assertEquals(0, histogram.getMean());
+    for (int i = 1; i <= 100; i++) {
+      histogram.record(TimeUnit.MICROSECONDS.toNanos(i));
+    }
+    histogram.record(-1);
+    Assert.assertEquals(101, histogram.getCount());
+    Assert.assertEquals(TimeUnit.MICROSECONDS.toNanos(100), histogram.getMax());
+    Assert.assertEquals(TimeUnit.MICROSECONDS.toNanos(5050) / 101, histogram.getMean());
+    long median = histogram.getPercentile(50);
+    Assert.assertTrue(median >= TimeUnit.MICROSECONDS.toNanos(50));
+    Assert.assertTrue(median < TimeUnit.MICROSECONDS.toNanos(100));
+    Assert.assertEquals(TimeUnit.MICROSECONDS.toNanos(100), histogram.getPercentile(100));
+    Assert.assertEquals(0, histogram.getPercentile(0));
+    histogram.record(Long.MAX_VALUE);
+    Assert.assertEquals(Long.MAX_VALUE, histogram.getPercentile(100));
+    histogram.reset();
+    Assert.assertEquals(0, histogram.getCount());
+    Assert.assertEquals(0, histogram.getMax());
+  }
+}
@@ -3,6 +3,8 @@ package org.exoplatform.services.cache.concurrent;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.Arrays;
+import java.util.Map;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 
@@ -25,6 +27,7 @@ public class TestConcurrentFIFOExoCache {
     CountDownLatch finish = new CountDownLatch(1000);
     //
     for (int i = 0; i < 1000; i++) {
+      final int id = i;
       Thread t = new Thread(new Runnable() {
         @Override
         public void run() {
@@ -36,7 +39,7 @@ public class TestConcurrentFIFOExoCache {
           
           for (int j = 0; j < 10000; j++) {
             if (cache.getCacheSize() <= LIMIT) {
-              cache.put("", "");
+              cache.put(id + "-" + (j % 10), "");
             }
           }
           finish.countDown();
@@ -50,4 +53,17 @@ public class TestConcurrentFIFOExoCache {
 
     Assert.assertEquals(LIMIT, cache.getCacheSize());
   }
+
+  @Test
+  public void testGetAll() throws Exception {
+    ConcurrentFIFOExoCache<String, String> cache = new ConcurrentFIFOExoCache<>(LIMIT);
+    cache.put("a", "a_value");
+    cache.put("b", "b_value");
+    Map<String, String> values = cache.getAll(Arrays.asList("a", "b", "c", null));
+    Assert.assertEquals(2, values.size());
+    Assert.assertEquals("a_value", values.get("a"));
+    Assert.assertEquals("b_value", values.get("b"));
+    Assert.assertEquals(2, cache.getCacheHit());
+    Assert.assertEquals(1, cache.getCacheMiss());
+  }
 }
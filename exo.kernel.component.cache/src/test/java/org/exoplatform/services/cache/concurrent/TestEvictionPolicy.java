@@ -0,0 +1,134 @@
+package org.exoplatform.services.cache.concurrent;
+
+import org.exoplatform.services.cache.EvictionPolicy;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This is unit test for the eviction policies of (@link org.exoplatform.services.cache.concurrent.ConcurrentFIFOExoCache)
+ */
+public class TestEvictionPolicy {
+
+  @Test
+  public void testFIFO() throws Exception {
+    ConcurrentFIFOExoCache<String, String> cache = new ConcurrentFIFOExoCache<>(3);
+    cache.put("a", "a");
+    cache.put("b", "b");
+    cache.put("c", "c");
+    Assert.assertEquals("a", cache.get("a"));
+    cache.put("d", "d");
+    Assert.assertNull(cache.get("a"));
+    Assert.assertEquals(3, cache.getCacheSize());
+    cache.assertConsistent();
+  }
+
+  @Test
+  public void testLRU() throws Exception {
+    ConcurrentFIFOExoCache<String, String> cache = new ConcurrentFIFOExoCache<>(3);
+    cache.setEvictionPolicy(EvictionPolicy.LRU);
+    cache.put("a", "a");
+    cache.put("b", "b");
+    cache.put("c", "c");
+    Assert.assertEquals("a", cache.get("a"));
+    cache.put("d", "d");
+    Assert.assertEquals("a", cache.get("a"));
+    Assert.assertNull(cache.get("b"));
+    Assert.assertEquals(3, cache.getCacheSize());
+    cache.assertConsistent();
+  }
+
+  @Test
+  public void testTinyLFUScanResistance() throws Exception {
+    ConcurrentFIFOExoCache<String, String> cache = new ConcurrentFIFOExoCache<>(100);
+    cache.setEvictionPolicy(EvictionPolicy.TINYLFU);
+    for (int i = 0; i < 50; i++) {
+      cache.put("hot" + i, "hot" + i);
+    }
+    for (int j = 0; j < 5; j++) {
+      for (int i = 0; i < 50; i++) {
+        Assert.assertNotNull(cache.get("hot" + i));
+      }
+    }
+    // A scan of cold keys
+    for (int i = 0; i < 1000; i++) {
+      cache.put("cold" + i, "cold" + i);
+      cache.assertConsistent();
+    }
+    Assert.assertEquals(100, cache.getCacheSize());
+    for (int i = 0; i < 50; i++) {
+      Assert.assertEquals("hot" + i, cache.get("hot" + i));
+    }
+  }
+
+  @Test
+  public void testTinyLFURemove() throws Exception {
+    ConcurrentFIFOExoCache<String, String> cache = new ConcurrentFIFOExoCache<>(10);
+    cache.setEvictionPolicy(EvictionPolicy.TINYLFU);
+    for (int i = 0; i < 20; i++) {
+      cache.put("key" + i, "value" + i);
+      cache.get("key" + (i / 2));
+      if (i % 3 == 0) {
+        cache.remove("key" + (i / 3));
+      }
+      cache.assertConsistent();
+    }
+    Assert.assertTrue(cache.getCacheSize() <= 10);
+  }
+
+  @Test
+  public void testTinyLFUEvictKeepsMaximum() throws Exception {
+    TinyLFUQueue<Item> queue = new TinyLFUQueue<>(null);
+    for (int i = 0; i < 10; i++) {
+      queue.add(new Item());
+    }
+    Assert.assertNull(queue.trim(10));
+    Assert.assertEquals(10, queue.maximum);
+    Assert.assertEquals(1, queue.evict(1).size());
+    Assert.assertEquals(2, queue.evict(2).size());
+    Assert.assertEquals(7, queue.size());
+    Assert.assertEquals(10, queue.maximum);
+    queue.assertConsistency();
+  }
+
+  @Test
+  public void testTinyLFUConcurrentPut() throws Exception {
+    ConcurrentFIFOExoCache<String, String> cache = new ConcurrentFIFOExoCache<>(100);
+    cache.setEvictionPolicy(EvictionPolicy.TINYLFU);
+
+    //
+    CountDownLatch start = new CountDownLatch(1);
+    CountDownLatch finish = new CountDownLatch(10);
+    //
+    for (int i = 0; i < 10; i++) {
+      final int id = i;
+      Thread t = new Thread(new Runnable() {
+        @Override
+        public void run() {
+          try {
+            start.await(10, TimeUnit.SECONDS);
+          } catch (InterruptedException e) {
+            Assert.fail("CountDownLatch fail to wait");
+          }
+
+          for (int j = 0; j < 10000; j++) {
+            String key = "key" + ((id * j) % 500);
+            if (cache.get(key) == null) {
+              cache.put(key, key);
+            }
+          }
+          finish.countDown();
+        }
+      });
+      t.start();
+    }
+    //
+    start.countDown();
+    finish.await(1, TimeUnit.MINUTES);
+
+    cache.put("last", "last");
+    Assert.assertEquals(100, cache.getCacheSize());
+  }
+}
@@ -0,0 +1,86 @@
+package org.exoplatform.services.cache.concurrent;
+
+import org.exoplatform.services.cache.DefaultWeigher;
+import org.exoplatform.services.cache.EvictionPolicy;
+import org.exoplatform.services.cache.Weigher;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * This is unit test for the weight bounding of (@link org.exoplatform.services.cache.concurrent.ConcurrentFIFOExoCache)
+ */
+public class TestMaxWeight {
+
+  private static final Weigher<String, String> LENGTH_WEIGHER = new Weigher<String, String>() {
+    @Override
+    public long weigh(String key, String value) {
+      return value.length();
+    }
+  };
+
+  @Test
+  public void testWeight() throws Exception {
+    ConcurrentFIFOExoCache<String, String> cache = new ConcurrentFIFOExoCache<>(100);
+    cache.setWeigher(LENGTH_WEIGHER);
+    cache.put("a", "aaa");
+    cache.put("b", "bb");
+    Assert.assertEquals(5, cache.getCacheWeight());
+    cache.put("a", "a");
+    Assert.assertEquals(3, cache.getCacheWeight());
+    cache.remove("b");
+    Assert.assertEquals(1, cache.getCacheWeight());
+    cache.clearCache();
+    Assert.assertEquals(0, cache.getCacheWeight());
+  }
+
+  @Test
+  public void testEviction() throws Exception {
+    for (EvictionPolicy policy : EvictionPolicy.values()) {
+      ConcurrentFIFOExoCache<String, String> cache = new ConcurrentFIFOExoCache<>(1000);
+      cache.setEvictionPolicy(policy);
+      cache.setWeigher(LENGTH_WEIGHER);
+      cache.setMaxWeight(100);
+      for (int i = 0; i < 200; i++) {
+        cache.put("key" + i, "0123456789");
+        Assert.assertTrue(cache.getCacheWeight() <= 100);
+      }
+      Assert.assertEquals(policy.name(), 10, cache.getCacheSize());
+      Assert.assertEquals(policy.name(), 100, cache.getCacheWeight());
+      Assert.assertNotNull(policy.name(), cache.get("key199"));
+      cache.assertConsistent();
+
+      // An entry heavier than the max weight cannot stay in the cache
+      cache.put("big", new String(new char[101]));
+      Assert.assertTrue(cache.getCacheWeight() <= 100);
+      Assert.assertNull(cache.get("big"));
+      cache.assertConsistent();
+    }
+  }
+
+  @Test
+  public void testExpiredEntries() throws Exception {
+    ConcurrentFIFOExoCache<String, String> cache = new ConcurrentFIFOExoCache<>(100);
+    cache.setWeigher(LENGTH_WEIGHER);
+    cache.setLiveTimeMillis(100);
+    cache.put("a", "aaa");
+    cache.put("b", "bb");
+    Thread.sleep(200);
+    Assert.assertNull(cache.get("a"));
+    Assert.assertEquals(2, cache.getCacheWeight());
+    Assert.assertEquals(1, cache.removeExpiredEntries());
+    Assert.assertEquals(0, cache.getCacheWeight());
+  }
+
+  @Test
+  public void testDefaultWeigher() throws Exception {
+    ConcurrentFIFOExoCache<String, Object> cache = new ConcurrentFIFOExoCache<>(100);
+    Assert.assertSame(DefaultWeigher.INSTANCE, cache.getWeigher());
+    cache.put("a", "a");
+    long small = cache.getCacheWeight();
+    Assert.assertTrue(small > 0);
+    cache.put("b", new byte[1024]);
+    Assert.assertTrue(cache.getCacheWeight() - small > 1024);
+    cache.setMaxWeight(0);
+    Assert.assertEquals(-1, cache.getMaxWeight());
+  }
+}
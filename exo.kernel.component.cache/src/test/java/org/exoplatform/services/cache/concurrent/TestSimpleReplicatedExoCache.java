@@ -29,6 +29,7 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.util.Collections;
+import java.util.Map;
 
 /**
  * This is the unit test for the class {@link SimpleReplicatedExoCache}
@@ -307,4 +308,72 @@ public class TestSimpleReplicatedExoCache
       Assert.assertNull(cache3.get("a"));
       Assert.assertNull(cache4.get("a"));
    }
+
+   @Test
+   public void testBatchedReplication() throws Exception
+   {
+      // The window is long enough to never end during the test so the batches are sent by explicit flushes
+      cache1.setReplicationBatching(60000, 0);
+      Assert.assertEquals(60000, cache1.getReplicationWindow());
+      cache1.put("a", "value");
+      cache1.put("b", "value");
+      cache1.put("a", "value2");
+      cache1.putMap(Collections.singletonMap("c", "value"));
+      cache1.remove("b");
+      Assert.assertEquals(2, cache1.getCacheSize());
+      Assert.assertEquals(3L, (long)cache1.getReplicationStatistics().get("pending"));
+      cache1.flushReplication();
+      for (int i = 0; i < 10; i++)
+      {
+         if (cache2.getCacheSize() == 2)
+            break;
+         Thread.sleep(200);
+      }
+      Assert.assertEquals(2, cache2.getCacheSize());
+      Assert.assertEquals("value2", cache2.get("a"));
+      Assert.assertNull(cache2.get("b"));
+      Assert.assertEquals("value", cache2.get("c"));
+      Map<String, Long> statistics = cache1.getReplicationStatistics();
+      Assert.assertEquals(1L, (long)statistics.get("batches"));
+      Assert.assertEquals(3L, (long)statistics.get("changes"));
+      Assert.assertEquals(2L, (long)statistics.get("coalesced"));
+      Assert.assertEquals(0L, (long)statistics.get("pending"));
+
+      // A clear discards the changes made before it
+      cache1.put("d", "value");
+      cache1.clearCache();
+      cache1.put("e", "value");
+      cache1.flushReplication();
+      for (int i = 0; i < 10; i++)
+      {
+         if (cache2.getCacheSize() == 1)
+            break;
+         Thread.sleep(200);
+      }
+      Assert.assertEquals(1, cache2.getCacheSize());
+      Assert.assertEquals("value", cache2.get("e"));
+      Assert.assertEquals(2L, (long)cache1.getReplicationStatistics().get("batches"));
+
+      // An older batch is never applied after a more recent one
+      SimpleReplicatedExoCache.ReplicationBatch batch = new SimpleReplicatedExoCache.ReplicationBatch();
+      batch.add("e", "value3");
+      cache2.applyBatch("sender", 2, batch);
+      Assert.assertEquals("value3", cache2.get("e"));
+      batch = new SimpleReplicatedExoCache.ReplicationBatch();
+      batch.add("e", "value2");
+      cache2.applyBatch("sender", 1, batch);
+      Assert.assertEquals("value3", cache2.get("e"));
+
+      // The changes are sent one by one once the batching is disabled
+      cache1.setReplicationBatching(0, 0);
+      cache1.put("f", "value");
+      for (int i = 0; i < 10; i++)
+      {
+         if (cache2.getCacheSize() == 2)
+            break;
+         Thread.sleep(200);
+      }
+      Assert.assertEquals("value", cache2.get("f"));
+      Assert.assertEquals(2L, (long)cache1.getReplicationStatistics().get("batches"));
+   }
 }
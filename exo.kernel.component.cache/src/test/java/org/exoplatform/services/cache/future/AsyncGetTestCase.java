@@ -0,0 +1,294 @@
+/*
+ * Copyright (C) 2026 eXo Platform SAS.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.exoplatform.services.cache.future;
+
+import junit.framework.Assert;
+import junit.framework.TestCase;
+
+import org.exoplatform.services.cache.concurrent.ConcurrentFIFOExoCache;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @version $Revision$
+ */
+public class AsyncGetTestCase extends TestCase
+{
+
+   private ExecutorService executor;
+
+   @Override
+   protected void setUp() throws Exception
+   {
+      executor = Executors.newFixedThreadPool(8);
+   }
+
+   @Override
+   protected void tearDown() throws Exception
+   {
+      executor.shutdownNow();
+   }
+
+   public void testGetAsync() throws Exception
+   {
+      final AtomicInteger calls = new AtomicInteger();
+      ConcurrentFIFOExoCache<String, String> cache = new ConcurrentFIFOExoCache<String, String>(100);
+      AsyncFutureExoCache<String, String, Object> futureCache =
+         new AsyncFutureExoCache<String, String, Object>(new Loader<String, String, Object>()
+         {
+            public String retrieve(Object context, String key) throws Exception
+            {
+               calls.incrementAndGet();
+               return "bar".equals(key) ? null : key + "_value";
+            }
+         }, cache, executor);
+      Assert.assertEquals("foo_value", futureCache.getAsync(null, "foo").get(10, TimeUnit.SECONDS));
+      Assert.assertEquals("foo_value", cache.get("foo"));
+      Assert.assertEquals("foo_value", futureCache.get(null, "foo"));
+      Assert.assertEquals(1, calls.get());
+      Assert.assertNull(futureCache.getAsync(null, "bar").get(10, TimeUnit.SECONDS));
+      Assert.assertNull(futureCache.get(null, "bar"));
+      Assert.assertEquals(3, calls.get());
+   }
+
+   public void testLoaderException() throws Exception
+   {
+      final Exception failure = new Exception("foo");
+      AsyncFutureExoCache<String, String, Object> futureCache =
+         new AsyncFutureExoCache<String, String, Object>(new Loader<String, String, Object>()
+         {
+            public String retrieve(Object context, String key) throws Exception
+            {
+               throw failure;
+            }
+         }, new ConcurrentFIFOExoCache<String, String>(100), executor);
+      try
+      {
+         futureCache.getAsync(null, "foo").get(10, TimeUnit.SECONDS);
+         fail("An exception was expected");
+      }
+      catch (ExecutionException e)
+      {
+         Assert.assertSame(failure, e.getCause());
+      }
+      Assert.assertNull(futureCache.get(null, "foo"));
+   }
+
+   public void testLoadTimeout() throws Exception
+   {
+      final CountDownLatch release = new CountDownLatch(1);
+      final AtomicInteger calls = new AtomicInteger();
+      ConcurrentFIFOExoCache<String, String> cache = new ConcurrentFIFOExoCache<String, String>(100);
+      AsyncFutureExoCache<String, String, Object> futureCache =
+         new AsyncFutureExoCache<String, String, Object>(new Loader<String, String, Object>()
+         {
+            public String retrieve(Object context, String key) throws Exception
+            {
+               calls.incrementAndGet();
+               release.await(10, TimeUnit.SECONDS);
+               return key + "_value";
+            }
+         }, cache, executor);
+      futureCache.setLoadTimeout(50);
+      CompletableFuture<String> first = futureCache.getAsync(null, "foo");
+      CompletableFuture<String> second = futureCache.getAsync(null, "foo");
+      for (CompletableFuture<String> future : Arrays.asList(first, second))
+      {
+         try
+         {
+            future.get(10, TimeUnit.SECONDS);
+            fail("A timeout was expected");
+         }
+         catch (ExecutionException e)
+         {
+            Assert.assertTrue(e.getCause() instanceof TimeoutException);
+         }
+      }
+
+      // The load goes on and its value is cached
+      release.countDown();
+      futureCache.setLoadTimeout(0);
+      String value = null;
+      for (long deadline = System.currentTimeMillis() + 10000; value == null && System.currentTimeMillis() < deadline;)
+      {
+         Thread.sleep(10);
+         value = cache.get("foo");
+      }
+      Assert.assertEquals("foo_value", value);
+      Assert.assertEquals("foo_value", futureCache.getAsync(null, "foo").get());
+      Assert.assertEquals(1, calls.get());
+   }
+
+   public void testRefreshAhead() throws Exception
+   {
+      final AtomicInteger calls = new AtomicInteger();
+      final CountDownLatch refreshed = new CountDownLatch(1);
+      ConcurrentFIFOExoCache<String, String> cache = new ConcurrentFIFOExoCache<String, String>(100);
+      cache.setLiveTimeMillis(1000);
+      AsyncFutureExoCache<String, String, Object> futureCache =
+         new AsyncFutureExoCache<String, String, Object>(new Loader<String, String, Object>()
+         {
+            public String retrieve(Object context, String key) throws Exception
+            {
+               String value = key + "_" + calls.incrementAndGet();
+               if (calls.get() == 2)
+               {
+                  refreshed.countDown();
+               }
+               return value;
+            }
+         }, cache, executor);
+      futureCache.setRefreshAhead(800);
+      Assert.assertEquals("foo_1", futureCache.getAsync(null, "foo").get(10, TimeUnit.SECONDS));
+
+      // Too far from the expiration, no refresh
+      Assert.assertEquals("foo_1", futureCache.getAsync(null, "foo").get());
+      Assert.assertEquals(1, calls.get());
+
+      // Close to the expiration, the cached value is returned and a refresh is triggered
+      Thread.sleep(300);
+      Assert.assertEquals("foo_1", futureCache.getAsync(null, "foo").get());
+      Assert.assertTrue(refreshed.await(10, TimeUnit.SECONDS));
+      String value = null;
+      for (long deadline = System.currentTimeMillis() + 10000; !"foo_2".equals(value)
+         && System.currentTimeMillis() < deadline;)
+      {
+         value = cache.get("foo");
+         Thread.sleep(10);
+      }
+      Assert.assertEquals("foo_2", value);
+      Assert.assertTrue(cache.getExpirationTime("foo") - System.currentTimeMillis() > 800);
+      Assert.assertEquals("foo_2", futureCache.getAsync(null, "foo").get());
+      Assert.assertEquals(2, calls.get());
+   }
+
+   public void testRefresh() throws Exception
+   {
+      final AtomicInteger calls = new AtomicInteger();
+      ConcurrentFIFOExoCache<String, String> cache = new ConcurrentFIFOExoCache<String, String>(100);
+      AsyncFutureExoCache<String, String, Object> futureCache =
+         new AsyncFutureExoCache<String, String, Object>(new Loader<String, String, Object>()
+         {
+            public String retrieve(Object context, String key) throws Exception
+            {
+               return key + "_" + calls.incrementAndGet();
+            }
+         }, cache, executor);
+      Assert.assertEquals("foo_1", futureCache.getAsync(null, "foo").get(10, TimeUnit.SECONDS));
+      Assert.assertEquals("foo_2", futureCache.refresh(null, "foo").get(10, TimeUnit.SECONDS));
+      Assert.assertEquals("foo_2", cache.get("foo"));
+   }
+
+   /**
+    * Thousands of callers ask for the same keys at the same time while the loads are blocked,
+    * each key must be loaded only once.
+    */
+   public void testContention() throws Exception
+   {
+      final int keys = 20;
+      final int callers = 4000;
+      final ConcurrentMap<String, AtomicInteger> loads = new ConcurrentHashMap<String, AtomicInteger>();
+      final CountDownLatch release = new CountDownLatch(1);
+      ExecutorService loaders = Executors.newFixedThreadPool(keys);
+      try
+      {
+         AsyncFutureExoCache<String, String, Object> futureCache =
+            new AsyncFutureExoCache<String, String, Object>(new Loader<String, String, Object>()
+            {
+               public String retrieve(Object context, String key) throws Exception
+               {
+                  AtomicInteger count = loads.get(key);
+                  if (count == null)
+                  {
+                     AtomicInteger phantom = loads.putIfAbsent(key, count = new AtomicInteger());
+                     if (phantom != null)
+                     {
+                        count = phantom;
+                     }
+                  }
+                  count.incrementAndGet();
+                  release.await(30, TimeUnit.SECONDS);
+                  return key + "_value";
+               }
+            }, new ConcurrentFIFOExoCache<String, String>(100), loaders);
+         final List<CompletableFuture<String>> futures = new ArrayList<CompletableFuture<String>>();
+         final CountDownLatch start = new CountDownLatch(1);
+         final CountDownLatch end = new CountDownLatch(callers);
+         final AsyncFutureExoCache<String, String, Object> cache = futureCache;
+         for (int i = 0; i < callers; i++)
+         {
+            final String key = "key" + (i % keys);
+            Thread t = new Thread()
+            {
+               public void run()
+               {
+                  try
+                  {
+                     start.await();
+                     CompletableFuture<String> future = cache.getAsync(null, key);
+                     synchronized (futures)
+                     {
+                        futures.add(future);
+                     }
+                  }
+                  catch (InterruptedException e)
+                  {
+                     Thread.currentThread().interrupt();
+                  }
+                  finally
+                  {
+                     end.countDown();
+                  }
+               }
+            };
+            t.start();
+         }
+         start.countDown();
+         Assert.assertTrue(end.await(30, TimeUnit.SECONDS));
+         release.countDown();
+         Assert.assertEquals(callers, futures.size());
+         for (CompletableFuture<String> future : futures)
+         {
+            Assert.assertTrue(future.get(30, TimeUnit.SECONDS).endsWith("_value"));
+         }
+         Assert.assertEquals(keys, loads.size());
+         for (AtomicInteger count : loads.values())
+         {
+            Assert.assertEquals(1, count.get());
+         }
+      }
+      finally
+      {
+         release.countDown();
+         loaders.shutdownNow();
+      }
+   }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright (C) 2026 eXo Platform SAS.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.exoplatform.services.cache.future;
+
+import junit.framework.Assert;
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * @version $Revision$
+ */
+public class GetAllTestCase extends TestCase
+{
+
+   public void testGetAll()
+   {
+      final AtomicInteger calls = new AtomicInteger();
+      FutureMap<Object> futureCache = new FutureMap<Object>(new Loader<String, String, Object>()
+      {
+         public String retrieve(Object context, String key) throws Exception
+         {
+            calls.incrementAndGet();
+            return "c".equals(key) ? null : key + "_value";
+         }
+      });
+      futureCache.data.put("a", "a_cached");
+      Map<String, String> values = futureCache.getAll(null, Arrays.asList("a", "b", "c", "b"));
+      Assert.assertEquals(2, values.size());
+      Assert.assertEquals("a_cached", values.get("a"));
+      Assert.assertEquals("b_value", values.get("b"));
+      Assert.assertEquals(2, calls.get());
+      Assert.assertEquals("b_value", futureCache.data.get("b"));
+      Assert.assertFalse(futureCache.data.containsKey("c"));
+   }
+
+   public void testBatchLoader()
+   {
+      final List<Collection<String>> calls = new ArrayList<Collection<String>>();
+      FutureMap<Object> futureCache = new FutureMap<Object>(new BatchLoader<String, String, Object>()
+      {
+         public Map<String, String> retrieveAll(Object context, Collection<String> keys) throws Exception
+         {
+            calls.add(keys);
+            Map<String, String> values = new HashMap<String, String>();
+            for (String key : keys)
+            {
+               if (!"c".equals(key))
+               {
+                  values.put(key, key + "_value");
+               }
+            }
+            return values;
+         }
+      });
+      futureCache.data.put("a", "a_cached");
+      Map<String, String> values = futureCache.getAll(null, Arrays.asList("a", "b", "c", "d"));
+      Assert.assertEquals(3, values.size());
+      Assert.assertEquals("a_cached", values.get("a"));
+      Assert.assertEquals("b_value", values.get("b"));
+      Assert.assertEquals("d_value", values.get("d"));
+      Assert.assertEquals(1, calls.size());
+      Assert.assertEquals(Arrays.asList("b", "c", "d"), calls.get(0));
+      Assert.assertEquals("d_value", futureCache.data.get("d"));
+      Assert.assertFalse(futureCache.data.containsKey("c"));
+
+      // A single key is loaded thanks to the same method
+      Assert.assertEquals("e_value", futureCache.get(null, "e"));
+      Assert.assertEquals(2, calls.size());
+   }
+
+   public void testBatchThrowException()
+   {
+      FutureMap<Object> futureCache = new FutureMap<Object>(new BatchLoader<String, String, Object>()
+      {
+         public Map<String, String> retrieveAll(Object context, Collection<String> keys) throws Exception
+         {
+            throw new Exception("DON'T FREAK OUT");
+         }
+      });
+      Map<String, String> values = futureCache.getAll(null, Arrays.asList("a", "b"));
+      Assert.assertTrue(values.isEmpty());
+      Assert.assertTrue(futureCache.data.isEmpty());
+      // The failure is not kept
+      Assert.assertNull(futureCache.get(null, "a"));
+   }
+
+   public void testConcurrentLoad() throws Exception
+   {
+      final CountDownLatch loading = new CountDownLatch(1);
+      final CountDownLatch release = new CountDownLatch(1);
+      final AtomicInteger loads = new AtomicInteger();
+      final FutureMap<Object> futureCache = new FutureMap<Object>(new BatchLoader<String, String, Object>()
+      {
+         public Map<String, String> retrieveAll(Object context, Collection<String> keys) throws Exception
+         {
+            loads.addAndGet(keys.size());
+            loading.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            Map<String, String> values = new HashMap<String, String>();
+            for (String key : keys)
+            {
+               values.put(key, key + "_value");
+            }
+            return values;
+         }
+      });
+      final AtomicReference<Map<String, String>> result = new AtomicReference<Map<String, String>>();
+      Thread t = new Thread()
+      {
+         public void run()
+         {
+            result.set(futureCache.getAll(null, Arrays.asList("a", "b")));
+         }
+      };
+      t.start();
+      Assert.assertTrue(loading.await(10, TimeUnit.SECONDS));
+      final AtomicReference<Map<String, String>> concurrentResult = new AtomicReference<Map<String, String>>();
+      Thread t2 = new Thread()
+      {
+         public void run()
+         {
+            // "a" and "b" are being loaded so only "c" should be loaded by this thread
+            concurrentResult.set(futureCache.getAll(null, Arrays.asList("a", "b", "c")));
+         }
+      };
+      t2.start();
+      Thread.sleep(200);
+      release.countDown();
+      t.join(10000);
+      t2.join(10000);
+      Assert.assertEquals(2, result.get().size());
+      Assert.assertEquals(3, concurrentResult.get().size());
+      Assert.assertEquals("a_value", concurrentResult.get().get("a"));
+      Assert.assertEquals(3, loads.get());
+   }
+}
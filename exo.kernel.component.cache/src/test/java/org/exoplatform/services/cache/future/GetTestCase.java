@@ -21,7 +21,11 @@ package org.exoplatform.services.cache.future;
 import junit.framework.Assert;
 import junit.framework.TestCase;
 
+import org.exoplatform.services.cache.LatencyHistogram;
+import org.exoplatform.services.cache.concurrent.ConcurrentFIFOExoCache;
+
 import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author <a href="mailto:julien.viet@exoplatform.com">Julien Viet</a>
@@ -55,6 +59,26 @@ public class GetTestCase extends TestCase
       Assert.assertFalse(futureCache.data.containsKey("foo"));
    }
 
+   public void testLoadTime()
+   {
+      ConcurrentFIFOExoCache<String, String> cache = new ConcurrentFIFOExoCache<String, String>(100);
+      FutureExoCache<String, String, Callable<String>> futureCache =
+         new FutureExoCache<String, String, Callable<String>>(new StringLoader(), cache);
+      Callable<String> callable = new Callable<String>()
+      {
+         public String call() throws Exception
+         {
+            Thread.sleep(5);
+            return "foo_value";
+         }
+      };
+      Assert.assertEquals("foo_value", futureCache.get(callable, "foo"));
+      Assert.assertEquals("foo_value", futureCache.get(callable, "foo"));
+      LatencyHistogram loadTime = cache.getStatistics().getLoadTime();
+      Assert.assertEquals(1, loadTime.getCount());
+      Assert.assertTrue(loadTime.getMax() >= TimeUnit.MILLISECONDS.toNanos(5));
+   }
+
    public void testThrowException()
    {
       FutureMap<Callable<String>> futureCache = new FutureMap<Callable<String>>(new StringLoader());
@@ -0,0 +1,191 @@
+/*
+ * Copyright (C) 2026 eXo Platform SAS.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.exoplatform.services.cache.future;
+
+import junit.framework.Assert;
+import junit.framework.TestCase;
+
+import org.exoplatform.services.cache.concurrent.ConcurrentFIFOExoCache;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @version $Revision$
+ */
+public class MissTestCase extends TestCase
+{
+
+   public void testNegativeCaching() throws Exception
+   {
+      final AtomicInteger calls = new AtomicInteger();
+      FutureMap<Object> futureCache = new FutureMap<Object>(new Loader<String, String, Object>()
+      {
+         public String retrieve(Object context, String key) throws Exception
+         {
+            calls.incrementAndGet();
+            return null;
+         }
+      });
+
+      // Disabled by default
+      Assert.assertNull(futureCache.get(null, "foo"));
+      Assert.assertNull(futureCache.get(null, "foo"));
+      Assert.assertEquals(2, calls.get());
+
+      futureCache.setNegativeLiveTime(200);
+      Assert.assertNull(futureCache.get(null, "foo"));
+      Assert.assertNull(futureCache.get(null, "foo"));
+      Assert.assertEquals(3, calls.get());
+      Assert.assertFalse(futureCache.data.containsKey("foo"));
+
+      futureCache.clearMiss("foo");
+      Assert.assertNull(futureCache.get(null, "foo"));
+      Assert.assertEquals(4, calls.get());
+
+      // Expired
+      Thread.sleep(300);
+      Assert.assertNull(futureCache.get(null, "foo"));
+      Assert.assertEquals(5, calls.get());
+   }
+
+   public void testFailureBackoff() throws Exception
+   {
+      final AtomicInteger calls = new AtomicInteger();
+      final AtomicBoolean fail = new AtomicBoolean(true);
+      FutureMap<Object> futureCache = new FutureMap<Object>(new Loader<String, String, Object>()
+      {
+         public String retrieve(Object context, String key) throws Exception
+         {
+            calls.incrementAndGet();
+            if (fail.get())
+            {
+               throw new Exception("DON'T FREAK OUT");
+            }
+            return key + "_value";
+         }
+      });
+      futureCache.setFailureBackoff(200);
+      Assert.assertNull(futureCache.get(null, "foo"));
+      Assert.assertNull(futureCache.get(null, "foo"));
+      Assert.assertEquals(1, calls.get());
+
+      // The backend is back but the backoff is not over yet
+      fail.set(false);
+      Assert.assertNull(futureCache.get(null, "foo"));
+      Assert.assertEquals(1, calls.get());
+
+      Thread.sleep(300);
+      Assert.assertEquals("foo_value", futureCache.get(null, "foo"));
+      Assert.assertEquals(2, calls.get());
+   }
+
+   public void testGetAll() throws Exception
+   {
+      final AtomicInteger calls = new AtomicInteger();
+      FutureMap<Object> futureCache = new FutureMap<Object>(new BatchLoader<String, String, Object>()
+      {
+         public Map<String, String> retrieveAll(Object context, Collection<String> keys) throws Exception
+         {
+            calls.incrementAndGet();
+            Map<String, String> values = new HashMap<String, String>();
+            for (String key : keys)
+            {
+               if ("c".equals(key))
+               {
+                  throw new Exception("DON'T FREAK OUT");
+               }
+               if (!"b".equals(key))
+               {
+                  values.put(key, key + "_value");
+               }
+            }
+            return values;
+         }
+      });
+      futureCache.setNegativeLiveTime(10000);
+      futureCache.setFailureBackoff(10000);
+      Assert.assertEquals(1, futureCache.getAll(null, Arrays.asList("a", "b")).size());
+      Assert.assertEquals(1, calls.get());
+
+      // b is known to be missing
+      Assert.assertEquals(1, futureCache.getAll(null, Arrays.asList("a", "b")).size());
+      Assert.assertEquals(1, calls.get());
+      Assert.assertNull(futureCache.get(null, "b"));
+      Assert.assertEquals(1, calls.get());
+
+      // c and f failed
+      Assert.assertEquals(0, futureCache.getAll(null, Arrays.asList("c", "f")).size());
+      Assert.assertEquals(2, calls.get());
+      Assert.assertEquals(0, futureCache.getAll(null, Arrays.asList("c", "f")).size());
+      Assert.assertNull(futureCache.get(null, "f"));
+      Assert.assertEquals(2, calls.get());
+
+      futureCache.clearMisses();
+      Assert.assertEquals("f_value", futureCache.get(null, "f"));
+      Assert.assertEquals(3, calls.get());
+   }
+
+   public void testAsync() throws Exception
+   {
+      final AtomicInteger calls = new AtomicInteger();
+      AsyncFutureExoCache<String, String, Object> futureCache =
+         new AsyncFutureExoCache<String, String, Object>(new Loader<String, String, Object>()
+         {
+            public String retrieve(Object context, String key) throws Exception
+            {
+               calls.incrementAndGet();
+               if ("bar".equals(key))
+               {
+                  throw new Exception("DON'T FREAK OUT");
+               }
+               return null;
+            }
+         }, new ConcurrentFIFOExoCache<String, String>(100));
+      futureCache.setNegativeLiveTime(10000);
+      futureCache.setFailureBackoff(10000);
+      Assert.assertNull(futureCache.getAsync(null, "foo").get(10, TimeUnit.SECONDS));
+      Assert.assertNull(futureCache.getAsync(null, "foo").get(10, TimeUnit.SECONDS));
+      Assert.assertEquals(1, calls.get());
+      Assert.assertNull(futureCache.get(null, "bar"));
+      Assert.assertNull(futureCache.getAsync(null, "bar").get(10, TimeUnit.SECONDS));
+      Assert.assertEquals(2, calls.get());
+   }
+
+   public void testMaxSize()
+   {
+      MissCache<Integer> misses = new MissCache<Integer>();
+      misses.setNegativeLiveTime(10000);
+      for (int i = 0; i < MissCache.MAX_SIZE; i++)
+      {
+         misses.onNull(i);
+      }
+      Assert.assertEquals(MissCache.MAX_SIZE, misses.size());
+      Assert.assertTrue(misses.contains(0));
+      misses.onNull(MissCache.MAX_SIZE);
+      Assert.assertEquals(1, misses.size());
+      Assert.assertTrue(misses.contains(MissCache.MAX_SIZE));
+      Assert.assertFalse(misses.contains(0));
+   }
+}
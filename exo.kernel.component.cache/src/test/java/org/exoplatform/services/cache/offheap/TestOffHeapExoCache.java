@@ -0,0 +1,331 @@
+package org.exoplatform.services.cache.offheap;
+
+import org.exoplatform.services.cache.CacheListener;
+import org.exoplatform.services.cache.CacheListenerContext;
+import org.exoplatform.services.cache.CachedObjectSelector;
+import org.exoplatform.services.cache.EvictionPolicy;
+import org.exoplatform.services.cache.ExoCache;
+import org.exoplatform.services.cache.ObjectCacheInfo;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This is unit test for the class (@link org.exoplatform.services.cache.offheap.OffHeapExoCache)
+ */
+public class TestOffHeapExoCache {
+
+  @Test
+  public void testStore() throws Exception {
+    OffHeapStore store = new OffHeapStore(1024, 64);
+    OffHeapEntry<String> small = new OffHeapEntry<>("small", Long.MAX_VALUE, 10);
+    OffHeapEntry<String> big = new OffHeapEntry<>("big", Long.MAX_VALUE, 500);
+    byte[] smallData = data(10);
+    byte[] bigData = data(500);
+    Assert.assertTrue(store.write(small, smallData));
+    Assert.assertTrue(store.write(big, bigData));
+    Assert.assertArrayEquals(smallData, store.read(small));
+    Assert.assertArrayEquals(bigData, store.read(big));
+    Assert.assertEquals(64 + 9 * 64, store.getUsedMemory());
+    // Not enough room left
+    OffHeapEntry<String> other = new OffHeapEntry<>("other", Long.MAX_VALUE, 500);
+    Assert.assertFalse(store.write(other, bigData));
+    Assert.assertFalse(store.fits(2000));
+    store.free(big);
+    Assert.assertNull(store.read(big));
+    Assert.assertEquals(64, store.getUsedMemory());
+    // The freed blocks are reused
+    Assert.assertTrue(store.write(other, bigData));
+    Assert.assertArrayEquals(bigData, store.read(other));
+    Assert.assertArrayEquals(smallData, store.read(small));
+    store.free(other);
+    store.free(other);
+    store.free(small);
+    Assert.assertEquals(0, store.getUsedMemory());
+  }
+
+  @Test
+  public void testPutGetRemove() throws Exception {
+    OffHeapExoCache<String, Object> cache = new OffHeapExoCache<>("test", 10, 1024 * 1024);
+    cache.put("a", "a");
+    cache.put("b", new ArrayList<>(Arrays.asList(1, 2, 3)));
+    Assert.assertEquals("a", cache.get("a"));
+    Assert.assertEquals(Arrays.asList(1, 2, 3), cache.get("b"));
+    Assert.assertNull(cache.get("c"));
+    Assert.assertEquals(2, cache.getCacheHit());
+    Assert.assertEquals(1, cache.getCacheMiss());
+    cache.put("a", "aa");
+    Assert.assertEquals("aa", cache.get("a"));
+    Assert.assertEquals(2, cache.getCacheSize());
+    Assert.assertEquals("aa", cache.remove("a"));
+    Assert.assertNull(cache.get("a"));
+    Assert.assertEquals(1, cache.getCacheSize());
+    // A value that is not serializable is not cached
+    cache.put("b", new Object());
+    Assert.assertNull(cache.get("b"));
+    Assert.assertEquals(0, cache.getCacheSize());
+    Assert.assertEquals(0, cache.getUsedMemory());
+    cache.assertConsistent();
+  }
+
+  @Test
+  public void testEviction() throws Exception {
+    OffHeapExoCache<String, String> cache = new OffHeapExoCache<>("test", 3, 1024 * 1024);
+    cache.put("a", "a");
+    cache.put("b", "b");
+    cache.put("c", "c");
+    Assert.assertEquals("a", cache.get("a"));
+    cache.put("d", "d");
+    Assert.assertNull(cache.get("a"));
+    Assert.assertEquals(3, cache.getCacheSize());
+    cache.assertConsistent();
+
+    cache.setEvictionPolicy(EvictionPolicy.LRU);
+    cache.put("a", "a");
+    cache.put("b", "b");
+    cache.put("c", "c");
+    Assert.assertEquals("a", cache.get("a"));
+    cache.put("d", "d");
+    Assert.assertEquals("a", cache.get("a"));
+    Assert.assertNull(cache.get("b"));
+    cache.assertConsistent();
+  }
+
+  @Test
+  public void testMemoryEviction() throws Exception {
+    OffHeapExoCache<String, byte[]> cache = new OffHeapExoCache<>("test", 1000, 64 * 1024);
+    for (int i = 0; i < 200; i++) {
+      cache.put("key" + i, new byte[1000]);
+      Assert.assertTrue(cache.getUsedMemory() <= cache.getCapacity());
+    }
+    Assert.assertTrue(cache.getCacheSize() < 200);
+    Assert.assertNotNull(cache.get("key199"));
+    Assert.assertNull(cache.get("key0"));
+    cache.assertConsistent();
+    // Too big to be cached
+    cache.put("big", new byte[128 * 1024]);
+    Assert.assertNull(cache.get("big"));
+  }
+
+  @Test
+  public void testExpiration() throws Exception {
+    OffHeapExoCache<String, String> cache = new OffHeapExoCache<>("test", 10, 1024 * 1024);
+    cache.setLiveTime(1);
+    final List<String> expired = new ArrayList<>();
+    cache.addCacheListener(new Listener() {
+      @Override
+      public void onExpire(CacheListenerContext context, String key, String obj) throws Exception {
+        expired.add(key + "=" + obj);
+      }
+    });
+    cache.put("a", "a");
+    Thread.sleep(1100);
+    Assert.assertNull(cache.get("a"));
+    Assert.assertEquals(1, expired.size());
+    Assert.assertEquals("a=a", expired.get(0));
+    Assert.assertEquals(0, cache.getUsedMemory());
+  }
+
+  @Test
+  public void testRemoveExpiredEntries() throws Exception {
+    OffHeapExoCache<String, String> cache = new OffHeapExoCache<>("test", 10, 1024 * 1024);
+    Assert.assertEquals(0, cache.removeExpiredEntries());
+    cache.setLiveTime(1);
+    final List<String> expired = new ArrayList<>();
+    cache.addCacheListener(new Listener() {
+      @Override
+      public void onExpire(CacheListenerContext context, String key, String obj) throws Exception {
+        expired.add(key + "=" + obj);
+      }
+    });
+    cache.put("a", "a");
+    Assert.assertEquals(0, cache.removeExpiredEntries());
+    Thread.sleep(1100);
+    Assert.assertEquals(1, cache.removeExpiredEntries());
+    Assert.assertEquals(Arrays.asList("a=a"), expired);
+    Assert.assertEquals(0, cache.getCacheSize());
+    Assert.assertEquals(0, cache.getUsedMemory());
+    cache.assertConsistent();
+  }
+
+  @Test
+  public void testReset() throws Exception {
+    OffHeapStore store = new OffHeapStore(1024, 64);
+    OffHeapEntry<String> entry = new OffHeapEntry<>("entry", Long.MAX_VALUE, 500);
+    Assert.assertTrue(store.write(entry, data(500)));
+    store.reset(2048);
+    Assert.assertEquals(0, store.getUsedMemory());
+    Assert.assertEquals(2048, store.getCapacity());
+    // The entries written before the reset are considered as freed
+    Assert.assertNull(store.read(entry));
+    OffHeapEntry<String> other = new OffHeapEntry<>("other", Long.MAX_VALUE, 1500);
+    byte[] otherData = data(1500);
+    Assert.assertTrue(store.write(other, otherData));
+    store.free(entry);
+    Assert.assertArrayEquals(otherData, store.read(other));
+    Assert.assertEquals(25 * 64, store.getUsedMemory());
+
+    OffHeapExoCache<String, String> cache = new OffHeapExoCache<>("test", 10, 1024 * 1024);
+    cache.put("a", "a");
+    cache.clearCache();
+    Assert.assertNull(cache.get("a"));
+    Assert.assertEquals(0, cache.getUsedMemory());
+    cache.put("b", "b");
+    cache.setCapacity(2 * 1024 * 1024);
+    Assert.assertNull(cache.get("b"));
+    Assert.assertEquals(2 * 1024 * 1024, cache.getCapacity());
+    cache.put("c", "c");
+    Assert.assertEquals("c", cache.get("c"));
+    cache.assertConsistent();
+  }
+
+  @Test
+  public void testListeners() throws Exception {
+    OffHeapExoCache<String, String> cache = new OffHeapExoCache<>("test", 2, 1024 * 1024);
+    final Map<String, AtomicInteger> events = new HashMap<>();
+    for (String event : new String[]{"put", "putLocal", "get", "remove", "expire"}) {
+      events.put(event, new AtomicInteger());
+    }
+    cache.addCacheListener(new Listener() {
+      @Override
+      public void onPut(CacheListenerContext context, String key, String obj) throws Exception {
+        Assert.assertEquals("test", context.getCacheInfo().getName());
+        events.get("put").incrementAndGet();
+      }
+
+      @Override
+      public void onPutLocal(CacheListenerContext context, String key, String obj) throws Exception {
+        events.get("putLocal").incrementAndGet();
+      }
+
+      @Override
+      public void onGet(CacheListenerContext context, String key, String obj) throws Exception {
+        events.get("get").incrementAndGet();
+      }
+
+      @Override
+      public void onRemove(CacheListenerContext context, String key, String obj) throws Exception {
+        events.get("remove").incrementAndGet();
+      }
+
+      @Override
+      public void onExpire(CacheListenerContext context, String key, String obj) throws Exception {
+        Assert.assertEquals(key, obj);
+        events.get("expire").incrementAndGet();
+      }
+    });
+    cache.put("a", "a");
+    cache.putLocal("b", "b");
+    cache.get("a");
+    cache.remove("a");
+    cache.put("c", "c");
+    cache.put("d", "d");
+    Assert.assertEquals(3, events.get("put").get());
+    Assert.assertEquals(1, events.get("putLocal").get());
+    Assert.assertEquals(1, events.get("get").get());
+    Assert.assertEquals(1, events.get("remove").get());
+    Assert.assertEquals(1, events.get("expire").get());
+  }
+
+  @Test
+  public void testSelect() throws Exception {
+    OffHeapExoCache<String, String> cache = new OffHeapExoCache<>("test", 10, 1024 * 1024);
+    cache.put("a1", "a1");
+    cache.put("a2", "a2");
+    cache.put("b1", "b1");
+    final List<String> selected = new ArrayList<>();
+    cache.select(new CachedObjectSelector<String, String>() {
+      public boolean select(String key, ObjectCacheInfo<? extends String> ocinfo) {
+        return key.startsWith("a");
+      }
+
+      public void onSelect(ExoCache<? extends String, ? extends String> cache, String key,
+                           ObjectCacheInfo<? extends String> ocinfo) throws Exception {
+        selected.add(ocinfo.get());
+        cache.remove(key);
+      }
+    });
+    Assert.assertEquals(2, selected.size());
+    Assert.assertTrue(selected.contains("a1"));
+    Assert.assertTrue(selected.contains("a2"));
+    Assert.assertEquals(1, cache.getCacheSize());
+    Assert.assertEquals(1, cache.getCachedObjects().size());
+    Assert.assertEquals(1, cache.removeCachedObjects().size());
+    Assert.assertEquals(0, cache.getCacheSize());
+    Assert.assertEquals(0, cache.getUsedMemory());
+  }
+
+  @Test
+  public void testConcurrentAccess() throws Exception {
+    final OffHeapExoCache<String, String> cache = new OffHeapExoCache<>("test", 500, 32 * 1024);
+    final CountDownLatch start = new CountDownLatch(1);
+    final CountDownLatch finish = new CountDownLatch(10);
+    final AtomicInteger errors = new AtomicInteger();
+    for (int i = 0; i < 10; i++) {
+      final int id = i;
+      new Thread() {
+        @Override
+        public void run() {
+          try {
+            start.await(10, TimeUnit.SECONDS);
+            for (int j = 0; j < 5000; j++) {
+              String key = "key" + (j % 1000);
+              String value = cache.get(key);
+              if (value != null && !value.startsWith(key + "-")) {
+                errors.incrementAndGet();
+              }
+              if (j % 3 == id % 3) {
+                cache.remove(key);
+              } else {
+                cache.put(key, key + "-" + id + "-" + j);
+              }
+            }
+          } catch (Exception e) {
+            errors.incrementAndGet();
+          } finally {
+            finish.countDown();
+          }
+        }
+      }.start();
+    }
+    start.countDown();
+    Assert.assertTrue(finish.await(1, TimeUnit.MINUTES));
+    Assert.assertEquals(0, errors.get());
+    Assert.assertTrue(cache.getUsedMemory() <= cache.getCapacity());
+    cache.put("last", "last");
+    cache.assertConsistent();
+  }
+
+  private static byte[] data(int length) {
+    byte[] data = new byte[length];
+    for (int i = 0; i < length; i++) {
+      data[i] = (byte)i;
+    }
+    return data;
+  }
+
+  private static class Listener implements CacheListener<String, String> {
+    public void onExpire(CacheListenerContext context, String key, String obj) throws Exception {
+    }
+
+    public void onRemove(CacheListenerContext context, String key, String obj) throws Exception {
+    }
+
+    public void onPut(CacheListenerContext context, String key, String obj) throws Exception {
+    }
+
+    public void onGet(CacheListenerContext context, String key, String obj) throws Exception {
+    }
+
+    public void onClearCache(CacheListenerContext context) throws Exception {
+    }
+  }
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright (C) 2026 eXo Platform SAS.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.exoplatform.services.cache.test;
+
+import junit.framework.TestCase;
+
+import org.exoplatform.services.cache.EvictionPolicy;
+import org.exoplatform.services.cache.concurrent.ConcurrentFIFOExoCache;
+
+import java.io.BufferedReader;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Replays key traces against each eviction policy and prints the resulting hit ratio. A recorded trace
+ * can be provided thanks to the system property <code>exo.cache.trace</code> which must be the path of a
+ * file containing one key per line, the cache size can be set with <code>exo.cache.trace.size</code>.
+ *
+ * @version $Revision$
+ */
+public class HitRatioTestLoad extends TestCase
+{
+
+   private static final EvictionPolicy[] POLICIES = EvictionPolicy.values();
+
+   private static void doTest(String name, List<String> trace, int cacheSize)
+   {
+      System.out.println("-----------------------------------------");
+      System.out.println("Trace " + name + " cacheSize=" + cacheSize + " accesses=" + trace.size());
+      for (EvictionPolicy policy : POLICIES)
+      {
+         System.out.println("Policy " + policy + ": " + String.format("%.2f", replay(trace, cacheSize, policy) * 100)
+            + "%");
+      }
+      System.out.println("");
+   }
+
+   /**
+    * Replays the trace like a read-through cache would do: a miss is followed by a put.
+    *
+    * @return the hit ratio
+    */
+   private static double replay(List<String> trace, int cacheSize, EvictionPolicy policy)
+   {
+      ConcurrentFIFOExoCache<String, String> cache = new ConcurrentFIFOExoCache<String, String>(cacheSize);
+      cache.setEvictionPolicy(policy);
+      for (String key : trace)
+      {
+         if (cache.get(key) == null)
+         {
+            cache.put(key, key);
+         }
+      }
+      int hits = cache.getCacheHit();
+      return (double)hits / (hits + cache.getCacheMiss());
+   }
+
+   /**
+    * Creates a trace of Zipf distributed keys.
+    */
+   private static List<String> zipf(int size, int keys, double skew, long seed)
+   {
+      double[] cumulative = new double[keys];
+      double sum = 0;
+      for (int i = 0; i < keys; i++)
+      {
+         sum += 1 / Math.pow(i + 1, skew);
+         cumulative[i] = sum;
+      }
+      Random random = new Random(seed);
+      List<String> trace = new ArrayList<String>(size);
+      for (int i = 0; i < size; i++)
+      {
+         double value = random.nextDouble() * sum;
+         int low = 0;
+         int high = keys - 1;
+         while (low < high)
+         {
+            int middle = (low + high) >>> 1;
+            if (cumulative[middle] < value)
+            {
+               low = middle + 1;
+            }
+            else
+            {
+               high = middle;
+            }
+         }
+         trace.add("key" + low);
+      }
+      return trace;
+   }
+
+   /**
+    * Interleaves scans of cold keys that are never accessed twice into the given trace.
+    */
+   private static List<String> withScans(List<String> trace, int period, int scanLength)
+   {
+      List<String> result = new ArrayList<String>(trace.size() + trace.size() / period * scanLength);
+      int cold = 0;
+      for (int i = 0; i < trace.size(); i++)
+      {
+         result.add(trace.get(i));
+         if (i > 0 && i % period == 0)
+         {
+            for (int j = 0; j < scanLength; j++)
+            {
+               result.add("cold" + cold++);
+            }
+         }
+      }
+      return result;
+   }
+
+   public void testZipf()
+   {
+      List<String> trace = zipf(1000000, 100000, 0.9, 0);
+      doTest("Zipf 0.9", trace, 1000);
+      doTest("Zipf 0.9", trace, 10000);
+   }
+
+   public void testZipfWithScans()
+   {
+      List<String> trace = withScans(zipf(1000000, 100000, 0.9, 0), 10000, 5000);
+      doTest("Zipf 0.9 with scans", trace, 1000);
+      doTest("Zipf 0.9 with scans", trace, 10000);
+   }
+
+   public void testLoop()
+   {
+      List<String> trace = new ArrayList<String>();
+      for (int i = 0; i < 100; i++)
+      {
+         for (int j = 0; j < 5000; j++)
+         {
+            trace.add("key" + j);
+         }
+      }
+      doTest("Loop", trace, 1000);
+   }
+
+   public void testRecordedTrace() throws IOException
+   {
+      String path = System.getProperty("exo.cache.trace");
+      if (path == null)
+      {
+         return;
+      }
+      List<String> trace = new ArrayList<String>();
+      BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(path), "UTF-8"));
+      try
+      {
+         String line;
+         while ((line = reader.readLine()) != null)
+         {
+            if (line.length() > 0)
+            {
+               trace.add(line);
+            }
+         }
+      }
+      finally
+      {
+         reader.close();
+      }
+      doTest(path, trace, Integer.getInteger("exo.cache.trace.size", 1000));
+   }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright (C) 2026 eXo Platform SAS.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.exoplatform.services.cache.test;
+
+import junit.framework.TestCase;
+
+import org.exoplatform.services.cache.concurrent.ConcurrentFIFOExoCache;
+import org.exoplatform.services.cache.invalidation.AsyncInvalidationExoCache;
+import org.exoplatform.services.cache.invalidation.VersionStamp;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+/**
+ * @version $Revision$
+ */
+public class TestAsyncInvalidationExoCache extends TestCase
+{
+
+   private ConcurrentFIFOExoCache<String, VersionStamp<String>> replicated;
+
+   private AsyncInvalidationExoCache<String, String> cache;
+
+   @Override
+   protected void setUp() throws Exception
+   {
+      replicated = new ConcurrentFIFOExoCache<String, VersionStamp<String>>("replicated", 100);
+      replicated.setLabel("replicated");
+      cache = new AsyncInvalidationExoCache<String, String>(replicated);
+   }
+
+   public void testVersions() throws Exception
+   {
+      cache.put("a", "a1");
+      VersionStamp<String> first = replicated.get("a");
+      assertEquals("a1", first.getValue());
+      assertFalse(first.isInvalidation());
+      cache.put("a", "a2");
+      VersionStamp<String> second = replicated.get("a");
+      assertTrue(second.getVersion() > first.getVersion());
+      assertEquals(first.getOrigin(), second.getOrigin());
+      assertFalse(first.equals(second));
+      VersionStamp<String> copy = copy(second);
+      assertNull(copy.getValue());
+      assertEquals(second, copy);
+   }
+
+   public void testOwnVersion() throws Exception
+   {
+      cache.put("a", "a1");
+      VersionStamp<String> first = copy(replicated.get("a"));
+      cache.put("a", "a2");
+      VersionStamp<String> second = copy(replicated.get("a"));
+
+      // The local value is kept when its own version or an older one is received
+      replicated.put("a", second);
+      assertEquals("a2", cache.get("a"));
+      replicated.put("a", first);
+      assertEquals("a2", cache.get("a"));
+   }
+
+   public void testRemoteVersion() throws Exception
+   {
+      // A version created by another node invalidates the local value whatever the value
+      cache.put("a", "a1");
+      VersionStamp<String> local = copy(replicated.get("a"));
+      replicated.put("a", stamp(local.getVersion() + 1, local.getOrigin() + 1, false));
+      assertNull(cache.get("a"));
+
+      // even if it is older
+      cache.put("b", "b1");
+      local = copy(replicated.get("b"));
+      replicated.put("b", stamp(0, local.getOrigin() + 1, false));
+      assertNull(cache.get("b"));
+   }
+
+   public void testInvalidation() throws Exception
+   {
+      cache.put("a", "a1");
+      VersionStamp<String> local = copy(replicated.get("a"));
+      replicated.put("a", stamp(local.getVersion() + 1, local.getOrigin() + 1, true));
+      assertNull(cache.get("a"));
+
+      // The local value is removed and the invalidation is replicated when the key is not in the replicated cache
+      cache.putLocal("b", "b1");
+      assertNull(replicated.get("b"));
+      assertEquals("b1", cache.remove("b"));
+      assertTrue(replicated.get("b").isInvalidation());
+      assertNull(cache.get("b"));
+   }
+
+   public void testRemove() throws Exception
+   {
+      cache.put("a", "a1");
+      VersionStamp<String> stamp = copy(replicated.get("a"));
+      cache.remove("a");
+      assertNull(replicated.get("a"));
+      cache.putLocal("a", "a2");
+
+      // A late copy of the removed version does not invalidate the new local value
+      replicated.put("a", stamp);
+      assertEquals("a2", cache.get("a"));
+   }
+
+   @SuppressWarnings("unchecked")
+   private static VersionStamp<String> copy(VersionStamp<String> stamp) throws Exception
+   {
+      ByteArrayOutputStream baos = new ByteArrayOutputStream();
+      ObjectOutputStream oos = new ObjectOutputStream(baos);
+      oos.writeObject(stamp);
+      oos.close();
+      ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(baos.toByteArray()));
+      return (VersionStamp<String>)ois.readObject();
+   }
+
+   /**
+    * Creates the version received from another node
+    */
+   private static VersionStamp<String> stamp(long version, int origin, boolean invalidation) throws Exception
+   {
+      ByteArrayOutputStream baos = new ByteArrayOutputStream();
+      ObjectOutputStream oos = new ObjectOutputStream(baos);
+      oos.writeLong(version);
+      oos.writeInt(origin);
+      oos.writeBoolean(invalidation);
+      oos.close();
+      VersionStamp<String> copy = new VersionStamp<String>();
+      copy.readExternal(new ObjectInputStream(new ByteArrayInputStream(baos.toByteArray())));
+      return copy;
+   }
+}
@@ -23,7 +23,9 @@ import junit.framework.TestCase;
 import org.exoplatform.container.PortalContainer;
 import org.exoplatform.container.xml.InitParams;
 import org.exoplatform.container.xml.ObjectParameter;
+import org.exoplatform.container.xml.ValueParam;
 import org.exoplatform.services.cache.CacheListener;
+import org.exoplatform.services.cache.CacheListenerContext;
 import org.exoplatform.services.cache.CacheService;
 import org.exoplatform.services.cache.CachedObjectSelector;
 import org.exoplatform.services.cache.ExoCache;
@@ -34,6 +36,8 @@ import org.exoplatform.services.cache.FIFOExoCache;
 import org.exoplatform.services.cache.SimpleExoCache;
 import org.exoplatform.services.cache.concurrent.ConcurrentFIFOExoCache;
 import org.exoplatform.services.cache.impl.CacheServiceImpl;
+import org.exoplatform.services.cache.impl.CacheServiceManaged;
+import org.exoplatform.services.cache.offheap.OffHeapExoCache;
 
 import java.io.Serializable;
 import java.util.Collection;
@@ -155,6 +159,138 @@ public class TestCacheService extends TestCase
          cs.getCacheInstance("UnKnownImplButCorrectFQN-MyExoCacheConfig") instanceof MyExoCache);
    }
 
+   public void testRegionFactory() throws Exception
+   {
+      InitParams params = new InitParams();
+      ObjectParameter param = new ObjectParameter();
+      param.setName("offheap");
+      ExoCacheConfig config = new ExoCacheConfig();
+      config.setName(param.getName());
+      config.setMaxSize(100);
+      config.setMaxWeight(1024 * 1024);
+      config.setLiveTime(60);
+      config.setFactory("org.exoplatform.services.cache.offheap.OffHeapExoCacheFactory");
+      param.setObject(config);
+      params.addParameter(param);
+      param = new ObjectParameter();
+      param.setName("wrongFactory");
+      config = new ExoCacheConfig();
+      config.setName(param.getName());
+      config.setFactory("org.exoplatform.services.cache.UnknownExoCacheFactory");
+      param.setObject(config);
+      params.addParameter(param);
+
+      CacheService cs = new CacheServiceImpl(params, new MyExoCacheFactory());
+      ExoCache<String, String> cache = cs.getCacheInstance("offheap");
+      assertTrue("Expected type OffHeapExoCache found " + cache.getClass(), cache instanceof OffHeapExoCache);
+      assertEquals(100, cache.getMaxSize());
+      assertEquals(1024 * 1024, ((OffHeapExoCache)cache).getCapacity());
+      cache.put("a", "b");
+      assertEquals("b", cache.get("a"));
+      assertNull(cs.getCacheInstance("wrongFactory"));
+   }
+
+   public void testExpirationSweeper() throws Exception
+   {
+      InitParams params = new InitParams();
+      ObjectParameter param = new ObjectParameter();
+      param.setName("default");
+      ExoCacheConfig config = new ExoCacheConfig();
+      config.setName(param.getName());
+      config.setMaxSize(100);
+      config.setLiveTime(1);
+      config.setImplementation("org.exoplatform.services.cache.concurrent.ConcurrentFIFOExoCache");
+      param.setObject(config);
+      params.addParameter(param);
+      ValueParam interval = new ValueParam();
+      interval.setName(CacheServiceImpl.EXPIRATION_SWEEP_INTERVAL);
+      interval.setValue("1");
+      params.addParameter(interval);
+
+      CacheServiceImpl cs = new CacheServiceImpl(params);
+      cs.start();
+      try
+      {
+         ExoCache<String, String> cache = cs.getCacheInstance("sweptCache");
+         final AtomicInteger expired = new AtomicInteger();
+         cache.addCacheListener(new CacheListener<String, String>()
+         {
+            public void onExpire(CacheListenerContext context, String key, String obj) throws Exception
+            {
+               expired.incrementAndGet();
+            }
+
+            public void onRemove(CacheListenerContext context, String key, String obj) throws Exception
+            {
+            }
+
+            public void onPut(CacheListenerContext context, String key, String obj) throws Exception
+            {
+            }
+
+            public void onGet(CacheListenerContext context, String key, String obj) throws Exception
+            {
+            }
+
+            public void onClearCache(CacheListenerContext context) throws Exception
+            {
+            }
+         });
+         for (int i = 0; i < 10; i++)
+         {
+            cache.put("key" + i, "value" + i);
+         }
+         assertEquals(10, cache.getCacheSize());
+         Thread.sleep(3000);
+         // The expired entries have been removed without accessing them
+         assertEquals(0, cache.getCacheSize());
+         assertEquals(10, expired.get());
+      }
+      finally
+      {
+         cs.stop();
+      }
+   }
+
+   public void testStatistics() throws Exception
+   {
+      InitParams params = new InitParams();
+      ObjectParameter param = new ObjectParameter();
+      param.setName("default");
+      ExoCacheConfig config = new ExoCacheConfig();
+      config.setName(param.getName());
+      config.setMaxSize(100);
+      config.setLiveTime(60);
+      config.setImplementation("org.exoplatform.services.cache.concurrent.ConcurrentFIFOExoCache");
+      param.setObject(config);
+      params.addParameter(param);
+
+      CacheServiceImpl cs = new CacheServiceImpl(params);
+      CacheServiceManaged managed = new CacheServiceManaged(cs);
+      ExoCache<String, String> cache1 = cs.getCacheInstance("statsCache1");
+      ExoCache<String, String> cache2 = cs.getCacheInstance("statsCache2");
+      cache1.put("a", "a");
+      cache2.put("a", "a");
+      cache2.put("b", "b");
+      cache1.get("a");
+      cache1.get("b");
+      cache2.get("c");
+      assertEquals(1, managed.getTotalHits());
+      assertEquals(2, managed.getTotalMisses());
+      assertEquals(3, managed.getTotalPuts());
+      Map<String, Long> statistics = managed.getCacheStatistics("statsCache1");
+      assertEquals(Long.valueOf(1), statistics.get("hits"));
+      assertEquals(Long.valueOf(2), statistics.get("getCount"));
+      assertTrue(managed.getCacheStatistics("unknownCache").isEmpty());
+
+      managed.resetCacheStatistics("statsCache1");
+      assertEquals(0, cache1.getCacheHit());
+      assertEquals(1, managed.getTotalMisses());
+      managed.resetStatistics();
+      assertEquals(0, managed.getTotalMisses());
+      assertEquals(0, managed.getTotalPuts());
+   }
+
    public void testCacheService() throws Exception
    {
       assertNotNull(service_.getAllCacheInstances());
@@ -273,7 +409,8 @@ public class TestCacheService extends TestCase
       assertTrue(infoMap.containsKey("TimeToLive"));
       assertTrue(infoMap.containsKey("HitCount"));
       assertTrue(infoMap.containsKey("MissCount"));
-      assertEquals(6, infoMap.size());
+      assertTrue(infoMap.containsKey("Statistics"));
+      assertEquals(7, infoMap.size());
       assertEquals(5, server.getAttribute(name, "MaxNodes"));
       assertEquals(size + 7, service_.getAllCacheInstances().size());
    }
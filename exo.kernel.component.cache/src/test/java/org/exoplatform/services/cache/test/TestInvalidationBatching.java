@@ -0,0 +1,278 @@
+/*
+ * Copyright (C) 2026 eXo Platform SAS.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.exoplatform.services.cache.test;
+
+import junit.framework.TestCase;
+
+import org.exoplatform.services.cache.CacheListener;
+import org.exoplatform.services.cache.CacheListenerContext;
+import org.exoplatform.services.cache.ExoCache;
+import org.exoplatform.services.cache.concurrent.ConcurrentFIFOExoCache;
+import org.exoplatform.services.cache.impl.SharedScheduler;
+import org.exoplatform.services.cache.invalidation.AsyncInvalidationExoCache;
+import org.exoplatform.services.cache.invalidation.InvalidationExoCache;
+import org.exoplatform.services.cache.invalidation.VersionStamp;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * @version $Revision$
+ */
+public class TestInvalidationBatching extends TestCase
+{
+
+   public void testCoalescing() throws Exception
+   {
+      RecordingCache delegate = new RecordingCache();
+      InvalidationExoCache<String, String> cache = new InvalidationExoCache<String, String>((ExoCache)delegate);
+      cache.setInvalidationBatching(60000, 0);
+      assertEquals(60000, cache.getInvalidationBatchWindow());
+      cache.put("a", "a1");
+      cache.put("b", "b1");
+      cache.put("a", "a2");
+      Map<String, String> values = new LinkedHashMap<String, String>();
+      values.put("c", "c1");
+      values.put("b", "b2");
+      cache.putMap(values);
+
+      // The values are available locally before the invalidations are sent
+      assertEquals("a2", cache.get("a"));
+      assertEquals("b2", cache.get("b"));
+      assertEquals("c1", cache.get("c"));
+      assertTrue(delegate.batches.isEmpty());
+      assertEquals(3L, (long)cache.getInvalidationBatchStatistics().get("pending"));
+
+      cache.flushInvalidations();
+      assertEquals(1, delegate.batches.size());
+      Map<Serializable, Object> batch = delegate.batches.get(0);
+      assertEquals(3, batch.size());
+      assertEquals("a2".hashCode(), batch.get("a").hashCode());
+      assertEquals("b2".hashCode(), batch.get("b").hashCode());
+      assertEquals("c1".hashCode(), batch.get("c").hashCode());
+      assertEquals("a2", cache.get("a"));
+
+      Map<String, Long> statistics = cache.getInvalidationBatchStatistics();
+      assertEquals(1L, (long)statistics.get("batches"));
+      assertEquals(3L, (long)statistics.get("invalidations"));
+      assertEquals(2L, (long)statistics.get("coalesced"));
+      assertEquals(0L, (long)statistics.get("pending"));
+      assertEquals(3L, (long)statistics.get("batchSizeMax"));
+
+      // Nothing is sent when there is nothing pending
+      cache.flushInvalidations();
+      assertEquals(1, delegate.batches.size());
+   }
+
+   public void testRemove() throws Exception
+   {
+      RecordingCache delegate = new RecordingCache();
+      InvalidationExoCache<String, String> cache = new InvalidationExoCache<String, String>((ExoCache)delegate);
+      cache.setInvalidationBatching(60000, 0);
+      cache.put("a", "a1");
+      cache.put("b", "b1");
+      cache.remove("a");
+      assertNull(cache.get("a"));
+      cache.flushInvalidations();
+      assertEquals(1, delegate.batches.size());
+      assertEquals(1, delegate.batches.get(0).size());
+      assertTrue(delegate.batches.get(0).containsKey("b"));
+
+      cache.put("c", "c1");
+      cache.clearCache();
+      cache.flushInvalidations();
+      assertEquals(1, delegate.batches.size());
+   }
+
+   public void testWindow() throws Exception
+   {
+      RecordingCache delegate = new RecordingCache();
+      InvalidationExoCache<String, String> cache = new InvalidationExoCache<String, String>((ExoCache)delegate);
+      cache.setInvalidationBatching(1000, 0);
+      cache.put("a", "a1");
+      cache.put("b", "b1");
+      long deadline = System.currentTimeMillis() + 10000;
+      while (delegate.getBatchCount() == 0 && System.currentTimeMillis() < deadline)
+      {
+         Thread.sleep(10);
+      }
+      assertEquals(1, delegate.getBatchCount());
+      assertEquals(2, delegate.batches.get(0).size());
+      assertTrue(cache.getInvalidationBatchStatistics().get("delayMax") > 0);
+   }
+
+   public void testMaxKeys() throws Exception
+   {
+      RecordingCache delegate = new RecordingCache();
+      InvalidationExoCache<String, String> cache = new InvalidationExoCache<String, String>((ExoCache)delegate);
+      cache.setInvalidationBatching(60000, 3);
+      for (int i = 0; i < 7; i++)
+      {
+         cache.put("key" + i, "value" + i);
+      }
+      assertEquals(2, delegate.getBatchCount());
+      assertEquals(3, delegate.batches.get(0).size());
+      assertEquals(3, delegate.batches.get(1).size());
+      assertEquals(1L, (long)cache.getInvalidationBatchStatistics().get("pending"));
+   }
+
+   public void testDisabled() throws Exception
+   {
+      RecordingCache delegate = new RecordingCache();
+      InvalidationExoCache<String, String> cache = new InvalidationExoCache<String, String>((ExoCache)delegate);
+      cache.setInvalidationBatching(60000, 0);
+      cache.put("a", "a1");
+      cache.setInvalidationBatching(0, 0);
+      // The pending invalidations are sent when the batching is disabled
+      assertEquals(1, delegate.getBatchCount());
+      assertEquals(0, cache.getInvalidationBatchWindow());
+      assertTrue(cache.getInvalidationBatchStatistics().isEmpty());
+      cache.put("b", "b1");
+      assertEquals(1, delegate.getBatchCount());
+      assertNotNull(delegate.get("b"));
+   }
+
+   public void testSinglePut() throws Exception
+   {
+      RecordingCache delegate = new RecordingCache();
+      InvalidationExoCache<String, String> cache = new InvalidationExoCache<String, String>((ExoCache)delegate);
+      CountingListener listener = new CountingListener();
+      cache.addCacheListener(listener);
+      cache.setInvalidationBatching(60000, 0);
+      cache.put("a", "a1");
+      Map<String, String> values = new LinkedHashMap<String, String>();
+      values.put("b", "b1");
+      cache.putMap(values);
+      // The listeners are only notified once the invalidations are sent
+      assertEquals(0, listener.put);
+      assertEquals("a1", cache.get("a"));
+      assertEquals(2, cache.getAll(Arrays.asList("a", "b", "c")).size());
+      cache.flushInvalidations();
+      assertEquals(2, listener.put);
+      assertEquals("a1", cache.get("a"));
+      assertEquals("b1", cache.get("b"));
+
+      // A pending value that is removed is not notified
+      cache.put("c", "c1");
+      cache.remove("c");
+      assertNull(cache.get("c"));
+      cache.flushInvalidations();
+      assertEquals(2, listener.put);
+      assertNull(cache.get("c"));
+   }
+
+   public void testSharedScheduler() throws Exception
+   {
+      SharedScheduler scheduler = new SharedScheduler("test-scheduler");
+      assertFalse(scheduler.isRunning());
+      ScheduledExecutorService executor = scheduler.acquire();
+      assertSame(executor, scheduler.acquire());
+      scheduler.release();
+      assertTrue(scheduler.isRunning());
+      assertFalse(executor.isShutdown());
+      // The thread is stopped once all the users have released the scheduler
+      scheduler.release();
+      assertFalse(scheduler.isRunning());
+      assertTrue(executor.isShutdown());
+      scheduler.release();
+      assertNotSame(executor, scheduler.acquire());
+      scheduler.release();
+   }
+
+   public void testAsyncInvalidation() throws Exception
+   {
+      RecordingCache delegate = new RecordingCache();
+      AsyncInvalidationExoCache<String, String> cache =
+         new AsyncInvalidationExoCache<String, String>((ExoCache)delegate);
+      cache.setInvalidationBatching(60000, 0);
+      cache.put("a", "a1");
+      cache.put("a", "a2");
+      cache.put("b", "b1");
+      assertEquals("a2", cache.get("a"));
+      assertNull(delegate.get("a"));
+      cache.flushInvalidations();
+      assertEquals(1, delegate.getBatchCount());
+      assertEquals(2, delegate.batches.get(0).size());
+      assertEquals("a2", ((VersionStamp)delegate.get("a")).getValue());
+      assertEquals(1L, (long)cache.getInvalidationBatchStatistics().get("coalesced"));
+   }
+
+   /**
+    * Counts the puts notified to the listener
+    */
+   private static class CountingListener implements CacheListener<String, String>
+   {
+      private volatile int put;
+
+      public void onExpire(CacheListenerContext context, String key, String obj) throws Exception
+      {
+      }
+
+      public void onRemove(CacheListenerContext context, String key, String obj) throws Exception
+      {
+      }
+
+      public void onPut(CacheListenerContext context, String key, String obj) throws Exception
+      {
+         put++;
+      }
+
+      public void onGet(CacheListenerContext context, String key, String obj) throws Exception
+      {
+      }
+
+      public void onClearCache(CacheListenerContext context) throws Exception
+      {
+      }
+   }
+
+   /**
+    * Records the maps that are put in the cache
+    */
+   private static class RecordingCache extends ConcurrentFIFOExoCache<Serializable, Object>
+   {
+      private final List<Map<Serializable, Object>> batches = new ArrayList<Map<Serializable, Object>>();
+
+      RecordingCache()
+      {
+         super("recording", 100);
+         setLabel("recording");
+      }
+
+      synchronized int getBatchCount()
+      {
+         return batches.size();
+      }
+
+      @Override
+      public void putMap(Map<? extends Serializable, ? extends Object> objs)
+      {
+         synchronized (this)
+         {
+            batches.add(new LinkedHashMap<Serializable, Object>(objs));
+         }
+         super.putMap(objs);
+      }
+   }
+}
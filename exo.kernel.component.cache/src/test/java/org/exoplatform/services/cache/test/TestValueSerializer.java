@@ -0,0 +1,268 @@
+/*
+ * Copyright (C) 2026 eXo Platform SAS.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.exoplatform.services.cache.test;
+
+import junit.framework.TestCase;
+
+import org.exoplatform.services.cache.CompactValueSerializer;
+import org.exoplatform.services.cache.CompressingValueSerializer;
+import org.exoplatform.services.cache.ExoCacheConfig;
+import org.exoplatform.services.cache.ExoCacheInitException;
+import org.exoplatform.services.cache.JavaValueSerializer;
+import org.exoplatform.services.cache.ValueSerializer;
+
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * @version $Revision$
+ */
+public class TestValueSerializer extends TestCase
+{
+
+   public void testCompactValueSerializer() throws Exception
+   {
+      ValueSerializer serializer = new MySerializer();
+      List<Object> values =
+         Arrays.<Object> asList(null, "", "été", 0, -1, Integer.MIN_VALUE, Long.MAX_VALUE, Long.MIN_VALUE, true,
+            1.5d, 2.5f, (short)-3, (byte)4, 'c', new Date(), UUID.randomUUID(), MyEnum.B,
+            new ArrayList<Object>(Arrays.asList("a", 1, null)), new HashSet<String>(Arrays.asList("a", "b")),
+            new LinkedHashSet<String>(Arrays.asList("b", "a")));
+      for (Object value : values)
+      {
+         assertEquals(value, serializer.deserialize(serializer.serialize(value)));
+      }
+      assertTrue(Arrays.equals(new byte[]{1, 2}, (byte[])serializer.deserialize(serializer.serialize(new byte[]{1, 2}))));
+      Map<String, Object> map = new LinkedHashMap<String, Object>();
+      map.put("b", new MyDto("b", 2, null));
+      map.put("a", new HashMap<String, Long>());
+      assertEquals(map, serializer.deserialize(serializer.serialize(map)));
+      assertEquals(Arrays.asList("b", "a"), new ArrayList<String>(
+         ((Map<String, ?>)serializer.deserialize(serializer.serialize(map))).keySet()));
+      // The corrupted lengths are rejected before allocating anything
+      for (Object value : Arrays.<Object> asList(new byte[0], "", new ArrayList<Object>(), new HashMap<Object, Object>()))
+      {
+         byte[] data = serializer.serialize(value);
+         byte[] corrupted = Arrays.copyOf(data, data.length + 4);
+         // The empty length is replaced with Integer.MAX_VALUE
+         System.arraycopy(new byte[]{(byte)0xFF, (byte)0xFF, (byte)0xFF, (byte)0xFF, 7}, 0, corrupted, data.length - 1, 5);
+         try
+         {
+            serializer.deserialize(corrupted);
+            fail("An IOException was expected");
+         }
+         catch (IOException e)
+         {
+            // expected
+         }
+      }
+   }
+
+   public void testRegisteredClasses() throws Exception
+   {
+      ValueSerializer serializer = new MySerializer();
+      MyDto dto = new MyDto("a", 1, new MyDto("b", -2, null));
+      dto.tags.add("x");
+      dto.external = new MyExternalizable("e");
+      byte[] data = serializer.serialize(dto);
+      assertEquals(dto, serializer.deserialize(data));
+      assertTrue(data.length * 4 < JavaValueSerializer.INSTANCE.serialize(dto).length);
+
+      // The classes must be registered before being deserialized
+      CompactValueSerializer other = new CompactValueSerializer();
+      try
+      {
+         other.deserialize(data);
+         fail("A ClassNotFoundException was expected");
+      }
+      catch (ClassNotFoundException e)
+      {
+         // expected
+      }
+      try
+      {
+         other.register(Runnable.class);
+         fail("An IllegalArgumentException was expected");
+      }
+      catch (IllegalArgumentException e)
+      {
+         // expected
+      }
+      assertEquals(0, other.register(MyEnum.class));
+   }
+
+   public void testCompressingValueSerializer() throws Exception
+   {
+      ValueSerializer serializer = new CompressingValueSerializer(new MySerializer(), 100);
+      char[] chars = new char[1000];
+      Arrays.fill(chars, 'a');
+      String large = new String(chars);
+      byte[] data = serializer.serialize(large);
+      assertTrue(data.length < 100);
+      assertEquals(large, serializer.deserialize(data));
+      // The corrupted lengths are rejected before allocating anything
+      for (int length : new int[]{-1, Integer.MAX_VALUE, 1001})
+      {
+         byte[] corrupted = data.clone();
+         corrupted[1] = (byte)(length >>> 24);
+         corrupted[2] = (byte)(length >>> 16);
+         corrupted[3] = (byte)(length >>> 8);
+         corrupted[4] = (byte)length;
+         try
+         {
+            serializer.deserialize(corrupted);
+            fail("An IOException was expected");
+         }
+         catch (IOException e)
+         {
+            // expected
+         }
+      }
+      data = serializer.serialize("small");
+      // The prefix, the tag, the length and the characters
+      assertEquals(8, data.length);
+      assertEquals("small", serializer.deserialize(data));
+      // A value that cannot be compressed is kept as is
+      byte[] random = new byte[1000];
+      new java.util.Random(0).nextBytes(random);
+      data = serializer.serialize(random);
+      assertTrue(Arrays.equals(random, (byte[])serializer.deserialize(data)));
+   }
+
+   public void testCreate() throws Exception
+   {
+      ExoCacheConfig config = new ExoCacheConfig();
+      assertNull(ValueSerializer.create(config));
+      config.setCompressionThreshold(10);
+      assertTrue(ValueSerializer.create(config) instanceof CompressingValueSerializer);
+      config.setCompressionThreshold(0);
+      config.setValueSerializer(MySerializer.class.getName());
+      assertTrue(ValueSerializer.create(config) instanceof MySerializer);
+      config.setValueSerializer(String.class.getName());
+      try
+      {
+         ValueSerializer.create(config);
+         fail("An ExoCacheInitException was expected");
+      }
+      catch (ExoCacheInitException e)
+      {
+         // expected
+      }
+   }
+
+   public static class MySerializer extends CompactValueSerializer
+   {
+      public MySerializer()
+      {
+         register(MyDto.class);
+         register(MyEnum.class);
+         register(MyExternalizable.class);
+      }
+   }
+
+   public enum MyEnum
+   {
+      A, B
+   }
+
+   public static class MyDto implements Serializable
+   {
+      private static final long serialVersionUID = 1L;
+
+      private final String name;
+
+      private final long id;
+
+      private final MyDto parent;
+
+      private final List<String> tags = new ArrayList<String>();
+
+      private MyExternalizable external;
+
+      private transient String cache = "cache";
+
+      private MyDto()
+      {
+         this(null, 0, null);
+      }
+
+      MyDto(String name, long id, MyDto parent)
+      {
+         this.name = name;
+         this.id = id;
+         this.parent = parent;
+      }
+
+      @Override
+      public boolean equals(Object obj)
+      {
+         if (!(obj instanceof MyDto))
+         {
+            return false;
+         }
+         MyDto other = (MyDto)obj;
+         return id == other.id && name.equals(other.name) && tags.equals(other.tags)
+            && (parent == null ? other.parent == null : parent.equals(other.parent))
+            && (external == null ? other.external == null : external.value.equals(other.external.value));
+      }
+
+      @Override
+      public int hashCode()
+      {
+         return name.hashCode();
+      }
+   }
+
+   public static class MyExternalizable implements Externalizable
+   {
+      private String value;
+
+      public MyExternalizable()
+      {
+      }
+
+      MyExternalizable(String value)
+      {
+         this.value = value;
+      }
+
+      public void writeExternal(ObjectOutput out) throws IOException
+      {
+         out.writeObject(value);
+      }
+
+      public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException
+      {
+         value = (String)in.readObject();
+      }
+   }
+}
@@ -19,10 +19,14 @@
 package org.exoplatform.services.cache.impl.infinispan;
 
 import org.exoplatform.commons.utils.SecurityHelper;
+import org.exoplatform.management.annotations.Managed;
+import org.exoplatform.management.annotations.ManagedDescription;
+import org.exoplatform.management.annotations.ManagedName;
 import org.exoplatform.services.cache.CacheInfo;
 import org.exoplatform.services.cache.CacheListener;
 import org.exoplatform.services.cache.CacheListenerContext;
 import org.exoplatform.services.cache.CacheMode;
+import org.exoplatform.services.cache.CacheStatistics;
 import org.exoplatform.services.cache.CachedObjectSelector;
 import org.exoplatform.services.cache.ExoCache;
 import org.exoplatform.services.cache.ExoCacheConfig;
@@ -32,28 +36,34 @@ import org.exoplatform.services.log.ExoLogger;
 import org.exoplatform.services.log.Log;
 import org.infinispan.AdvancedCache;
 import org.infinispan.Cache;
+import org.infinispan.commons.util.CloseableIterator;
 import org.infinispan.container.entries.InternalCacheEntry;
 import org.infinispan.context.Flag;
 import org.infinispan.notifications.Listener;
 import org.infinispan.notifications.cachelistener.annotation.CacheEntriesEvicted;
 import org.infinispan.notifications.cachelistener.annotation.CacheEntryCreated;
+import org.infinispan.notifications.cachelistener.annotation.CacheEntryExpired;
 import org.infinispan.notifications.cachelistener.annotation.CacheEntryModified;
 import org.infinispan.notifications.cachelistener.annotation.CacheEntryRemoved;
 import org.infinispan.notifications.cachelistener.event.CacheEntriesEvictedEvent;
 import org.infinispan.notifications.cachelistener.event.CacheEntryCreatedEvent;
+import org.infinispan.notifications.cachelistener.event.CacheEntryExpiredEvent;
 import org.infinispan.notifications.cachelistener.event.CacheEntryModifiedEvent;
 import org.infinispan.notifications.cachelistener.event.CacheEntryRemovedEvent;
 
 import java.io.Serializable;
 import java.security.PrivilegedAction;
+import java.security.PrivilegedExceptionAction;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CopyOnWriteArrayList;
-import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * An {@link org.exoplatform.services.cache.ExoCache} implementation based on {@link Cache}.
@@ -70,9 +80,7 @@ public abstract class AbstractExoCache<K extends Serializable, V> implements Exo
     */
    private static final Log LOG = ExoLogger.getLogger(AbstractExoCache.class);
 
-   private final AtomicInteger hits = new AtomicInteger(0);
-
-   private final AtomicInteger misses = new AtomicInteger(0);
+   private final CacheStatistics statistics = new CacheStatistics();
 
    private String label;
 
@@ -90,6 +98,12 @@ public abstract class AbstractExoCache<K extends Serializable, V> implements Exo
 
    protected final AdvancedCache<K, V> cache;
 
+   /**
+    * The queue of the writes applied in the background, <code>null</code> if the writes are applied
+    * synchronously
+    */
+   private volatile WriteBehindQueue<K, V> writeBehind;
+
    public AbstractExoCache(ExoCacheConfig config, Cache<K, V> cache)
    {
       this.cache = cache.getAdvancedCache();
@@ -102,6 +116,99 @@ public abstract class AbstractExoCache<K extends Serializable, V> implements Exo
       CacheMode cacheMode = config.getCacheMode();
       setAsynchronous(cacheMode != null && !cacheMode.isSync());
       cache.addListener(new CacheEventListener());
+      if (config.getWriteBehindInterval() > 0)
+      {
+         setWriteBehind(config.getWriteBehindInterval(), config.getWriteBehindCapacity(),
+            config.getWriteBehindBatchSize());
+      }
+   }
+
+   /**
+    * Enables or disables the write-behind mode. When enabled, the values put are queued and then written into
+    * the underlying cache in batches by a background thread, the values queued are visible to the readers of
+    * this node. The repeated writes of the same key are coalesced and when the queue is full the writing
+    * thread waits until the queue has been flushed. The pending writes are written when the write-behind mode
+    * is disabled, so it must be disabled once the cache is not used anymore in order to release the background
+    * thread.
+    *
+    * @param interval the maximum amount of milliseconds during which a write can be delayed, the write-behind
+    * mode is disabled if not positive
+    * @param capacity the maximum amount of pending writes, a default value is used if not positive
+    * @param batchSize the maximum amount of writes in a batch, a default value is used if not positive
+    */
+   public void setWriteBehind(long interval, int capacity, int batchSize)
+   {
+      WriteBehindQueue<K, V> previous = writeBehind;
+      this.writeBehind = interval > 0 ? new WriteBehindQueue<K, V>(getName(), interval, capacity, batchSize)
+      {
+         protected void write(final Map<K, V> batch) throws Exception
+         {
+            SecurityHelper.doPrivilegedExceptionAction(new PrivilegedExceptionAction<Void>()
+            {
+               public Void run() throws Exception
+               {
+                  cache.withFlags(Flag.SKIP_REMOTE_LOOKUP, Flag.IGNORE_RETURN_VALUES).putAllAsync(batch).get();
+                  return null;
+               }
+            });
+         }
+      } : null;
+      if (previous != null)
+      {
+         previous.close();
+      }
+   }
+
+   /**
+    * Removes the pending write of the given key if any so that it cannot override a value written directly
+    * into the underlying cache
+    */
+   private void discardPendingWrite(Serializable key)
+   {
+      WriteBehindQueue<K, V> writeBehind = this.writeBehind;
+      if (writeBehind != null)
+      {
+         writeBehind.discard(key);
+      }
+   }
+
+   /**
+    * @return the maximum amount of milliseconds during which a write can be delayed, 0 if the write-behind
+    * mode is disabled
+    */
+   @Managed
+   @ManagedName("WriteBehindInterval")
+   @ManagedDescription("The maximum amount of milliseconds during which a write can be delayed")
+   public long getWriteBehindInterval()
+   {
+      WriteBehindQueue<K, V> writeBehind = this.writeBehind;
+      return writeBehind == null ? 0 : writeBehind.getInterval();
+   }
+
+   /**
+    * @return the statistics of the write-behind queue, empty if the write-behind mode is disabled
+    */
+   @Managed
+   @ManagedName("WriteBehindStatistics")
+   @ManagedDescription("The depth of the write-behind queue and the counters of its writes and failures")
+   public Map<String, Long> getWriteBehindStatistics()
+   {
+      WriteBehindQueue<K, V> writeBehind = this.writeBehind;
+      return writeBehind == null ? new HashMap<String, Long>() : writeBehind.toMap();
+   }
+
+   /**
+    * Writes the pending writes without waiting for the end of the interval
+    */
+   @Managed
+   @ManagedDescription("Write the pending writes of the write-behind queue")
+   public void flushWriteBehind()
+   {
+      WriteBehindQueue<K, V> writeBehind = this.writeBehind;
+      if (writeBehind != null)
+      {
+         writeBehind.flush();
+      }
    }
 
    /**
@@ -121,6 +228,11 @@ public abstract class AbstractExoCache<K extends Serializable, V> implements Exo
     */
    public void clearCache()
    {
+      WriteBehindQueue<K, V> writeBehind = this.writeBehind;
+      if (writeBehind != null)
+      {
+         writeBehind.clear();
+      }
       cache.withFlags(Flag.CACHE_MODE_LOCAL).clear();
       onClearCache();
    }
@@ -135,25 +247,80 @@ public abstract class AbstractExoCache<K extends Serializable, V> implements Exo
       {
          return null;
       }
-      final V result = cache.get(name);
+      long start = System.nanoTime();
+      WriteBehindQueue<K, V> writeBehind = this.writeBehind;
+      V pending = writeBehind == null ? null : writeBehind.get(name);
+      final V result = pending == null ? cache.get(name) : pending;
+      statistics.recordGet(System.nanoTime() - start);
       if (result == null)
       {
-         misses.incrementAndGet();
+         statistics.onMiss();
       }
       else
       {
-         hits.incrementAndGet();
+         statistics.onHit();
       }
       onGet((K)name, result);
       return result;
    }
 
+   /**
+    * {@inheritDoc}
+    */
+   public Map<K, V> getAll(Collection<? extends K> names)
+   {
+      if (names == null)
+      {
+         throw new IllegalArgumentException("No null collection accepted");
+      }
+      final Set<K> keys = new HashSet<K>(names);
+      keys.remove(null);
+      if (keys.isEmpty())
+      {
+         return new HashMap<K, V>();
+      }
+      // All the keys are retrieved in one operation
+      long start = System.nanoTime();
+      final Map<K, V> values = new HashMap<K, V>();
+      Set<K> missingKeys = keys;
+      WriteBehindQueue<K, V> writeBehind = this.writeBehind;
+      if (writeBehind != null)
+      {
+         missingKeys = new HashSet<K>();
+         for (K key : keys)
+         {
+            V pending = writeBehind.get(key);
+            if (pending == null)
+            {
+               missingKeys.add(key);
+            }
+            else
+            {
+               values.put(key, pending);
+            }
+         }
+      }
+      if (!missingKeys.isEmpty())
+      {
+         values.putAll(cache.getAll(missingKeys));
+      }
+      statistics.recordGet(System.nanoTime() - start);
+      values.values().removeAll(Collections.singleton(null));
+      statistics.onHits(values.size());
+      statistics.onMisses(keys.size() - values.size());
+      for (K key : keys)
+      {
+         onGet(key, values.get(key));
+      }
+      return values;
+   }
+
    /**
     * {@inheritDoc}
     */
    public int getCacheHit()
    {
-      return hits.get();
+      return (int)Math.min(statistics.getHits(), Integer.MAX_VALUE);
    }
 
    /**
@@ -161,7 +328,15 @@ public abstract class AbstractExoCache<K extends Serializable, V> implements Exo
     */
    public int getCacheMiss()
    {
-      return misses.get();
+      return (int)Math.min(statistics.getMisses(), Integer.MAX_VALUE);
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public CacheStatistics getStatistics()
+   {
+      return statistics;
    }
 
    /**
@@ -238,6 +413,7 @@ public abstract class AbstractExoCache<K extends Serializable, V> implements Exo
 
    private void putOnlyAsync(K key, V value)
    {
+      discardPendingWrite(key);
       cache.withFlags(Flag.SKIP_REMOTE_LOOKUP, Flag.IGNORE_RETURN_VALUES, Flag.FORCE_ASYNCHRONOUS).putAsync(key, value);
    }
 
@@ -279,10 +455,19 @@ public abstract class AbstractExoCache<K extends Serializable, V> implements Exo
          @Override
          public Void run()
          {
-            putOnly(key, value, false);
+            WriteBehindQueue<K, V> writeBehind = AbstractExoCache.this.writeBehind;
+            if (writeBehind == null)
+            {
+               putOnly(key, value, false);
+            }
+            else
+            {
+               writeBehind.put(key, value);
+            }
             return null;
          }
       });
+      statistics.onPut();
       onPut(key, value);
    }
 
@@ -304,10 +489,12 @@ public abstract class AbstractExoCache<K extends Serializable, V> implements Exo
          @Override
          public Void run()
          {
+            discardPendingWrite(key);
             putOnly(key, value,  true);
             return null;
          }
       });
+      statistics.onPut();
       onPutLocal(key, value);
    }
 
@@ -350,6 +537,12 @@ public abstract class AbstractExoCache<K extends Serializable, V> implements Exo
             throw new IllegalArgumentException("No null cache key accepted");
          }
       }
+      WriteBehindQueue<K, V> writeBehind = this.writeBehind;
+      if (writeBehind != null)
+      {
+         putMapBehind(writeBehind, objs);
+         return;
+      }
       SecurityHelper.doPrivilegedAction(new PrivilegedAction<Void>()
       {
 
@@ -369,6 +562,7 @@ public abstract class AbstractExoCache<K extends Serializable, V> implements Exo
                   map.put(entry.getKey(), entry.getValue());
                }
                cache.putAll(map);
+               statistics.onPuts(map.size());
                if(cache.getTransactionManager() != null) {
                  cache.endBatch(true);
                }
@@ -390,6 +584,38 @@ public abstract class AbstractExoCache<K extends Serializable, V> implements Exo
       });
    }
 
+   /**
+    * Queues the given entries into the write-behind queue
+    */
+   private void putMapBehind(WriteBehindQueue<K, V> writeBehind, Map<? extends K, ? extends V> objs)
+   {
+      try
+      {
+         // Make sure that the key and the value are valid
+         Map<K, V> map = new LinkedHashMap<K, V>();
+         for (Map.Entry<? extends K, ? extends V> entry : objs.entrySet())
+         {
+            if (entry.getValue() != null)
+            {
+               map.put(entry.getKey(), entry.getValue());
+            }
+         }
+         for (Map.Entry<K, V> entry : map.entrySet())
+         {
+            writeBehind.put(entry.getKey(), entry.getValue());
+         }
+         statistics.onPuts(map.size());
+         for (Map.Entry<K, V> entry : map.entrySet())
+         {
+            onPut(entry.getKey(), entry.getValue());
+         }
+      }
+      catch (Exception e) //NOSONAR
+      {
+         LOG.warn("An error occurs while executing the putMap method", e);
+      }
+   }
+
    /**
     * {@inheritDoc}
     */
@@ -406,6 +632,13 @@ public abstract class AbstractExoCache<K extends Serializable, V> implements Exo
             throw new IllegalArgumentException("No null cache key accepted");
          }
       }
+      WriteBehindQueue<K, V> writeBehind = this.writeBehind;
+      if (writeBehind != null)
+      {
+         // The queue already writes the entries asynchronously
+         putMapBehind(writeBehind, objs);
+         return;
+      }
       SecurityHelper.doPrivilegedAction(new PrivilegedAction<Void>()
       {
 
@@ -421,6 +654,7 @@ public abstract class AbstractExoCache<K extends Serializable, V> implements Exo
                   map.put(entry.getKey(), entry.getValue());
                }
                cache.putAllAsync(map);
+               statistics.onPuts(map.size());
                // End transaction
                for (Map.Entry<? extends K, ? extends V> entry : objs.entrySet())
                {
@@ -446,6 +680,13 @@ public abstract class AbstractExoCache<K extends Serializable, V> implements Exo
       {
          throw new IllegalArgumentException("No null cache key accepted");
       }
+      WriteBehindQueue<K, V> writeBehind = this.writeBehind;
+      V pending = null;
+      if (writeBehind != null)
+      {
+         pending = writeBehind.get(key);
+         writeBehind.remove(key);
+      }
       V result = SecurityHelper.doPrivilegedAction(new PrivilegedAction<V>()
       {
 
@@ -455,6 +696,10 @@ public abstract class AbstractExoCache<K extends Serializable, V> implements Exo
             return cache.remove(key);
          }
       });
+      if (result == null)
+      {
+         result = pending;
+      }
       onRemove((K)key, result);
       return result;
    }
@@ -469,6 +714,11 @@ public abstract class AbstractExoCache<K extends Serializable, V> implements Exo
       {
          throw new IllegalArgumentException("No null cache key accepted");
       }
+      WriteBehindQueue<K, V> writeBehind = this.writeBehind;
+      if (writeBehind != null)
+      {
+         writeBehind.remove(key);
+      }
       SecurityHelper.doPrivilegedAction(new PrivilegedAction<Void>()
       {
 
@@ -501,32 +751,42 @@ public abstract class AbstractExoCache<K extends Serializable, V> implements Exo
       {
          throw new IllegalArgumentException("No null selector");
       }
-      for (Map.Entry<? extends K, ? extends V> entry : cache.withFlags(Flag.CACHE_MODE_LOCAL).entrySet())
+      // The entries are iterated lazily, they are not copied before being selected
+      CloseableIterator<Map.Entry<K, V>> it = cache.withFlags(Flag.CACHE_MODE_LOCAL).entrySet().iterator();
+      try
       {
-         K key = entry.getKey();
-         if (key == null)
+         while (it.hasNext())
          {
-            continue;
-         }
-         final V value = entry.getValue();
-         ObjectCacheInfo<V> info = new ObjectCacheInfo<V>()
-         {
-            public V get()
+            Map.Entry<K, V> entry = it.next();
+            K key = entry.getKey();
+            if (key == null)
             {
-               return value;
+               continue;
             }
+            final V value = entry.getValue();
+            ObjectCacheInfo<V> info = new ObjectCacheInfo<V>()
+            {
+               public V get()
+               {
+                  return value;
+               }
 
-            public long getExpireTime()
+               public long getExpireTime()
+               {
+                  // Cannot know: The expire time is managed by Infinispan itself
+                  return -1;
+               }
+            };
+            if (selector.select(key, info))
             {
-               // Cannot know: The expire time is managed by Infinispan itself
-               return -1;
+               selector.onSelect(this, key, info);
             }
-         };
-         if (selector.select(key, info))
-         {
-            selector.onSelect(this, key, info);
          }
       }
+      finally
+      {
+         it.close();
+      }
    }
 
    /**
@@ -696,11 +956,21 @@ public abstract class AbstractExoCache<K extends Serializable, V> implements Exo
          {
             for (Map.Entry<K, V> entry : evt.getEntries().entrySet())
             {
+               statistics.onEviction();
                onExpire(entry.getKey(), entry.getValue());
             }
          }
       }
 
+      @CacheEntryExpired
+      public void cacheEntryExpired(CacheEntryExpiredEvent<K, V> evt)
+      {
+         if (!evt.isPre())
+         {
+            statistics.onExpiration();
+         }
+      }
+
       @CacheEntryRemoved
       public void cacheEntryRemoved(CacheEntryRemovedEvent<K, V> evt)
       {
@@ -708,6 +978,7 @@ public abstract class AbstractExoCache<K extends Serializable, V> implements Exo
          {
             final K key = evt.getKey();
             final V value = evt.getValue();
+            discardPendingWrite(key);
             onRemove(key, value);
          }
       }
@@ -719,6 +990,7 @@ public abstract class AbstractExoCache<K extends Serializable, V> implements Exo
          {
             final K key = evt.getKey();
             final V value = evt.getValue();
+            discardPendingWrite(key);
             onPut(key, value);
          }
       }
@@ -729,6 +1001,7 @@ public abstract class AbstractExoCache<K extends Serializable, V> implements Exo
          {
             final K key = event.getKey();
             final V value = event.getValue();
+            discardPendingWrite(key);
             onPut(key, value);;
          }
       }
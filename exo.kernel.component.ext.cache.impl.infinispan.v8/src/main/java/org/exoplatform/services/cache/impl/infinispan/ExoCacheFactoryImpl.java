@@ -27,6 +27,7 @@ import org.exoplatform.services.cache.ExoCache;
 import org.exoplatform.services.cache.ExoCacheConfig;
 import org.exoplatform.services.cache.ExoCacheFactory;
 import org.exoplatform.services.cache.ExoCacheInitException;
+import org.exoplatform.services.cache.ValueSerializer;
 import org.exoplatform.services.cache.impl.infinispan.distributed.DistributedExoCache;
 import org.exoplatform.services.cache.impl.infinispan.generic.GenericExoCacheCreator;
 import org.exoplatform.services.ispn.DistributedCacheManager;
@@ -42,6 +43,7 @@ import org.infinispan.configuration.global.GlobalConfigurationBuilder;
 import org.infinispan.configuration.parsing.ConfigurationBuilderHolder;
 import org.infinispan.configuration.parsing.ParserRegistry;
 import org.infinispan.eviction.EvictionStrategy;
+import org.infinispan.eviction.EvictionType;
 import org.infinispan.jmx.MBeanServerLookup;
 import org.infinispan.manager.DefaultCacheManager;
 import org.picocontainer.Startable;
@@ -57,6 +59,7 @@ import java.util.Map.Entry;
 import java.util.Properties;
 import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import javax.management.MBeanServer;
 
@@ -142,6 +145,11 @@ public class ExoCacheFactoryImpl implements ExoCacheFactory, Startable {
     */
    private final ExoCacheCreator defaultCreator = new GenericExoCacheCreator();
 
+   /**
+    * The caches created by the creators, their write-behind mode is disabled when the factory is stopped
+    */
+   private final List<AbstractExoCache<?, ?>> caches = new CopyOnWriteArrayList<AbstractExoCache<?, ?>>();
+
    private static final MBeanServerLookup MBEAN_SERVER_LOOKUP = new MBeanServerLookup()
    {
       public MBeanServer getMBeanServer(Properties properties)
@@ -395,8 +403,11 @@ public class ExoCacheFactoryImpl implements ExoCacheFactory, Startable {
                   "The DistributedCacheManager has not been defined in the configuration,"
                   + " please configure it at root container level if you want to use a distributed cache.");
             }
-            return new DistributedExoCache(ctx, config,
-               distributedCacheManager.getCache(DistributedExoCache.CACHE_NAME));
+            DistributedExoCache<Serializable, Object> distributedCache =
+               new DistributedExoCache<Serializable, Object>(ctx, config,
+                  distributedCacheManager.<Serializable, Object> getCache(DistributedExoCache.CACHE_NAME));
+            distributedCache.setValueSerializer(ValueSerializer.create(config));
+            return distributedCache;
          }
          else
          {
@@ -452,6 +463,10 @@ public class ExoCacheFactoryImpl implements ExoCacheFactory, Startable {
       {
          throw new ExoCacheInitException("The cache '" + region + "' could not be initialized", e);
       }
+      if (eXoCache instanceof AbstractExoCache)
+      {
+         caches.add((AbstractExoCache<?, ?>)eXoCache);
+      }
       return eXoCache;
    }
 
@@ -494,6 +509,10 @@ public class ExoCacheFactoryImpl implements ExoCacheFactory, Startable {
 
    @Override
    public void stop() {
+     for (AbstractExoCache<?, ?> cache : caches) {
+       // The pending writes are written and the background thread is released
+       cache.setWriteBehind(0, 0, 0);
+     }
      if (cacheManager != null) {
        cacheManager.stop();
      }
@@ -545,7 +564,7 @@ public class ExoCacheFactoryImpl implements ExoCacheFactory, Startable {
     */
    protected void resetConfiguration(ConfigurationBuilder confBuilder)
    {
-      confBuilder.eviction().strategy(EvictionStrategy.NONE).size(-1).expiration()
+      confBuilder.eviction().strategy(EvictionStrategy.NONE).type(EvictionType.COUNT).size(-1).expiration()
          .lifespan(-1L).maxIdle(-1L).wakeUpInterval(60000L);
    }
 
@@ -0,0 +1,382 @@
+/*
+ * Copyright (C) 2026 eXo Platform SAS.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.exoplatform.services.cache.impl.infinispan;
+
+import org.exoplatform.services.cache.impl.SharedScheduler;
+import org.exoplatform.services.log.ExoLogger;
+import org.exoplatform.services.log.Log;
+
+import java.io.Serializable;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded queue of the writes of a cache region that are applied to the underlying cache by a background
+ * thread. The writes of the same key are coalesced, the pending writes are flushed in batches either when the
+ * flush interval is over or when a batch is full, and the batches are written one after the other so that
+ * the writes of a given key are applied in order. When the queue is full, the writing thread flushes the
+ * queue itself which slows down the writers until the underlying cache catches up. A queue must be closed
+ * once it is not used anymore in order to write its pending writes and to release the thread shared by all
+ * the queues.
+ *
+ * @version $Revision$
+ * @param <K> the type of keys
+ * @param <V> the type of values
+ */
+abstract class WriteBehindQueue<K extends Serializable, V>
+{
+   private static final Log LOG = ExoLogger.getLogger(WriteBehindQueue.class);
+
+   /**
+    * The default maximum amount of pending writes
+    */
+   static final int DEFAULT_CAPACITY = 10000;
+
+   /**
+    * The default maximum amount of writes in a batch
+    */
+   static final int DEFAULT_BATCH_SIZE = 500;
+
+   /**
+    * The thread used by all the regions to flush their writes
+    */
+   static final SharedScheduler SCHEDULER = new SharedScheduler("exo-cache-write-behind");
+
+   private final ScheduledExecutorService executor;
+
+   private final String name;
+
+   private final long interval;
+
+   private final int capacity;
+
+   private final int batchSize;
+
+   /**
+    * The pending writes, guarded by this
+    */
+   private final LinkedHashMap<K, V> pending = new LinkedHashMap<K, V>();
+
+   /**
+    * The batch being written, guarded by this
+    */
+   private Map<K, V> writing;
+
+   /**
+    * Indicates whether a flush has been scheduled, guarded by this
+    */
+   private boolean scheduled;
+
+   /**
+    * Indicates whether the queue has been closed, guarded by this
+    */
+   private boolean closed;
+
+   /**
+    * Ensures that the batches are written in order
+    */
+   private final Object writeLock = new Object();
+
+   private final AtomicLong writes = new AtomicLong();
+
+   private final AtomicLong batches = new AtomicLong();
+
+   private final AtomicLong coalesced = new AtomicLong();
+
+   private final AtomicLong blocked = new AtomicLong();
+
+   private final AtomicLong failures = new AtomicLong();
+
+   private final AtomicLong failedBatches = new AtomicLong();
+
+   /**
+    * The highest amount of pending writes, guarded by this
+    */
+   private long maxDepth;
+
+   /**
+    * @param name the name of the cache region
+    * @param interval the maximum amount of milliseconds during which a write can be delayed
+    * @param capacity the maximum amount of pending writes, {@link #DEFAULT_CAPACITY} is used if not positive
+    * @param batchSize the maximum amount of writes in a batch, {@link #DEFAULT_BATCH_SIZE} is used if not
+    * positive
+    */
+   WriteBehindQueue(String name, long interval, int capacity, int batchSize)
+   {
+      if (interval <= 0)
+      {
+         throw new IllegalArgumentException("The flush interval must be positive");
+      }
+      this.name = name;
+      this.interval = interval;
+      this.capacity = capacity > 0 ? capacity : DEFAULT_CAPACITY;
+      this.batchSize = Math.min(batchSize > 0 ? batchSize : DEFAULT_BATCH_SIZE, this.capacity);
+      this.executor = SCHEDULER.acquire();
+   }
+
+   /**
+    * Writes the given batch into the underlying cache and waits until it is done
+    *
+    * @param batch the writes to apply
+    * @throws Exception if the batch could not be written
+    */
+   protected abstract void write(Map<K, V> batch) throws Exception;
+
+   long getInterval()
+   {
+      return interval;
+   }
+
+   int getCapacity()
+   {
+      return capacity;
+   }
+
+   int getBatchSize()
+   {
+      return batchSize;
+   }
+
+   /**
+    * Adds a write to the queue, if the queue is full the calling thread flushes it first. Once the queue is
+    * closed, the calling thread writes it.
+    */
+   void put(K key, V value)
+   {
+      while (true)
+      {
+         synchronized (this)
+         {
+            if (closed)
+            {
+               pending.put(key, value);
+               break;
+            }
+            if (pending.containsKey(key))
+            {
+               pending.put(key, value);
+               coalesced.incrementAndGet();
+               return;
+            }
+            if (pending.size() < capacity)
+            {
+               pending.put(key, value);
+               maxDepth = Math.max(maxDepth, pending.size());
+               if (pending.size() == batchSize)
+               {
+                  // A batch is ready, it is written without waiting for the end of the interval
+                  executor.execute(newFlushTask());
+               }
+               else if (!scheduled)
+               {
+                  scheduled = true;
+                  executor.schedule(newFlushTask(), interval, TimeUnit.MILLISECONDS);
+               }
+               return;
+            }
+         }
+         blocked.incrementAndGet();
+         flush();
+      }
+      flush();
+   }
+
+   /**
+    * @return the pending value of the given key or <code>null</code> if there is none
+    */
+   synchronized V get(Serializable key)
+   {
+      V value = pending.get(key);
+      if (value == null && writing != null)
+      {
+         value = writing.get(key);
+      }
+      return value;
+   }
+
+   /**
+    * Removes the pending write of the given key if any, if the key is being written it waits until the
+    * write is over so that a removal that follows cannot be overridden by it.
+    */
+   void remove(Serializable key)
+   {
+      boolean inProgress;
+      synchronized (this)
+      {
+         pending.remove(key);
+         inProgress = writing != null && writing.containsKey(key);
+      }
+      if (inProgress)
+      {
+         awaitWrite();
+      }
+   }
+
+   /**
+    * Removes all the pending writes and waits until the batch being written if any is over
+    */
+   void clear()
+   {
+      boolean inProgress;
+      synchronized (this)
+      {
+         pending.clear();
+         inProgress = writing != null;
+      }
+      if (inProgress)
+      {
+         awaitWrite();
+      }
+   }
+
+   /**
+    * Removes the pending write of the given key if any without waiting for the write in progress, this is
+    * needed when the key is modified by another node so that the pending write cannot override it.
+    */
+   synchronized void discard(Serializable key)
+   {
+      pending.remove(key);
+   }
+
+   private void awaitWrite()
+   {
+      synchronized (writeLock)
+      {
+         // The batch being written is over once we get the lock
+      }
+   }
+
+   synchronized int getDepth()
+   {
+      return pending.size();
+   }
+
+   /**
+    * Writes all the pending writes
+    */
+   void flush()
+   {
+      synchronized (writeLock)
+      {
+         while (flushBatch())
+         {
+            // Write the next batch
+         }
+      }
+   }
+
+   /**
+    * Writes the pending writes and releases the shared thread, the writes added afterwards are written by
+    * the calling thread.
+    */
+   void close()
+   {
+      synchronized (this)
+      {
+         if (closed)
+         {
+            return;
+         }
+         closed = true;
+      }
+      flush();
+      SCHEDULER.release();
+   }
+
+   /**
+    * Writes the next batch
+    *
+    * @return <code>true</code> if the queue still contains pending writes
+    */
+   private boolean flushBatch()
+   {
+      Map<K, V> batch;
+      synchronized (this)
+      {
+         scheduled = false;
+         if (pending.isEmpty())
+         {
+            return false;
+         }
+         batch = new LinkedHashMap<K, V>();
+         for (Iterator<Map.Entry<K, V>> it = pending.entrySet().iterator(); it.hasNext() && batch.size() < batchSize;)
+         {
+            Map.Entry<K, V> entry = it.next();
+            batch.put(entry.getKey(), entry.getValue());
+            it.remove();
+         }
+         writing = batch;
+      }
+      try
+      {
+         write(batch);
+         writes.addAndGet(batch.size());
+      }
+      catch (Exception e)//NOSONAR
+      {
+         failures.addAndGet(batch.size());
+         failedBatches.incrementAndGet();
+         LOG.warn("Could not write the " + batch.size() + " pending entries of the cache " + name, e);
+      }
+      batches.incrementAndGet();
+      synchronized (this)
+      {
+         writing = null;
+         return !pending.isEmpty();
+      }
+   }
+
+   private Runnable newFlushTask()
+   {
+      return new Runnable()
+      {
+         public void run()
+         {
+            flush();
+         }
+      };
+   }
+
+   /**
+    * Gives the statistics of the queue
+    *
+    * @return the statistics indexed by name
+    */
+   Map<String, Long> toMap()
+   {
+      Map<String, Long> map = new LinkedHashMap<String, Long>();
+      synchronized (this)
+      {
+         map.put("depth", (long)pending.size());
+         map.put("maxDepth", maxDepth);
+      }
+      map.put("capacity", (long)capacity);
+      map.put("writes", writes.get());
+      map.put("batches", batches.get());
+      map.put("coalesced", coalesced.get());
+      map.put("blocked", blocked.get());
+      map.put("failures", failures.get());
+      map.put("failedBatches", failedBatches.get());
+      return map;
+   }
+}
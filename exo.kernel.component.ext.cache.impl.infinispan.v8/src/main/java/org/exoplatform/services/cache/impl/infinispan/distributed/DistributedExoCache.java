@@ -27,16 +27,19 @@ import org.exoplatform.management.annotations.ManagedName;
 import org.exoplatform.services.cache.CacheInfo;
 import org.exoplatform.services.cache.CacheListener;
 import org.exoplatform.services.cache.CacheListenerContext;
+import org.exoplatform.services.cache.CacheStatistics;
 import org.exoplatform.services.cache.CachedObjectSelector;
 import org.exoplatform.services.cache.ExoCache;
 import org.exoplatform.services.cache.ExoCacheConfig;
 import org.exoplatform.services.cache.ObjectCacheInfo;
+import org.exoplatform.services.cache.ValueSerializer;
 import org.exoplatform.services.ispn.AbstractMapper;
 import org.exoplatform.services.ispn.DistributedCacheManager;
 import org.exoplatform.services.log.ExoLogger;
 import org.exoplatform.services.log.Log;
 import org.infinispan.AdvancedCache;
 import org.infinispan.Cache;
+import org.infinispan.container.entries.InternalCacheEntry;
 import org.infinispan.context.Flag;
 import org.infinispan.distexec.mapreduce.Collector;
 import org.infinispan.distexec.mapreduce.MapReduceTask;
@@ -44,12 +47,18 @@ import org.infinispan.distexec.mapreduce.Reducer;
 import org.infinispan.notifications.Listener;
 import org.infinispan.notifications.cachelistener.annotation.CacheEntriesEvicted;
 import org.infinispan.notifications.cachelistener.annotation.CacheEntryCreated;
+import org.infinispan.notifications.cachelistener.annotation.CacheEntryExpired;
+import org.infinispan.notifications.cachelistener.annotation.CacheEntryInvalidated;
 import org.infinispan.notifications.cachelistener.annotation.CacheEntryModified;
 import org.infinispan.notifications.cachelistener.annotation.CacheEntryRemoved;
+import org.infinispan.notifications.cachelistener.annotation.DataRehashed;
 import org.infinispan.notifications.cachelistener.event.CacheEntriesEvictedEvent;
 import org.infinispan.notifications.cachelistener.event.CacheEntryCreatedEvent;
+import org.infinispan.notifications.cachelistener.event.CacheEntryExpiredEvent;
+import org.infinispan.notifications.cachelistener.event.CacheEntryInvalidatedEvent;
 import org.infinispan.notifications.cachelistener.event.CacheEntryModifiedEvent;
 import org.infinispan.notifications.cachelistener.event.CacheEntryRemovedEvent;
+import org.infinispan.notifications.cachelistener.event.DataRehashedEvent;
 
 import java.io.Externalizable;
 import java.io.IOException;
@@ -58,7 +67,9 @@ import java.io.ObjectOutput;
 import java.io.Serializable;
 import java.security.PrivilegedAction;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -67,6 +78,8 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 /**
  * @author <a href="mailto:nfilotto@exoplatform.com">Nicolas Filotto</a>
@@ -83,9 +96,17 @@ public class DistributedExoCache<K extends Serializable, V> implements ExoCache<
 
    public static final String CACHE_NAME = "eXoCache";
 
-   private final AtomicInteger hits = new AtomicInteger(0);
+   /**
+    * The default minimum amount of milliseconds between two computations of the exact size of a cache
+    */
+   public static final long DEFAULT_EXACT_SIZE_INTERVAL = 60000L;
+
+   /**
+    * The default amount of entries retrieved at once from a node while selecting entries
+    */
+   public static final int DEFAULT_SELECT_BATCH_SIZE = 1000;
 
-   private final AtomicInteger misses = new AtomicInteger(0);
+   private final CacheStatistics statistics = new CacheStatistics();
 
    private String label;
 
@@ -103,13 +124,39 @@ public class DistributedExoCache<K extends Serializable, V> implements ExoCache<
    private static final ConcurrentMap<Cache, ConcurrentMap<String, List<ListenerContext>>> ALL_LISTENERS =
       new ConcurrentHashMap<Cache, ConcurrentMap<String, List<ListenerContext>>>();
 
+   @SuppressWarnings("rawtypes")
+   private static final ConcurrentMap<Cache, ConcurrentMap<String, AtomicInteger>> ALL_SIZES =
+      new ConcurrentHashMap<Cache, ConcurrentMap<String, AtomicInteger>>();
+
    protected final AdvancedCache<CacheKey<K>, V> cache;
 
+   /**
+    * The amount of entries of this cache instance stored on the local node
+    */
+   private final AtomicInteger localSize;
+
+   private volatile long exactSizeInterval = DEFAULT_EXACT_SIZE_INTERVAL;
+
+   /**
+    * The last exact size computed, -1 if it has never been computed
+    */
+   private int exactSize = -1;
+
+   private long exactSizeTime;
+
+   private volatile int selectBatchSize = DEFAULT_SELECT_BATCH_SIZE;
+
+   /**
+    * The serializer of the values, if <code>null</code> the values are marshalled by Infinispan
+    */
+   private volatile ValueSerializer serializer;
+
    @SuppressWarnings("unchecked")
    public DistributedExoCache(ExoContainerContext ctx, ExoCacheConfig config, Cache<K, V> cache)
    {
       this.fullName = ctx.getName() + "-" + config.getName();
       this.cache = (AdvancedCache<CacheKey<K>, V>)cache.getAdvancedCache();
+      this.localSize = getLocalSizeCounter(fullName);
       setDistributed(config.isDistributed());
       setLabel(config.getLabel());
       setName(config.getName());
@@ -122,6 +169,66 @@ public class DistributedExoCache<K extends Serializable, V> implements ExoCache<
       return cache;
    }
 
+   /**
+    * Sets the serializer of the values of this cache region. The Infinispan marshaller being shared by all
+    * the regions, the values are stored as a {@link SerializedValue} when a serializer is set.
+    *
+    * @param serializer the serializer of the values, <code>null</code> to let Infinispan marshall them
+    */
+   public void setValueSerializer(ValueSerializer serializer)
+   {
+      this.serializer = serializer;
+   }
+
+   /**
+    * Converts the given value into the value to store into the cache
+    */
+   @SuppressWarnings("unchecked")
+   V encode(V value)
+   {
+      final ValueSerializer serializer = this.serializer;
+      if (serializer == null || value == null)
+      {
+         return value;
+      }
+      try
+      {
+         return (V)new SerializedValue(serializer.serialize(value));
+      }
+      catch (IOException e)
+      {
+         throw new IllegalArgumentException("Cannot serialize the value of type " + value.getClass().getName(), e);
+      }
+   }
+
+   /**
+    * Converts the given stored value into the value of this cache region, the values that have not been
+    * serialized are returned as is. A value that cannot be deserialized is considered as missing.
+    */
+   @SuppressWarnings("unchecked")
+   V decode(Object value)
+   {
+      if (!(value instanceof SerializedValue))
+      {
+         return (V)value;
+      }
+      final ValueSerializer serializer = this.serializer;
+      if (serializer == null)
+      {
+         LOG.warn("No value serializer has been defined for the cache " + name + ", the value is ignored");
+         return null;
+      }
+      try
+      {
+         return (V)serializer.deserialize(((SerializedValue)value).getData());
+      }
+      catch (Exception e)//NOSONAR
+      {
+         LOG.warn("Cannot deserialize a value of the cache " + name + ", the value is ignored", e);
+         return null;
+      }
+   }
+
    /**
     * @return the fullName
     */
@@ -187,6 +294,44 @@ public class DistributedExoCache<K extends Serializable, V> implements ExoCache<
       return listeners;
    }
 
+   /**
+    * Gives the counter of the entries of the given cache instance stored on the local node, the counters
+    * of the underlying cache are maintained by a {@link CacheSizeListener} registered once.
+    */
+   private AtomicInteger getLocalSizeCounter(String fullName)
+   {
+      ConcurrentMap<String, AtomicInteger> sizes = ALL_SIZES.get(cache);
+      if (sizes == null)
+      {
+         sizes = new ConcurrentHashMap<String, AtomicInteger>();
+         ConcurrentMap<String, AtomicInteger> oldValue = ALL_SIZES.putIfAbsent(cache, sizes);
+         if (oldValue == null)
+         {
+            cache.addListener(new CacheSizeListener(sizes));
+         }
+         else
+         {
+            sizes = oldValue;
+         }
+      }
+      return getCounter(sizes, fullName);
+   }
+
+   private static AtomicInteger getCounter(ConcurrentMap<String, AtomicInteger> sizes, String fullName)
+   {
+      AtomicInteger counter = sizes.get(fullName);
+      if (counter == null)
+      {
+         counter = new AtomicInteger();
+         AtomicInteger oldValue = sizes.putIfAbsent(fullName, counter);
+         if (oldValue != null)
+         {
+            counter = oldValue;
+         }
+      }
+      return counter;
+   }
+
    @SuppressWarnings("rawtypes")
    private List<ListenerContext> getListeners(String fullName)
    {
@@ -208,6 +353,7 @@ public class DistributedExoCache<K extends Serializable, V> implements ExoCache<
             MapReduceTask<CacheKey<K>, V, Void, Void> task = new MapReduceTask<CacheKey<K>, V, Void, Void>(cache);
             task.mappedWith(new ClearCacheMapper<K, V>(fullName)).reducedWith(new ClearCacheReducer());
             task.execute();
+            resetLocalCacheSize();
             return null;
          }
 
@@ -227,34 +373,88 @@ public class DistributedExoCache<K extends Serializable, V> implements ExoCache<
       }
       @SuppressWarnings("rawtypes")
       final CacheKey key = new CacheKey<Serializable>(fullName, name);
+      long start = System.nanoTime();
       final V result = SecurityHelper.doPrivilegedAction(new PrivilegedAction<V>()
       {
 
          @Override
          public V run()
          {
-            return cache.get(key);
+            return decode(cache.get(key));
          }
 
       });
+      statistics.recordGet(System.nanoTime() - start);
       if (result == null)
       {
-         misses.incrementAndGet();
+         statistics.onMiss();
       }
       else
       {
-         hits.incrementAndGet();
+         statistics.onHit();
       }
       onGet(key, result);
       return result;
    }
 
+   /**
+    * {@inheritDoc}
+    */
+   public Map<K, V> getAll(Collection<? extends K> names)
+   {
+      if (names == null)
+      {
+         throw new IllegalArgumentException("No null collection accepted");
+      }
+      final Map<CacheKey<K>, K> keys = new HashMap<CacheKey<K>, K>();
+      for (K name : names)
+      {
+         if (name != null)
+         {
+            keys.put(new CacheKey<K>(fullName, name), name);
+         }
+      }
+      Map<K, V> values = new HashMap<K, V>();
+      if (keys.isEmpty())
+      {
+         return values;
+      }
+      // All the keys are retrieved in one operation
+      long start = System.nanoTime();
+      final Map<CacheKey<K>, V> results = SecurityHelper.doPrivilegedAction(new PrivilegedAction<Map<CacheKey<K>, V>>()
+      {
+
+         @Override
+         public Map<CacheKey<K>, V> run()
+         {
+            return cache.getAll(keys.keySet());
+         }
+
+      });
+      statistics.recordGet(System.nanoTime() - start);
+      for (Map.Entry<CacheKey<K>, K> entry : keys.entrySet())
+      {
+         V value = decode(results.get(entry.getKey()));
+         if (value == null)
+         {
+            statistics.onMiss();
+         }
+         else
+         {
+            statistics.onHit();
+            values.put(entry.getValue(), value);
+         }
+         onGet(entry.getKey(), value);
+      }
+      return values;
+   }
+
    /**
     * {@inheritDoc}
     */
    public int getCacheHit()
    {
-      return hits.get();
+      return (int)Math.min(statistics.getHits(), Integer.MAX_VALUE);
    }
 
    /**
@@ -262,13 +462,147 @@ public class DistributedExoCache<K extends Serializable, V> implements ExoCache<
     */
    public int getCacheMiss()
    {
-      return misses.get();
+      return (int)Math.min(statistics.getMisses(), Integer.MAX_VALUE);
    }
 
    /**
     * {@inheritDoc}
+    * The evictions and the expirations are not counted since the underlying cache is shared
+    * by all the instances.
+    */
+   public CacheStatistics getStatistics()
+   {
+      return statistics;
+   }
+
+   /**
+    * {@inheritDoc}
+    * The size is estimated from the amount of entries stored on the local node, it is exact if the cache is
+    * not distributed or if all the nodes own all the entries. Use {@link #getExactCacheSize()} to get the
+    * exact size.
     */
    public int getCacheSize()
+   {
+      long size = getLocalCacheSize();
+      if (cache.getCacheConfiguration().clustering().cacheMode().isDistributed() && cache.getRpcManager() != null)
+      {
+         // Each entry is stored on numOwners nodes out of all the members
+         int members = cache.getRpcManager().getMembers().size();
+         int owners = Math.min(members, cache.getCacheConfiguration().clustering().hash().numOwners());
+         if (owners > 0 && members > owners)
+         {
+            size = size * members / owners;
+         }
+      }
+      return (int)Math.min(size, Integer.MAX_VALUE);
+   }
+
+   /**
+    * @return the amount of entries of this cache instance stored on the local node
+    */
+   @Managed
+   @ManagedName("LocalSize")
+   @ManagedDescription("The amount of entries of the cache stored on the local node")
+   public int getLocalCacheSize()
+   {
+      return Math.max(0, localSize.get());
+   }
+
+   /**
+    * Gives the exact size of this cache instance which is computed thanks to a MapReduce task over the
+    * whole cluster, to limit the load of the cluster the size is computed at most once per
+    * <code>exactSizeInterval</code>, the last computed size is returned otherwise. The amount of entries
+    * stored on the local node is recounted at the same time since the concurrent modifications of an entry
+    * can make it drift.
+    *
+    * @return the exact size of the cache
+    */
+   @Managed
+   @ManagedName("ExactSize")
+   @ManagedDescription("The exact cache size computed over the whole cluster, "
+      + "it is computed at most once per ExactSizeInterval")
+   public synchronized int getExactCacheSize()
+   {
+      long now = System.currentTimeMillis();
+      if (exactSize < 0 || now - exactSizeTime >= exactSizeInterval)
+      {
+         exactSize = computeCacheSize();
+         exactSizeTime = now;
+         SecurityHelper.doPrivilegedAction(new PrivilegedAction<Void>()
+         {
+
+            @Override
+            public Void run()
+            {
+               resetLocalCacheSize();
+               return null;
+            }
+
+         });
+      }
+      return exactSize;
+   }
+
+   @Managed
+   @ManagedName("ExactSizeInterval")
+   @ManagedDescription("The minimum amount of milliseconds between two computations of the exact size")
+   public long getExactSizeInterval()
+   {
+      return exactSizeInterval;
+   }
+
+   /**
+    * @param exactSizeInterval the minimum amount of milliseconds between two computations of the exact size
+    * of the cache, if not positive the exact size is computed at each call
+    */
+   @Managed
+   public void setExactSizeInterval(long exactSizeInterval)
+   {
+      this.exactSizeInterval = exactSizeInterval;
+   }
+
+   @Managed
+   @ManagedName("SelectBatchSize")
+   @ManagedDescription("The amount of entries retrieved at once from a node while selecting entries")
+   public int getSelectBatchSize()
+   {
+      return selectBatchSize;
+   }
+
+   /**
+    * @param selectBatchSize the amount of entries retrieved at once from a node by
+    * {@link #select(CachedObjectSelector)}, it bounds the amount of entries held in memory while selecting
+    */
+   @Managed
+   public void setSelectBatchSize(int selectBatchSize)
+   {
+      if (selectBatchSize <= 0)
+      {
+         throw new IllegalArgumentException("The batch size must be positive");
+      }
+      this.selectBatchSize = selectBatchSize;
+   }
+
+   /**
+    * Recounts the entries of this cache instance stored on the local node
+    */
+   private void resetLocalCacheSize()
+   {
+      int size = 0;
+      for (InternalCacheEntry<CacheKey<K>, V> entry : cache.getDataContainer())
+      {
+         if (fullName.equals(entry.getKey().getFullName()))
+         {
+            size++;
+         }
+      }
+      localSize.set(size);
+   }
+
+   /**
+    * Computes the size of this cache instance over the whole cluster
+    */
+   private int computeCacheSize()
    {
       Map<String, Integer> map = SecurityHelper.doPrivilegedAction(new PrivilegedAction<Map<String, Integer>>()
       {
@@ -313,7 +647,14 @@ public class DistributedExoCache<K extends Serializable, V> implements ExoCache<
       List<V> result = new ArrayList<V>();
       for (List<V> vals : map.values())
       {
-         result.addAll(vals);
+         for (V val : vals)
+         {
+            V value = decode(val);
+            if (value != null)
+            {
+               result.add(value);
+            }
+         }
       }
       return result;
    }
@@ -383,6 +724,7 @@ public class DistributedExoCache<K extends Serializable, V> implements ExoCache<
          }
 
       });
+      statistics.onPut();
       onPut(key, value);
    }
 
@@ -391,7 +733,7 @@ public class DistributedExoCache<K extends Serializable, V> implements ExoCache<
     */
    protected void putOnly(K key, V value)
    {
-      cache.withFlags(Flag.SKIP_REMOTE_LOOKUP, Flag.IGNORE_RETURN_VALUES).put(new CacheKey<K>(fullName, key), value);
+      cache.withFlags(Flag.SKIP_REMOTE_LOOKUP, Flag.IGNORE_RETURN_VALUES).put(new CacheKey<K>(fullName, key), encode(value));
    }
 
    /**
@@ -425,10 +767,11 @@ public class DistributedExoCache<K extends Serializable, V> implements ExoCache<
                Map<CacheKey<K>, V> map = new LinkedHashMap<CacheKey<K>, V>();
                for (Map.Entry<? extends K, ? extends V> entry : objs.entrySet())
                {
-                  map.put(new CacheKey<K>(fullName, entry.getKey()), entry.getValue());
+                  map.put(new CacheKey<K>(fullName, entry.getKey()), encode(entry.getValue()));
                }
                cache.putAll(map);
                cache.endBatch(true);
+               statistics.onPuts(map.size());
                // End transaction
                for (Map.Entry<? extends K, ? extends V> entry : objs.entrySet())
                {
@@ -462,7 +805,7 @@ public class DistributedExoCache<K extends Serializable, V> implements ExoCache<
          @Override
          public V run()
          {
-            return cache.remove(key);
+            return decode(cache.remove(key));
          }
       });
       onRemove(key, result);
@@ -488,44 +831,58 @@ public class DistributedExoCache<K extends Serializable, V> implements ExoCache<
       {
          throw new IllegalArgumentException("No null selector");
       }
-      Map<K, V> map = SecurityHelper.doPrivilegedAction(new PrivilegedAction<Map<K, V>>()
-      {
-
-         @Override
-         public Map<K, V> run()
+      // The entries of the other cache instances are filtered out by the owners and the matching entries
+      // are retrieved by batches while they are iterated
+      final Stream<Map.Entry<CacheKey<K>, V>> stream =
+         SecurityHelper.doPrivilegedAction(new PrivilegedAction<Stream<Map.Entry<CacheKey<K>, V>>>()
          {
-            MapReduceTask<CacheKey<K>, V, K, V> task = new MapReduceTask<CacheKey<K>, V, K, V>(cache);
-            task.mappedWith(new GetEntriesMapper<K, V>(fullName)).reducedWith(new GetEntriesReducer<K, V>());
-            return task.execute();
-         }
 
-      });
+            @Override
+            public Stream<Map.Entry<CacheKey<K>, V>> run()
+            {
+               return cache.entrySet().stream().distributedBatchSize(selectBatchSize)
+                  .filter(new CacheKeyFilter<K, V>(fullName));
+            }
 
-      for (K key : map.keySet())
+         });
+      try
       {
-         if (key == null)
-         {
-            continue;
-         }
-         final V value = map.get(key);
-         ObjectCacheInfo<V> info = new ObjectCacheInfo<V>()
+         for (Iterator<Map.Entry<CacheKey<K>, V>> it = stream.iterator(); it.hasNext();)
          {
-            public V get()
+            Map.Entry<CacheKey<K>, V> entry = it.next();
+            K key = entry.getKey().getKey();
+            if (key == null)
             {
-               return value;
+               continue;
             }
+            final V value = decode(entry.getValue());
+            if (value == null)
+            {
+               continue;
+            }
+            ObjectCacheInfo<V> info = new ObjectCacheInfo<V>()
+            {
+               public V get()
+               {
+                  return value;
+               }
 
-            public long getExpireTime()
+               public long getExpireTime()
+               {
+                  // Cannot know: The expire time is managed by Infinispan itself
+                  return -1;
+               }
+            };
+            if (selector.select(key, info))
             {
-               // Cannot know: The expire time is managed by Infinispan itself
-               return -1;
+               selector.onSelect(this, key, info);
             }
-         };
-         if (selector.select(key, info))
-         {
-            selector.onSelect(this, key, info);
          }
       }
+      finally
+      {
+         stream.close();
+      }
    }
 
    /**
@@ -742,16 +1099,111 @@ public class DistributedExoCache<K extends Serializable, V> implements ExoCache<
       }
    }
 
+   /**
+    * Maintains the amount of entries of each cache instance stored on the local node.
+    */
+   @Listener
+   public static class CacheSizeListener
+   {
+      private final ConcurrentMap<String, AtomicInteger> sizes;
+
+      CacheSizeListener(ConcurrentMap<String, AtomicInteger> sizes)
+      {
+         this.sizes = sizes;
+      }
+
+      private void add(Object key, int delta)
+      {
+         if (key instanceof CacheKey)
+         {
+            getCounter(sizes, ((CacheKey<?>)key).getFullName()).addAndGet(delta);
+         }
+      }
+
+      @CacheEntryCreated
+      public void cacheEntryCreated(CacheEntryCreatedEvent<?, ?> evt)
+      {
+         if (!evt.isPre())
+         {
+            add(evt.getKey(), 1);
+         }
+      }
+
+      @CacheEntryRemoved
+      public void cacheEntryRemoved(CacheEntryRemovedEvent<?, ?> evt)
+      {
+         // An event is also triggered when a missing entry is removed
+         if (!evt.isPre() && evt.getOldValue() != null)
+         {
+            add(evt.getKey(), -1);
+         }
+      }
+
+      @CacheEntryExpired
+      public void cacheEntryExpired(CacheEntryExpiredEvent<?, ?> evt)
+      {
+         add(evt.getKey(), -1);
+      }
+
+      @CacheEntriesEvicted
+      public void cacheEntriesEvicted(CacheEntriesEvictedEvent<?, ?> evt)
+      {
+         for (Object key : evt.getEntries().keySet())
+         {
+            add(key, -1);
+         }
+      }
+
+      @CacheEntryInvalidated
+      public void cacheEntryInvalidated(CacheEntryInvalidatedEvent<?, ?> evt)
+      {
+         // The L1 entries and the entries that are not owned anymore are invalidated
+         if (!evt.isPre() && evt.getValue() != null)
+         {
+            add(evt.getKey(), -1);
+         }
+      }
+
+      @DataRehashed
+      public void dataRehashed(DataRehashedEvent<?, ?> evt)
+      {
+         // The segments that leave the local node are not notified entry by entry so everything is recounted
+         if (!evt.isPre())
+         {
+            recount(evt.getCache().getAdvancedCache());
+         }
+      }
+
+      private void recount(AdvancedCache<?, ?> cache)
+      {
+         Map<String, Integer> counts = new HashMap<String, Integer>();
+         for (InternalCacheEntry<?, ?> entry : cache.getDataContainer())
+         {
+            if (entry.getKey() instanceof CacheKey)
+            {
+               String name = ((CacheKey<?>)entry.getKey()).getFullName();
+               Integer count = counts.get(name);
+               counts.put(name, count == null ? 1 : count + 1);
+            }
+         }
+         for (Map.Entry<String, AtomicInteger> entry : sizes.entrySet())
+         {
+            Integer count = counts.get(entry.getKey());
+            entry.getValue().set(count == null ? 0 : count);
+         }
+      }
+   }
+
    private static class ListenerContext<K extends Serializable, V> implements CacheListenerContext, CacheInfo
    {
 
       /** . */
-      private final ExoCache<K, V> cache;
+      private final DistributedExoCache<K, V> cache;
 
       /** . */
       final CacheListener<? super K, ? super V> listener;
 
-      public ListenerContext(CacheListener<? super K, ? super V> listener, ExoCache<K, V> cache)
+      public ListenerContext(CacheListener<? super K, ? super V> listener, DistributedExoCache<K, V> cache)
       {
          this.listener = listener;
          this.cache = cache;
@@ -782,24 +1234,24 @@ public class DistributedExoCache<K extends Serializable, V> implements ExoCache<
          return cache.getCacheSize();
       }
 
-      void onExpire(K key, V obj) throws Exception
+      void onExpire(K key, Object obj) throws Exception
       {
-         listener.onExpire(this, key, obj);
+         listener.onExpire(this, key, cache.decode(obj));
       }
 
-      void onRemove(K key, V obj) throws Exception
+      void onRemove(K key, Object obj) throws Exception
       {
-         listener.onRemove(this, key, obj);
+         listener.onRemove(this, key, cache.decode(obj));
       }
 
-      void onPut(K key, V obj) throws Exception
+      void onPut(K key, Object obj) throws Exception
       {
-         listener.onPut(this, key, obj);
+         listener.onPut(this, key, cache.decode(obj));
       }
 
-      void onGet(K key, V obj) throws Exception
+      void onGet(K key, Object obj) throws Exception
       {
-         listener.onGet(this, key, obj);
+         listener.onGet(this, key, cache.decode(obj));
       }
 
       void onClearCache() throws Exception
@@ -851,6 +1303,51 @@ public class DistributedExoCache<K extends Serializable, V> implements ExoCache<
       return cache.getCacheConfiguration().expiration().wakeUpInterval();
    }
 
+   /**
+    * The holder of a value serialized by the {@link ValueSerializer} of its cache region.
+    */
+   public static class SerializedValue implements Externalizable
+   {
+      private static final long serialVersionUID = -4668220604481343686L;
+
+      private byte[] data;
+
+      public SerializedValue()
+      {
+      }
+
+      public SerializedValue(byte[] data)
+      {
+         this.data = data;
+      }
+
+      /**
+       * @return the serialized value
+       */
+      byte[] getData()
+      {
+         return data;
+      }
+
+      /**
+       * @see java.io.Externalizable#writeExternal(java.io.ObjectOutput)
+       */
+      public void writeExternal(ObjectOutput out) throws IOException
+      {
+         out.writeInt(data.length);
+         out.write(data);
+      }
+
+      /**
+       * @see java.io.Externalizable#readExternal(java.io.ObjectInput)
+       */
+      public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException
+      {
+         data = new byte[in.readInt()];
+         in.readFully(data);
+      }
+   }
+
    public static class CacheKey<K> implements Externalizable
    {
       private K key;
@@ -1012,6 +1509,60 @@ public class DistributedExoCache<K extends Serializable, V> implements ExoCache<
       }
    }
 
+   /**
+    * Keeps only the entries of a given cache instance, it is evaluated by the owners of the entries.
+    */
+   public static class CacheKeyFilter<K, V> implements Predicate<Map.Entry<CacheKey<K>, V>>, Externalizable
+   {
+      /**
+       * The serial version UID
+       */
+      private static final long serialVersionUID = 3390571643824092757L;
+
+      /**
+       * The full name of the cache instance
+       */
+      private String fullName;
+
+      public CacheKeyFilter()
+      {
+      }
+
+      public CacheKeyFilter(String fullName)
+      {
+         this.fullName = fullName;
+      }
+
+      /**
+       * {@inheritDoc}
+       */
+      @Override
+      public boolean test(Map.Entry<CacheKey<K>, V> entry)
+      {
+         return fullName.equals(entry.getKey().getFullName());
+      }
+
+      /**
+       * @see java.io.Externalizable#writeExternal(java.io.ObjectOutput)
+       */
+      public void writeExternal(ObjectOutput out) throws IOException
+      {
+         byte[] buf = fullName.getBytes("UTF-8");
+         out.writeInt(buf.length);
+         out.write(buf);
+      }
+
+      /**
+       * @see java.io.Externalizable#readExternal(java.io.ObjectInput)
+       */
+      public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException
+      {
+         byte[] buf = new byte[in.readInt()];
+         in.readFully(buf);
+         fullName = new String(buf, "UTF-8");
+      }
+   }
+
    public static class GetSizeMapper<K, V> extends AbstractExoCacheMapper<K, V, String, Integer>
    {
 
@@ -1159,43 +1710,4 @@ public class DistributedExoCache<K extends Serializable, V> implements ExoCache<
          return null;
       }
    }
-
-   public static class GetEntriesMapper<K, V> extends AbstractExoCacheMapper<K, V, K, V>
-   {
-      public GetEntriesMapper()
-      {
-      }
-
-      public GetEntriesMapper(String fullName)
-      {
-         super(fullName);
-      }
-
-      /**
-       * {@inheritDoc}
-       */
-      @Override
-      protected void _map(CacheKey<K> key, V value, Collector<K, V> collector)
-      {
-         collector.emit(key.getKey(), value);
-      }
-   }
-
-   public static class GetEntriesReducer<K, V> implements Reducer<K, V>
-   {
-
-      /**
-       * The serial version UID
-       */
-      private static final long serialVersionUID = 5153826700048219537L;
-
-      /**
-       * @see org.infinispan.distexec.mapreduce.Reducer#reduce(java.lang.Object, java.util.Iterator)
-       */
-      @Override
-      public V reduce(K reducedKey, Iterator<V> iter)
-      {
-         return iter == null || !iter.hasNext() ? null : iter.next();
-      }
-   }
 }
\ No newline at end of file
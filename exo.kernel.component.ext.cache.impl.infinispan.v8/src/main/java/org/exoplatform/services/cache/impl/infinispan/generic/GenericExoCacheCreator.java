@@ -26,9 +26,12 @@ import org.exoplatform.services.cache.ExoCacheConfig;
 import org.exoplatform.services.cache.ExoCacheInitException;
 import org.exoplatform.services.cache.impl.infinispan.AbstractExoCache;
 import org.exoplatform.services.cache.impl.infinispan.ExoCacheCreator;
+import org.exoplatform.services.log.ExoLogger;
+import org.exoplatform.services.log.Log;
 import org.infinispan.Cache;
 import org.infinispan.configuration.cache.ConfigurationBuilder;
 import org.infinispan.eviction.EvictionStrategy;
+import org.infinispan.eviction.EvictionType;
 
 import java.io.Serializable;
 import java.util.Locale;
@@ -45,6 +48,11 @@ import java.util.concurrent.Callable;
 public class GenericExoCacheCreator implements ExoCacheCreator
 {
 
+   /**
+    * The logger
+    */
+   private static final Log LOG = ExoLogger.getLogger(GenericExoCacheCreator.class);
+
    /**
     * The default value for the eviction strategy
     */
@@ -92,14 +100,15 @@ public class GenericExoCacheCreator implements ExoCacheCreator
          final GenericExoCacheConfig gConfig = (GenericExoCacheConfig)config;
          return create(config, confBuilder, cacheGetter, gConfig.getStrategy(), gConfig.getMaxSize(),
             gConfig.getLiveTime(), gConfig.getMaxIdle() == 0 ? defaultMaxIdle : gConfig.getMaxIdle(),
-            gConfig.getWakeUpInterval() == 0 ? defaultWakeUpInterval : gConfig.getWakeUpInterval());
+            gConfig.getWakeUpInterval() == 0 ? defaultWakeUpInterval : gConfig.getWakeUpInterval(),
+            gConfig.getMaxWeight());
       }
       else
       {
          final long period = config.getLiveTime();
          return create(config, confBuilder, cacheGetter,
             config.getImplementation() == null ? defaultStrategy : config.getImplementation(), config.getMaxSize(),
-            period > 0 ? period * 1000 : -1, defaultMaxIdle, defaultWakeUpInterval);
+            period > 0 ? period * 1000 : -1, defaultMaxIdle, defaultWakeUpInterval, config.getMaxWeight());
       }
    }
 
@@ -109,7 +118,7 @@ public class GenericExoCacheCreator implements ExoCacheCreator
     */
    private ExoCache<Serializable, Object> create(ExoCacheConfig config, ConfigurationBuilder confBuilder,
       Callable<Cache<Serializable, Object>> cacheGetter, String strategy, int maxEntries, long lifespan, long maxIdle,
-      long wakeUpInterval) throws ExoCacheInitException
+      long wakeUpInterval, long maxWeight) throws ExoCacheInitException
    {
       EvictionStrategy es =
          strategy == null || strategy.length() == 0 ? null : EvictionStrategy.valueOf(strategy
@@ -118,8 +127,25 @@ public class GenericExoCacheCreator implements ExoCacheCreator
       {
          es = EvictionStrategy.LRU;
       }
-      confBuilder.eviction().strategy(EvictionStrategy.valueOf(strategy)).maxEntries(maxEntries).expiration()
-         .lifespan(lifespan).maxIdle(maxIdle).wakeUpInterval(wakeUpInterval);
+      if (maxWeight > 0)
+      {
+         // The cache is bounded by the approximate amount of memory used by its entries, the weigher
+         // of the configuration cannot be used as the approximation is computed by infinispan itself
+         if (es == EvictionStrategy.LIRS)
+         {
+            LOG.warn("The eviction strategy LIRS cannot be used with a max weight, LRU will be used instead for the cache '"
+               + config.getName() + "'");
+            es = EvictionStrategy.LRU;
+         }
+         confBuilder.eviction().strategy(es).type(EvictionType.MEMORY).size(maxWeight);
+         // The memory approximation requires the entries to be stored in binary format
+         confBuilder.storeAsBinary().enable();
+      }
+      else
+      {
+         confBuilder.eviction().strategy(es).type(EvictionType.COUNT).maxEntries(maxEntries);
+      }
+      confBuilder.expiration().lifespan(lifespan).maxIdle(maxIdle).wakeUpInterval(wakeUpInterval);
       try
       {
          return new GenericExoCache(config, cacheGetter.call());
@@ -153,9 +179,27 @@ public class GenericExoCacheCreator implements ExoCacheCreator
 
       public int getMaxSize()
       {
+         if (cache.getCacheConfiguration().eviction().type() == EvictionType.MEMORY)
+         {
+            // The cache is bounded by its weight
+            return -1;
+         }
          return Math.toIntExact(cache.getCacheConfiguration().eviction().maxEntries());
       }
 
+      @Managed
+      @ManagedName("MaxWeight")
+      @ManagedDescription("The approximate maximum amount of bytes used by the entries of a cache instance. "
+         + "-1 means that the cache is bounded by its amount of entries.")
+      public long getMaxWeight()
+      {
+         if (cache.getCacheConfiguration().eviction().type() == EvictionType.MEMORY)
+         {
+            return cache.getCacheConfiguration().eviction().size();
+         }
+         return -1;
+      }
+
       public long getLiveTime()
       {
          return cache.getCacheConfiguration().expiration().lifespan();
@@ -26,6 +26,7 @@ import org.exoplatform.container.configuration.ConfigurationManager;
 import org.exoplatform.services.cache.CacheListener;
 import org.exoplatform.services.cache.CacheListenerContext;
 import org.exoplatform.services.cache.CacheService;
+import org.exoplatform.services.cache.CacheStatistics;
 import org.exoplatform.services.cache.CachedObjectSelector;
 import org.exoplatform.services.cache.ExoCache;
 import org.exoplatform.services.cache.ExoCacheConfig;
@@ -35,6 +36,7 @@ import org.exoplatform.services.cache.ObjectCacheInfo;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashSet;
@@ -81,6 +83,19 @@ public class TestAbstractExoCache extends TestCase
       cache.clearCache();
    }
 
+   public void testGetAll() throws Exception
+   {
+      cache.put(new MyKey("a"), "a");
+      cache.put(new MyKey("b"), "b");
+      Map<Serializable, Object> values = cache.getAll(Arrays.asList(new MyKey("a"), new MyKey("b"), new MyKey("x")));
+      assertEquals(2, values.size());
+      assertEquals("a", values.get(new MyKey("a")));
+      assertEquals("b", values.get(new MyKey("b")));
+      assertTrue(cache.getAll(Collections.<Serializable> emptyList()).isEmpty());
+
+      cache.clearCache();
+   }
+
    public void testRemove() throws Exception
    {
       cache.put(new MyKey("a"), 1);
@@ -217,6 +232,30 @@ public class TestAbstractExoCache extends TestCase
       cache.clearCache();
    }
 
+   public void testStatistics() throws Exception
+   {
+      cache.resetStatistics();
+      CacheStatistics statistics = cache.getStatistics();
+      cache.put(new MyKey("a"), "a");
+      Map<Serializable, Object> values = new HashMap<Serializable, Object>();
+      values.put(new MyKey("b"), "b");
+      values.put(new MyKey("c"), "c");
+      cache.putMap(values);
+      cache.get(new MyKey("a"));
+      cache.get(new MyKey("z"));
+      cache.getAll(Arrays.asList(new MyKey("b"), new MyKey("c"), new MyKey("y")));
+      assertEquals(3, statistics.getPuts());
+      assertEquals(3, statistics.getHits());
+      assertEquals(2, statistics.getMisses());
+      assertEquals(3, statistics.getGetLatency().getCount());
+      assertEquals(Long.valueOf(3), cache.getStatisticsSnapshot().get("hits"));
+      cache.resetStatistics();
+      assertEquals(0, cache.getCacheHit());
+      assertEquals(0, statistics.getPuts());
+
+      cache.clearCache();
+   }
+
    private ExoCacheFactory getExoCacheFactoryInstance() throws ExoCacheInitException
    {
       PortalContainer pc = PortalContainer.getInstance();
@@ -674,5 +713,118 @@ public class TestAbstractExoCache extends TestCase
       assertTrue(cache.getCacheSize() == 0);
 
       cache.clearCache();
-   }   
+   }
+
+   public void testWriteBehind() throws Exception
+   {
+      cache.setWriteBehind(60000, 4, 2);
+      try
+      {
+         assertEquals(60000, cache.getWriteBehindInterval());
+         cache.put(new MyKey("a"), "a");
+         cache.put(new MyKey("a"), "a2");
+         // The pending writes are visible locally
+         assertEquals(0, cache.getCacheSize());
+         assertEquals("a2", cache.get(new MyKey("a")));
+         assertEquals("a2", cache.getAll(Arrays.asList(new MyKey("a"))).get(new MyKey("a")));
+         Map<String, Long> statistics = cache.getWriteBehindStatistics();
+         assertEquals(1L, (long)statistics.get("depth"));
+         assertEquals(1L, (long)statistics.get("coalesced"));
+
+         // A removal discards the pending write
+         assertEquals("a2", cache.remove(new MyKey("a")));
+         assertNull(cache.get(new MyKey("a")));
+         cache.flushWriteBehind();
+         assertEquals(0, cache.getCacheSize());
+
+         // A full batch is written without waiting for the end of the interval
+         cache.put(new MyKey("b"), "b");
+         cache.put(new MyKey("c"), "c");
+         for (int i = 0; i < 50 && cache.getCacheSize() < 2; i++)
+         {
+            Thread.sleep(100);
+         }
+         assertEquals(2, cache.getCacheSize());
+         assertEquals("b", cache.cache.get(new MyKey("b")));
+
+         Map<Serializable, Object> values = new HashMap<Serializable, Object>();
+         values.put(new MyKey("d"), "d");
+         cache.putMap(values);
+         assertEquals("d", cache.get(new MyKey("d")));
+         cache.flushWriteBehind();
+         assertEquals("d", cache.cache.get(new MyKey("d")));
+         statistics = cache.getWriteBehindStatistics();
+         assertEquals(0L, (long)statistics.get("depth"));
+         assertEquals(3L, (long)statistics.get("writes"));
+         assertEquals(0L, (long)statistics.get("failures"));
+      }
+      finally
+      {
+         cache.setWriteBehind(0, 0, 0);
+         cache.clearCache();
+      }
+      assertEquals(0, cache.getWriteBehindInterval());
+      assertTrue(cache.getWriteBehindStatistics().isEmpty());
+   }
+
+   public void testWriteBehindDirectWrites() throws Exception
+   {
+      cache.setWriteBehind(60000, 4, 4);
+      try
+      {
+         // A local put discards the pending write so that it cannot be overridden by it
+         cache.put(new MyKey("a"), "a");
+         cache.putLocal(new MyKey("a"), "a2");
+         assertEquals(0L, (long)cache.getWriteBehindStatistics().get("depth"));
+         cache.flushWriteBehind();
+         assertEquals("a2", cache.get(new MyKey("a")));
+
+         // The asynchronous bulk puts go through the queue
+         Map<Serializable, Object> values = new HashMap<Serializable, Object>();
+         values.put(new MyKey("b"), "b");
+         cache.putAsyncMap(values);
+         assertEquals(1L, (long)cache.getWriteBehindStatistics().get("depth"));
+         assertEquals("b", cache.get(new MyKey("b")));
+
+         // The pending writes are written when the write-behind mode is disabled
+         cache.setWriteBehind(0, 0, 0);
+         assertEquals("b", cache.cache.get(new MyKey("b")));
+      }
+      finally
+      {
+         cache.setWriteBehind(0, 0, 0);
+         cache.clearCache();
+      }
+   }
+
+   public void testWriteBehindBackPressure() throws Exception
+   {
+      cache.setWriteBehind(60000, 4, 4);
+      try
+      {
+         for (int i = 0; i < 3; i++)
+         {
+            cache.put(new MyKey("k" + i), "v" + i);
+         }
+         assertEquals(0, cache.getCacheSize());
+         for (int i = 3; i < 10; i++)
+         {
+            cache.put(new MyKey("k" + i), "v" + i);
+         }
+         cache.flushWriteBehind();
+         assertEquals(10, cache.getCacheSize());
+         for (int i = 0; i < 10; i++)
+         {
+            assertEquals("v" + i, cache.get(new MyKey("k" + i)));
+         }
+         Map<String, Long> statistics = cache.getWriteBehindStatistics();
+         assertTrue(statistics.get("maxDepth") <= 4);
+         assertEquals(10L, (long)statistics.get("writes"));
+      }
+      finally
+      {
+         cache.setWriteBehind(0, 0, 0);
+         cache.clearCache();
+      }
+   }
 }
@@ -25,6 +25,7 @@ import org.exoplatform.services.cache.CacheService;
 import org.exoplatform.services.cache.ExoCache;
 import org.exoplatform.services.cache.impl.infinispan.TestExoCacheCreator.TestExoCache;
 import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.eviction.EvictionType;
 import org.infinispan.manager.CacheContainer;
 
 /**
@@ -82,6 +83,27 @@ public class TestExoCacheFactoryImpl extends TestCase
       assertTrue("expect an instance of TestExoCache", cache instanceof TestExoCache);
    }
 
+   public void testMaxWeight()
+   {
+      ExoCache cache = service_.getCacheInstance("test-max-weight");
+      assertTrue("expect an instance of AbstractExoCache", cache instanceof AbstractExoCache);
+      AbstractExoCache aCache = (AbstractExoCache)cache;
+      assertEquals(EvictionType.MEMORY, aCache.cache.getCacheConfiguration().eviction().type());
+      assertEquals(1048576, aCache.cache.getCacheConfiguration().eviction().size());
+      assertEquals(-1, cache.getMaxSize());
+      for (int i = 0; i < 100; i++)
+      {
+         cache.put("key" + i, "value" + i);
+      }
+      assertEquals("value99", cache.get("key99"));
+      aCache.cache.stop();
+      cache = service_.getCacheInstance("test-default-impl");
+      aCache = (AbstractExoCache)cache;
+      assertEquals(EvictionType.COUNT, aCache.cache.getCacheConfiguration().eviction().type());
+      assertEquals(5, cache.getMaxSize());
+      aCache.cache.stop();
+   }
+
    public void testSameCacheManager()
    {
       ExoCache cache1 = service_.getCacheInstance("myCustomCache");
@@ -27,9 +27,11 @@ import org.exoplatform.services.cache.CacheListener;
 import org.exoplatform.services.cache.CacheListenerContext;
 import org.exoplatform.services.cache.CacheService;
 import org.exoplatform.services.cache.CachedObjectSelector;
+import org.exoplatform.services.cache.CompactValueSerializer;
 import org.exoplatform.services.cache.ExoCache;
 import org.exoplatform.services.cache.ExoCacheConfig;
 import org.exoplatform.services.cache.ExoCacheFactory;
+import org.exoplatform.services.cache.ExpireKeyStartWithSelector;
 import org.exoplatform.services.cache.ObjectCacheInfo;
 import org.exoplatform.services.cache.impl.infinispan.ExoCacheFactoryImpl;
 import org.exoplatform.services.ispn.DistributedCacheManager;
@@ -43,6 +45,7 @@ import org.junit.Test;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashSet;
@@ -78,6 +81,7 @@ public class TestDistributedExoCache extends TestCase
       this.service = (CacheService)PortalContainer.getInstance().getComponentInstanceOfType(CacheService.class);
       this.cache = (DistributedExoCache<Serializable, Object>)service.getCacheInstance("cache-distributed");
       this.cache2 = (DistributedExoCache<Serializable, Object>)service.getCacheInstance("cache-distributed2");
+      cache.setExactSizeInterval(0);
       cache2.put(new MyKey("a"), "a");
    }
 
@@ -99,6 +103,27 @@ public class TestDistributedExoCache extends TestCase
       assertEquals(4, cache.getCacheSize());
    }
 
+   public void testGetCacheSize() throws Exception
+   {
+      cache.put(new MyKey("a"), "a");
+      cache.put(new MyKey("b"), "b");
+      cache.put(new MyKey("c"), "c");
+      assertEquals(3, cache.getLocalCacheSize());
+      assertEquals(3, cache.getCacheSize());
+      assertEquals(1, cache2.getCacheSize());
+      cache.remove(new MyKey("a"));
+      assertEquals(2, cache.getCacheSize());
+      assertEquals(2, cache.getExactCacheSize());
+      cache.setExactSizeInterval(60000);
+      cache.put(new MyKey("d"), "d");
+      // The exact size cannot be computed again so soon
+      assertEquals(2, cache.getExactCacheSize());
+      assertEquals(3, cache.getCacheSize());
+      cache.clearCache();
+      assertEquals(0, cache.getCacheSize());
+      assertEquals(1, cache2.getCacheSize());
+   }
+
    public void testClearCache() throws Exception
    {
       cache.put(new MyKey("a"), "a");
@@ -120,6 +145,17 @@ public class TestDistributedExoCache extends TestCase
       assertEquals(null, cache.get(new MyKey("x")));
    }
 
+   public void testGetAll() throws Exception
+   {
+      cache.put(new MyKey("a"), "a");
+      cache.put(new MyKey("b"), "b");
+      Map<Serializable, Object> values = cache.getAll(Arrays.asList(new MyKey("a"), new MyKey("b"), new MyKey("x")));
+      assertEquals(2, values.size());
+      assertEquals("a", values.get(new MyKey("a")));
+      assertEquals("b", values.get(new MyKey("b")));
+      assertTrue(cache.getAll(Collections.<Serializable> emptyList()).isEmpty());
+   }
+
    public void testRemove() throws Exception
    {
       cache.put(new MyKey("a"), 1);
@@ -231,6 +267,28 @@ public class TestDistributedExoCache extends TestCase
       assertEquals(3, count.intValue());
    }
 
+   public void testSelectByBatches() throws Exception
+   {
+      for (int i = 0; i < 25; i++)
+      {
+         cache.put("key" + i, i);
+      }
+      cache.put("other", -1);
+      cache.setSelectBatchSize(4);
+      try
+      {
+         cache.select(new ExpireKeyStartWithSelector<Serializable, Object>("key"));
+      }
+      finally
+      {
+         cache.setSelectBatchSize(DistributedExoCache.DEFAULT_SELECT_BATCH_SIZE);
+      }
+      assertEquals(1, cache.getExactCacheSize());
+      assertEquals(-1, cache.get("other"));
+      // The other cache instances are not impacted
+      assertEquals("a", cache2.get(new MyKey("a")));
+   }
+
    public void testGetHitsNMisses() throws Exception
    {
       int hits = cache.getCacheHit();
@@ -244,6 +302,79 @@ public class TestDistributedExoCache extends TestCase
       assertEquals(2, cache.getCacheMiss() - misses);
    }
 
+   @SuppressWarnings("unchecked")
+   public void testValueSerializer() throws Exception
+   {
+      PortalContainer pc = PortalContainer.getInstance();
+      ExoCacheConfig config = new ExoCacheConfig();
+      config.setName("MyCacheSerialized");
+      config.setDistributed(true);
+      config.setValueSerializer(CompactValueSerializer.class.getName());
+      config.setCompressionThreshold(64);
+      DistributedExoCache<Serializable, Object> cache3 =
+         (DistributedExoCache<Serializable, Object>)((ExoCacheFactory)pc
+            .getComponentInstanceOfType(ExoCacheFactory.class)).createCache(config);
+      MyCacheListener listener = new MyCacheListener();
+      cache3.addCacheListener(listener);
+      try
+      {
+         StringBuilder large = new StringBuilder();
+         for (int i = 0; i < 100; i++)
+         {
+            large.append("value");
+         }
+         cache3.put(new MyKey("a"), "a");
+         cache3.put(new MyKey("b"), large.toString());
+         cache3.put(new MyKey("c"), new ArrayList<String>(Arrays.asList("x", "y")));
+         assertEquals(3, listener.put);
+
+         // The values are stored serialized
+         Object raw = cache3.getCache().get(new DistributedExoCache.CacheKey<Serializable>(cache3.getFullName(),
+            new MyKey("b")));
+         assertTrue(raw instanceof DistributedExoCache.SerializedValue);
+         assertTrue(((DistributedExoCache.SerializedValue)raw).getData().length < large.length());
+
+         assertEquals("a", cache3.get(new MyKey("a")));
+         assertEquals(large.toString(), cache3.get(new MyKey("b")));
+         assertEquals(Arrays.asList("x", "y"), cache3.get(new MyKey("c")));
+         Map<Serializable, Object> values = cache3.getAll(Arrays.asList(new MyKey("a"), new MyKey("b")));
+         assertEquals("a", values.get(new MyKey("a")));
+         assertEquals(large.toString(), values.get(new MyKey("b")));
+         assertEquals(3, cache3.getCachedObjects().size());
+         assertTrue(cache3.getCachedObjects().contains("a"));
+
+         final Map<Serializable, Object> selected = new HashMap<Serializable, Object>();
+         cache3.select(new CachedObjectSelector<Serializable, Object>()
+         {
+            public void onSelect(ExoCache<? extends Serializable, ? extends Object> cache, Serializable key,
+               ObjectCacheInfo<? extends Object> ocinfo) throws Exception
+            {
+               selected.put(key, ocinfo.get());
+            }
+
+            public boolean select(Serializable key, ObjectCacheInfo<? extends Object> ocinfo)
+            {
+               return true;
+            }
+         });
+         assertEquals(3, selected.size());
+         assertEquals("a", selected.get(new MyKey("a")));
+
+         assertEquals("a", cache3.remove(new MyKey("a")));
+         assertNull(cache3.get(new MyKey("a")));
+         assertEquals(1, listener.remove);
+
+         // The other regions are not impacted
+         cache.put(new MyKey("a"), "a");
+         assertEquals("a", cache.getCache().get(new DistributedExoCache.CacheKey<Serializable>(cache.getFullName(),
+            new MyKey("a"))));
+      }
+      finally
+      {
+         cache3.clearCache();
+      }
+   }
+
    public void testMultiThreading() throws Exception
    {
       final int totalElement = 100;
@@ -358,7 +489,8 @@ public class TestDistributedExoCache extends TestCase
       {
          cache.put(new MyKey("key" + i), "value" + i);
       }
-      assertEquals(totalElement, cache.getCacheSize());
+      // The concurrent modifications of the entries can make the estimated size drift
+      assertEquals(totalElement, cache.getExactCacheSize());
       final CountDownLatch startSignal = new CountDownLatch(1);
       final CountDownLatch doneSignal2 = new CountDownLatch(writer + cleaner);
       for (int i = 0; i < writer; i++)
@@ -559,6 +691,9 @@ public class TestDistributedExoCache extends TestCase
          (DistributedExoCache<Serializable, Object>)new ExoCacheFactoryImpl(
             (ExoContainerContext)pc.getComponentInstanceOfType(ExoContainerContext.class),
             "jar:/conf/portal/cache-configuration-template.xml", null, cm, dcm2).createCache(config);
+      // The entries are spread over 2 nodes so the estimated size is not accurate enough
+      cache1.setExactSizeInterval(0);
+      cache2.setExactSizeInterval(0);
       KeyAffinityService kas1 =
          KeyAffinityServiceFactory.newLocalKeyAffinityService(cache1.getCache(),
             new MyKeyGenerator(cache1.getFullName()), Executors.newSingleThreadExecutor(), 100);
@@ -622,6 +757,16 @@ public class TestDistributedExoCache extends TestCase
       }
    }
 
+   private void assertCacheSize(int expected, DistributedExoCache<Serializable, Object> cache1,
+      DistributedExoCache<Serializable, Object> cache2)
+   {
+      // Each entry is owned by one node out of two so each node estimates the size from half of the entries
+      assertEquals(expected, cache1.getLocalCacheSize() + cache2.getLocalCacheSize());
+      assertEquals(expected, (cache1.getCacheSize() + cache2.getCacheSize()) / 2);
+      assertEquals(expected, cache1.getExactCacheSize());
+      assertEquals(expected, cache2.getExactCacheSize());
+   }
+
    @SuppressWarnings({"unchecked", "rawtypes"})
    private void checkUseCase(DistributedExoCache<Serializable, Object> cache1,
       DistributedExoCache<Serializable, Object> cache2, DistributionManager dm, Object a, Object b, Object c)
@@ -636,9 +781,9 @@ public class TestDistributedExoCache extends TestCase
       boolean isCLocal = dm.getLocality(new DistributedExoCache.CacheKey(cache1.getFullName(), new MyKey(c))).isLocal();
       MyKey key = new MyKey(a);
       cache1.put(key, "b");
-      assertEquals(1, cache1.getCacheSize());
+      assertEquals(1, cache1.getExactCacheSize());
       assertEquals("b", cache2.get(new MyKey(a)));
-      assertEquals(1, cache2.getCacheSize());
+      assertEquals(1, cache2.getExactCacheSize());
 
       int put1 = 1;
       int put2 = isALocal ? 0 : 1;
@@ -651,8 +796,7 @@ public class TestDistributedExoCache extends TestCase
 
       MyKey key2 = new MyKey(b);
       cache2.put(key2, "c");
-      assertEquals(2, cache1.getCacheSize());
-      assertEquals(2, cache2.getCacheSize());
+      assertCacheSize(2, cache1, cache2);
       assertEquals("c", cache1.get(new MyKey(b)));
 
       put1 += isBLocal ? 1 : 0;
@@ -664,8 +808,7 @@ public class TestDistributedExoCache extends TestCase
       assertEquals(1, listener1.get);
       assertEquals(1, listener2.get);
 
-      assertEquals(2, cache1.getCacheSize());
-      assertEquals(2, cache2.getCacheSize());
+      assertCacheSize(2, cache1, cache2);
 
       assertEquals(put1, listener1.put);
       assertEquals(put2, listener2.put);
@@ -675,8 +818,7 @@ public class TestDistributedExoCache extends TestCase
 
       key = new MyKey(a);
       cache2.put(key, "a");
-      assertEquals(2, cache1.getCacheSize());
-      assertEquals(2, cache2.getCacheSize());
+      assertCacheSize(2, cache1, cache2);
       assertEquals("a", cache1.get(new MyKey(a)));
 
       put1 += isALocal ? 1 : 0;
@@ -690,8 +832,7 @@ public class TestDistributedExoCache extends TestCase
 
       key = new MyKey(a);
       cache2.remove(key);
-      assertEquals(1, cache1.getCacheSize());
-      assertEquals(1, cache2.getCacheSize());
+      assertCacheSize(1, cache1, cache2);
 
       assertEquals(put1, listener1.put);
       assertEquals(put2, listener2.put);
@@ -707,8 +848,7 @@ public class TestDistributedExoCache extends TestCase
 
       key = new MyKey(c);
       cache1.put(key, "c");
-      assertEquals(2, cache1.getCacheSize());
-      assertEquals(2, cache2.getCacheSize());
+      assertCacheSize(2, cache1, cache2);
       assertEquals("c", cache2.get(new MyKey(c)));
 
       put1++;
@@ -727,12 +867,12 @@ public class TestDistributedExoCache extends TestCase
       assertEquals(0, listener2.clearCache);
 
       cache1.clearCache();
-      assertEquals(0, cache1.getCacheSize());
+      assertEquals(0, cache1.getExactCacheSize());
       assertNull(cache1.get(new MyKey(b)));
       assertNull(cache1.get(new MyKey(c)));
       assertNull(cache2.get(new MyKey(b)));
       assertNull(cache2.get(new MyKey(c)));
-      assertEquals(0, cache2.getCacheSize());
+      assertEquals(0, cache2.getExactCacheSize());
 
       assertEquals(put1, listener1.put);
       assertEquals(put2, listener2.put);
@@ -758,13 +898,13 @@ public class TestDistributedExoCache extends TestCase
       values.put(key, "a");
       values.put(key2, "b");
       cache1.putMap(values);
-      assertEquals(2, cache1.getCacheSize());
+      assertEquals(2, cache1.getExactCacheSize());
       Thread.sleep(40);
       assertEquals("a", cache1.get(new MyKey(a)));
       assertEquals("b", cache1.get(new MyKey(b)));
       assertEquals("a", cache2.get(new MyKey(a)));
       assertEquals("b", cache2.get(new MyKey(b)));
-      assertEquals(2, cache2.getCacheSize());
+      assertEquals(2, cache2.getExactCacheSize());
 
       put1 += 2;
       put2 += (isALocal ? 0 : 1) + (isBLocal ? 0 : 1);
@@ -812,8 +952,7 @@ public class TestDistributedExoCache extends TestCase
       values.put(new MyKey("e"), "e");
       values.put(new MyKey("d"), "d");
       cache1.putMap(values);
-      assertEquals(2, cache1.getCacheSize());
-      assertEquals(2, cache2.getCacheSize());
+      assertCacheSize(2, cache1, cache2);
 
       assertEquals(put1, listener1.put);
       assertEquals(put2, listener2.put);
@@ -831,8 +970,7 @@ public class TestDistributedExoCache extends TestCase
       assertEquals(0, listener2.expire);
 
       cache2.clearCache();
-      assertEquals(0, cache1.getCacheSize());
-      assertEquals(0, cache2.getCacheSize());
+      assertCacheSize(0, cache1, cache2);
 
       assertEquals(put1, listener1.put);
       assertEquals(put2, listener2.put);
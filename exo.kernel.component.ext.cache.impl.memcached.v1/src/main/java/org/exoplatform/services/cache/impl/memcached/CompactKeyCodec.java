@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) 2026 eXo Platform SAS.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.exoplatform.services.cache.impl.memcached;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The default {@link KeyCodec}, it keeps the {@link String} keys as they are and encodes the {@link Long},
+ * {@link Integer} and {@link UUID} keys and the composite keys, which are the {@link List} of such keys, as short
+ * tagged strings. The other keys are serialized as done by {@link SerializationKeyCodec} and tagged too. All the
+ * tags start with the character '#', so the {@link String} keys starting with this character are tagged as
+ * well to make sure that two different keys can never have the same encoding.
+ *
+ * @version $Revision$
+ */
+public class CompactKeyCodec extends SerializationKeyCodec
+{
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public String encode(Serializable key)
+   {
+      String value = encodeCompact(key);
+      return value == null ? "#O:" + serialize(key) : value;
+   }
+
+   /**
+    * @return the compact form of the key or <code>null</code> if the key is not supported
+    */
+   private String encodeCompact(Object key)
+   {
+      if (key instanceof String)
+      {
+         String value = (String)key;
+         return value.startsWith("#") ? "#S:" + value : value;
+      }
+      else if (key instanceof Long)
+      {
+         return "#L:" + key;
+      }
+      else if (key instanceof Integer)
+      {
+         return "#I:" + key;
+      }
+      else if (key instanceof UUID)
+      {
+         return "#U:" + key;
+      }
+      else if (key instanceof List)
+      {
+         // Each element is prefixed with its length to keep the encoding unambiguous
+         StringBuilder sb = new StringBuilder("#C:");
+         for (Object element : (List<?>)key)
+         {
+            String value = element == null ? null : encodeCompact(element);
+            if (value == null)
+            {
+               return null;
+            }
+            sb.append(value.length()).append(':').append(value);
+         }
+         return sb.toString();
+      }
+      return null;
+   }
+}
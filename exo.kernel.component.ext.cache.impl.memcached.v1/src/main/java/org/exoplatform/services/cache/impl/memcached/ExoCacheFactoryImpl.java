@@ -66,6 +66,11 @@ public class ExoCacheFactoryImpl implements ExoCacheFactory, Startable
     */
    public static final String MEMCACHED_LOCATIONS = "memcached.locations";
 
+   /**
+    * The parameter key that defines the {@link KeyCodec}
+    */
+   public static final String KEY_CODEC = "key.codec";
+
    /**
     * The parameter key that defines the default expiration timeout
     */
@@ -127,15 +132,30 @@ public class ExoCacheFactoryImpl implements ExoCacheFactory, Startable
          }
       });
 
+      KeyCodec keyCodec = null;
+      ObjectParameter op = params.getObjectParam(KEY_CODEC);
+      if (op == null || op.getObject() == null)
+      {
+         LOG.debug("No key codec has been defined, so we will use the CompactKeyCodec by default");
+      }
+      else if (!(op.getObject() instanceof KeyCodec))
+      {
+         throw new IllegalArgumentException("The parameter '" + KEY_CODEC + "' must refer to a KeyCodec.");
+      }
+      else
+      {
+         keyCodec = (KeyCodec)op.getObject();
+      }
+
       ValueParam vp = params.getValueParam(DEFAULT_EXPIRATION_TIMEOUT);
       if (vp == null || vp.getValue() == null || vp.getValue().isEmpty())
       {
          LOG.debug("No default expiration timeout has been defined");
-         this.cacheCreator = new MCExoCacheCreator(DEFAULT_EXPIRATION_TIMEOUT_VALUE);
+         this.cacheCreator = new MCExoCacheCreator(DEFAULT_EXPIRATION_TIMEOUT_VALUE, keyCodec);
       }
       else
       {
-         this.cacheCreator = new MCExoCacheCreator(Long.parseLong(vp.getValue()));
+         this.cacheCreator = new MCExoCacheCreator(Long.parseLong(vp.getValue()), keyCodec);
       }
    }
 
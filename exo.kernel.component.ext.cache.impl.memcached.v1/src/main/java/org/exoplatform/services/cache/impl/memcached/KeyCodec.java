@@ -0,0 +1,38 @@
+/*
+ * Copyright (C) 2026 eXo Platform SAS.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.exoplatform.services.cache.impl.memcached;
+
+import java.io.Serializable;
+
+/**
+ * This defines the way the cache keys are converted into the names of the memcached keys. Two different
+ * cache keys must not be encoded the same way. The encoded keys that are too long for memcached are
+ * replaced with their hash by the cache itself.
+ *
+ * @version $Revision$
+ */
+public interface KeyCodec
+{
+   /**
+    * Encodes the given key
+    * @param key the cache key, never <code>null</code>
+    * @return the name of the key without the namespace
+    */
+   String encode(Serializable key);
+}
@@ -19,10 +19,12 @@
 package org.exoplatform.services.cache.impl.memcached;
 
 import net.spy.memcached.CASValue;
+import net.spy.memcached.DefaultConnectionFactory;
 import net.spy.memcached.MemcachedClient;
+import net.spy.memcached.internal.OperationCompletionListener;
 import net.spy.memcached.internal.OperationFuture;
+import net.spy.memcached.transcoders.Transcoder;
 
-import org.apache.ws.commons.util.Base64;
 import org.exoplatform.container.ExoContainerContext;
 import org.exoplatform.management.annotations.Managed;
 import org.exoplatform.management.annotations.ManagedDescription;
@@ -30,28 +32,47 @@ import org.exoplatform.management.annotations.ManagedName;
 import org.exoplatform.services.cache.CacheInfo;
 import org.exoplatform.services.cache.CacheListener;
 import org.exoplatform.services.cache.CacheListenerContext;
+import org.exoplatform.services.cache.CacheStatistics;
 import org.exoplatform.services.cache.CachedObjectSelector;
+import org.exoplatform.services.cache.EvictionPolicy;
 import org.exoplatform.services.cache.ExoCache;
 import org.exoplatform.services.cache.ExoCacheConfig;
+import org.exoplatform.services.cache.ValueSerializer;
+import org.exoplatform.services.cache.concurrent.ConcurrentFIFOExoCache;
 import org.exoplatform.services.log.ExoLogger;
 import org.exoplatform.services.log.Log;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
-import java.io.ObjectOutputStream;
 import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
 import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * An {@link org.exoplatform.services.cache.ExoCache} implementation based on spymemcached.
+ * <p>
+ * Optionally, a near cache keeps a bounded local copy of the entries read or written by this node, so that
+ * a value found locally requires no round-trip to the memcached servers. Since the other nodes do not
+ * notify this one of their modifications, a local copy can be stale at most for the live time of the near
+ * cache. The namespace of the region can also be cached locally for a refresh interval, in which case a
+ * miss requires only one round-trip, the near cache is emptied as soon as a new namespace is detected,
+ * i.e. at most after the refresh interval when the cache is cleared by another node.
  * 
  * @author <a href="mailto:nfilotto@exoplatform.com">Nicolas Filotto</a>
  * @version $Id$
@@ -65,9 +86,7 @@ public class MCExoCache<K extends Serializable, V> implements ExoCache<K, V>
    private static final Log LOG = ExoLogger//NOSONAR
       .getLogger("exo.kernel.component.ext.cache.impl.memcached.v1.AbstractExoCache");//NOSONAR
 
-   private final AtomicInteger hits = new AtomicInteger(0);
-
-   private final AtomicInteger misses = new AtomicInteger(0);
+   private final CacheStatistics statistics = new CacheStatistics();
 
    private final AtomicInteger count = new AtomicInteger(0);
 
@@ -79,6 +98,23 @@ public class MCExoCache<K extends Serializable, V> implements ExoCache<K, V>
 
    private final String fullName;
 
+   /**
+    * The maximum length in bytes of a memcached key
+    */
+   private static final int MAX_KEY_LENGTH = 250;
+
+   /**
+    * The prefix of the keys replaced with their hash because they are too long
+    */
+   private static final String HASH_PREFIX = "#H:";
+
+   private volatile KeyCodec keyCodec = new CompactKeyCodec();
+
+   /**
+    * The transcoder of the values
+    */
+   private volatile Transcoder<Object> transcoder;
+
    private boolean distributed;
 
    private boolean replicated;
@@ -87,6 +123,48 @@ public class MCExoCache<K extends Serializable, V> implements ExoCache<K, V>
 
    private int expirationTimeout;
 
+   /**
+    * The local copy of the entries indexed by key, <code>null</code> if there is no near cache
+    */
+   private volatile ConcurrentFIFOExoCache<Serializable, NearEntry<V>> nearCache;
+
+   /**
+    * The default maximum life time in milliseconds of an entry of the near cache
+    */
+   public static final long DEFAULT_NEAR_CACHE_LIVE_TIME = 60000L;
+
+   /**
+    * The amount of stripes of versions of the near cache
+    */
+   private static final int NEAR_VERSION_STRIPES = 64;
+
+   /**
+    * The maximum life time in milliseconds of an entry of the near cache
+    */
+   private volatile long nearCacheLiveTime = DEFAULT_NEAR_CACHE_LIVE_TIME;
+
+   /**
+    * The versions of the near cache entries by stripe of keys, a version is incremented before any local
+    * modification of the entries of its stripe so that a value read from the servers is only kept locally
+    * if no entry of the stripe has been modified meanwhile
+    */
+   private final AtomicLongArray nearVersions = new AtomicLongArray(NEAR_VERSION_STRIPES);
+
+   /**
+    * The amount of milliseconds during which the namespace is not read again from the servers
+    */
+   private volatile long namespaceRefreshInterval;
+
+   /**
+    * The time after which the namespace must be read again from the servers
+    */
+   private volatile long namespaceRefreshTime;
+
+   /**
+    * The maximum amount of milliseconds to wait for the results of a bulk operation
+    */
+   private volatile long bulkOperationTimeout = DefaultConnectionFactory.DEFAULT_OPERATION_TIMEOUT;
+
    protected final MemcachedClient cache;
 
    @SuppressWarnings("rawtypes")
@@ -97,6 +175,7 @@ public class MCExoCache<K extends Serializable, V> implements ExoCache<K, V>
    {
       this.fullName = ctx.getName() + "-" + config.getName();
       this.cache = cache;
+      this.transcoder = cache.getTranscoder();
       this.expirationTimeout = (int)(expirationTimeout / 1000L);
       setDistributed(config.isDistributed());
       setLabel(config.getLabel());
@@ -113,6 +192,33 @@ public class MCExoCache<K extends Serializable, V> implements ExoCache<K, V>
       return fullName;
    }
 
+   /**
+    * @param serializer the serializer of the values, <code>null</code> to use the transcoder of the
+    * memcached client, all the nodes sharing the cache must use the same one
+    */
+   public void setValueSerializer(ValueSerializer serializer)
+   {
+      this.transcoder = serializer == null ? cache.getTranscoder() : new ValueSerializerTranscoder(serializer);
+   }
+
+   public KeyCodec getKeyCodec()
+   {
+      return keyCodec;
+   }
+
+   /**
+    * @param keyCodec the codec used to convert the keys into the names of the memcached keys, all the
+    * nodes sharing the cache must use the same one
+    */
+   public void setKeyCodec(KeyCodec keyCodec)
+   {
+      if (keyCodec == null)
+      {
+         throw new IllegalArgumentException("No null key codec accepted");
+      }
+      this.keyCodec = keyCodec;
+   }
+
    /**
     * {@inheritDoc}
     */
@@ -150,11 +256,20 @@ public class MCExoCache<K extends Serializable, V> implements ExoCache<K, V>
    }
 
    /**
-    * Tries at worse 3 times to get the namespace
+    * Gives the last known namespace if it has been read from the servers within the refresh interval
+    * otherwise tries at worse 3 times to get the namespace
     * @return
     */
    private String getNamespace()
    {
+      if (namespaceRefreshInterval > 0)
+      {
+         String namespace = lastNamespace.get();
+         if (namespace != null && System.currentTimeMillis() < namespaceRefreshTime)
+         {
+            return namespace;
+         }
+      }
       return getNamespace(3);
    }
 
@@ -201,10 +316,12 @@ public class MCExoCache<K extends Serializable, V> implements ExoCache<K, V>
       }
       if (lastNamespace.compareAndSet(oldNamespace, value) && oldNamespace != null && !oldNamespace.equals(value))
       {
-         // The namespace has changed so we reset the counter as it could be due to
+         // The namespace has changed so we reset the counter and the near cache as it could be due to
          // a remote clear cache
          count.set(0);
+         clearNearCache();
       }
+      namespaceRefreshTime = System.currentTimeMillis() + namespaceRefreshInterval;
       return value;
    }
 
@@ -219,7 +336,8 @@ public class MCExoCache<K extends Serializable, V> implements ExoCache<K, V>
    }
 
    /**
-    * Gives the name of the key with the prefix
+    * Gives the name of the key with the prefix, if it is too long for memcached the encoded key is replaced
+    * with its hash
     * 
     * @param namespace the namespace to use
     * @param name the name of the key without the prefix
@@ -227,48 +345,57 @@ public class MCExoCache<K extends Serializable, V> implements ExoCache<K, V>
     */
    private String getKeyFullName(String namespace, Serializable name)
    {
-      StringBuilder sb = new StringBuilder();
+      String key = keyCodec.encode(name);
+      StringBuilder sb = new StringBuilder(namespace.length() + key.length() + 1);
       sb.append(namespace);
       sb.append(':');
-      sb.append(toString(name));
+      sb.append(key);
+      if (isTooLong(sb))
+      {
+         sb.setLength(namespace.length() + 1);
+         sb.append(HASH_PREFIX).append(hash(key));
+      }
       return sb.toString();
    }
 
    /**
-    * Used to serialize the key
-    * @param key the key to serialize
-    * @return the value of the key serialized in Base64
+    * Indicates whether the given key exceeds the maximum length of a memcached key once encoded in UTF-8
     */
-   private static String toString(Serializable key)
+   private static boolean isTooLong(CharSequence key)
    {
-      if (key instanceof String)
-         return (String)key;
-      ByteArrayOutputStream baos = new ByteArrayOutputStream();
-      ObjectOutputStream oos = null;
+      int length = key.length();
+      if (length * 3 <= MAX_KEY_LENGTH)
+      {
+         // Even if all the characters need 3 bytes, it is short enough
+         return false;
+      }
+      else if (length > MAX_KEY_LENGTH)
+      {
+         return true;
+      }
+      return key.toString().getBytes(StandardCharsets.UTF_8).length > MAX_KEY_LENGTH;
+   }
+
+   /**
+    * @return the SHA-1 hash of the given key in hexadecimal
+    */
+   private static String hash(String key)
+   {
+      byte[] digest;
       try
       {
-         oos = new ObjectOutputStream(baos);
-         oos.writeObject(key);
+         digest = MessageDigest.getInstance("SHA-1").digest(key.getBytes(StandardCharsets.UTF_8));
       }
-      catch (IOException e)
+      catch (NoSuchAlgorithmException e)
       {
-         throw new RuntimeException("Could not serialize the key " + key, e);
+         throw new IllegalStateException("Could not hash the key " + key, e);
       }
-      finally
+      StringBuilder sb = new StringBuilder(digest.length * 2);
+      for (byte b : digest)
       {
-         if (oos != null)
-         {
-            try
-            {
-               oos.close();
-            }
-            catch (IOException e)
-            {
-               LOG.trace("Could not close the object output stream", e);
-            }
-         }
+         sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
       }
-      return Base64.encode(baos.toByteArray());
+      return sb.toString();
    }
 
    /**
@@ -292,12 +419,98 @@ public class MCExoCache<K extends Serializable, V> implements ExoCache<K, V>
       }
       if (result != null && result.booleanValue())
       {
-         lastNamespace.compareAndSet(oldNamespace, namespace);
+         if (lastNamespace.compareAndSet(oldNamespace, namespace))
+         {
+            namespaceRefreshTime = System.currentTimeMillis() + namespaceRefreshInterval;
+         }
+         else
+         {
+            // The namespace has been modified concurrently so we will read it again
+            namespaceRefreshTime = 0;
+         }
          count.set(0);
+         clearNearCache();
          onClearCache();
       }
    }
 
+   private void clearNearCache()
+   {
+      ConcurrentFIFOExoCache<Serializable, NearEntry<V>> nearCache = this.nearCache;
+      if (nearCache != null)
+      {
+         nearCache.clearCache();
+      }
+   }
+
+   /**
+    * Gives the local copy of the value of the given key if any and if it has been stored with the given namespace
+    */
+   private V getNear(ConcurrentFIFOExoCache<Serializable, NearEntry<V>> nearCache, String namespace, Serializable name)
+   {
+      if (nearCache == null)
+      {
+         return null;
+      }
+      NearEntry<V> entry = nearCache.get(name);
+      return entry == null || !entry.namespace.equals(namespace) ? null : entry.value;
+   }
+
+   private void removeNear(Serializable name)
+   {
+      ConcurrentFIFOExoCache<Serializable, NearEntry<V>> nearCache = this.nearCache;
+      if (nearCache != null)
+      {
+         nearVersions.incrementAndGet(nearStripe(name));
+         nearCache.remove(name);
+      }
+   }
+
+   private void putNear(String namespace, Serializable name, V value)
+   {
+      ConcurrentFIFOExoCache<Serializable, NearEntry<V>> nearCache = this.nearCache;
+      if (nearCache != null)
+      {
+         nearVersions.incrementAndGet(nearStripe(name));
+         nearCache.put(name, new NearEntry<V>(namespace, value));
+      }
+   }
+
+   private static int nearStripe(Serializable name)
+   {
+      int h = name.hashCode();
+      return (h ^ (h >>> 16)) & (NEAR_VERSION_STRIPES - 1);
+   }
+
+   /**
+    * Gives the current version of the stripe of the given key, to be read before reading its value from
+    * the servers
+    */
+   private long getNearVersion(Serializable name)
+   {
+      return nearVersions.get(nearStripe(name));
+   }
+
+   /**
+    * Keeps locally a value read from the servers unless an entry of the same stripe has been modified since
+    * the given version has been read. The version is checked again once the value is stored, in case a
+    * modification happened concurrently, the entry is removed as it may be stale.
+    */
+   private void fillNear(ConcurrentFIFOExoCache<Serializable, NearEntry<V>> nearCache, String namespace,
+      Serializable name, V value, long version)
+   {
+      int stripe = nearStripe(name);
+      if (nearVersions.get(stripe) != version)
+      {
+         return;
+      }
+      nearCache.put(name, new NearEntry<V>(namespace, value));
+      if (nearVersions.get(stripe) != version)
+      {
+         nearCache.remove(name);
+      }
+   }
+
    /**
     * {@inheritDoc}
     */
@@ -308,26 +521,114 @@ public class MCExoCache<K extends Serializable, V> implements ExoCache<K, V>
       {
          return null;
       }
-      CASValue<Object> casValue = cache.getAndTouch(getKeyFullName(name), expirationTimeout);
-      V result = casValue == null ? null : (V)casValue.getValue();
+      long start = System.nanoTime();
+      String namespace = getNamespace();
+      ConcurrentFIFOExoCache<Serializable, NearEntry<V>> nearCache = this.nearCache;
+      V result = getNear(nearCache, namespace, name);
+      if (result == null)
+      {
+         long version = nearCache == null ? 0 : getNearVersion(name);
+         CASValue<Object> casValue = cache.getAndTouch(getKeyFullName(namespace, name), expirationTimeout, transcoder);
+         result = casValue == null ? null : (V)casValue.getValue();
+         if (result != null && nearCache != null)
+         {
+            fillNear(nearCache, namespace, name, result, version);
+         }
+      }
+      statistics.recordGet(System.nanoTime() - start);
       if (result == null)
       {
-         misses.incrementAndGet();
+         statistics.onMiss();
       }
       else
       {
-         hits.incrementAndGet();
+         statistics.onHit();
       }
       onGet((K)name, result);
       return result;
    }
 
+   /**
+    * {@inheritDoc}
+    * All the keys that are not in the near cache are retrieved in one multi-get request, then the expiration
+    * of the entries found is extended asynchronously as done by {@link #get(Serializable)}.
+    */
+   @SuppressWarnings("unchecked")
+   public Map<K, V> getAll(Collection<? extends K> names)
+   {
+      if (names == null)
+      {
+         throw new IllegalArgumentException("No null collection accepted");
+      }
+      Map<String, K> keys = new HashMap<String, K>();
+      Map<K, V> values = new HashMap<K, V>();
+      String namespace = null;
+      ConcurrentFIFOExoCache<Serializable, NearEntry<V>> nearCache = this.nearCache;
+      Map<K, Long> versions = nearCache == null ? null : new HashMap<K, Long>();
+      long start = System.nanoTime();
+      for (K name : names)
+      {
+         if (name != null)
+         {
+            if (namespace == null)
+            {
+               namespace = getNamespace();
+            }
+            V result = getNear(nearCache, namespace, name);
+            if (result == null)
+            {
+               keys.put(getKeyFullName(namespace, name), name);
+               if (versions != null)
+               {
+                  versions.put(name, getNearVersion(name));
+               }
+            }
+            else
+            {
+               statistics.onHit();
+               values.put(name, result);
+               onGet(name, result);
+            }
+         }
+      }
+      if (keys.isEmpty())
+      {
+         if (!values.isEmpty())
+         {
+            statistics.recordGet(System.nanoTime() - start);
+         }
+         return values;
+      }
+      Map<String, Object> results = cache.getBulk(keys.keySet(), transcoder);
+      statistics.recordGet(System.nanoTime() - start);
+      for (Map.Entry<String, K> entry : keys.entrySet())
+      {
+         V result = (V)results.get(entry.getKey());
+         if (result == null)
+         {
+            statistics.onMiss();
+         }
+         else
+         {
+            statistics.onHit();
+            values.put(entry.getValue(), result);
+            cache.touch(entry.getKey(), expirationTimeout);
+            if (nearCache != null)
+            {
+               fillNear(nearCache, namespace, entry.getValue(), result, versions.get(entry.getValue()));
+            }
+         }
+         onGet(entry.getValue(), result);
+      }
+      return values;
+   }
+
    /**
     * {@inheritDoc}
     */
    public int getCacheHit()
    {
-      return hits.get();
+      return (int)Math.min(statistics.getHits(), Integer.MAX_VALUE);
    }
 
    /**
@@ -335,7 +636,16 @@ public class MCExoCache<K extends Serializable, V> implements ExoCache<K, V>
     */
    public int getCacheMiss()
    {
-      return misses.get();
+      return (int)Math.min(statistics.getMisses(), Integer.MAX_VALUE);
+   }
+
+   /**
+    * {@inheritDoc}
+    * The evictions and the expirations are not counted since they are done by the memcached servers.
+    */
+   public CacheStatistics getStatistics()
+   {
+      return statistics;
    }
 
    /**
@@ -412,15 +722,50 @@ public class MCExoCache<K extends Serializable, V> implements ExoCache<K, V>
          return;
       }
       putOnly(getNamespace(), key, value);
+      statistics.onPut();
       onPut(key, value);
    }
 
    /**
-    * Only puts the data into the cache nothing more
+    * Only puts the data into the cache nothing more. If the near cache has a copy of the entry, it is known to
+    * exist so it is directly replaced.
     */
    protected void putOnly(String namespace, K key, V value)
    {
-      OperationFuture<Boolean> resp = cache.add(getKeyFullName(namespace, key), expirationTimeout, value);
+      if (getNear(nearCache, namespace, key) == null || !replace(namespace, key, value))
+      {
+         store(namespace, key, value);
+      }
+      putNear(namespace, key, value);
+   }
+
+   /**
+    * Replaces the value of an existing entry
+    * @return <code>true</code> if the entry existed, <code>false</code> otherwise
+    */
+   private boolean replace(String namespace, K key, V value)
+   {
+      OperationFuture<Boolean> resp =
+         cache.replace(getKeyFullName(namespace, key), expirationTimeout, value, transcoder);
+      Boolean result;
+      try
+      {
+         result = resp.get();
+      }
+      catch (Exception e)
+      {
+         throw new RuntimeException("Could not replace the old value of the key " + key, e);
+      }
+      return result != null && result.booleanValue();
+   }
+
+   /**
+    * Adds the entry or replaces it if it already exists
+    */
+   private void store(String namespace, K key, V value)
+   {
+      OperationFuture<Boolean> resp =
+         cache.add(getKeyFullName(namespace, key), expirationTimeout, value, transcoder);
       Boolean result;
       try
       {
@@ -433,19 +778,10 @@ public class MCExoCache<K extends Serializable, V> implements ExoCache<K, V>
       if (result == null || !result.booleanValue())
       {
          // The value already exists in the cache so we simply replace it
-         resp = cache.replace(getKeyFullName(namespace, key), expirationTimeout, value);
-         try
-         {
-            result = resp.get();
-         }
-         catch (Exception e)
-         {
-            throw new RuntimeException("Could not replace the old value of the key " + key, e);
-         }
-         if (result == null || !result.booleanValue())
+         if (!replace(namespace, key, value))
          {
             // we try again
-            putOnly(namespace, key, value);
+            store(namespace, key, value);
          }
       }
       else if (namespace.equals(lastNamespace.get()))
@@ -457,8 +793,157 @@ public class MCExoCache<K extends Serializable, V> implements ExoCache<K, V>
 
    /**
     * {@inheritDoc}
+    * All the entries are sent to the servers without waiting for the previous ones to be stored, then the
+    * results are awaited at most for the bulk operation timeout. The entries that already exist are replaced
+    * the same way. The keys whose value could not be stored are logged and removed from the near cache as
+    * their value on the servers is unknown.
     */
    public void putMap(final Map<? extends K, ? extends V> objs) throws IllegalArgumentException
+   {
+      checkKeys(objs);
+      String namespace = null;
+      Map<K, V> values = new LinkedHashMap<K, V>();
+      Map<K, OperationFuture<Boolean>> adds = new LinkedHashMap<K, OperationFuture<Boolean>>();
+      try
+      {
+         namespace = getNamespace();
+         for (Map.Entry<? extends K, ? extends V> entry : objs.entrySet())
+         {
+            K key = entry.getKey();
+            V value = entry.getValue();
+            if (value != null)
+            {
+               adds.put(key, cache.add(getKeyFullName(namespace, key), expirationTimeout, value, transcoder));
+               values.put(key, value);
+            }
+         }
+      }
+      catch (Exception e)//NOSONAR
+      {
+         LOG.warn("An error occurs while executing the putMap method", e);
+      }
+      if (adds.isEmpty())
+      {
+         return;
+      }
+      // Collect the results of the entries that could be sent
+      Map<K, OperationFuture<Boolean>> sets = new LinkedHashMap<K, OperationFuture<Boolean>>();
+      Set<K> failures = new LinkedHashSet<K>();
+      long deadline = System.currentTimeMillis() + bulkOperationTimeout;
+      for (Map.Entry<K, OperationFuture<Boolean>> entry : adds.entrySet())
+      {
+         K key = entry.getKey();
+         Boolean result = await(entry.getValue(), deadline);
+         if (result == null)
+         {
+            failures.add(key);
+         }
+         else if (result.booleanValue())
+         {
+            onAdded(namespace);
+            onStored(namespace, key, values.get(key));
+         }
+         else
+         {
+            // The value already exists in the cache so we simply overwrite it
+            sets.put(key,
+               cache.set(getKeyFullName(namespace, key), expirationTimeout, values.get(key), transcoder));
+         }
+      }
+      deadline = System.currentTimeMillis() + bulkOperationTimeout;
+      for (Map.Entry<K, OperationFuture<Boolean>> entry : sets.entrySet())
+      {
+         K key = entry.getKey();
+         Boolean result = await(entry.getValue(), deadline);
+         if (result == null || !result.booleanValue())
+         {
+            failures.add(key);
+         }
+         else
+         {
+            onStored(namespace, key, values.get(key));
+         }
+      }
+      if (!failures.isEmpty())
+      {
+         for (K key : failures)
+         {
+            removeNear(key);
+         }
+         LOG.warn("Could not put the values of the keys " + failures + " into the cache " + name);
+      }
+   }
+
+   /**
+    * {@inheritDoc}
+    * All the entries are sent to the servers and the method returns without waiting for any result, the
+    * listeners are notified from the threads of the memcached client once an entry has been stored.
+    */
+   public void putAsyncMap(final Map<? extends K, ? extends V> objs) throws IllegalArgumentException
+   {
+      checkKeys(objs);
+      final String namespace = getNamespace();
+      for (Map.Entry<? extends K, ? extends V> entry : objs.entrySet())
+      {
+         final K key = entry.getKey();
+         final V value = entry.getValue();
+         if (value == null)
+         {
+            continue;
+         }
+         final String keyFullName = getKeyFullName(namespace, key);
+         final Transcoder<Object> transcoder = this.transcoder;
+         cache.add(keyFullName, expirationTimeout, value, transcoder).addListener(new OperationCompletionListener()
+         {
+            public void onComplete(OperationFuture<?> future) throws Exception
+            {
+               try
+               {
+                  if (Boolean.TRUE.equals(future.get()))
+                  {
+                     onAdded(namespace);
+                     onStored(namespace, key, value);
+                  }
+                  else
+                  {
+                     // The value already exists in the cache so we simply overwrite it
+                     cache.set(keyFullName, expirationTimeout, value, transcoder).addListener(
+                        new OperationCompletionListener()
+                     {
+                        public void onComplete(OperationFuture<?> future) throws Exception
+                        {
+                           try
+                           {
+                              if (Boolean.TRUE.equals(future.get()))
+                              {
+                                 onStored(namespace, key, value);
+                              }
+                              else
+                              {
+                                 removeNear(key);
+                                 LOG.warn("Could not put the value of the key " + key + " into the cache " + name);
+                              }
+                           }
+                           catch (Exception e)//NOSONAR
+                           {
+                              removeNear(key);
+                              LOG.warn("Could not put the value of the key " + key + " into the cache " + name, e);
+                           }
+                        }
+                     });
+                  }
+               }
+               catch (Exception e)//NOSONAR
+               {
+                  removeNear(key);
+                  LOG.warn("Could not put the value of the key " + key + " into the cache " + name, e);
+               }
+            }
+         });
+      }
+   }
+
+   private void checkKeys(Map<? extends K, ? extends V> objs)
    {
       if (objs == null)
       {
@@ -471,18 +956,54 @@ public class MCExoCache<K extends Serializable, V> implements ExoCache<K, V>
             throw new IllegalArgumentException("No null cache key accepted");
          }
       }
+   }
+
+   /**
+    * Called once a new entry has been added to the cache
+    */
+   private void onAdded(String namespace)
+   {
+      if (namespace.equals(lastNamespace.get()))
+      {
+         // A new value has been added and the namespace has not been modified during the process
+         count.incrementAndGet();
+      }
+   }
+
+   /**
+    * Called once an entry has been stored into the cache by a bulk operation
+    */
+   private void onStored(String namespace, K key, V value)
+   {
+      putNear(namespace, key, value);
+      statistics.onPut();
+      onPut(key, value);
+   }
+
+   /**
+    * Waits for the result of an operation at most until the given deadline
+    * @return the result or <code>null</code> if it could not be retrieved in time
+    */
+   private static Boolean await(OperationFuture<Boolean> future, long deadline)
+   {
       try
       {
-         String namespace = getNamespace();
-         for (Map.Entry<? extends K, ? extends V> entry : objs.entrySet())
-         {
-            putOnly(namespace, entry.getKey(), entry.getValue());
-            onPut(entry.getKey(), entry.getValue());
-         }
+         return future.get(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
       }
-      catch (Exception e)//NOSONAR
+      catch (InterruptedException e)
       {
-         LOG.warn("An error occurs while executing the putMap method", e);
+         Thread.currentThread().interrupt();
+         return null;
+      }
+      catch (TimeoutException e)
+      {
+         future.cancel();
+         return null;
+      }
+      catch (ExecutionException e)
+      {
+         LOG.debug("The operation on the key " + future.getKey() + " failed", e);
+         return null;
       }
    }
 
@@ -497,7 +1018,7 @@ public class MCExoCache<K extends Serializable, V> implements ExoCache<K, V>
          throw new IllegalArgumentException("No null cache key accepted");
       }
       String namespace = getNamespace();
-      V value = (V)cache.get(getKeyFullName(namespace, name));
+      V value = (V)cache.get(getKeyFullName(namespace, name), transcoder);
       OperationFuture<Boolean> resp = cache.delete(getKeyFullName(namespace, name));
       Boolean result;
       try
@@ -508,6 +1029,10 @@ public class MCExoCache<K extends Serializable, V> implements ExoCache<K, V>
       {
          throw new RuntimeException("Could not remove the value for the key " + name, e);
       }
+      finally
+      {
+         removeNear(name);
+      }
       if (result != null && result.booleanValue())
       {
          if (namespace.equals(lastNamespace.get()))
@@ -520,6 +1045,76 @@ public class MCExoCache<K extends Serializable, V> implements ExoCache<K, V>
       return value;
    }
 
+   /**
+    * Removes several entries at once. The previous values are retrieved in one multi-get request then all the
+    * entries are deleted without waiting for the previous deletions, the results are awaited at most for the
+    * bulk operation timeout. The keys whose entry could not be deleted are logged.
+    *
+    * @param names the keys of the entries to remove
+    * @return the removed values indexed by key
+    * @throws IllegalArgumentException if the collection is null or contains a null key
+    */
+   @SuppressWarnings("unchecked")
+   public Map<K, V> removeAll(Collection<? extends K> names) throws IllegalArgumentException
+   {
+      if (names == null)
+      {
+         throw new IllegalArgumentException("No null collection accepted");
+      }
+      Map<K, V> values = new HashMap<K, V>();
+      if (names.isEmpty())
+      {
+         return values;
+      }
+      String namespace = getNamespace();
+      Map<String, K> keys = new LinkedHashMap<String, K>();
+      for (K name : names)
+      {
+         if (name == null)
+         {
+            throw new IllegalArgumentException("No null cache key accepted");
+         }
+         keys.put(getKeyFullName(namespace, name), name);
+      }
+      Map<String, Object> previousValues = cache.getBulk(keys.keySet(), transcoder);
+      Map<String, OperationFuture<Boolean>> deletes = new LinkedHashMap<String, OperationFuture<Boolean>>();
+      for (String key : keys.keySet())
+      {
+         deletes.put(key, cache.delete(key));
+      }
+      Set<K> failures = new LinkedHashSet<K>();
+      long deadline = System.currentTimeMillis() + bulkOperationTimeout;
+      for (Map.Entry<String, OperationFuture<Boolean>> entry : deletes.entrySet())
+      {
+         K name = keys.get(entry.getKey());
+         Boolean result = await(entry.getValue(), deadline);
+         removeNear(name);
+         if (result == null)
+         {
+            failures.add(name);
+         }
+         else if (result.booleanValue())
+         {
+            if (namespace.equals(lastNamespace.get()))
+            {
+               // The value has been removed successfully and the namespace has not been modified during the process
+               count.decrementAndGet();
+            }
+            V value = (V)previousValues.get(entry.getKey());
+            if (value != null)
+            {
+               values.put(name, value);
+            }
+            onRemove(name, value);
+         }
+      }
+      if (!failures.isEmpty())
+      {
+         LOG.warn("Could not remove the values of the keys " + failures + " from the cache " + name);
+      }
+      return values;
+   }
+
    /**
     * {@inheritDoc}
     */
@@ -688,6 +1283,25 @@ public class MCExoCache<K extends Serializable, V> implements ExoCache<K, V>
       }
    }
 
+   /**
+    * A local copy of a value with the namespace in which it has been read or written
+    */
+   private static class NearEntry<V>
+   {
+
+      /** . */
+      final String namespace;
+
+      /** . */
+      final V value;
+
+      NearEntry(String namespace, V value)
+      {
+         this.namespace = namespace;
+         this.value = value;
+      }
+   }
+
    private static class ListenerContext<K extends Serializable, V> implements CacheListenerContext, CacheInfo
    {
 
@@ -768,6 +1382,100 @@ public class MCExoCache<K extends Serializable, V> implements ExoCache<K, V>
       this.expirationTimeout = (int)(expirationTimeout / 1000L);
    }
 
+   /**
+    * @return the maximum amount of entries of the near cache, 0 if there is no near cache
+    */
+   public int getNearCacheMaxSize()
+   {
+      ConcurrentFIFOExoCache<Serializable, NearEntry<V>> nearCache = this.nearCache;
+      return nearCache == null ? 0 : nearCache.getMaxSize();
+   }
+
+   /**
+    * Enables the near cache with the given maximum amount of entries or disables it if not positive. The
+    * content of the previous near cache if any is lost.
+    *
+    * @param maxSize the maximum amount of entries of the near cache
+    */
+   public void setNearCacheMaxSize(int maxSize)
+   {
+      if (maxSize > 0)
+      {
+         ConcurrentFIFOExoCache<Serializable, NearEntry<V>> nearCache =
+            new ConcurrentFIFOExoCache<Serializable, NearEntry<V>>(fullName + "-near", maxSize, LOG);
+         nearCache.setEvictionPolicy(EvictionPolicy.LRU);
+         nearCache.setLiveTimeMillis(nearCacheLiveTime);
+         this.nearCache = nearCache;
+      }
+      else
+      {
+         this.nearCache = null;
+      }
+   }
+
+   @Managed
+   @ManagedName("NearCacheSize")
+   @ManagedDescription("The amount of entries in the near cache.")
+   public int getNearCacheSize()
+   {
+      ConcurrentFIFOExoCache<Serializable, NearEntry<V>> nearCache = this.nearCache;
+      return nearCache == null ? 0 : nearCache.getCacheSize();
+   }
+
+   public long getNearCacheLiveTime()
+   {
+      return nearCacheLiveTime;
+   }
+
+   /**
+    * @param nearCacheLiveTime the maximum life time in milliseconds of an entry of the near cache, which is
+    * also the maximum time during which an entry modified by another node can be stale, the default value
+    * {@link #DEFAULT_NEAR_CACHE_LIVE_TIME} is used if not positive
+    */
+   public void setNearCacheLiveTime(long nearCacheLiveTime)
+   {
+      this.nearCacheLiveTime = nearCacheLiveTime > 0 ? nearCacheLiveTime : DEFAULT_NEAR_CACHE_LIVE_TIME;
+      ConcurrentFIFOExoCache<Serializable, NearEntry<V>> nearCache = this.nearCache;
+      if (nearCache != null)
+      {
+         nearCache.setLiveTimeMillis(this.nearCacheLiveTime);
+      }
+   }
+
+   @Managed
+   @ManagedName("NamespaceRefreshInterval")
+   @ManagedDescription("The amount of milliseconds during which the namespace is not read again from the servers.")
+   public long getNamespaceRefreshInterval()
+   {
+      return namespaceRefreshInterval;
+   }
+
+   /**
+    * @param namespaceRefreshInterval the amount of milliseconds during which the namespace is not read again
+    * from the servers, it is read for each operation if not positive. It must be much lower than the expiration
+    * timeout since the expiration of the namespace is only extended when it is read.
+    */
+   @Managed
+   public void setNamespaceRefreshInterval(long namespaceRefreshInterval)
+   {
+      this.namespaceRefreshInterval = namespaceRefreshInterval;
+      this.namespaceRefreshTime = 0;
+   }
+
+   @Managed
+   @ManagedName("BulkOperationTimeout")
+   @ManagedDescription("The maximum amount of milliseconds to wait for the results of a bulk operation.")
+   public long getBulkOperationTimeout()
+   {
+      return bulkOperationTimeout;
+   }
+
+   @Managed
+   public void setBulkOperationTimeout(long bulkOperationTimeout)
+   {
+      this.bulkOperationTimeout = bulkOperationTimeout;
+   }
+
    public void setMaxSize(int max)
    {
       throw new UnsupportedOperationException("The max size cannot be modified");
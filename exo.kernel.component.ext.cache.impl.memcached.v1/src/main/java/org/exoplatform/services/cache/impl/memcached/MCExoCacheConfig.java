@@ -38,4 +38,50 @@ public class MCExoCacheConfig extends org.exoplatform.services.cache.ExoCacheCon
    {
       this.expirationTimeout = expirationTimeout;
    }
+
+   /**
+    * The maximum amount of entries kept locally, no near cache is used if not positive
+    */
+   private int nearCacheMaxSize;
+
+   /**
+    * The maximum life time in milliseconds of an entry kept locally, a default value of one minute is used
+    * if not positive
+    */
+   private long nearCacheLiveTime;
+
+   /**
+    * The amount of milliseconds during which the namespace of the cache is not read again from the servers
+    */
+   private long namespaceRefreshInterval;
+
+   public int getNearCacheMaxSize()
+   {
+      return nearCacheMaxSize;
+   }
+
+   public void setNearCacheMaxSize(int nearCacheMaxSize)
+   {
+      this.nearCacheMaxSize = nearCacheMaxSize;
+   }
+
+   public long getNearCacheLiveTime()
+   {
+      return nearCacheLiveTime;
+   }
+
+   public void setNearCacheLiveTime(long nearCacheLiveTime)
+   {
+      this.nearCacheLiveTime = nearCacheLiveTime;
+   }
+
+   public long getNamespaceRefreshInterval()
+   {
+      return namespaceRefreshInterval;
+   }
+
+   public void setNamespaceRefreshInterval(long namespaceRefreshInterval)
+   {
+      this.namespaceRefreshInterval = namespaceRefreshInterval;
+   }
 }
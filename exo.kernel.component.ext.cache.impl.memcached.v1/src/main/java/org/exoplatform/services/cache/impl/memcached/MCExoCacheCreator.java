@@ -22,6 +22,7 @@ import org.exoplatform.container.ExoContainerContext;
 import org.exoplatform.services.cache.ExoCache;
 import org.exoplatform.services.cache.ExoCacheConfig;
 import org.exoplatform.services.cache.ExoCacheInitException;
+import org.exoplatform.services.cache.ValueSerializer;
 
 import java.io.Serializable;
 
@@ -40,9 +41,20 @@ public class MCExoCacheCreator
     */
    private final long defaultExpirationTimeout;
 
+   /**
+    * The codec of the keys, <code>null</code> to use the default one
+    */
+   private final KeyCodec keyCodec;
+
    public MCExoCacheCreator(long defaultExpirationTimeout)
+   {
+      this(defaultExpirationTimeout, null);
+   }
+
+   public MCExoCacheCreator(long defaultExpirationTimeout, KeyCodec keyCodec)
    {
       this.defaultExpirationTimeout = defaultExpirationTimeout;
+      this.keyCodec = keyCodec;
    }
 
    /**
@@ -54,7 +66,11 @@ public class MCExoCacheCreator
       if (config instanceof MCExoCacheConfig)
       {
          final MCExoCacheConfig eaConfig = (MCExoCacheConfig)config;
-         return create(ctx, config, cache, eaConfig.getExpirationTimeout());
+         MCExoCache<Serializable, Object> eXoCache = create(ctx, config, cache, eaConfig.getExpirationTimeout());
+         eXoCache.setNearCacheLiveTime(eaConfig.getNearCacheLiveTime());
+         eXoCache.setNearCacheMaxSize(eaConfig.getNearCacheMaxSize());
+         eXoCache.setNamespaceRefreshInterval(eaConfig.getNamespaceRefreshInterval());
+         return eXoCache;
       }
       else
       {
@@ -66,9 +82,16 @@ public class MCExoCacheCreator
    /**
     * Creates a new ExoCache instance with the relevant parameters
     */
-   private ExoCache<Serializable, Object> create(ExoContainerContext ctx, ExoCacheConfig config, MemcachedClient cache,
+   private MCExoCache<Serializable, Object> create(ExoContainerContext ctx, ExoCacheConfig config, MemcachedClient cache,
       long expirationTimeout) throws ExoCacheInitException
    {
-      return new MCExoCache<Serializable, Object>(ctx, config, cache, expirationTimeout);
+      MCExoCache<Serializable, Object> eXoCache =
+         new MCExoCache<Serializable, Object>(ctx, config, cache, expirationTimeout);
+      if (keyCodec != null)
+      {
+         eXoCache.setKeyCodec(keyCodec);
+      }
+      eXoCache.setValueSerializer(ValueSerializer.create(config));
+      return eXoCache;
    }
 }
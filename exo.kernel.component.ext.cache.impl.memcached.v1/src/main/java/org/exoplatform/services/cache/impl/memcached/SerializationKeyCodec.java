@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2026 eXo Platform SAS.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.exoplatform.services.cache.impl.memcached;
+
+import org.apache.ws.commons.util.Base64;
+import org.exoplatform.services.log.ExoLogger;
+import org.exoplatform.services.log.Log;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+
+/**
+ * The {@link KeyCodec} that keeps the {@link String} keys as they are and serializes the other keys
+ * in Base64.
+ *
+ * @version $Revision$
+ */
+public class SerializationKeyCodec implements KeyCodec
+{
+
+   /**
+    * Logger.
+    */
+   private static final Log LOG = ExoLogger
+      .getLogger("exo.kernel.component.ext.cache.impl.memcached.v1.SerializationKeyCodec");
+
+   /**
+    * {@inheritDoc}
+    */
+   public String encode(Serializable key)
+   {
+      if (key instanceof String)
+         return (String)key;
+      return serialize(key);
+   }
+
+   /**
+    * Used to serialize the key
+    * @param key the key to serialize
+    * @return the value of the key serialized in Base64
+    */
+   protected String serialize(Serializable key)
+   {
+      ByteArrayOutputStream baos = new ByteArrayOutputStream();
+      ObjectOutputStream oos = null;
+      try
+      {
+         oos = new ObjectOutputStream(baos);
+         oos.writeObject(key);
+      }
+      catch (IOException e)
+      {
+         throw new RuntimeException("Could not serialize the key " + key, e);
+      }
+      finally
+      {
+         if (oos != null)
+         {
+            try
+            {
+               oos.close();
+            }
+            catch (IOException e)
+            {
+               LOG.trace("Could not close the object output stream", e);
+            }
+         }
+      }
+      return Base64.encode(baos.toByteArray());
+   }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2026 eXo Platform SAS.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.exoplatform.services.cache.impl.memcached;
+
+import net.spy.memcached.CachedData;
+import net.spy.memcached.transcoders.Transcoder;
+
+import org.exoplatform.services.cache.ValueSerializer;
+import org.exoplatform.services.log.ExoLogger;
+import org.exoplatform.services.log.Log;
+
+/**
+ * The {@link Transcoder} that delegates the serialization of the values to a {@link ValueSerializer}. A value
+ * that cannot be deserialized is considered as missing.
+ *
+ * @version $Revision$
+ */
+class ValueSerializerTranscoder implements Transcoder<Object>
+{
+
+   /**
+    * Logger.
+    */
+   private static final Log LOG = ExoLogger
+      .getLogger("exo.kernel.component.ext.cache.impl.memcached.v1.ValueSerializerTranscoder");
+
+   /**
+    * The flags of the values serialized by a {@link ValueSerializer}, chosen so that they cannot be mistaken
+    * for the flags of the default transcoder
+    */
+   static final int FLAGS = 0x4000;
+
+   /**
+    * The serializer of the values
+    */
+   private final ValueSerializer serializer;
+
+   ValueSerializerTranscoder(ValueSerializer serializer)
+   {
+      this.serializer = serializer;
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public boolean asyncDecode(CachedData data)
+   {
+      return false;
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public CachedData encode(Object value)
+   {
+      try
+      {
+         return new CachedData(FLAGS, serializer.serialize(value), getMaxSize());
+      }
+      catch (Exception e)
+      {
+         throw new IllegalArgumentException("Could not serialize the value " + value, e);
+      }
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public Object decode(CachedData data)
+   {
+      if (data.getFlags() != FLAGS)
+      {
+         // The value has been stored with another serialization so we consider it as missing
+         return null;
+      }
+      try
+      {
+         return serializer.deserialize(data.getData());
+      }
+      catch (Exception e)//NOSONAR
+      {
+         LOG.warn("Cannot deserialize a value, the value is ignored", e);
+         return null;
+      }
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public int getMaxSize()
+   {
+      return CachedData.MAX_SIZE;
+   }
+}
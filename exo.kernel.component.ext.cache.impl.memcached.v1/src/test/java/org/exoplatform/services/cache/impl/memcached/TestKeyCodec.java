@@ -0,0 +1,107 @@
+/*
+ * Copyright (C) 2026 eXo Platform SAS.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.exoplatform.services.cache.impl.memcached;
+
+import junit.framework.TestCase;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * @version $Revision$
+ */
+public class TestKeyCodec extends TestCase
+{
+
+   public void testSerializationKeyCodec() throws Exception
+   {
+      KeyCodec codec = new SerializationKeyCodec();
+      assertEquals("a", codec.encode("a"));
+      String value = codec.encode(new MyKey("a"));
+      assertEquals(value, codec.encode(new MyKey("a")));
+      assertFalse(value.equals(codec.encode(new MyKey("b"))));
+      assertFalse(value.equals(codec.encode(1L)));
+   }
+
+   public void testCompactKeyCodec() throws Exception
+   {
+      KeyCodec codec = new CompactKeyCodec();
+      UUID uuid = UUID.randomUUID();
+      assertEquals("a", codec.encode("a"));
+      assertEquals("#L:1", codec.encode(1L));
+      assertEquals("#I:1", codec.encode(1));
+      assertEquals("#U:" + uuid, codec.encode(uuid));
+      assertEquals("#C:1:a4:#L:1", codec.encode(new ArrayList<Serializable>(Arrays.<Serializable> asList("a", 1L))));
+      // The String keys that could be confused with a tag are tagged
+      assertEquals("#S:#L:1", codec.encode("#L:1"));
+      // Equal keys are encoded the same way
+      assertEquals(codec.encode(new ArrayList<String>(Arrays.asList("a", "b"))),
+         codec.encode((Serializable)Arrays.asList("a", "b")));
+      // Unsupported keys are serialized
+      assertEquals("#O:" + new SerializationKeyCodec().encode(new MyKey("a")), codec.encode(new MyKey("a")));
+      List<Serializable> composite = new ArrayList<Serializable>(Arrays.<Serializable> asList("a", new MyKey("a")));
+      assertEquals("#O:" + new SerializationKeyCodec().encode((Serializable)composite),
+         codec.encode((Serializable)composite));
+   }
+
+   public void testCompactKeyCodecUniqueness() throws Exception
+   {
+      KeyCodec codec = new CompactKeyCodec();
+      List<Serializable> keys =
+         Arrays.<Serializable> asList("1", 1L, 1, "#L:1", "#I:1", "#S:#L:1", new MyKey("a"),
+            "#O:" + new SerializationKeyCodec().encode(new MyKey("a")),
+            new SerializationKeyCodec().encode(new MyKey("a")), new ArrayList<String>(Arrays.asList("a:b")),
+            new ArrayList<String>(Arrays.asList("a", "b")), new ArrayList<String>(Arrays.asList("ab")),
+            new ArrayList<String>(Arrays.asList("1:a", "")), new ArrayList<String>(Arrays.asList("1", "a")));
+      Set<String> values = new HashSet<String>();
+      for (Serializable key : keys)
+      {
+         assertTrue("Duplicate encoding of " + key, values.add(codec.encode(key)));
+      }
+   }
+
+   public static class MyKey implements Serializable
+   {
+      private static final long serialVersionUID = 1L;
+
+      private final String value;
+
+      public MyKey(String value)
+      {
+         this.value = value;
+      }
+
+      @Override
+      public boolean equals(Object obj)
+      {
+         return obj instanceof MyKey && ((MyKey)obj).value.equals(value);
+      }
+
+      @Override
+      public int hashCode()
+      {
+         return value.hashCode();
+      }
+   }
+}
@@ -23,6 +23,7 @@ import junit.framework.TestCase;
 import org.exoplatform.container.PortalContainer;
 import org.exoplatform.services.cache.CacheListener;
 import org.exoplatform.services.cache.CacheListenerContext;
+import org.exoplatform.services.cache.CacheStatistics;
 import org.exoplatform.services.cache.CacheService;
 import org.exoplatform.services.cache.CachedObjectSelector;
 import org.exoplatform.services.cache.ExoCache;
@@ -31,6 +32,7 @@ import org.exoplatform.services.cache.ObjectCacheInfo;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashSet;
@@ -128,6 +130,33 @@ public class TestMCExoCache extends TestCase
       assertEquals(4, listener.get);
    }
 
+   public void testGetAll() throws Exception
+   {
+      cache.put(new MyKey("a"), "a");
+      cache.put(new MyKey("b"), "b");
+      Map<Serializable, Object> values = cache.getAll(Arrays.asList(new MyKey("a"), new MyKey("b"), new MyKey("x")));
+      assertEquals(2, values.size());
+      assertEquals("a", values.get(new MyKey("a")));
+      assertEquals("b", values.get(new MyKey("b")));
+      assertTrue(cache.getAll(Collections.<Serializable> emptyList()).isEmpty());
+   }
+
+   public void testLongKeys() throws Exception
+   {
+      StringBuilder sb = new StringBuilder();
+      for (int i = 0; i < 300; i++)
+      {
+         sb.append('\u00e9');
+      }
+      String key = sb.toString();
+      cache.put(key, "a");
+      cache.put(key + "b", "b");
+      assertEquals("a", cache.get(key));
+      assertEquals("b", cache.get(key + "b"));
+      assertEquals("a", cache.remove(key));
+      assertNull(cache.get(key));
+   }
+
    public void testRemove() throws Exception
    {
       cache.put(new MyKey("a"), 1);
@@ -191,6 +220,51 @@ public class TestMCExoCache extends TestCase
       assertEquals(4, cache.getCacheSize());
    }
 
+   public void testPutAsyncMap() throws Exception
+   {
+      Map<Serializable, Object> values = new HashMap<Serializable, Object>();
+      values.put(new MyKey("a"), "a");
+      values.put(new MyKey("b"), "b");
+      cache.put(new MyKey("b"), "c");
+      cache.putAsyncMap(values);
+      long deadline = System.currentTimeMillis() + 5000;
+      // The size is updated once the listeners are notified which is after the values can be read
+      while ((!"a".equals(cache.get(new MyKey("a"))) || !"b".equals(cache.get(new MyKey("b"))) || cache
+         .getCacheSize() != 2) && System.currentTimeMillis() < deadline)
+      {
+         Thread.sleep(10);
+      }
+      assertEquals("a", cache.get(new MyKey("a")));
+      assertEquals("b", cache.get(new MyKey("b")));
+      assertEquals(2, cache.getCacheSize());
+   }
+
+   public void testRemoveAll() throws Exception
+   {
+      cache.put(new MyKey("a"), 1);
+      cache.put(new MyKey("b"), 2);
+      cache.put(new MyKey("c"), 3);
+      assertEquals(3, cache.getCacheSize());
+      Map<Serializable, Object> values = cache.removeAll(Arrays.asList(new MyKey("a"), new MyKey("b"), new MyKey("x")));
+      assertEquals(2, values.size());
+      assertEquals(1, values.get(new MyKey("a")));
+      assertEquals(2, values.get(new MyKey("b")));
+      assertEquals(2, listener.remove);
+      assertEquals(1, cache.getCacheSize());
+      assertNull(cache.get(new MyKey("a")));
+      assertEquals(3, cache.get(new MyKey("c")));
+      assertTrue(cache.removeAll(Collections.<Serializable> emptyList()).isEmpty());
+      try
+      {
+         cache.removeAll(Arrays.asList(new MyKey("c"), null));
+         fail("An IllegalArgumentException was expected");
+      }
+      catch (IllegalArgumentException e)
+      {
+         // expected
+      }
+   }
+
    public void testGetCachedObjects() throws Exception
    {
       cache.put(new MyKey("a"), "a");
@@ -280,6 +354,74 @@ public class TestMCExoCache extends TestCase
       assertEquals(2, cache.getCacheMiss() - misses);
    }
 
+   public void testStatistics() throws Exception
+   {
+      cache.resetStatistics();
+      CacheStatistics statistics = cache.getStatistics();
+      cache.put(new MyKey("a"), "a");
+      cache.put(new MyKey("b"), "b");
+      cache.get(new MyKey("a"));
+      cache.get(new MyKey("z"));
+      cache.getAll(Arrays.asList(new MyKey("b"), new MyKey("y")));
+      assertEquals(2, statistics.getPuts());
+      assertEquals(2, statistics.getHits());
+      assertEquals(2, statistics.getMisses());
+      assertEquals(3, statistics.getGetLatency().getCount());
+      cache.resetStatistics();
+      assertEquals(0, cache.getCacheHit());
+      assertEquals(0, statistics.getGetLatency().getCount());
+   }
+
+   @SuppressWarnings("unchecked")
+   public void testNearCache() throws Exception
+   {
+      MCExoCacheConfig config = new MCExoCacheConfig();
+      config.setName("test-near-cache");
+      config.setExpirationTimeout(60000);
+      MCExoCache<Serializable, Object> remote = (MCExoCache<Serializable, Object>)factory.createCache(config);
+      config.setNearCacheMaxSize(2);
+      config.setNamespaceRefreshInterval(60000);
+      MCExoCache<Serializable, Object> local = (MCExoCache<Serializable, Object>)factory.createCache(config);
+      try
+      {
+         assertEquals(2, local.getNearCacheMaxSize());
+         assertEquals(0, remote.getNearCacheMaxSize());
+         // The entries modified by other nodes are stale for a bounded time
+         assertEquals(MCExoCache.DEFAULT_NEAR_CACHE_LIVE_TIME, local.getNearCacheLiveTime());
+         local.put(new MyKey("a"), "a");
+         assertEquals(1, local.getNearCacheSize());
+         assertEquals("a", remote.get(new MyKey("a")));
+         // The local copy is returned without reading the servers
+         remote.put(new MyKey("a"), "b");
+         assertEquals("a", local.get(new MyKey("a")));
+         local.put(new MyKey("a"), "c");
+         assertEquals("c", remote.get(new MyKey("a")));
+         // A miss fills the near cache which is bounded
+         remote.put(new MyKey("b"), "b");
+         remote.put(new MyKey("c"), "c");
+         assertEquals("b", local.get(new MyKey("b")));
+         assertEquals("c", local.get(new MyKey("c")));
+         assertEquals(2, local.getNearCacheSize());
+         local.remove(new MyKey("c"));
+         assertEquals(1, local.getNearCacheSize());
+         assertNull(remote.get(new MyKey("c")));
+         // A remote clear is detected once the namespace is read again
+         remote.clearCache();
+         assertEquals("b", local.get(new MyKey("b")));
+         local.setNamespaceRefreshInterval(0);
+         assertNull(local.get(new MyKey("b")));
+         assertEquals(0, local.getNearCacheSize());
+         local.put(new MyKey("a"), "a");
+         local.clearCache();
+         assertEquals(0, local.getNearCacheSize());
+         assertNull(local.get(new MyKey("a")));
+      }
+      finally
+      {
+         local.clearCache();
+      }
+   }
+
    public void testMultiThreading() throws Exception
    {
       final ExoCache<Serializable, Object> cache = service.getCacheInstance("test-multi-threading");
@@ -0,0 +1,124 @@
+/*
+ * Copyright (C) 2026 eXo Platform SAS.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.exoplatform.container.benchmark;
+
+import org.exoplatform.container.util.ComponentAccessor;
+import org.exoplatform.container.util.ComponentAccessors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the creation and the injection of a component with the reflection API and with the
+ * accessors generated by {@link ComponentAccessors}.
+ *
+ * @version $Revision$
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ComponentAccessorBenchmark
+{
+
+   private final Object dependency = new Object();
+
+   private Constructor<Component> constructor;
+
+   private Field field;
+
+   private Method method;
+
+   private ComponentAccessor constructorAccessor;
+
+   private ComponentAccessor fieldAccessor;
+
+   private ComponentAccessor methodAccessor;
+
+   @Setup
+   public void setUp() throws Exception
+   {
+      constructor = Component.class.getDeclaredConstructor(Object.class);
+      field = Component.class.getDeclaredField("field");
+      method = Component.class.getDeclaredMethod("setMethod", Object.class);
+      constructorAccessor = ComponentAccessors.getAccessor(constructor);
+      fieldAccessor = ComponentAccessors.getAccessor(field);
+      methodAccessor = ComponentAccessors.getAccessor(method);
+   }
+
+   @Benchmark
+   public Object reflection() throws Exception
+   {
+      Object component = constructor.newInstance(dependency);
+      field.set(component, dependency);
+      method.invoke(component, dependency);
+      return component;
+   }
+
+   @Benchmark
+   public Object generated() throws Exception
+   {
+      Object[] args = new Object[]{dependency};
+      Object component = constructorAccessor.invoke(null, args);
+      fieldAccessor.invoke(component, args);
+      methodAccessor.invoke(component, args);
+      return component;
+   }
+
+   public static void main(String[] args) throws RunnerException
+   {
+      new Runner(new OptionsBuilder().include(ComponentAccessorBenchmark.class.getName()).build()).run();
+   }
+
+   public static class Component
+   {
+      Object constructor;
+
+      Object field;
+
+      Object method;
+
+      public Component(Object constructor)
+      {
+         this.constructor = constructor;
+      }
+
+      void setMethod(Object method)
+      {
+         this.method = method;
+      }
+   }
+}
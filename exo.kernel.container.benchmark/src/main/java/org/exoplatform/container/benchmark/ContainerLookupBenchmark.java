@@ -0,0 +1,133 @@
+/*
+ * Copyright (C) 2026 eXo Platform SAS.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.exoplatform.container.benchmark;
+
+import org.exoplatform.container.ConcurrentContainer;
+import org.exoplatform.container.ExoContainer;
+import org.exoplatform.container.spi.ComponentAdapter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the lookups by type of a {@link ConcurrentContainer} holding as many components as a portal
+ * container, only a few of them match the looked up types. The method <code>scan</code> gives the cost of a
+ * lookup that goes through all the registered adapters for comparison.
+ *
+ * @version $Revision$
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContainerLookupBenchmark
+{
+
+   @Param({"1500"})
+   public int components;
+
+   private ConcurrentContainer container;
+
+   @Setup
+   public void setUp()
+   {
+      container = new ConcurrentContainer(new ExoContainer(), null);
+      for (int i = 0; i < components; i++)
+      {
+         container.registerComponentInstance("component-" + i, new Component());
+      }
+      container.registerComponentInstance("service", new ServiceImpl());
+      container.registerComponentInstance("plugin-1", new PluginImpl());
+      container.registerComponentInstance("plugin-2", new PluginImpl());
+   }
+
+   @Benchmark
+   public List<ComponentAdapter<Plugin>> getComponentAdaptersOfType()
+   {
+      return container.getComponentAdaptersOfType(Plugin.class);
+   }
+
+   @Benchmark
+   public Service getComponentInstanceOfType()
+   {
+      return container.getComponentInstanceOfType(Service.class, false);
+   }
+
+   @Benchmark
+   public List<Plugin> getComponentInstancesOfType()
+   {
+      return container.getComponentInstancesOfType(Plugin.class);
+   }
+
+   @Benchmark
+   public List<ComponentAdapter<?>> scan()
+   {
+      List<ComponentAdapter<?>> found = new ArrayList<ComponentAdapter<?>>();
+      for (ComponentAdapter<?> adapter : container.getComponentAdapters())
+      {
+         if (Plugin.class.isAssignableFrom(adapter.getComponentImplementation()))
+         {
+            found.add(adapter);
+         }
+      }
+      return found;
+   }
+
+   public static void main(String[] args) throws RunnerException
+   {
+      new Runner(new OptionsBuilder().include(ContainerLookupBenchmark.class.getName()).build()).run();
+   }
+
+   public static class Component
+   {
+   }
+
+   public static interface Service
+   {
+   }
+
+   public static class ServiceImpl implements Service
+   {
+   }
+
+   public static interface Plugin
+   {
+   }
+
+   public static class PluginImpl implements Plugin
+   {
+   }
+}
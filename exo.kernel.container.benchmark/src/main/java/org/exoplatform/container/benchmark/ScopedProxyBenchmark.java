@@ -0,0 +1,131 @@
+/*
+ * Copyright (C) 2026 eXo Platform SAS.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.exoplatform.container.benchmark;
+
+import javassist.util.proxy.MethodFilter;
+import javassist.util.proxy.MethodHandler;
+import javassist.util.proxy.ProxyFactory;
+
+import org.exoplatform.container.util.ContainerUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+import javax.inject.Provider;
+
+/**
+ * Compares a call to a component of a normal scope through the proxy created by
+ * {@link ContainerUtil#createProxy(Class, Provider)}, through a javassist proxy with a {@link MethodHandler}
+ * that calls the method by reflection and directly on the component.
+ *
+ * @version $Revision$
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScopedProxyBenchmark
+{
+
+   private final Component component = new Component();
+
+   private final Provider<Component> provider = new Provider<Component>()
+   {
+      public Component get()
+      {
+         return component;
+      }
+   };
+
+   private Component generatedProxy;
+
+   private Component methodHandlerProxy;
+
+   private int value;
+
+   @Setup
+   public void setUp() throws Exception
+   {
+      generatedProxy = ContainerUtil.createProxy(Component.class, provider);
+      ProxyFactory factory = new ProxyFactory();
+      factory.setSuperclass(Component.class);
+      factory.setFilter(new MethodFilter()
+      {
+         public boolean isHandled(Method method)
+         {
+            return !method.getDeclaringClass().equals(Object.class);
+         }
+      });
+      methodHandlerProxy = (Component)factory.create(new Class<?>[0], new Object[0], new MethodHandler()
+      {
+         public Object invoke(Object self, Method m, Method proceed, Object[] args) throws Throwable
+         {
+            return m.invoke(provider.get(), args);
+         }
+      });
+   }
+
+   @Benchmark
+   public int plain()
+   {
+      return component.add(value++);
+   }
+
+   @Benchmark
+   public int generatedProxy()
+   {
+      return generatedProxy.add(value++);
+   }
+
+   @Benchmark
+   public int methodHandlerProxy()
+   {
+      return methodHandlerProxy.add(value++);
+   }
+
+   public static void main(String[] args) throws RunnerException
+   {
+      new Runner(new OptionsBuilder().include(ScopedProxyBenchmark.class.getName()).build()).run();
+   }
+
+   public static class Component
+   {
+      private int total;
+
+      public int add(int value)
+      {
+         return total += value;
+      }
+   }
+}
@@ -24,6 +24,7 @@ import org.exoplatform.container.management.ManageableComponentAdapterFactoryMT;
 import org.exoplatform.container.spi.ComponentAdapter;
 import org.exoplatform.container.spi.ComponentAdapterFactory;
 import org.exoplatform.container.spi.ContainerException;
+import org.exoplatform.container.util.ComponentAccessors;
 import org.exoplatform.container.util.ContainerUtil;
 import org.exoplatform.container.xml.InitParams;
 import org.exoplatform.services.log.ExoLogger;
@@ -743,7 +744,7 @@ public class ConcurrentContainerMT extends ConcurrentContainer implements TopExo
                      try
                      {
                         loadArguments(params);
-                        m.invoke(cCtx.get(), params);
+                        ComponentAccessors.invoke(m, cCtx.get(), params);
                      }
                      catch (Exception e)
                      {
@@ -816,7 +817,7 @@ public class ConcurrentContainerMT extends ConcurrentContainer implements TopExo
                   {
                      try
                      {
-                        f.set(cCtx.get(), dependency.load(holder));
+                        ComponentAccessors.set(f, cCtx.get(), dependency.load(holder));
                      }
                      catch (Exception e)
                      {
@@ -946,7 +947,7 @@ public class ConcurrentContainerMT extends ConcurrentContainer implements TopExo
       Constructor<T> constructor = getConstructor(clazz, dependencies);
       final Object[] args = getArguments(constructor, params, dependencies);
       loadArguments(args);
-      return constructor.getDeclaringClass().cast(constructor.newInstance(args));
+      return ComponentAccessors.newInstance(constructor, args);
    }
 
    public <T> ComponentTask<T> createComponentTask(final Constructor<T> constructor, InitParams params,
@@ -958,7 +959,7 @@ public class ConcurrentContainerMT extends ConcurrentContainer implements TopExo
          public T execute(CreationalContextComponentAdapter<?> cCtx) throws Exception
          {
             loadArguments(args);
-            return constructor.getDeclaringClass().cast(constructor.newInstance(args));
+            return ComponentAccessors.newInstance(constructor, args);
          }
       };
    }
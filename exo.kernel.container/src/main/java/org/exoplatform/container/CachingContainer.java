@@ -18,16 +18,33 @@
  */
 package org.exoplatform.container;
 
+import org.exoplatform.commons.utils.PropertyManager;
 import org.exoplatform.container.spi.ComponentAdapter;
 import org.exoplatform.container.spi.Container;
 import org.exoplatform.container.spi.ContainerException;
 import org.exoplatform.container.spi.ContainerVisitor;
+import org.exoplatform.container.util.ContainerUtil;
 
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
+ * Caches the results of the lookups. When a component is registered or unregistered, only the entries whose
+ * key is the key of the component or whose type is one of the supertypes of its implementation are evicted from
+ * this cache and from the caches of the child containers.
+ * <p>
+ * The lookups that found nothing are cached too unless the negative lookup cache has been disabled with
+ * {@link #setNegativeCacheEnabled(boolean)} or globally with the system property
+ * {@value #NEGATIVE_CACHE_ENABLED}. Such a result is only reused by the lookups that would not try to auto
+ * register a component where the lookup that found nothing did not try.
+ *
  * @author <a href="mailto:julien.viet@exoplatform.com">Julien Viet</a>
  * @version $Revision$
  */
@@ -39,6 +56,17 @@ public class CachingContainer extends AbstractInterceptor
     */
    private static final long serialVersionUID = 316388590860241305L;
 
+   /**
+    * The name of the system property that indicates whether the lookups that found nothing are cached by default
+    */
+   public static final String NEGATIVE_CACHE_ENABLED = "exo.container.cache.negative-lookups";
+
+   /**
+    * The maximum amount of keys for which a lookup that found nothing is cached, unlike the types the keys
+    * can be built at runtime so their amount is not bounded
+    */
+   static final int MAX_MISSING_KEYS = 1000;
+
    private final ConcurrentMap<Class<?>, ComponentAdapter<?>> adapterByType =
       new ConcurrentHashMap<Class<?>, ComponentAdapter<?>>();
 
@@ -51,19 +79,66 @@ public class CachingContainer extends AbstractInterceptor
 
    private final ConcurrentMap<Class<?>, List<?>> instancesByType = new ConcurrentHashMap<Class<?>, List<?>>();
 
+   /**
+    * The types for which no adapter could be found, the value indicates whether the auto registration was tried
+    */
+   private final ConcurrentMap<Class<?>, Boolean> missingAdapterByType = new ConcurrentHashMap<Class<?>, Boolean>();
+
+   /**
+    * The types for which no instance could be found, the value indicates whether the auto registration was tried
+    */
+   private final ConcurrentMap<Class<?>, Boolean> missingInstanceByType = new ConcurrentHashMap<Class<?>, Boolean>();
+
+   /**
+    * The keys for which no instance could be found without auto registration, it contains at most
+    * {@link #MAX_MISSING_KEYS} keys
+    */
+   private final ConcurrentMap<Object, Boolean> missingInstanceByKey = new ConcurrentHashMap<Object, Boolean>();
+
+   private volatile boolean negativeCacheEnabled = !"false".equalsIgnoreCase(PropertyManager
+      .getProperty(NEGATIVE_CACHE_ENABLED));
+
    private final ThreadLocal<Boolean> enabled = new ThreadLocal<Boolean>();
 
+   private final LongAdder hits = new LongAdder();
+
+   private final LongAdder misses = new LongAdder();
+
+   private final LongAdder negativeHits = new LongAdder();
+
+   private final LongAdder evictions = new LongAdder();
+
+   /**
+    * Incremented before each eviction, a lookup that found nothing can only be cached if no eviction occurred
+    * in the meantime
+    */
+   private final AtomicLong invalidations = new AtomicLong();
+
    @SuppressWarnings("unchecked")
    public <T> ComponentAdapter<T> getComponentAdapterOfType(Class<T> componentType, boolean autoRegistration)
    {
       ComponentAdapter<T> adapter = (ComponentAdapter<T>)adapterByType.get(componentType);
       if (adapter == null)
       {
+         if (isMissing(missingAdapterByType, componentType, autoRegistration))
+         {
+            return null;
+         }
+         misses.increment();
+         long generation = invalidations.get();
          adapter = super.getComponentAdapterOfType(componentType, autoRegistration);
          if (adapter != null)
          {
             adapterByType.put(componentType, adapter);
          }
+         else
+         {
+            setMissing(missingAdapterByType, componentType, autoRegistration, generation);
+         }
+      }
+      else
+      {
+         hits.increment();
       }
       return adapter;
    }
@@ -74,12 +149,17 @@ public class CachingContainer extends AbstractInterceptor
       List<ComponentAdapter<T>> adapters = (List<ComponentAdapter<T>>)adaptersByType.get(componentType);
       if (adapters == null)
       {
+         misses.increment();
          adapters = super.getComponentAdaptersOfType(componentType);
          if (adapters != null)
          {
             adaptersByType.put(componentType, adapters);
          }
       }
+      else
+      {
+         hits.increment();
+      }
       return adapters;
    }
 
@@ -89,6 +169,7 @@ public class CachingContainer extends AbstractInterceptor
       List<?> instances = instancesByType.get(componentType);
       if (instances == null)
       {
+         misses.increment();
          instances = super.getComponentInstancesOfType(componentType);
          if (instances != null)
          {
@@ -107,6 +188,10 @@ public class CachingContainer extends AbstractInterceptor
             }
          }
       }
+      else
+      {
+         hits.increment();
+      }
       return (List<T>)instances;
    }
 
@@ -115,8 +200,24 @@ public class CachingContainer extends AbstractInterceptor
       Object instance = instanceByKey.get(componentKey);
       if (instance == null)
       {
+         // The auto registration by key depends on the bind type so only the lookups without auto registration
+         // can be cached when nothing is found
+         boolean cacheMissing = !autoRegistration || Object.class.equals(bindType);
+         if (cacheMissing && isMissing(missingInstanceByKey, componentKey, false))
+         {
+            return null;
+         }
+         misses.increment();
+         long generation = invalidations.get();
          instance = super.getComponentInstance(componentKey, bindType, autoRegistration);
-         if (instance != null)
+         if (instance == null)
+         {
+            if (cacheMissing && missingInstanceByKey.size() < MAX_MISSING_KEYS)
+            {
+               setMissing(missingInstanceByKey, componentKey, false, generation);
+            }
+         }
+         else
          {
             Boolean cacheEnabled = enabled.get();
             try
@@ -133,6 +234,10 @@ public class CachingContainer extends AbstractInterceptor
             }
          }
       }
+      else
+      {
+         hits.increment();
+      }
       return bindType.cast(instance);
    }
 
@@ -141,8 +246,18 @@ public class CachingContainer extends AbstractInterceptor
       Object instance = instanceByType.get(componentType);
       if (instance == null)
       {
+         if (isMissing(missingInstanceByType, componentType, autoRegistration))
+         {
+            return null;
+         }
+         misses.increment();
+         long generation = invalidations.get();
          instance = super.getComponentInstanceOfType(componentType, autoRegistration);
-         if (instance != null)
+         if (instance == null)
+         {
+            setMissing(missingInstanceByType, componentType, autoRegistration, generation);
+         }
+         else
          {
             Boolean cacheEnabled = enabled.get();
             try
@@ -159,39 +274,140 @@ public class CachingContainer extends AbstractInterceptor
             }
          }
       }
+      else
+      {
+         hits.increment();
+      }
       return componentType.cast(instance);
    }
 
-   private static final ContainerVisitor invalidator = new ContainerVisitor()
+   /**
+    * Indicates whether the given key is known to be missing for a lookup with the given auto registration
+    * parameter
+    */
+   private <K> boolean isMissing(ConcurrentMap<K, Boolean> missing, K key, boolean autoRegistration)
+   {
+      if (!negativeCacheEnabled)
+      {
+         return false;
+      }
+      Boolean tried = missing.get(key);
+      if (tried != null && (tried.booleanValue() || !autoRegistration))
+      {
+         hits.increment();
+         negativeHits.increment();
+         return true;
+      }
+      return false;
+   }
+
+   /**
+    * Remembers that nothing could be found for the given key unless an eviction occurred since the lookup
+    * started
+    */
+   private <K> void setMissing(ConcurrentMap<K, Boolean> missing, K key, boolean autoRegistration, long generation)
    {
+      if (!negativeCacheEnabled || invalidations.get() != generation)
+      {
+         return;
+      }
+      Boolean tried = Boolean.valueOf(autoRegistration);
+      if (autoRegistration)
+      {
+         missing.put(key, tried);
+      }
+      else
+      {
+         missing.putIfAbsent(key, tried);
+      }
+      if (invalidations.get() != generation)
+      {
+         // An eviction may have been missed
+         missing.remove(key, tried);
+      }
+   }
+
+   /**
+    * Evicts the entries affected by a change of the component with the given key and implementation from the
+    * cache of each visited container.
+    */
+   private static class Invalidator implements ContainerVisitor
+   {
+      private final Object componentKey;
+
+      private final Set<Class<?>> types;
+
+      Invalidator(Object componentKey, Set<Class<?>> types)
+      {
+         this.componentKey = componentKey;
+         this.types = types;
+      }
+
       public void visitContainer(Container container)
       {
          do
          {
             if (container instanceof CachingContainer)
             {
-               CachingContainer caching = (CachingContainer)container;
-               caching.adapterByType.clear();
-               caching.adaptersByType.clear();
-               caching.instanceByKey.clear();
-               caching.instanceByType.clear();
-               caching.instancesByType.clear();
+               ((CachingContainer)container).evict(componentKey, types);
                break;
             }
          }
          while ((container = container.getSuccessor()) != null);
       }
-   };
+   }
+
+   /**
+    * Evicts the instance registered with the given key and all the entries of the given types
+    */
+   private void evict(Object componentKey, Set<Class<?>> types)
+   {
+      invalidations.incrementAndGet();
+      int evicted = instanceByKey.remove(componentKey) == null ? 0 : 1;
+      if (missingInstanceByKey.remove(componentKey) != null)
+         evicted++;
+      for (Class<?> type : types)
+      {
+         evicted += evict(type);
+      }
+      if (componentKey instanceof Class<?> && !types.contains(componentKey))
+      {
+         // The lookups by type start with a lookup by key
+         evicted += evict((Class<?>)componentKey);
+      }
+      evictions.add(evicted);
+   }
 
-   private void invalidate()
+   private int evict(Class<?> type)
    {
-      accept(invalidator);
+      int evicted = 0;
+      if (adapterByType.remove(type) != null)
+         evicted++;
+      if (adaptersByType.remove(type) != null)
+         evicted++;
+      if (instanceByType.remove(type) != null)
+         evicted++;
+      if (instancesByType.remove(type) != null)
+         evicted++;
+      if (missingAdapterByType.remove(type) != null)
+         evicted++;
+      if (missingInstanceByType.remove(type) != null)
+         evicted++;
+      return evicted;
+   }
+
+   private void invalidate(Object componentKey, ComponentAdapter<?> adapter)
+   {
+      Set<Class<?>> types =
+         adapter == null ? Collections.<Class<?>> emptySet() : ContainerUtil.getSuperTypes(adapter
+            .getComponentImplementation());
+      accept(new Invalidator(componentKey, types));
    }
 
    public ComponentAdapter<?> unregisterComponent(Object componentKey)
    {
       ComponentAdapter<?> adapter = super.unregisterComponent(componentKey);
-      invalidate();
+      invalidate(componentKey, adapter);
       return adapter;
    }
 
@@ -199,7 +415,7 @@ public class CachingContainer extends AbstractInterceptor
       throws ContainerException
    {
       ComponentAdapter<T> adapter = super.registerComponentInstance(componentKey, componentInstance);
-      invalidate();
+      invalidate(componentKey, adapter);
       return adapter;
    }
 
@@ -207,7 +423,7 @@ public class CachingContainer extends AbstractInterceptor
       throws ContainerException
    {
       ComponentAdapter<T> adapter = super.registerComponentImplementation(componentKey, componentImplementation);
-      invalidate();
+      invalidate(componentKey, adapter);
       return adapter;
    }
 
@@ -223,4 +439,91 @@ public class CachingContainer extends AbstractInterceptor
    {
       enabled.set(Boolean.FALSE);
    }
+
+   /**
+    * @return the amount of lookups answered by this cache
+    */
+   public long getHits()
+   {
+      return hits.sum();
+   }
+
+   /**
+    * @return the amount of lookups delegated to the next containers
+    */
+   public long getMisses()
+   {
+      return misses.sum();
+   }
+
+   /**
+    * @return the ratio of the lookups answered by this cache, 0 if there was no lookup
+    */
+   public double getHitRatio()
+   {
+      long hits = getHits();
+      long total = hits + getMisses();
+      return total == 0 ? 0 : (double)hits / total;
+   }
+
+   /**
+    * @return the amount of entries evicted because of a registration or an unregistration
+    */
+   public long getEvictions()
+   {
+      return evictions.sum();
+   }
+
+   /**
+    * @return the amount of registrations and unregistrations that have been applied to this cache
+    */
+   public long getInvalidations()
+   {
+      return invalidations.get();
+   }
+
+   /**
+    * @return the amount of lookups answered by this cache with no result
+    */
+   public long getNegativeHits()
+   {
+      return negativeHits.sum();
+   }
+
+   /**
+    * @return <code>true</code> if the lookups that found nothing are cached, <code>false</code> otherwise
+    */
+   public boolean isNegativeCacheEnabled()
+   {
+      return negativeCacheEnabled;
+   }
+
+   /**
+    * Enables or disables the caching of the lookups that found nothing, the lookups already cached are dropped
+    * when disabled.
+    */
+   public void setNegativeCacheEnabled(boolean negativeCacheEnabled)
+   {
+      this.negativeCacheEnabled = negativeCacheEnabled;
+      if (!negativeCacheEnabled)
+      {
+         missingAdapterByType.clear();
+         missingInstanceByType.clear();
+         missingInstanceByKey.clear();
+      }
+   }
+
+   /**
+    * @return the counters of this cache indexed by name
+    */
+   public Map<String, Long> getStatistics()
+   {
+      Map<String, Long> map = new LinkedHashMap<String, Long>();
+      map.put("hits", getHits());
+      map.put("misses", getMisses());
+      map.put("negativeHits", getNegativeHits());
+      map.put("evictions", getEvictions());
+      map.put("invalidations", getInvalidations());
+      return map;
+   }
 }
@@ -23,6 +23,7 @@ import org.exoplatform.container.spi.ComponentAdapterFactory;
 import org.exoplatform.container.spi.Container;
 import org.exoplatform.container.spi.ContainerException;
 import org.exoplatform.container.spi.ContainerVisitor;
+import org.exoplatform.container.util.ComponentAccessors;
 import org.exoplatform.container.util.ContainerUtil;
 import org.exoplatform.container.xml.InitParams;
 import org.exoplatform.management.ManagementContext;
@@ -86,6 +87,13 @@ public class ConcurrentContainer extends AbstractInterceptor
 
    protected final Set<ComponentAdapter<?>> componentAdapters = new CopyOnWriteArraySet<ComponentAdapter<?>>();
 
+   /**
+    * The registered adapters indexed by the classes and interfaces that their implementation extends or
+    * implements, the adapters of a given type are kept in registration order
+    */
+   private final ConcurrentMap<Class<?>, Set<ComponentAdapter<?>>> adaptersByType =
+      new ConcurrentHashMap<Class<?>, Set<ComponentAdapter<?>>>();
+
    // Keeps track of instantiation order.
    protected final CopyOnWriteArrayList<ComponentAdapter<?>> orderedComponentAdapters =
       new CopyOnWriteArrayList<ComponentAdapter<?>>();
@@ -199,17 +207,53 @@ public class ConcurrentContainer extends AbstractInterceptor
       {
          return Collections.emptyList();
       }
-      List<ComponentAdapter<T>> found = new ArrayList<ComponentAdapter<T>>();
-      for (Iterator<ComponentAdapter<?>> iterator = componentAdapters.iterator(); iterator.hasNext();)
+      Set<ComponentAdapter<?>> adapters = adaptersByType.get(componentType);
+      if (adapters == null)
       {
-         ComponentAdapter<?> componentAdapter = iterator.next();
+         return new ArrayList<ComponentAdapter<T>>();
+      }
+      List<ComponentAdapter<T>> found = new ArrayList<ComponentAdapter<T>>(adapters.size());
+      for (Iterator<ComponentAdapter<?>> iterator = adapters.iterator(); iterator.hasNext();)
+      {
+         found.add((ComponentAdapter<T>)iterator.next());
+      }
+      return found;
+   }
 
-         if (componentType.isAssignableFrom(componentAdapter.getComponentImplementation()))
+   /**
+    * Adds the given adapter to the index of each supertype of its implementation
+    */
+   private void index(ComponentAdapter<?> componentAdapter)
+   {
+      for (Class<?> type : ContainerUtil.getSuperTypes(componentAdapter.getComponentImplementation()))
+      {
+         Set<ComponentAdapter<?>> adapters = adaptersByType.get(type);
+         if (adapters == null)
          {
-            found.add((ComponentAdapter<T>)componentAdapter);
+            adapters = new CopyOnWriteArraySet<ComponentAdapter<?>>();
+            Set<ComponentAdapter<?>> existing = adaptersByType.putIfAbsent(type, adapters);
+            if (existing != null)
+            {
+               adapters = existing;
+            }
+         }
+         adapters.add(componentAdapter);
+      }
+   }
+
+   /**
+    * Removes the given adapter from the index of each supertype of its implementation
+    */
+   private void unindex(ComponentAdapter<?> componentAdapter)
+   {
+      for (Class<?> type : ContainerUtil.getSuperTypes(componentAdapter.getComponentImplementation()))
+      {
+         Set<ComponentAdapter<?>> adapters = adaptersByType.get(type);
+         if (adapters != null)
+         {
+            adapters.remove(componentAdapter);
          }
       }
-      return found;
    }
 
    /**
@@ -232,6 +276,7 @@ public class ConcurrentContainer extends AbstractInterceptor
          throw new ContainerException("Key " + componentKey + " duplicated");
       }
       componentAdapters.add(componentAdapter);
+      index(componentAdapter);
       return componentAdapter;
    }
 
@@ -250,7 +295,10 @@ public class ConcurrentContainer extends AbstractInterceptor
             children.remove((Container)value);
          }
       }
-      componentAdapters.remove(adapter);
+      if (adapter != null && componentAdapters.remove(adapter))
+      {
+         unindex(adapter);
+      }
       orderedComponentAdapters.remove(adapter);
       return adapter;
    }
@@ -320,18 +368,20 @@ public class ConcurrentContainer extends AbstractInterceptor
       }
 
       Map<ComponentAdapter<T>, Object> adapterToInstanceMap = new HashMap<ComponentAdapter<T>, Object>();
-      for (Iterator<ComponentAdapter<?>> iterator = componentAdapters.iterator(); iterator.hasNext();)
+      Set<ComponentAdapter<?>> adapters = adaptersByType.get(componentType);
+      if (adapters == null)
+      {
+         return new ArrayList<T>();
+      }
+      for (Iterator<ComponentAdapter<?>> iterator = adapters.iterator(); iterator.hasNext();)
       {
          ComponentAdapter<?> componentAdapter = iterator.next();
-         if (componentType.isAssignableFrom(componentAdapter.getComponentImplementation()))
-         {
-            T componentInstance = getInstance((ComponentAdapter<T>)componentAdapter, componentType, false);
-            adapterToInstanceMap.put((ComponentAdapter<T>)componentAdapter, componentInstance);
+         T componentInstance = getInstance((ComponentAdapter<T>)componentAdapter, componentType, false);
+         adapterToInstanceMap.put((ComponentAdapter<T>)componentAdapter, componentInstance);
 
-            // This is to ensure all are added. (Indirect dependencies will be added
-            // from InstantiatingComponentAdapter).
-            addOrderedComponentAdapter(componentAdapter);
-         }
+         // This is to ensure all are added. (Indirect dependencies will be added
+         // from InstantiatingComponentAdapter).
+         addOrderedComponentAdapter(componentAdapter);
       }
       List<T> result = new ArrayList<T>();
       for (Iterator<ComponentAdapter<?>> iterator = orderedComponentAdapters.iterator(); iterator.hasNext();)
@@ -608,7 +658,7 @@ public class ConcurrentContainer extends AbstractInterceptor
             if ((!Modifier.isPublic(constructor.getModifiers()) || !Modifier.isPublic(constructor.getDeclaringClass()
                .getModifiers())) && !constructor.isAccessible())
                constructor.setAccessible(true);
-            return clazz.cast(constructor.newInstance(args));
+            return clazz.cast(ComponentAccessors.newInstance(constructor, args));
          }
       }
       throw new Exception("Cannot find a satisfying constructor for " + clazz.getName() + " with parameter "
@@ -752,7 +802,7 @@ public class ConcurrentContainer extends AbstractInterceptor
                if ((!Modifier.isPublic(m.getModifiers()) || !Modifier.isPublic(m.getDeclaringClass().getModifiers()))
                   && !m.isAccessible())
                   m.setAccessible(true);
-               m.invoke(instance, params);
+               ComponentAccessors.invoke(m, instance, params);
             }
             catch (Exception e)
             {
@@ -835,7 +885,7 @@ public class ConcurrentContainer extends AbstractInterceptor
                {
                   continue;
                }
-               f.set(instance, result);
+               ComponentAccessors.set(f, instance, result);
             }
             catch (Exception e)
             {
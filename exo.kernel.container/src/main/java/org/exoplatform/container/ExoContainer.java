@@ -558,6 +558,61 @@ public class ExoContainer extends AbstractContainer
       return names;
    }
 
+   @Managed
+   @ManagedName("CacheStatistics")
+   @ManagedDescription("Return the counters of the cache of the lookups of this container")
+   public Map<String, Long> getCacheStatistics()
+   {
+      CachingContainer cache = getCachingContainer();
+      return cache == null ? new HashMap<String, Long>() : cache.getStatistics();
+   }
+
+   @Managed
+   @ManagedName("CacheHitRatio")
+   @ManagedDescription("Return the ratio of the lookups answered by the cache of this container")
+   public double getCacheHitRatio()
+   {
+      CachingContainer cache = getCachingContainer();
+      return cache == null ? 0 : cache.getHitRatio();
+   }
+
+   @Managed
+   @ManagedName("NegativeLookupCacheEnabled")
+   @ManagedDescription("Indicates whether the lookups that found nothing are cached by this container")
+   public boolean isNegativeLookupCacheEnabled()
+   {
+      CachingContainer cache = getCachingContainer();
+      return cache != null && cache.isNegativeCacheEnabled();
+   }
+
+   /**
+    * Enables or disables the caching of the lookups that found nothing in this container
+    */
+   @Managed
+   public void setNegativeLookupCacheEnabled(boolean enabled)
+   {
+      CachingContainer cache = getCachingContainer();
+      if (cache != null)
+      {
+         cache.setNegativeCacheEnabled(enabled);
+      }
+   }
+
+   /**
+    * Gives the {@link CachingContainer} of the interceptor chain if any
+    */
+   private CachingContainer getCachingContainer()
+   {
+      for (Container co = getSuccessor(); co != null; co = co.getSuccessor())
+      {
+         if (co instanceof CachingContainer)
+         {
+            return (CachingContainer)co;
+         }
+      }
+      return null;
+   }
+
    /**
     * Gives the parent container of this container.
     * 
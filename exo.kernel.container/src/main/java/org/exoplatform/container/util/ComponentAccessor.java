@@ -0,0 +1,42 @@
+/*
+ * Copyright (C) 2026 eXo Platform SAS.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.exoplatform.container.util;
+
+/**
+ * Gives access to a constructor, a field or a method of a component. An accessor is either generated
+ * at first use or based on the reflection API, see {@link ComponentAccessors}.
+ *
+ * @version $Revision$
+ */
+public interface ComponentAccessor
+{
+   /**
+    * Calls the underlying constructor or method, or sets the value of the underlying field.
+    *
+    * @param target the instance on which the method is called or whose field is set, ignored in case
+    * of a constructor
+    * @param args the arguments of the constructor or of the method, or the value of the field as unique
+    * element in case of a field
+    * @return the new instance in case of a constructor, <code>null</code> otherwise
+    * @throws java.lang.reflect.InvocationTargetException if the underlying constructor or method throws
+    * an exception
+    * @throws Exception if the access could not be done
+    */
+   Object invoke(Object target, Object[] args) throws Exception;
+}
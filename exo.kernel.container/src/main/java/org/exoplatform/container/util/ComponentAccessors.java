@@ -0,0 +1,405 @@
+/*
+ * Copyright (C) 2026 eXo Platform SAS.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.exoplatform.container.util;
+
+import javassist.ClassPool;
+import javassist.CtClass;
+import javassist.CtNewConstructor;
+import javassist.CtNewMethod;
+import javassist.LoaderClassPath;
+
+import org.exoplatform.commons.utils.PropertyManager;
+import org.exoplatform.commons.utils.SecurityHelper;
+import org.exoplatform.services.log.ExoLogger;
+import org.exoplatform.services.log.Log;
+
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.security.PrivilegedAction;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates the components and injects their dependencies. By default the reflection API is used, when the
+ * system property {@value #GENERATION_ENABLED} is set to <code>true</code> a {@link ComponentAccessor} class
+ * is generated with javassist at first use for each constructor, field and method, so that the next
+ * accesses are direct calls.
+ * <p>
+ * An accessor is generated in the package and the class loader of the class that declares the member so
+ * that it can access the package-private members. The reflection API is still used when the member or one
+ * of the types that it uses is private or cannot be accessed from this package, or when javassist is not
+ * available.
+ *
+ * @version $Revision$
+ */
+public final class ComponentAccessors
+{
+   /** The logger. */
+   private static final Log LOG = ExoLogger.getExoLogger(ComponentAccessors.class);
+
+   /**
+    * The name of the system property that indicates whether the accessors must be generated
+    */
+   public static final String GENERATION_ENABLED = "exo.container.generated-accessors";
+
+   private static volatile boolean generationEnabled = Boolean.parseBoolean(PropertyManager
+      .getProperty(GENERATION_ENABLED));
+
+   /**
+    * The accessors of the members of the classes indexed by member
+    */
+   private static final ClassValue<ConcurrentMap<Member, ComponentAccessor>> ACCESSORS =
+      new ClassValue<ConcurrentMap<Member, ComponentAccessor>>()
+      {
+         @Override
+         protected ConcurrentMap<Member, ComponentAccessor> computeValue(Class<?> type)
+         {
+            return new ConcurrentHashMap<Member, ComponentAccessor>();
+         }
+      };
+
+   private ComponentAccessors()
+   {
+   }
+
+   /**
+    * @return <code>true</code> if the accessors are generated, <code>false</code> if the reflection API is
+    * used
+    */
+   public static boolean isGenerationEnabled()
+   {
+      return generationEnabled;
+   }
+
+   static void setGenerationEnabled(boolean enabled)
+   {
+      generationEnabled = enabled;
+   }
+
+   /**
+    * Creates a new instance with the given constructor.
+    */
+   public static <T> T newInstance(Constructor<T> constructor, Object[] args) throws Exception
+   {
+      if (!generationEnabled)
+      {
+         return constructor.newInstance(args);
+      }
+      return constructor.getDeclaringClass().cast(getAccessor(constructor).invoke(null, args));
+   }
+
+   /**
+    * Sets the value of the given field on the given instance.
+    */
+   public static void set(Field field, Object target, Object value) throws Exception
+   {
+      if (!generationEnabled)
+      {
+         field.set(target, value);
+         return;
+      }
+      getAccessor(field).invoke(target, new Object[]{value});
+   }
+
+   /**
+    * Calls the given method on the given instance.
+    */
+   public static void invoke(Method method, Object target, Object[] args) throws Exception
+   {
+      if (!generationEnabled)
+      {
+         method.invoke(target, args);
+         return;
+      }
+      getAccessor(method).invoke(target, args);
+   }
+
+   /**
+    * Gives the accessor of the given constructor, field or method, generates it if needed.
+    */
+   public static ComponentAccessor getAccessor(Member member)
+   {
+      ConcurrentMap<Member, ComponentAccessor> accessors = ACCESSORS.get(member.getDeclaringClass());
+      ComponentAccessor accessor = accessors.get(member);
+      if (accessor == null)
+      {
+         accessor = createAccessor(member);
+         ComponentAccessor existing = accessors.putIfAbsent(member, accessor);
+         if (existing != null)
+         {
+            accessor = existing;
+         }
+      }
+      return accessor;
+   }
+
+   private static ComponentAccessor createAccessor(final Member member)
+   {
+      if (canBeGenerated(member))
+      {
+         ComponentAccessor accessor = SecurityHelper.doPrivilegedAction(new PrivilegedAction<ComponentAccessor>()
+         {
+            public ComponentAccessor run()
+            {
+               try
+               {
+                  return Generator.generate(member);
+               }
+               catch (Throwable e)
+               {
+                  if (LOG.isDebugEnabled())
+                  {
+                     LOG.debug("Could not generate an accessor for " + member + ", the reflection will be used", e);
+                  }
+                  return null;
+               }
+            }
+         });
+         if (accessor != null)
+         {
+            return accessor;
+         }
+      }
+      return new ReflectiveAccessor(member);
+   }
+
+   /**
+    * Indicates whether the given member and the types that it uses can be accessed from a class of the
+    * package of the class that declares it
+    */
+   private static boolean canBeGenerated(Member member)
+   {
+      Class<?> declaringClass = member.getDeclaringClass();
+      int modifiers = member.getModifiers();
+      if (Modifier.isPrivate(modifiers) || Modifier.isStatic(modifiers) || declaringClass.getClassLoader() == null
+         || !isAccessible(declaringClass, declaringClass))
+      {
+         return false;
+      }
+      Class<?>[] types;
+      if (member instanceof Constructor<?>)
+      {
+         if (Modifier.isAbstract(declaringClass.getModifiers()))
+         {
+            return false;
+         }
+         types = ((Constructor<?>)member).getParameterTypes();
+      }
+      else if (member instanceof Method)
+      {
+         types = ((Method)member).getParameterTypes();
+      }
+      else
+      {
+         types = new Class<?>[]{((Field)member).getType()};
+      }
+      for (Class<?> type : types)
+      {
+         if (!isAccessible(type, declaringClass))
+         {
+            return false;
+         }
+      }
+      try
+      {
+         // The generated class must see the same interface as this class
+         return Class.forName(ComponentAccessor.class.getName(), false, declaringClass.getClassLoader()) == ComponentAccessor.class;
+      }
+      catch (ClassNotFoundException e)
+      {
+         return false;
+      }
+   }
+
+   /**
+    * Indicates whether the given type can be accessed from a class of the package and the class loader of the
+    * given class
+    */
+   static boolean isAccessible(Class<?> type, Class<?> from)
+   {
+      while (type.isArray())
+      {
+         type = type.getComponentType();
+      }
+      if (type.isPrimitive())
+      {
+         return true;
+      }
+      int modifiers = type.getModifiers();
+      if (Modifier.isPrivate(modifiers))
+      {
+         return false;
+      }
+      else if (!Modifier.isPublic(modifiers)
+         && (type.getClassLoader() != from.getClassLoader() || !getPackageName(type).equals(getPackageName(from))))
+      {
+         return false;
+      }
+      Class<?> enclosingClass = type.getDeclaringClass();
+      return enclosingClass == null || isAccessible(enclosingClass, from);
+   }
+
+   static String getPackageName(Class<?> type)
+   {
+      String name = type.getName();
+      int index = name.lastIndexOf('.');
+      return index == -1 ? "" : name.substring(0, index);
+   }
+
+   /**
+    * The accessor used when no accessor can be generated
+    */
+   private static class ReflectiveAccessor implements ComponentAccessor
+   {
+      private final Member member;
+
+      ReflectiveAccessor(Member member)
+      {
+         this.member = member;
+         final AccessibleObject object = (AccessibleObject)member;
+         // Making a member accessible again is harmless, it is done once per accessor
+         if (!Modifier.isPublic(member.getModifiers())
+            || !Modifier.isPublic(member.getDeclaringClass().getModifiers()))
+         {
+            SecurityHelper.doPrivilegedAction(new PrivilegedAction<Void>()
+            {
+               public Void run()
+               {
+                  object.setAccessible(true);
+                  return null;
+               }
+            });
+         }
+      }
+
+      public Object invoke(Object target, Object[] args) throws Exception
+      {
+         if (member instanceof Constructor<?>)
+         {
+            return ((Constructor<?>)member).newInstance(args);
+         }
+         else if (member instanceof Method)
+         {
+            ((Method)member).invoke(target, args);
+         }
+         else
+         {
+            ((Field)member).set(target, args[0]);
+         }
+         return null;
+      }
+   }
+
+   /**
+    * Generates the accessors with javassist, it is a separate class as javassist is an optional dependency
+    */
+   private static class Generator
+   {
+      private static final AtomicInteger COUNTER = new AtomicInteger();
+
+      private static final Map<Class<?>, Class<?>> WRAPPERS = new HashMap<Class<?>, Class<?>>();
+
+      static
+      {
+         WRAPPERS.put(boolean.class, Boolean.class);
+         WRAPPERS.put(byte.class, Byte.class);
+         WRAPPERS.put(char.class, Character.class);
+         WRAPPERS.put(short.class, Short.class);
+         WRAPPERS.put(int.class, Integer.class);
+         WRAPPERS.put(long.class, Long.class);
+         WRAPPERS.put(float.class, Float.class);
+         WRAPPERS.put(double.class, Double.class);
+      }
+
+      static ComponentAccessor generate(Member member) throws Exception
+      {
+         Class<?> declaringClass = member.getDeclaringClass();
+         StringBuilder body = new StringBuilder("public Object invoke(Object target, Object[] args) throws Exception {");
+         if (member instanceof Constructor<?>)
+         {
+            body.append("try { return new ").append(getTypeName(declaringClass)).append('(');
+            appendArguments(body, ((Constructor<?>)member).getParameterTypes());
+            body.append("); } catch (Throwable e) { throw new java.lang.reflect.InvocationTargetException(e); }");
+         }
+         else if (member instanceof Method)
+         {
+            body.append("try { ").append(cast(declaringClass, "target")).append('.').append(member.getName()).append('(');
+            appendArguments(body, ((Method)member).getParameterTypes());
+            body.append("); } catch (Throwable e) { throw new java.lang.reflect.InvocationTargetException(e); }");
+            body.append(" return null;");
+         }
+         else
+         {
+            body.append(cast(declaringClass, "target")).append('.').append(member.getName()).append(" = ")
+               .append(cast(((Field)member).getType(), "args[0]")).append("; return null;");
+         }
+         body.append('}');
+
+         ClassLoader loader = declaringClass.getClassLoader();
+         ClassPool pool = new ClassPool(false);
+         pool.appendClassPath(new LoaderClassPath(loader));
+         CtClass cc = pool.makeClass(declaringClass.getName() + "$$ExoAccessor$" + COUNTER.incrementAndGet());
+         try
+         {
+            cc.addInterface(pool.get(ComponentAccessor.class.getName()));
+            cc.addConstructor(CtNewConstructor.defaultConstructor(cc));
+            cc.addMethod(CtNewMethod.make(body.toString(), cc));
+            return (ComponentAccessor)cc.toClass(loader, declaringClass.getProtectionDomain()).getDeclaredConstructor()
+               .newInstance();
+         }
+         finally
+         {
+            cc.detach();
+         }
+      }
+
+      private static void appendArguments(StringBuilder body, Class<?>[] types)
+      {
+         for (int i = 0; i < types.length; i++)
+         {
+            if (i > 0)
+            {
+               body.append(", ");
+            }
+            body.append(cast(types[i], "args[" + i + "]"));
+         }
+      }
+
+      private static String cast(Class<?> type, String expression)
+      {
+         if (type.isPrimitive())
+         {
+            return "((" + WRAPPERS.get(type).getName() + ")" + expression + ")." + type.getName() + "Value()";
+         }
+         return "((" + getTypeName(type) + ")" + expression + ")";
+      }
+
+      private static String getTypeName(Class<?> type)
+      {
+         return type.isArray() ? getTypeName(type.getComponentType()) + "[]" : type.getName();
+      }
+   }
+}
@@ -53,7 +53,9 @@ import java.util.Comparator;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.Set;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.context.NormalScope;
@@ -95,6 +97,20 @@ public class ContainerUtil
       }
    };
 
+   /**
+    * The supertypes of the classes
+    */
+   private static final ClassValue<Set<Class<?>>> SUPER_TYPES = new ClassValue<Set<Class<?>>>()
+   {
+      @Override
+      protected Set<Class<?>> computeValue(Class<?> type)
+      {
+         Set<Class<?>> types = new LinkedHashSet<Class<?>>();
+         addSuperTypes(type, types);
+         return Collections.unmodifiableSet(types);
+      }
+   };
+
    public static Constructor<?>[] getSortedConstructors(Class<?> clazz) throws NoClassDefFoundError
    {
       Constructor<?>[] constructors = clazz.getDeclaredConstructors();
@@ -243,6 +259,36 @@ public class ContainerUtil
       return null;
    }
 
+   /**
+    * Gives all the types to which the given class is assignable, which are the class itself, its superclasses
+    * and all the interfaces that they implement. The result is computed once per class.
+    */
+   public static Set<Class<?>> getSuperTypes(Class<?> clazz)
+   {
+      return SUPER_TYPES.get(clazz);
+   }
+
+   /**
+    * Adds the given type, its superclasses and all the interfaces that they implement to the given set
+    */
+   private static void addSuperTypes(Class<?> type, Set<Class<?>> types)
+   {
+      if (type == null || !types.add(type))
+      {
+         return;
+      }
+      addSuperTypes(type.getSuperclass(), types);
+      for (Class<?> itf : type.getInterfaces())
+      {
+         addSuperTypes(itf, types);
+      }
+      if (type.isInterface())
+      {
+         // An interface is assignable to Object
+         types.add(Object.class);
+      }
+   }
+
    /**
     * Indicates whether or not the given Class is a singleton or as the scope set to ApplicationScoped
     */
@@ -511,7 +557,9 @@ public class ContainerUtil
    }
 
    /**
-    * Creates a proxy of the given super class whose instance will be created accessed lazily thanks to a provider
+    * Creates a proxy of the given super class whose instance will be created accessed lazily thanks to a provider.
+    * The proxy calls directly the methods of the provided instance when possible, otherwise it relies on a
+    * {@link MethodHandler} that calls them by reflection.
     * @param superClass the super class of the proxy to create
     * @param provider the provider that will create the instance lazily
     * @return a proxy of the given super class
@@ -541,6 +589,11 @@ public class ContainerUtil
             }
             try
             {
+               T proxy = ScopedProxyGenerator.createProxy(superClass, provider);
+               if (proxy != null)
+               {
+                  return proxy;
+               }
                ProxyFactory factory = new ProxyFactory();
                factory.setSuperclass(superClass);
                factory.setFilter(MethodFilterHolder.METHOD_FILTER);
@@ -0,0 +1,284 @@
+/*
+ * Copyright (C) 2026 eXo Platform SAS.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.exoplatform.container.util;
+
+import javassist.ClassPool;
+import javassist.CtClass;
+import javassist.CtConstructor;
+import javassist.CtField;
+import javassist.CtNewMethod;
+import javassist.LoaderClassPath;
+
+import org.exoplatform.services.log.ExoLogger;
+import org.exoplatform.services.log.Log;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.inject.Provider;
+
+/**
+ * Generates with javassist the proxies of the components of a normal scope. A proxy is a sub class of the
+ * component whose methods get the contextual instance from a {@link Provider} and call directly the same
+ * method on it, so that there is no {@link javassist.util.proxy.MethodHandler} and no reflection involved.
+ * <p>
+ * A proxy is generated in the package and the class loader of the component so that it can call the
+ * package-private methods. No proxy class is generated when a method cannot be called directly from this
+ * package, like a protected method inherited from a class of another package, in which case
+ * {@link ContainerUtil#createProxy(Class, Provider)} falls back to a proxy of the {@link javassist.util.proxy.ProxyFactory}.
+ *
+ * @version $Revision$
+ */
+final class ScopedProxyGenerator
+{
+   /** The logger. */
+   private static final Log LOG = ExoLogger.getExoLogger(ScopedProxyGenerator.class);
+
+   private static final AtomicInteger COUNTER = new AtomicInteger();
+
+   /**
+    * The constructors of the proxy classes indexed by super class, <code>null</code> if no proxy class could
+    * be generated
+    */
+   private static final ClassValue<Constructor<?>> CONSTRUCTORS = new ClassValue<Constructor<?>>()
+   {
+      @Override
+      protected Constructor<?> computeValue(Class<?> type)
+      {
+         Map<String, Method> methods = getMethods(type);
+         if (methods == null)
+         {
+            return null;
+         }
+         try
+         {
+            return generate(type, methods.values());
+         }
+         catch (Exception e)
+         {
+            if (LOG.isDebugEnabled())
+            {
+               LOG.debug("Cannot generate a proxy class for " + type.getName() + ", a javassist proxy will be used", e);
+            }
+         }
+         catch (LinkageError e)
+         {
+            if (LOG.isDebugEnabled())
+            {
+               LOG.debug("Cannot generate a proxy class for " + type.getName() + ", a javassist proxy will be used", e);
+            }
+         }
+         return null;
+      }
+   };
+
+   private ScopedProxyGenerator()
+   {
+   }
+
+   /**
+    * Creates a proxy of the given super class that delegates all its calls to the instance provided by the
+    * given provider
+    * @return the proxy or <code>null</code> if no proxy class can be generated for the given super class
+    */
+   static <T> T createProxy(Class<T> superClass, Provider<T> provider) throws Exception
+   {
+      Constructor<?> constructor = CONSTRUCTORS.get(superClass);
+      return constructor == null ? null : superClass.cast(constructor.newInstance(provider));
+   }
+
+   /**
+    * Gives the methods to override indexed by signature
+    * @return the methods or <code>null</code> if at least one of them cannot be called directly from the
+    * package of the given class
+    */
+   private static Map<String, Method> getMethods(Class<?> type)
+   {
+      if (type.isInterface() || type.getClassLoader() == null || !ComponentAccessors.isAccessible(type, type))
+      {
+         return null;
+      }
+      try
+      {
+         if (Modifier.isPrivate(type.getDeclaredConstructor().getModifiers()))
+         {
+            return null;
+         }
+         // The generated class must see the same interface as this class
+         if (Class.forName(Provider.class.getName(), false, type.getClassLoader()) != Provider.class)
+         {
+            return null;
+         }
+      }
+      catch (NoSuchMethodException e)
+      {
+         return null;
+      }
+      catch (ClassNotFoundException e)
+      {
+         return null;
+      }
+      Map<String, Method> methods = new LinkedHashMap<String, Method>();
+      for (Method m : type.getMethods())
+      {
+         if (!addMethod(methods, m, type))
+         {
+            return null;
+         }
+      }
+      for (Class<?> c = type; c != Object.class; c = c.getSuperclass())
+      {
+         for (Method m : c.getDeclaredMethods())
+         {
+            int modifiers = m.getModifiers();
+            if (Modifier.isPublic(modifiers) || Modifier.isPrivate(modifiers))
+            {
+               continue;
+            }
+            else if (!Modifier.isProtected(modifiers)
+               && (c.getClassLoader() != type.getClassLoader() || !ComponentAccessors.getPackageName(c).equals(
+                  ComponentAccessors.getPackageName(type))))
+            {
+               // A package-private method of another package cannot be overridden
+               continue;
+            }
+            else if (!addMethod(methods, m, type))
+            {
+               return null;
+            }
+         }
+      }
+      return methods;
+   }
+
+   /**
+    * Adds the given method to the methods to override if needed
+    * @return <code>false</code> if the method cannot be called directly from the package of the given class,
+    * <code>true</code> otherwise
+    */
+   private static boolean addMethod(Map<String, Method> methods, Method m, Class<?> type)
+   {
+      int modifiers = m.getModifiers();
+      Class<?> declaringClass = m.getDeclaringClass();
+      if (Modifier.isStatic(modifiers) || Modifier.isFinal(modifiers) || m.isBridge() || m.isSynthetic()
+         || declaringClass == Object.class || (m.getName().equals("finalize") && m.getParameterTypes().length == 0))
+      {
+         // The methods of Object and the finalization of the proxy are not delegated to the contextual instance
+         return true;
+      }
+      String signature = m.getName() + Arrays.toString(m.getParameterTypes());
+      Method existing = methods.get(signature);
+      if (existing != null && m.getReturnType().isAssignableFrom(existing.getReturnType()))
+      {
+         // Already overridden by a method with the same or a more specific return type
+         return true;
+      }
+      if (Modifier.isProtected(modifiers)
+         && (declaringClass.getClassLoader() != type.getClassLoader() || !ComponentAccessors.getPackageName(
+            declaringClass).equals(ComponentAccessors.getPackageName(type))))
+      {
+         return false;
+      }
+      else if (!ComponentAccessors.isAccessible(declaringClass, type)
+         || !ComponentAccessors.isAccessible(m.getReturnType(), type))
+      {
+         return false;
+      }
+      for (Class<?> parameterType : m.getParameterTypes())
+      {
+         if (!ComponentAccessors.isAccessible(parameterType, type))
+         {
+            return false;
+         }
+      }
+      methods.put(signature, m);
+      return true;
+   }
+
+   private static Constructor<?> generate(Class<?> superClass, Iterable<Method> methods) throws Exception
+   {
+      ClassLoader loader = superClass.getClassLoader();
+      ClassPool pool = new ClassPool(false);
+      pool.appendClassPath(new LoaderClassPath(loader));
+      CtClass cc = pool.makeClass(superClass.getName() + "$$ExoScopedProxy$" + COUNTER.incrementAndGet());
+      try
+      {
+         cc.setSuperclass(pool.get(superClass.getName()));
+         cc.addField(CtField.make("private final javax.inject.Provider provider;", cc));
+         CtConstructor constructor = new CtConstructor(new CtClass[]{pool.get(Provider.class.getName())}, cc);
+         constructor.setBody("{ super(); this.provider = $1; }");
+         cc.addConstructor(constructor);
+         String target = "((" + getTypeName(superClass) + ")this.provider.get())";
+         for (Method m : methods)
+         {
+            StringBuilder body = new StringBuilder();
+            int modifiers = m.getModifiers();
+            if (Modifier.isPublic(modifiers))
+            {
+               body.append("public ");
+            }
+            else if (Modifier.isProtected(modifiers))
+            {
+               body.append("protected ");
+            }
+            Class<?> returnType = m.getReturnType();
+            body.append(getTypeName(returnType)).append(' ').append(m.getName()).append('(');
+            Class<?>[] parameterTypes = m.getParameterTypes();
+            for (int i = 0; i < parameterTypes.length; i++)
+            {
+               if (i > 0)
+               {
+                  body.append(", ");
+               }
+               body.append(getTypeName(parameterTypes[i])).append(" p").append(i);
+            }
+            body.append(") { ").append(returnType == void.class ? "" : "return ").append(target).append('.')
+               .append(m.getName()).append('(');
+            for (int i = 0; i < parameterTypes.length; i++)
+            {
+               if (i > 0)
+               {
+                  body.append(", ");
+               }
+               body.append('p').append(i);
+            }
+            body.append("); }");
+            cc.addMethod(CtNewMethod.make(body.toString(), cc));
+         }
+         Class<?> proxyClass = cc.toClass(loader, superClass.getProtectionDomain());
+         // Makes sure that the generated class is valid before using it
+         Class.forName(proxyClass.getName(), true, loader);
+         return proxyClass.getConstructor(Provider.class);
+      }
+      finally
+      {
+         cc.detach();
+      }
+   }
+
+   private static String getTypeName(Class<?> type)
+   {
+      return type.isArray() ? getTypeName(type.getComponentType()) + "[]" : type.getName();
+   }
+}
@@ -41,6 +41,7 @@ import org.exoplatform.container.context.DefinitionException;
 import org.exoplatform.container.jmx.AbstractTestContainer;
 import org.exoplatform.container.jmx.MX4JComponentAdapter;
 import org.exoplatform.container.spi.ComponentAdapter;
+import org.exoplatform.container.spi.ContainerException;
 import org.exoplatform.container.spi.DefinitionByName;
 import org.exoplatform.container.spi.DefinitionByQualifier;
 import org.exoplatform.container.spi.DefinitionByType;
@@ -62,6 +63,7 @@ import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Enumeration;
 import java.util.HashMap;
@@ -879,6 +881,179 @@ public class TestExoContainer
       assertNull(pcontainer.getComponentInstance("MyKey", String.class));
    }
 
+   @Test
+   public void testGetComponentAdaptersOfType()
+   {
+      RootContainer container = AbstractTestContainer.createRootContainer(getClass(), "test-exo-container.xml");
+      int objects = container.getComponentAdaptersOfType(Object.class).size();
+      List<ComponentAdapter<Serializable>> serializables = container.getComponentAdaptersOfType(Serializable.class);
+      ComponentAdapter<?> ca1 = container.registerComponentInstance("Indexed1", new MyIndexedClass());
+      ComponentAdapter<?> ca2 = container.registerComponentInstance("Indexed2", new MyIndexedSubClass());
+      ComponentAdapter<?> ca3 = container.registerComponentImplementation("Indexed3", MyIndexedSubClass.class);
+
+      // The adapters are found by implementation, superclass, direct or inherited interface
+      assertEquals(Arrays.asList(ca1, ca2, ca3), container.getComponentAdaptersOfType(MyIndexedClass.class));
+      assertEquals(Arrays.asList(ca2, ca3), container.getComponentAdaptersOfType(MyIndexedSubClass.class));
+      assertEquals(Arrays.asList(ca1, ca2, ca3), container.getComponentAdaptersOfType(MyIndexedInterface.class));
+      assertEquals(Arrays.asList(ca1, ca2, ca3), container.getComponentAdaptersOfType(MyIndexedSuperInterface.class));
+      List<ComponentAdapter<Serializable>> found = container.getComponentAdaptersOfType(Serializable.class);
+      assertEquals(serializables.size() + 2, found.size());
+      assertEquals(Arrays.asList(ca2, ca3), found.subList(serializables.size(), found.size()));
+      assertEquals(objects + 3, container.getComponentAdaptersOfType(Object.class).size());
+      assertTrue(container.getComponentAdaptersOfType(MyIndexedUnusedInterface.class).isEmpty());
+      assertEquals(3, container.getComponentInstancesOfType(MyIndexedSuperInterface.class).size());
+
+      container.unregisterComponent("Indexed2");
+      assertEquals(Arrays.asList(ca1, ca3), container.getComponentAdaptersOfType(MyIndexedSuperInterface.class));
+      found = container.getComponentAdaptersOfType(Serializable.class);
+      assertEquals(Arrays.asList(ca3), found.subList(serializables.size(), found.size()));
+      assertSame(ca3, container.getComponentAdapterOfType(MyIndexedSubClass.class));
+      container.unregisterComponent("Indexed3");
+      assertSame(ca1, container.getComponentAdapterOfType(MyIndexedSuperInterface.class));
+      assertTrue(container.getComponentAdaptersOfType(MyIndexedSubClass.class).isEmpty());
+      container.unregisterComponent("Indexed1");
+      assertTrue(container.getComponentAdaptersOfType(MyIndexedSuperInterface.class).isEmpty());
+      assertTrue(container.getComponentInstancesOfType(MyIndexedSuperInterface.class).isEmpty());
+      assertEquals(objects, container.getComponentAdaptersOfType(Object.class).size());
+
+      // The same implementation can be registered again
+      ca1 = container.registerComponentInstance("Indexed1", new MyIndexedClass());
+      assertEquals(Arrays.asList(ca1), container.getComponentAdaptersOfType(MyIndexedInterface.class));
+      container.unregisterComponent("Indexed1");
+   }
+
+   public static interface MyIndexedSuperInterface
+   {
+   }
+
+   public static interface MyIndexedInterface extends MyIndexedSuperInterface
+   {
+   }
+
+   public static interface MyIndexedUnusedInterface
+   {
+   }
+
+   public static class MyIndexedClass implements MyIndexedInterface
+   {
+   }
+
+   @SuppressWarnings("serial")
+   public static class MyIndexedSubClass extends MyIndexedClass implements Serializable
+   {
+   }
+
+   @Test
+   public void testCachingContainerInvalidation()
+   {
+      ExoContainer parent = new ExoContainer();
+      ExoContainer child = new ExoContainer(parent);
+      parent.registerComponentInstance("child", child);
+      MyIndexedClass indexed = new MyIndexedClass();
+      parent.registerComponentInstance("Indexed1", indexed);
+      MyClass unrelated = new MyClass();
+      parent.registerComponentInstance("Unrelated", unrelated);
+
+      assertSame(indexed, child.getComponentInstanceOfType(MyIndexedInterface.class));
+      assertSame(unrelated, parent.getComponentInstance("Unrelated"));
+      assertEquals(1, parent.getComponentInstancesOfType(MyIndexedSuperInterface.class).size());
+      long misses = child.getCacheStatistics().get("misses");
+      long hits = child.getCacheStatistics().get("hits");
+      assertSame(indexed, child.getComponentInstanceOfType(MyIndexedInterface.class));
+      assertEquals(hits + 1, child.getCacheStatistics().get("hits").longValue());
+
+      // A component of another type doesn't evict the cached lookups
+      parent.registerComponentInstance("Unrelated2", new MyClass());
+      assertSame(indexed, child.getComponentInstanceOfType(MyIndexedInterface.class));
+      assertEquals(hits + 2, child.getCacheStatistics().get("hits").longValue());
+      assertEquals(misses, child.getCacheStatistics().get("misses").longValue());
+      assertTrue(child.getCacheHitRatio() > 0);
+
+      // A component of a subtype evicts the lookups of its supertypes in the container and its children
+      parent.registerComponentInstance("Indexed2", new MyIndexedSubClass());
+      assertEquals(2, parent.getComponentInstancesOfType(MyIndexedSuperInterface.class).size());
+      try
+      {
+         child.getComponentInstanceOfType(MyIndexedInterface.class);
+         fail("A ContainerException was expected");
+      }
+      catch (ContainerException e)
+      {
+         // expected as there are now two implementations
+      }
+      parent.unregisterComponent("Indexed2");
+      assertSame(indexed, child.getComponentInstanceOfType(MyIndexedInterface.class));
+      assertEquals(1, parent.getComponentInstancesOfType(MyIndexedSuperInterface.class).size());
+
+      // The lookups by key are evicted by key
+      assertSame(unrelated, parent.getComponentInstance("Unrelated"));
+      parent.unregisterComponent("Unrelated");
+      assertNull(parent.getComponentInstance("Unrelated"));
+      assertTrue(parent.getCacheStatistics().get("evictions") > 0);
+   }
+
+   @Test
+   public void testNegativeLookupCache()
+   {
+      ExoContainer parent = new ExoContainer();
+      ExoContainer child = new ExoContainer(parent);
+      parent.registerComponentInstance("child", child);
+      assertTrue(child.isNegativeLookupCacheEnabled());
+
+      assertNull(child.getComponentInstanceOfType(MyIndexedInterface.class));
+      assertNull(child.getComponentInstance("Missing"));
+      assertEquals(0, child.getCacheStatistics().get("negativeHits").longValue());
+      assertNull(child.getComponentInstanceOfType(MyIndexedInterface.class));
+      assertNull(child.getComponentInstance("Missing"));
+      assertNull(child.getComponentAdapterOfType(MyIndexedInterface.class));
+      assertNull(child.getComponentAdapterOfType(MyIndexedInterface.class));
+      assertEquals(3, child.getCacheStatistics().get("negativeHits").longValue());
+
+      // The missing lookups are evicted when a matching component is registered in a parent container
+      MyIndexedClass indexed = new MyIndexedClass();
+      parent.registerComponentInstance("Indexed1", indexed);
+      assertSame(indexed, child.getComponentInstanceOfType(MyIndexedInterface.class));
+      assertNotNull(child.getComponentAdapterOfType(MyIndexedInterface.class));
+      MyClass missing = new MyClass();
+      parent.registerComponentInstance("Missing", missing);
+      assertSame(missing, child.getComponentInstance("Missing"));
+      parent.unregisterComponent("Indexed1");
+      assertNull(child.getComponentInstanceOfType(MyIndexedInterface.class));
+
+      // A lookup without auto registration doesn't prevent a later auto registration
+      ExoContainer container = new ExoContainer();
+      assertNull(container.getComponentInstanceOfType(MyAutoRegistered.class, false));
+      assertNull(container.getComponentInstanceOfType(MyAutoRegistered.class, false));
+      assertNotNull(container.getComponentInstanceOfType(MyAutoRegistered.class));
+
+      // The negative lookup cache can be disabled per container
+      child.setNegativeLookupCacheEnabled(false);
+      assertFalse(child.isNegativeLookupCacheEnabled());
+      assertTrue(parent.isNegativeLookupCacheEnabled());
+      long negativeHits = child.getCacheStatistics().get("negativeHits");
+      assertNull(child.getComponentInstanceOfType(MyIndexedUnusedInterface.class));
+      assertNull(child.getComponentInstanceOfType(MyIndexedUnusedInterface.class));
+      assertEquals(negativeHits, child.getCacheStatistics().get("negativeHits").longValue());
+
+      // The amount of missing keys that are cached is bounded
+      container = new ExoContainer();
+      for (int i = 0; i < CachingContainer.MAX_MISSING_KEYS; i++)
+      {
+         assertNull(container.getComponentInstance("Missing" + i));
+      }
+      negativeHits = container.getCacheStatistics().get("negativeHits");
+      assertNull(container.getComponentInstance("Missing0"));
+      assertEquals(negativeHits + 1, container.getCacheStatistics().get("negativeHits").longValue());
+      assertNull(container.getComponentInstance("MissingAfterLimit"));
+      assertNull(container.getComponentInstance("MissingAfterLimit"));
+      assertEquals(negativeHits + 1, container.getCacheStatistics().get("negativeHits").longValue());
+   }
+
+   @DefinitionByType(target = ExoContainer.class)
+   public static class MyAutoRegistered
+   {
+   }
+
    @Test
    public void testStart()
    {
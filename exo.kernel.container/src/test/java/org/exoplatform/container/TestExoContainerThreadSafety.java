@@ -21,6 +21,8 @@ package org.exoplatform.container;
 import static junit.framework.Assert.assertEquals;
 import static junit.framework.Assert.assertFalse;
 import static junit.framework.Assert.assertNotNull;
+import static junit.framework.Assert.assertNull;
+import static junit.framework.Assert.assertTrue;
 
 import org.databene.contiperf.PerfTest;
 import org.databene.contiperf.junit.ContiPerfRule;
@@ -35,6 +37,7 @@ import org.junit.Test;
 
 import java.util.concurrent.BrokenBarrierException;
 import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 
 /**
@@ -52,6 +55,7 @@ public class TestExoContainerThreadSafety
    private CyclicBarrier startSignal = new CyclicBarrier(TOTAL_THREADS);
    private AtomicReference<MyMTClass> currentMyClass = new AtomicReference<MyMTClass>();
    private AtomicReference<ComponentAdapter<?>> ar = new AtomicReference<ComponentAdapter<?>>();
+   private AtomicBoolean registered = new AtomicBoolean();
    private RootContainer container;
 
    @Before
@@ -121,4 +125,76 @@ public class TestExoContainerThreadSafety
       assertFalse(container.getComponentInstancesOfType(MyClass.class).isEmpty());
       assertNotNull(container.unregisterComponent(key));
    }
+
+   @Test
+   @PerfTest(invocations = TOTAL_THREADS, threads = TOTAL_THREADS)
+   public void registerNGetByType() throws InterruptedException, BrokenBarrierException
+   {
+      // Needed to make sure that all threads start at the same time
+      startSignal.await();
+      final Object key = new Object();
+      ComponentAdapter<?> adapter = container.registerComponentInstance(key, new MyTypedClass());
+      assertTrue(container.getComponentAdaptersOfType(MyType.class).contains(adapter));
+      // Needed to make sure that all threads start at the same time
+      startSignal.await();
+      assertEquals(TOTAL_THREADS, container.getComponentAdaptersOfType(MyType.class).size());
+      assertEquals(TOTAL_THREADS, container.getComponentAdaptersOfType(MyTypedClass.class).size());
+      assertEquals(TOTAL_THREADS, container.getComponentInstancesOfType(MyType.class).size());
+      // Needed to make sure that all threads start at the same time
+      startSignal.await();
+      container.unregisterComponent(key);
+      assertFalse(container.getComponentAdaptersOfType(MyType.class).contains(adapter));
+      // Needed to make sure that all threads start at the same time
+      startSignal.await();
+      assertTrue(container.getComponentAdaptersOfType(MyType.class).isEmpty());
+      assertTrue(container.getComponentInstancesOfType(MyTypedClass.class).isEmpty());
+   }
+
+   @Test
+   @PerfTest(invocations = TOTAL_THREADS, threads = TOTAL_THREADS)
+   public void registerWhileMissing() throws InterruptedException, BrokenBarrierException
+   {
+      // Needed to make sure that all threads start at the same time
+      startSignal.await();
+      assertNull(container.getComponentInstanceOfType(MyLateType.class));
+      // Needed to make sure that all threads start at the same time
+      startSignal.await();
+      // The lookups that find nothing race with the registration
+      container.getComponentInstanceOfType(MyLateType.class);
+      if (registered.compareAndSet(false, true))
+      {
+         container.registerComponentInstance("late", new MyLateTypedClass());
+      }
+      container.getComponentInstance("late");
+      // Needed to make sure that all threads start at the same time
+      startSignal.await();
+      assertNotNull(container.getComponentInstanceOfType(MyLateType.class));
+      assertNotNull(container.getComponentInstance("late"));
+      // Needed to make sure that all threads start at the same time
+      startSignal.await();
+      if (registered.compareAndSet(true, false))
+      {
+         container.unregisterComponent("late");
+      }
+      // Needed to make sure that all threads start at the same time
+      startSignal.await();
+      assertNull(container.getComponentInstanceOfType(MyLateType.class));
+      assertNull(container.getComponentInstance("late"));
+   }
+
+   public static interface MyLateType
+   {
+   }
+
+   public static class MyLateTypedClass implements MyLateType
+   {
+   }
+
+   public static interface MyType
+   {
+   }
+
+   public static class MyTypedClass implements MyType
+   {
+   }
 }
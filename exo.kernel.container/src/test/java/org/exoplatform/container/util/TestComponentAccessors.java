@@ -0,0 +1,239 @@
+/*
+ * Copyright (C) 2026 eXo Platform SAS.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.exoplatform.container.util;
+
+import junit.framework.TestCase;
+
+import org.exoplatform.container.ExoContainer;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+import javax.inject.Inject;
+
+/**
+ * @version $Revision$
+ */
+public class TestComponentAccessors extends TestCase
+{
+   private boolean generationEnabled;
+
+   @Override
+   protected void setUp() throws Exception
+   {
+      super.setUp();
+      generationEnabled = ComponentAccessors.isGenerationEnabled();
+      ComponentAccessors.setGenerationEnabled(true);
+   }
+
+   @Override
+   protected void tearDown() throws Exception
+   {
+      ComponentAccessors.setGenerationEnabled(generationEnabled);
+      super.tearDown();
+   }
+
+   public void testConstructor() throws Exception
+   {
+      Constructor<MyComponent> constructor = MyComponent.class.getConstructor(String.class, int.class);
+      ComponentAccessor accessor = ComponentAccessors.getAccessor(constructor);
+      assertTrue(isGenerated(accessor));
+      assertSame(accessor, ComponentAccessors.getAccessor(constructor));
+      MyComponent component = ComponentAccessors.newInstance(constructor, new Object[]{"a", 2});
+      assertEquals("a", component.value);
+      assertEquals(2, component.count);
+
+      // Package-private constructor
+      constructor = MyComponent.class.getDeclaredConstructor(String.class);
+      assertTrue(isGenerated(ComponentAccessors.getAccessor(constructor)));
+      assertEquals("b", ComponentAccessors.newInstance(constructor, new Object[]{"b"}).value);
+
+      // Private constructor
+      constructor = MyComponent.class.getDeclaredConstructor();
+      assertFalse(isGenerated(ComponentAccessors.getAccessor(constructor)));
+      assertEquals("c", ComponentAccessors.newInstance(constructor, new Object[0]).value);
+
+      // Private parameter type
+      constructor = MyComponent.class.getDeclaredConstructor(MyPrivateType.class);
+      assertFalse(isGenerated(ComponentAccessors.getAccessor(constructor)));
+      assertEquals("d", ComponentAccessors.newInstance(constructor, new Object[]{new MyPrivateType()}).value);
+
+      try
+      {
+         ComponentAccessors.newInstance(MyComponent.class.getConstructor(String.class, int.class), new Object[]{
+            null, 0});
+         fail("An InvocationTargetException is expected");
+      }
+      catch (InvocationTargetException e)
+      {
+         assertTrue(e.getCause() instanceof IllegalArgumentException);
+      }
+   }
+
+   public void testField() throws Exception
+   {
+      MyComponent component = new MyComponent("a", 1);
+      Field field = MyComponent.class.getDeclaredField("value");
+      assertTrue(isGenerated(ComponentAccessors.getAccessor(field)));
+      ComponentAccessors.set(field, component, "b");
+      assertEquals("b", component.value);
+
+      field = MyComponent.class.getDeclaredField("count");
+      ComponentAccessors.set(field, component, 3);
+      assertEquals(3, component.count);
+
+      field = MyComponent.class.getDeclaredField("secret");
+      assertFalse(isGenerated(ComponentAccessors.getAccessor(field)));
+      ComponentAccessors.set(field, component, "c");
+      assertEquals("c", component.secret);
+   }
+
+   public void testMethod() throws Exception
+   {
+      MyComponent component = new MySubComponent();
+      Method method = MyComponent.class.getDeclaredMethod("setValue", String.class);
+      assertTrue(isGenerated(ComponentAccessors.getAccessor(method)));
+      ComponentAccessors.invoke(method, component, new Object[]{"b"});
+      // The method is overridden
+      assertEquals("sub-b", component.value);
+
+      method = MyComponent.class.getDeclaredMethod("setSecret", String.class);
+      assertFalse(isGenerated(ComponentAccessors.getAccessor(method)));
+      ComponentAccessors.invoke(method, component, new Object[]{"c"});
+      assertEquals("c", component.secret);
+
+      try
+      {
+         ComponentAccessors.invoke(MyComponent.class.getDeclaredMethod("setValue", String.class), new MyComponent(
+            "a", 1), new Object[]{null});
+         fail("An InvocationTargetException is expected");
+      }
+      catch (InvocationTargetException e)
+      {
+         assertTrue(e.getCause() instanceof IllegalArgumentException);
+      }
+   }
+
+   public void testContainer() throws Exception
+   {
+      ExoContainer container = new ExoContainer();
+      container.registerComponentInstance(MyComponent.class, new MyComponent("a", 1));
+      container.registerComponentImplementation(MyInjectedComponent.class);
+      MyInjectedComponent component = container.getComponentInstanceOfType(MyInjectedComponent.class);
+      assertNotNull(component);
+      assertNotNull(component.constructorValue);
+      assertSame(component.constructorValue, component.fieldValue);
+      assertSame(component.constructorValue, component.methodValue);
+   }
+
+   private static boolean isGenerated(ComponentAccessor accessor)
+   {
+      return accessor.getClass().getName().contains("$$ExoAccessor$");
+   }
+
+   public static class MyComponent
+   {
+      String value;
+
+      int count;
+
+      private String secret;
+
+      public MyComponent(String value, int count)
+      {
+         if (value == null)
+         {
+            throw new IllegalArgumentException("The value cannot be null");
+         }
+         this.value = value;
+         this.count = count;
+      }
+
+      MyComponent(String value)
+      {
+         this.value = value;
+      }
+
+      private MyComponent()
+      {
+         this.value = "c";
+      }
+
+      MyComponent(MyPrivateType type)
+      {
+         this.value = "d";
+      }
+
+      void setValue(String value)
+      {
+         if (value == null)
+         {
+            throw new IllegalArgumentException("The value cannot be null");
+         }
+         this.value = value;
+      }
+
+      private void setSecret(String secret)
+      {
+         this.secret = secret;
+      }
+   }
+
+   public static class MySubComponent extends MyComponent
+   {
+      public MySubComponent()
+      {
+         super("a", 1);
+      }
+
+      @Override
+      void setValue(String value)
+      {
+         super.setValue("sub-" + value);
+      }
+   }
+
+   private static class MyPrivateType
+   {
+   }
+
+   public static class MyInjectedComponent
+   {
+      final MyComponent constructorValue;
+
+      @Inject
+      MyComponent fieldValue;
+
+      MyComponent methodValue;
+
+      @Inject
+      public MyInjectedComponent(MyComponent constructorValue)
+      {
+         this.constructorValue = constructorValue;
+      }
+
+      @Inject
+      void setMethodValue(MyComponent methodValue)
+      {
+         this.methodValue = methodValue;
+      }
+   }
+}
@@ -27,8 +27,10 @@ import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
 import java.net.URL;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
+import javax.inject.Provider;
 import javax.servlet.ServletContext;
 
 /**
@@ -123,4 +125,101 @@ public class TestContainerUtil extends TestCase {
       return new ExoEnumeration(resources.iterator());
     }
   }
+
+  public void testCreateProxy() throws Exception {
+    final MyScopedComponent component = new MyScopedComponent();
+    final AtomicInteger calls = new AtomicInteger();
+    MyScopedComponent proxy = ContainerUtil.createProxy(MyScopedComponent.class, new Provider<MyScopedComponent>() {
+      public MyScopedComponent get() {
+        calls.incrementAndGet();
+        return component;
+      }
+    });
+    assertNotSame(component, proxy);
+    // The methods are called directly on the provided instance
+    assertTrue(proxy.getClass().getName().startsWith(MyScopedComponent.class.getName() + "$$ExoScopedProxy$"));
+    assertEquals(0, calls.get());
+    proxy.setValue("a");
+    assertEquals("a", component.value);
+    assertNull(proxy.value);
+    assertEquals("a", proxy.getValue());
+    assertEquals(3, proxy.add(1, 2));
+    assertEquals(3L, proxy.add(1L, 2L));
+    assertEquals("a", proxy.getProtectedValue());
+    assertEquals("a", proxy.getPackageValue());
+    assertEquals(2, proxy.concat(new String[]{"a", "b"}).size());
+    assertEquals("a", proxy.toString());
+    assertEquals(8, calls.get());
+    try {
+      proxy.fail();
+      fail("An exception was expected");
+    } catch (IOException e) {
+      // The checked exceptions are not wrapped
+      assertEquals("a", e.getMessage());
+    }
+    assertSame(proxy.getClass(), ContainerUtil.createProxy(MyScopedComponent.class, new Provider<MyScopedComponent>() {
+      public MyScopedComponent get() {
+        return component;
+      }
+    }).getClass());
+
+    // A protected method of another package cannot be called directly so a javassist proxy is used
+    final MyObservableComponent observable = new MyObservableComponent();
+    MyObservableComponent observableProxy = ContainerUtil.createProxy(MyObservableComponent.class, new Provider<MyObservableComponent>() {
+      public MyObservableComponent get() {
+        return observable;
+      }
+    });
+    assertFalse(observableProxy.getClass().getName().contains("$$ExoScopedProxy$"));
+    observableProxy.change();
+    assertTrue(observable.hasChanged());
+    assertTrue(observableProxy.hasChanged());
+  }
+
+  public static class MyScopedComponent {
+    String value;
+
+    public void setValue(String value) {
+      this.value = value;
+    }
+
+    public String getValue() {
+      return value;
+    }
+
+    public int add(int a, int b) {
+      return a + b;
+    }
+
+    public long add(long a, long b) {
+      return a + b;
+    }
+
+    protected String getProtectedValue() {
+      return value;
+    }
+
+    String getPackageValue() {
+      return value;
+    }
+
+    public List<String> concat(String[] values) {
+      return Arrays.asList(values);
+    }
+
+    public void fail() throws IOException {
+      throw new IOException(value);
+    }
+
+    @Override
+    public String toString() {
+      return value;
+    }
+  }
+
+  public static class MyObservableComponent extends Observable {
+    public void change() {
+      setChanged();
+    }
+  }
 }